@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.text.tests.performance.EditorTestHelper;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
+import org.eclipse.jface.text.reconciler.DirtyRegion;
+import org.eclipse.jface.text.reconciler.IReconcilingStrategy;
+
+import org.eclipse.jdt.ui.text.IJavaPartitions;
+
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jdt.internal.ui.text.JavaCompositeReconcilingStrategy;
+
+/**
+ * Tests that the Java reconciling strategy stops running its strategies once the document has
+ * been modified during a reconcile.
+ */
+public class JavaCompositeReconcilingStrategyTest extends TestCase {
+
+	private static final String JAVA= "java";
+	private static final String SPELLING= "spelling";
+
+	/**
+	 * Strategy that records its runs and optionally modifies the document.
+	 */
+	private class RecordingStrategy implements IReconcilingStrategy {
+
+		private final String fName;
+		private final boolean fModify;
+		private IDocument fStrategyDocument;
+
+		RecordingStrategy(String name, boolean modify) {
+			fName= name;
+			fModify= modify;
+		}
+
+		@Override
+		public void setDocument(IDocument document) {
+			fStrategyDocument= document;
+		}
+
+		@Override
+		public void reconcile(DirtyRegion dirtyRegion, IRegion subRegion) {
+			reconcile(subRegion);
+		}
+
+		@Override
+		public void reconcile(IRegion partition) {
+			fRuns.add(fName);
+			if (fModify) {
+				try {
+					// simulates typing while the strategy runs
+					fStrategyDocument.replace(0, 0, " ");
+				} catch (BadLocationException e) {
+					fail();
+				}
+			}
+		}
+	}
+
+	private JavaEditor fEditor;
+	private IDocument fDocument;
+	private JavaCompositeReconcilingStrategy fStrategy;
+	private final List<String> fRuns= new ArrayList<>();
+
+	public static Test setUpTest(Test someTest) {
+		return new JUnitProjectTestSetup(someTest);
+	}
+
+	public static Test suite() {
+		return setUpTest(new TestSuite(JavaCompositeReconcilingStrategyTest.class));
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		IFile file= ResourcesPlugin.getWorkspace().getRoot().getFile(new Path("/" + JUnitProjectTestSetup.getProject().getElementName() + "/src/junit/framework/TestCase.java"));
+		assertTrue(file.exists());
+		fEditor= (JavaEditor) EditorTestHelper.openInEditor(file, true);
+		assertNotNull(fEditor);
+		fDocument= new Document("class A {\n}\n");
+		fStrategy= new JavaCompositeReconcilingStrategy(fEditor.getViewer(), fEditor, IJavaPartitions.JAVA_PARTITIONING);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		EditorTestHelper.closeAllEditors();
+	}
+
+	private void setStrategies(boolean modify) {
+		fStrategy.setReconcilingStrategies(new IReconcilingStrategy[] {
+			new RecordingStrategy(JAVA, modify),
+			new RecordingStrategy(SPELLING, false)
+		});
+		fStrategy.setDocument(fDocument);
+		fStrategy.setProgressMonitor(new NullProgressMonitor());
+	}
+
+	private void reconcile() {
+		fRuns.clear();
+		fStrategy.reconcile(new Region(0, fDocument.getLength()));
+	}
+
+	public void testUnmodifiedDocument() throws Exception {
+		setStrategies(false);
+		reconcile();
+		assertEquals(2, fRuns.size());
+		assertEquals(JAVA, fRuns.get(0));
+		assertEquals(SPELLING, fRuns.get(1));
+	}
+
+	public void testModifiedDocumentSkipsSpelling() throws Exception {
+		setStrategies(true);
+		reconcile();
+		assertEquals(1, fRuns.size());
+		assertEquals(JAVA, fRuns.get(0));
+	}
+
+	public void testNextReconcileNotCanceled() throws Exception {
+		setStrategies(true);
+		reconcile();
+		assertEquals(1, fRuns.size());
+
+		// the stamp of the next reconcile is taken from the modified document
+		setStrategies(false);
+		reconcile();
+		assertEquals(2, fRuns.size());
+	}
+
+	public void testCanceledMonitor() throws Exception {
+		setStrategies(false);
+		NullProgressMonitor monitor= new NullProgressMonitor();
+		monitor.setCanceled(true);
+		fStrategy.setProgressMonitor(monitor);
+		reconcile();
+		assertEquals(0, fRuns.size());
+	}
+}
@@ -68,6 +68,8 @@ public class JdtTextTestSuite {
 		suite.addTest(IndentActionTest.suite());
 		suite.addTest(TemplatesTestSuite.suite());
 		suite.addTest(JavaElementPrefixPatternMatcherTest.suite());
+		suite.addTest(ReconcileStatisticsTest.suite());
+		suite.addTest(JavaCompositeReconcilingStrategyTest.suite());
 		//$JUnit-END$
 
 		return suite;
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests;
+
+import java.io.StringWriter;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.text.ReconcileStatistics;
+
+public class ReconcileStatisticsTest extends TestCase {
+
+	private static final String STAGE_A= "A";
+	private static final String STAGE_B= "B";
+
+	public static Test suite() {
+		return new TestSuite(ReconcileStatisticsTest.class);
+	}
+
+	/*
+	 * Records a sample that took at least the given number of nanoseconds.
+	 */
+	private static void record(ReconcileStatistics statistics, String stage, long duration) {
+		statistics.record(stage, System.nanoTime() - duration);
+	}
+
+	public void testDisabled() throws Exception {
+		ReconcileStatistics statistics= new ReconcileStatistics(false);
+		statistics.record(STAGE_A, ReconcileStatistics.now());
+		assertEquals(0, statistics.getCount(STAGE_A));
+		assertEquals(0, statistics.getStages().length);
+		assertEquals(-1, statistics.getPercentile(STAGE_A, 50));
+	}
+
+	public void testDebugOption() throws Exception {
+		boolean debug= JavaPlugin.DEBUG_RECONCILE_STATISTICS;
+		try {
+			ReconcileStatistics statistics= new ReconcileStatistics();
+			JavaPlugin.DEBUG_RECONCILE_STATISTICS= false;
+			statistics.record(STAGE_A, ReconcileStatistics.now());
+			assertEquals(0, statistics.getCount(STAGE_A));
+
+			// the option is enabled after the statistics have been created
+			JavaPlugin.DEBUG_RECONCILE_STATISTICS= true;
+			statistics.record(STAGE_A, ReconcileStatistics.now());
+			assertEquals(1, statistics.getCount(STAGE_A));
+
+			JavaPlugin.DEBUG_RECONCILE_STATISTICS= false;
+			statistics.record(STAGE_A, ReconcileStatistics.now());
+			assertEquals(1, statistics.getCount(STAGE_A));
+		} finally {
+			JavaPlugin.DEBUG_RECONCILE_STATISTICS= debug;
+		}
+	}
+
+	public void testRecord() throws Exception {
+		ReconcileStatistics statistics= new ReconcileStatistics(true);
+		statistics.record(STAGE_B, ReconcileStatistics.now());
+		statistics.record(STAGE_A, ReconcileStatistics.now());
+		statistics.record(STAGE_B, ReconcileStatistics.now());
+
+		assertEquals(2, statistics.getCount(STAGE_B));
+		assertEquals(1, statistics.getCount(STAGE_A));
+		assertEquals(0, statistics.getCount("C"));
+		String[] stages= statistics.getStages();
+		assertEquals(2, stages.length);
+		assertEquals(STAGE_B, stages[0]); // in the order of the first sample
+		assertEquals(STAGE_A, stages[1]);
+
+		statistics.clear();
+		assertEquals(0, statistics.getCount(STAGE_A));
+	}
+
+	public void testPercentile() throws Exception {
+		ReconcileStatistics statistics= new ReconcileStatistics(true);
+		long millis= 1000000;
+		// 1 ms to 100 ms, in random order
+		for (int i= 0; i < 100; i++) {
+			int n= (i * 37) % 100 + 1;
+			record(statistics, STAGE_A, n * millis);
+		}
+		assertEquals(100, statistics.getCount(STAGE_A));
+		assertBetween(1 * millis, statistics.getPercentile(STAGE_A, 0));
+		assertBetween(50 * millis, statistics.getPercentile(STAGE_A, 50));
+		assertBetween(90 * millis, statistics.getPercentile(STAGE_A, 90));
+		assertBetween(100 * millis, statistics.getPercentile(STAGE_A, 100));
+	}
+
+	public void testOnlyLatestSamplesKept() throws Exception {
+		ReconcileStatistics statistics= new ReconcileStatistics(true);
+		long millis= 1000000;
+		for (int i= 0; i < 512; i++) {
+			record(statistics, STAGE_A, 100 * millis);
+		}
+		for (int i= 0; i < 512; i++) {
+			record(statistics, STAGE_A, 1 * millis);
+		}
+		assertEquals(1024, statistics.getCount(STAGE_A));
+		assertBetween(1 * millis, statistics.getPercentile(STAGE_A, 100));
+	}
+
+	/*
+	 * The recorded duration is measured, so it may be a bit longer than the given one.
+	 */
+	private static void assertBetween(long expected, long actual) {
+		assertTrue("expected " + expected + ", was " + actual, actual >= expected && actual < expected + 500000);
+	}
+
+	public void testWriteTraceOrdering() throws Exception {
+		ReconcileStatistics statistics= new ReconcileStatistics(true);
+		long now= ReconcileStatistics.now();
+		// recorded in a different order than they started
+		statistics.record(STAGE_A, now - 3000);
+		statistics.record(STAGE_B, now - 5000);
+		statistics.record(STAGE_A, now - 1000);
+		statistics.record(STAGE_B, now - 2000);
+
+		StringWriter writer= new StringWriter();
+		statistics.writeTrace(writer);
+		String[] lines= writer.toString().split("\n");
+		assertEquals(5, lines.length);
+		assertEquals("start,duration,stage", lines[0]);
+		String[] expectedStages= { STAGE_B, STAGE_A, STAGE_B, STAGE_A };
+		long[] expectedStarts= { now - 5000, now - 3000, now - 2000, now - 1000 };
+		for (int i= 0; i < expectedStages.length; i++) {
+			String[] columns= lines[i + 1].split(",");
+			assertEquals(3, columns.length);
+			assertEquals(expectedStarts[i], Long.parseLong(columns[0]));
+			assertTrue(Long.parseLong(columns[1]) >= now - expectedStarts[i]);
+			assertEquals(expectedStages[i], columns[2]);
+		}
+	}
+}
@@ -31,6 +31,7 @@ public class AllRefactoringTests {
 		suite.addTest(ExtractMethodTests18.suite());
 		suite.addTest(InlineMethodTests.suite());
 		suite.addTest(InlineMethodTests18.suite());
+		suite.addTest(FlowInfoCacheTests.suite());
 		suite.addTest(ReplaceInvocationsTests.suite());
 		suite.addTest(SefTests.suite());
 		suite.addTest(InlineTempTests.suite());
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.refactoring;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.dom.WhileStatement;
+
+import org.eclipse.jdt.internal.corext.dom.LocalVariableIndex;
+import org.eclipse.jdt.internal.corext.dom.Selection;
+import org.eclipse.jdt.internal.corext.refactoring.code.flow.FlowContext;
+import org.eclipse.jdt.internal.corext.refactoring.code.flow.FlowInfo;
+import org.eclipse.jdt.internal.corext.refactoring.code.flow.FlowInfoCache;
+import org.eclipse.jdt.internal.corext.refactoring.code.flow.InOutFlowAnalyzer;
+import org.eclipse.jdt.internal.corext.refactoring.code.flow.InputFlowAnalyzer;
+import org.eclipse.jdt.internal.corext.refactoring.util.RefactoringASTParser;
+
+import org.eclipse.jdt.internal.ui.javaeditor.ASTProvider;
+
+/**
+ * Tests that the input and in-out flow analyses compute the same flow infos with and without
+ * a {@link FlowInfoCache}.
+ */
+public class FlowInfoCacheTests extends TestCase {
+
+	private static final Class<FlowInfoCacheTests> clazz= FlowInfoCacheTests.class;
+
+	private static final int[] MODES= { FlowInfo.READ, FlowInfo.READ_POTENTIAL, FlowInfo.WRITE, FlowInfo.WRITE_POTENTIAL, FlowInfo.UNKNOWN };
+
+	private ICompilationUnit fCU;
+	private MethodDeclaration fMethod;
+	private int fMaxVariableId;
+
+	public FlowInfoCacheTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new RefactoringTestSetup(new TestSuite(clazz));
+	}
+
+	public static Test setUpTest(Test someTest) {
+		return new RefactoringTestSetup(someTest);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		StringBuffer buf= new StringBuffer();
+		buf.append("package p;\n");
+		buf.append("public class A {\n");
+		buf.append("\tint foo(int a, int b) {\n");
+		buf.append("\t\tint x= a;\n");
+		buf.append("\t\tint y= b;\n");
+		buf.append("\t\tfor (int i= 0; i < a; i++) {\n");
+		buf.append("\t\t\tx+= i;\n");
+		buf.append("\t\t\tif (x > b)\n");
+		buf.append("\t\t\t\tbreak;\n");
+		buf.append("\t\t\ty= x;\n");
+		buf.append("\t\t}\n");
+		buf.append("\t\twhile (y > 0)\n");
+		buf.append("\t\t\ty--;\n");
+		buf.append("\t\tif (x > y)\n");
+		buf.append("\t\t\treturn x;\n");
+		buf.append("\t\tint z= x + y;\n");
+		buf.append("\t\treturn z;\n");
+		buf.append("\t}\n");
+		buf.append("}\n");
+		fCU= RefactoringTestSetup.getPackageP().createCompilationUnit("A.java", buf.toString(), true, null);
+
+		CompilationUnit root= new RefactoringASTParser(ASTProvider.SHARED_AST_LEVEL).parse(fCU, true);
+		fMethod= ((TypeDeclaration) root.types().get(0)).getMethods()[0];
+		fMaxVariableId= LocalVariableIndex.perform(fMethod);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fCU.delete(true, null);
+	}
+
+	private List<Statement> getStatements() {
+		final List<Statement> result= new ArrayList<>();
+		fMethod.getBody().accept(new ASTVisitor() {
+			@Override
+			public void preVisit(ASTNode node) {
+				if (node instanceof Statement && !(node instanceof Block))
+					result.add((Statement) node);
+			}
+		});
+		return result;
+	}
+
+	private FlowContext createFlowContext() {
+		FlowContext context= new FlowContext(0, fMaxVariableId + 1);
+		context.setConsiderAccessMode(true);
+		context.setComputeMode(FlowContext.ARGUMENTS);
+		return context;
+	}
+
+	private static String describe(FlowInfo info, FlowContext context) {
+		StringBuffer buf= new StringBuffer();
+		for (int i= 0; i < MODES.length; i++) {
+			IVariableBinding[] locals= info.get(context, MODES[i]);
+			String[] names= new String[locals.length];
+			for (int j= 0; j < locals.length; j++) {
+				names[j]= locals[j].getName();
+			}
+			Arrays.sort(names);
+			buf.append(MODES[i]).append(Arrays.asList(names)).append('\n');
+		}
+		buf.append("undefined: ").append(info.isUndefined()).append('\n');
+		buf.append("no return: ").append(info.isNoReturn()).append('\n');
+		buf.append("partial return: ").append(info.isPartialReturn()).append('\n');
+		buf.append("void return: ").append(info.isVoidReturn()).append('\n');
+		buf.append("value return: ").append(info.isValueReturn()).append('\n');
+		buf.append("throw: ").append(info.isThrow()).append('\n');
+		buf.append("branches: ").append(info.branches()).append('\n');
+		return buf.toString();
+	}
+
+	private void assertSameFlowInfo(FlowInfoCache cache, Statement statement, boolean doLoopReentrance) {
+		Selection selection= Selection.createFromStartLength(statement.getStartPosition(), statement.getLength());
+
+		FlowContext expectedContext= createFlowContext();
+		FlowInfo expected= new InputFlowAnalyzer(expectedContext, selection, doLoopReentrance).perform(fMethod);
+
+		FlowContext actualContext= createFlowContext();
+		FlowInfo actual= new InputFlowAnalyzer(actualContext, selection, doLoopReentrance, cache).perform(fMethod);
+
+		assertEquals(statement.toString(), describe(expected, expectedContext), describe(actual, actualContext));
+	}
+
+	private void assertSameInOutFlowInfo(FlowInfoCache cache, Statement statement) {
+		ASTNode[] selection= new ASTNode[] { statement };
+
+		FlowContext expectedContext= createFlowContext();
+		expectedContext.setComputeMode(FlowContext.MERGE);
+		FlowInfo expected= new InOutFlowAnalyzer(expectedContext).perform(selection);
+
+		FlowContext actualContext= createFlowContext();
+		actualContext.setComputeMode(FlowContext.MERGE);
+		FlowInfo actual= new InOutFlowAnalyzer(actualContext, cache).perform(selection);
+
+		assertEquals(statement.toString(), describe(expected, expectedContext), describe(actual, actualContext));
+	}
+
+	public void testSameFlowInfo() throws Exception {
+		List<Statement> statements= getStatements();
+		FlowInfoCache cache= new FlowInfoCache();
+		// the second round answers the statements after each selection from the cache
+		for (int round= 0; round < 2; round++) {
+			for (int i= 0; i < statements.size(); i++) {
+				assertSameFlowInfo(cache, statements.get(i), true);
+				assertSameFlowInfo(cache, statements.get(i), false);
+			}
+		}
+	}
+
+	public void testReversedSelections() throws Exception {
+		// selections moving towards the start of the method see more and more cached statements
+		List<Statement> statements= getStatements();
+		FlowInfoCache cache= new FlowInfoCache();
+		for (int i= statements.size() - 1; i >= 0; i--) {
+			assertSameFlowInfo(cache, statements.get(i), true);
+		}
+	}
+
+	public void testModifiedAST() throws Exception {
+		List<Statement> statements= getStatements();
+		FlowInfoCache cache= new FlowInfoCache();
+		assertSameFlowInfo(cache, statements.get(0), true);
+
+		// the cached info of the loop still contains the write access to y
+		WhileStatement loop= null;
+		for (int i= 0; i < statements.size(); i++) {
+			if (statements.get(i) instanceof WhileStatement)
+				loop= (WhileStatement) statements.get(i);
+		}
+		loop.setBody(loop.getAST().newEmptyStatement());
+		assertSameFlowInfo(cache, statements.get(0), true);
+	}
+
+	public void testSameInOutFlowInfo() throws Exception {
+		List<Statement> statements= getStatements();
+		FlowInfoCache cache= new FlowInfoCache();
+		for (int round= 0; round < 2; round++) {
+			for (int i= statements.size() - 1; i >= 0; i--) {
+				assertSameInOutFlowInfo(cache, statements.get(i));
+			}
+		}
+		// the input analysis doesn't reuse the summaries of the in-out analysis
+		for (int i= 0; i < statements.size(); i++) {
+			assertSameFlowInfo(cache, statements.get(i), true);
+		}
+	}
+
+	public void testSharedCache() throws Exception {
+		List<Statement> statements= getStatements();
+		FlowInfoCache cache= FlowInfoCache.getCache(fMethod);
+		assertSame(cache, FlowInfoCache.getCache(statements.get(statements.size() - 1)));
+		assertSame(cache, FlowInfoCache.getCache(fMethod.getRoot()));
+
+		CompilationUnit other= new RefactoringASTParser(ASTProvider.SHARED_AST_LEVEL).parse(fCU, true);
+		assertNotSame(cache, FlowInfoCache.getCache(other));
+
+		for (int i= 0; i < statements.size(); i++) {
+			assertSameFlowInfo(cache, statements.get(i), true);
+			assertSameInOutFlowInfo(cache, statements.get(i));
+		}
+	}
+}
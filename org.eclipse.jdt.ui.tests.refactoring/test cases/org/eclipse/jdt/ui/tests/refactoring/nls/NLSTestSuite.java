@@ -33,6 +33,7 @@ public class NLSTestSuite {
         suite.addTest(NLSHintHelperTest.suite());
         suite.addTest(PropertyFileDocumentModellTest.suite());
         suite.addTest(SimpleLineReaderTest.suite());
+        suite.addTest(PropertyFileEntriesTest.suite());
         suite.addTest(NLSHolderTest.suite());
         suite.addTest(NLSSubstitutionTest.suite());
 
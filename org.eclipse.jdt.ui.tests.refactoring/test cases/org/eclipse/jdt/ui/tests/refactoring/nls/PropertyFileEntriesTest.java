@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.refactoring.nls;
+
+import java.io.StringReader;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.internal.corext.refactoring.nls.PropertyFileEntries;
+
+public class PropertyFileEntriesTest extends TestCase {
+
+	public static TestSuite suite() {
+		return new TestSuite(PropertyFileEntriesTest.class);
+	}
+
+	public void testSeparators() throws Exception {
+		String text= "a=1\nb : 2\nc 3\n  d\t=\t4\ne\n";
+		PropertyFileEntries entries= new PropertyFileEntries(text);
+		assertSameAsProperties(text, entries);
+		assertEquals(5, entries.size());
+		assertEquals("", entries.getEntry("e").getValue());
+
+		PropertyFileEntries.Entry entry= entries.getEntry("d");
+		assertEquals(text.indexOf("d\t"), entry.getOffset());
+		assertEquals(1, entry.getKeyLength());
+		assertEquals("d\t=\t4".length(), entry.getLength());
+	}
+
+	public void testCommentsAndEmptyLines() throws Exception {
+		String text= "# a=1\n\n   ! b=2\r\n\r\nc=3";
+		PropertyFileEntries entries= new PropertyFileEntries(text);
+		assertSameAsProperties(text, entries);
+		assertEquals(1, entries.size());
+		assertEquals(text.indexOf("c=3"), entries.getEntry("c").getOffset());
+	}
+
+	public void testEscapedKey() throws Exception {
+		String text= "x=0\nkey\\ with\\=escapes\\u00e4=value\\tvalue\n";
+		PropertyFileEntries entries= new PropertyFileEntries(text);
+		assertSameAsProperties(text, entries);
+
+		PropertyFileEntries.Entry entry= entries.getEntry("key with=escapes\u00e4");
+		assertNotNull(entry);
+		assertEquals(4, entry.getOffset());
+		assertEquals("key\\ with\\=escapes\\u00e4".length(), entry.getKeyLength());
+		assertEquals("value\tvalue", entry.getValue());
+	}
+
+	public void testContinuationLines() throws Exception {
+		String text= "a=one \\\n    two \\\r\n\tthree\nb=\\\\\nc=end\\";
+		PropertyFileEntries entries= new PropertyFileEntries(text);
+		assertSameAsProperties(text, entries);
+		assertEquals("one two three", entries.getEntry("a").getValue());
+		assertEquals(text.indexOf("b="), entries.getEntry("b").getOffset());
+		assertEquals("end", entries.getEntry("c").getValue());
+	}
+
+	public void testDuplicateKeys() throws Exception {
+		String text= "a=1\nb=2\na=3\nc=4\nb=5\n";
+		PropertyFileEntries entries= new PropertyFileEntries(text);
+		assertEquals(3, entries.size());
+		assertEquals(5, entries.getEntries().size());
+		assertEquals("[a, b]", entries.getDuplicateKeys().toString());
+		assertEquals("[a, b, c]", entries.getKeys().toString());
+		assertEquals(0, entries.getEntry("a").getOffset());
+	}
+
+	public void testMalformedUnicodeEscape() {
+		PropertyFileEntries entries= new PropertyFileEntries("a\\u12=1\n");
+		assertTrue(entries.containsKey("a\\u12"));
+		assertEquals("\u00e4", PropertyFileEntries.unescape("\\u00E4"));
+	}
+
+	private static void assertSameAsProperties(String text, PropertyFileEntries entries) throws Exception {
+		Properties properties= new Properties();
+		properties.load(new StringReader(text));
+		assertEquals(properties.keySet(), entries.getKeys());
+		for (String key : entries.getKeys()) {
+			assertEquals(properties.getProperty(key), entries.getEntry(key).getValue());
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -36,6 +36,8 @@ public class AllReorgPerformanceTests {
 
 		suite.addTest(IntroduceIndirectionPerfAcceptanceTests.suite());
 
+		suite.addTest(ChangeSignaturePerfTests.suite());
+
 		return suite;
 	}
 }
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.refactoring.reorg;
+
+import junit.framework.Test;
+
+import org.eclipse.test.OrderedTestSuite;
+import org.eclipse.test.performance.Dimension;
+
+import org.eclipse.ltk.core.refactoring.participants.ProcessorBasedRefactoring;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragment;
+
+import org.eclipse.jdt.internal.corext.refactoring.ParameterInfo;
+import org.eclipse.jdt.internal.corext.refactoring.structure.ChangeSignatureProcessor;
+
+import org.eclipse.jdt.ui.tests.refactoring.infra.RefactoringPerformanceTestSetup;
+
+/**
+ * Measures a change signature refactoring that updates many compilation units, each of which
+ * gets its own compilation unit rewrite.
+ */
+public class ChangeSignaturePerfTests extends RepeatingRefactoringPerformanceTestCase {
+
+	public static Test suite() {
+		// we must make sure that cold is executed before warm
+		OrderedTestSuite suite= new OrderedTestSuite(ChangeSignaturePerfTests.class, new String[] {
+			"testCold_10_10",
+			"test_10_10",
+			"test_100_10",
+			"test_1000_10",
+		});
+		return new RefactoringPerformanceTestSetup(suite);
+	}
+
+	public static Test setUpTest(Test someTest) {
+		return new RefactoringPerformanceTestSetup(someTest);
+	}
+
+	public ChangeSignaturePerfTests(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void doExecuteRefactoring(int numberOfCus, int numberOfRefs, boolean measure) throws Exception {
+		ICompilationUnit cunit= generateSources(numberOfCus, numberOfRefs);
+		IMethod method= cunit.findPrimaryType().getMethod("foo", new String[0]);
+		ChangeSignatureProcessor processor= new ChangeSignatureProcessor(method);
+		processor.getParameterInfos().add(ParameterInfo.createInfoForAddedParameter("java.util.List", "list", "null"));
+		executeRefactoring(new ProcessorBasedRefactoring(processor), measure);
+	}
+
+	private ICompilationUnit generateSources(int numberOfCus, int numberOfRefs) throws Exception {
+		IPackageFragment definition= fTestProject.getSourceFolder().createPackageFragment("def", false, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package def;\n");
+		buf.append("public class A {\n");
+		buf.append("    public void foo() {\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		ICompilationUnit result= definition.createCompilationUnit("A.java", buf.toString(), false, null);
+
+		IPackageFragment references= fTestProject.getSourceFolder().createPackageFragment("ref", false, null);
+		for (int i= 0; i < numberOfCus; i++) {
+			createReferenceCu(references, i, numberOfRefs);
+		}
+		return result;
+	}
+
+	private void createReferenceCu(IPackageFragment pack, int index, int numberOfRefs) throws Exception {
+		StringBuffer buf= new StringBuffer();
+		buf.append("package " + pack.getElementName() + ";\n");
+		buf.append("import def.A;\n");
+		buf.append("public class Ref" + index + " {\n");
+		buf.append("    public void ref(A a) {\n");
+		for (int i= 0; i < numberOfRefs; i++) {
+			buf.append("        a.foo();\n");
+		}
+		buf.append("    }\n");
+		buf.append("}\n");
+		pack.createCompilationUnit("Ref" + index + ".java", buf.toString(), false, null);
+	}
+
+	public void testCold_10_10() throws Exception {
+		executeRefactoring(10, 10, false, 3);
+	}
+
+	public void test_10_10() throws Exception {
+		executeRefactoring(10, 10, true, 3);
+	}
+
+	public void test_100_10() throws Exception {
+		executeRefactoring(100, 10, true, 1);
+	}
+
+	public void test_1000_10() throws Exception {
+		tagAsSummary("Change signature - 1000 CUs, 10 Refs", Dimension.ELAPSED_PROCESS);
+		executeRefactoring(1000, 10, true, 1);
+	}
+}
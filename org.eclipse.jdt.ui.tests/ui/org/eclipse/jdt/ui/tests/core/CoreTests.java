@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -42,6 +42,7 @@ public class CoreTests extends TestCase {
 		suite.addTest(ClassPathDetectorTest.suite());
 		suite.addTest(CodeFormatterUtilTest.suite());
 		suite.addTest(CodeFormatterTest.suite());
+		suite.addTest(DeferredLabelComputerTest.suite());
 		suite.addTest(HierarchicalASTVisitorTest.suite());
 		suite.addTest(ImportOrganizeTest.suite());
 		suite.addTest(ImportOrganizeTest18.suite());
@@ -50,17 +51,25 @@ public class CoreTests extends TestCase {
 		suite.addTest(BindingLabelsTest.suite());
 		suite.addTest(BindingLabels18Test.suite());
 		suite.addTest(JavaElementPropertyTesterTest.suite());
+		suite.addTest(JavaStructurePrefetcherTest.suite());
+		suite.addTest(JavaTokenComparatorTest.suite());
+		suite.addTest(JavaOutlineSnapshotTest.suite());
 		suite.addTest(JavaModelUtilTest.suite());
 		suite.addTest(MethodOverrideTest.suite());
 		suite.addTest(MethodOverrideTest18.suite());
 		suite.addTest(NameProposerTest.suite());
 		suite.addTest(OverrideTest.suite());
 		suite.addTest(PartialASTTest.suite());
+		suite.addTest(ProblemMarkerManagerTest.suite());
+		suite.addTest(ProblemSeverityIndexTest.suite());
 		suite.addTest(ScopeAnalyzerTest.suite());
 		suite.addTest(TemplateStoreTest.suite());
 		suite.addTest(TypeHierarchyTest.suite());
+		suite.addTest(TypeHierarchyLifeCycleTest.suite());
+		suite.addTest(TypeHierarchyContentProviderTest.suite());
 		suite.addTest(TypeRulesTest.suite());
 		suite.addTest(TypeInfoTest.suite());
+		suite.addTest(TypeNameTableTest.suite());
 		suite.addTest(StringsTest.suite());
 		suite.addTest(IndentManipulationTest.suite());
 		suite.addTest(SelectionHistoryTest.suite());
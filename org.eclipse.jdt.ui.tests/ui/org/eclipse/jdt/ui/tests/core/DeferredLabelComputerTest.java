@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.jdt.testplugin.util.DisplayHelper;
+
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.jface.viewers.ILabelProviderListener;
+import org.eclipse.jface.viewers.LabelProviderChangedEvent;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IField;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
+import org.eclipse.jdt.ui.JavaElementLabels;
+
+import org.eclipse.jdt.internal.ui.viewsupport.JavaUILabelProvider;
+
+public class DeferredLabelComputerTest extends TestCase {
+
+	private static final long TIMEOUT= 10000;
+
+	private IJavaProject fJProject;
+	private IPackageFragment fPack;
+	private ICompilationUnit fCu;
+	private IField fField;
+
+	private JavaUILabelProvider fLabelProvider;
+	private final Set<Object> fChanged= new HashSet<>();
+	private final ILabelProviderListener fListener= new ILabelProviderListener() {
+		@Override
+		public void labelProviderChanged(LabelProviderChangedEvent event) {
+			if (event.getElements() != null)
+				fChanged.addAll(Arrays.asList(event.getElements()));
+		}
+	};
+
+	public DeferredLabelComputerTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(DeferredLabelComputerTest.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fJProject= JavaProjectHelper.createJavaProject("DeferredLabels", "bin");
+		JavaProjectHelper.addRTJar(fJProject);
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		fPack= root.createPackageFragment("p", true, null);
+		fCu= fPack.createCompilationUnit("A.java", "package p;\npublic class A {\n\tint x;\n}\n", true, null);
+		fField= fCu.getType("A").getField("x");
+
+		fLabelProvider= new JavaUILabelProvider(JavaElementLabels.F_APP_TYPE_SIGNATURE, 0);
+		fLabelProvider.setDeferredLabelComputation(true);
+		fLabelProvider.addListener(fListener);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fLabelProvider.removeListener(fListener);
+		fLabelProvider.dispose();
+		JavaProjectHelper.delete(fJProject);
+	}
+
+	private String getLabel() {
+		return fLabelProvider.getStyledText(fField).getString();
+	}
+
+	private void waitForChange(final Object element) {
+		boolean changed= new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return fChanged.contains(element);
+			}
+		}.waitForCondition(Display.getCurrent(), TIMEOUT);
+		assertTrue("no label provider changed event for " + element, changed);
+		fChanged.clear();
+	}
+
+	private void waitForLabel(final String expected) {
+		boolean computed= new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return expected.equals(getLabel());
+			}
+		}.waitForCondition(Display.getCurrent(), TIMEOUT);
+		assertEquals(expected, getLabel());
+		assertTrue(computed);
+	}
+
+	public void testComputedInBackground() throws Exception {
+		assertEquals("x", getLabel()); // placeholder
+		waitForChange(fField);
+		assertEquals("x : int", getLabel());
+	}
+
+	public void testInvalidatedOnChange() throws Exception {
+		getLabel();
+		waitForChange(fField);
+		assertEquals("x : int", getLabel());
+
+		fPack.createCompilationUnit("A.java", "package p;\npublic class A {\n\tString x;\n}\n", true, null);
+		// viewers are told to request the label again
+		waitForChange(fField);
+		waitForLabel("x : String");
+	}
+
+	public void testChangeWhileComputing() throws Exception {
+		// request the label and change the element before the result has arrived
+		getLabel();
+		fPack.createCompilationUnit("A.java", "package p;\npublic class A {\n\tlong x;\n}\n", true, null);
+		waitForLabel("x : long");
+		DisplayHelper.sleep(Display.getCurrent(), 500);
+		assertEquals("x : long", getLabel());
+	}
+
+	public void testReconcileDoesNotInvalidate() throws Exception {
+		getLabel();
+		waitForChange(fField);
+
+		fCu.becomeWorkingCopy(null);
+		try {
+			fCu.getBuffer().setContents("package p;\npublic class A {\n\tString x;\n}\n");
+			fCu.reconcile(ICompilationUnit.NO_AST, false, null, null);
+			DisplayHelper.sleep(Display.getCurrent(), 500);
+			assertFalse(fChanged.contains(fField));
+			assertEquals("x : int", getLabel());
+		} finally {
+			fCu.discardWorkingCopy();
+		}
+	}
+}
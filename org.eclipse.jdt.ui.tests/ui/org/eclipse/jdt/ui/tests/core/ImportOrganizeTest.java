@@ -36,6 +36,7 @@ import org.eclipse.jdt.core.search.TypeNameMatch;
 
 import org.eclipse.jdt.internal.corext.codemanipulation.OrganizeImportsOperation;
 import org.eclipse.jdt.internal.corext.codemanipulation.OrganizeImportsOperation.IChooseImportQuery;
+import org.eclipse.jdt.internal.corext.codemanipulation.TypeNameLookupSession;
 
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jdt.ui.PreferenceConstants;
@@ -455,6 +456,48 @@ public class ImportOrganizeTest extends CoreTests {
 		assertEqualString(cu.getSource(), buf.toString());
 	}
 
+	public void testSharedLookupSession() throws Exception {
+		IPackageFragmentRoot sourceFolder= JavaProjectHelper.addSourceContainer(fJProject1, "src");
+
+		IPackageFragment pack1= sourceFolder.createPackageFragment("test1", false, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class C extends Vector {\n");
+		buf.append("}\n");
+		ICompilationUnit cu1= pack1.createCompilationUnit("C.java", buf.toString(), false, null);
+
+		buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class D extends Vector {\n");
+		buf.append("    HashMap map;\n");
+		buf.append("}\n");
+		ICompilationUnit cu2= pack1.createCompilationUnit("D.java", buf.toString(), false, null);
+
+		String[] order= new String[0];
+		setOrganizeImportSettings(order, 99, 99, fJProject1);
+		IChooseImportQuery query= createQuery("C", new String[] {}, new int[] {});
+
+		TypeNameLookupSession session= new TypeNameLookupSession(fJProject1);
+		new OrganizeImportsOperation(cu1, null, false, true, true, query, session).run(null);
+		assertEquals(1, session.getSearchCount());
+
+		new OrganizeImportsOperation(cu2, null, false, true, true, query, session).run(null);
+		assertEquals(2, session.getSearchCount()); // only HashMap is searched for
+
+		buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E extends HashMap {\n");
+		buf.append("}\n");
+		ICompilationUnit cu3= pack1.createCompilationUnit("E.java", buf.toString(), false, null);
+
+		new OrganizeImportsOperation(cu3, null, false, true, true, query, session).run(null);
+		assertEquals(2, session.getSearchCount());
+
+		assertImports(cu1, new String[] { "java.util.Vector" });
+		assertImports(cu2, new String[] { "java.util.HashMap", "java.util.Vector" });
+		assertImports(cu3, new String[] { "java.util.HashMap" });
+	}
+
 	public void testReplaceImports() throws Exception {
 		IPackageFragmentRoot sourceFolder= JavaProjectHelper.addSourceContainer(fJProject1, "src");
 
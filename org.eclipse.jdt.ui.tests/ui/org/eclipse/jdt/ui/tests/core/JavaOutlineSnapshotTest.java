@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+
+import org.eclipse.jdt.internal.ui.javaeditor.JavaOutlineSnapshot;
+
+public class JavaOutlineSnapshotTest extends TestCase {
+
+	private IJavaProject fJProject;
+	private IPackageFragment fPack;
+	private ICompilationUnit fCu;
+
+	public JavaOutlineSnapshotTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(JavaOutlineSnapshotTest.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fJProject= JavaProjectHelper.createJavaProject("JavaOutlineSnapshot", "bin");
+		JavaProjectHelper.addRTJar(fJProject);
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		fPack= root.createPackageFragment("p", true, null);
+		fCu= setContents(getContents("", "int foo() { return 0; }"));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		JavaProjectHelper.delete(fJProject);
+	}
+
+	private static String getContents(String superTypes, String fooDeclaration) {
+		StringBuffer buf= new StringBuffer();
+		buf.append("package p;\n");
+		buf.append("public class A ").append(superTypes).append("{\n");
+		buf.append("\t").append(fooDeclaration).append("\n");
+		buf.append("\tclass B {\n");
+		buf.append("\t\tint x;\n");
+		buf.append("\t}\n");
+		buf.append("}\n");
+		return buf.toString();
+	}
+
+	private ICompilationUnit setContents(String contents) throws Exception {
+		return fPack.createCompilationUnit("A.java", contents, true, null);
+	}
+
+	private JavaOutlineSnapshot.Delta compareWith(String contents) throws Exception {
+		JavaOutlineSnapshot oldSnapshot= JavaOutlineSnapshot.create(fCu, null);
+		setContents(contents);
+		JavaOutlineSnapshot newSnapshot= JavaOutlineSnapshot.create(fCu, null);
+		assertTrue(newSnapshot.contains(fCu));
+		return oldSnapshot.compare(newSnapshot);
+	}
+
+	private static void assertElements(Object[] expected, Object[] actual) {
+		Set<Object> expectedSet= new HashSet<>(Arrays.asList(expected));
+		Set<Object> actualSet= new HashSet<>(Arrays.asList(actual));
+		assertEquals(expectedSet, actualSet);
+		assertEquals("duplicate elements", actualSet.size(), actual.length);
+	}
+
+	public void testUnchanged() throws Exception {
+		JavaOutlineSnapshot.Delta delta= compareWith(getContents("", "int foo() { return 1; }"));
+		assertTrue(delta.isEmpty());
+	}
+
+	public void testAddedMember() throws Exception {
+		JavaOutlineSnapshot.Delta delta= compareWith(getContents("", "int foo() { return 0; }\n\tvoid bar() {}"));
+		IType type= fCu.getType("A");
+		assertElements(new Object[] { type }, delta.getStructureChanges());
+		assertElements(new Object[0], delta.getLabelChanges());
+		assertTrue(JavaOutlineSnapshot.create(fCu, null).contains(type.getMethod("bar", new String[0])));
+	}
+
+	public void testRemovedMember() throws Exception {
+		JavaOutlineSnapshot.Delta delta= compareWith("package p;\npublic class A {\n}\n");
+		IType type= fCu.getType("A");
+		assertElements(new Object[] { type }, delta.getStructureChanges());
+		assertElements(new Object[0], delta.getLabelChanges());
+	}
+
+	public void testChangedLabel() throws Exception {
+		JavaOutlineSnapshot.Delta delta= compareWith(getContents("", "long foo() { return 0; }"));
+		assertElements(new Object[0], delta.getStructureChanges());
+		assertElements(new Object[] { fCu.getType("A").getMethod("foo", new String[0]) }, delta.getLabelChanges());
+	}
+
+	public void testChangedSuperTypes() throws Exception {
+		IType type= fCu.getType("A");
+		IType inner= type.getType("B");
+		Object[] typeAndDescendants= new Object[] { type, type.getMethod("foo", new String[0]), inner, inner.getField("x") };
+
+		// the override indicators of all members may have changed
+		JavaOutlineSnapshot.Delta delta= compareWith(getContents("extends Exception ", "int foo() { return 0; }"));
+		assertElements(new Object[0], delta.getStructureChanges());
+		assertElements(typeAndDescendants, delta.getLabelChanges());
+
+		delta= compareWith(getContents("extends Exception implements Runnable ", "int foo() { return 0; }"));
+		assertElements(typeAndDescendants, delta.getLabelChanges());
+
+		// only the descendants of the changed type
+		delta= compareWith("package p;\npublic class A extends Exception implements Runnable {\n\tint foo() { return 0; }\n\tclass B extends A {\n\t\tint x;\n\t}\n}\n");
+		assertElements(new Object[] { inner, inner.getField("x") }, delta.getLabelChanges());
+	}
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.swt.graphics.Image;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.compare.IStreamContentAccessor;
+import org.eclipse.compare.ITypedElement;
+
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import org.eclipse.jdt.internal.ui.compare.JavaStructurePrefetcher;
+
+public class JavaStructurePrefetcherTest extends TestCase {
+
+	private static final long TIMEOUT= 10000;
+
+	private JavaStructurePrefetcher fPrefetcher;
+
+	public JavaStructurePrefetcherTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(JavaStructurePrefetcherTest.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fPrefetcher= new JavaStructurePrefetcher(2);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fPrefetcher.dispose();
+	}
+
+	private static String getContents(String typeName) {
+		return "package p;\npublic class " + typeName + " {\n\tvoid foo() {}\n}\n";
+	}
+
+	private CompilationUnit getAST(String contents, Map<String, String> options) {
+		return fPrefetcher.getAST(contents, contents.toCharArray(), options, null);
+	}
+
+	private static Map<String, String> getOptions(String sourceLevel) {
+		Map<String, String> options= JavaCore.getOptions();
+		JavaCore.setComplianceOptions(sourceLevel, options);
+		return options;
+	}
+
+	public void testCachedByContents() throws Exception {
+		String contents= getContents("A");
+		CompilationUnit ast= getAST(contents, null);
+		assertSame(ast, getAST(new String(contents), null));
+		assertNotSame(ast, getAST(getContents("B"), null));
+	}
+
+	public void testCachedByOptions() throws Exception {
+		String contents= getContents("A");
+		CompilationUnit ast= getAST(contents, getOptions(JavaCore.VERSION_1_8));
+		assertSame(ast, getAST(contents, getOptions(JavaCore.VERSION_1_8)));
+
+		// any option may change the AST, not only the source level
+		Map<String, String> options= getOptions(JavaCore.VERSION_1_8);
+		options.put(JavaCore.COMPILER_DOC_COMMENT_SUPPORT, JavaCore.DISABLED.equals(options.get(JavaCore.COMPILER_DOC_COMMENT_SUPPORT)) ? JavaCore.ENABLED : JavaCore.DISABLED);
+		assertNotSame(ast, getAST(contents, options));
+		assertNotSame(ast, getAST(contents, getOptions(JavaCore.VERSION_1_4)));
+	}
+
+	public void testBoundedByCount() throws Exception {
+		CompilationUnit a= getAST(getContents("A"), null);
+		CompilationUnit b= getAST(getContents("B"), null);
+		assertEquals(2, fPrefetcher.size());
+
+		getAST(getContents("A"), null); // A is now used more recently than B
+		getAST(getContents("C"), null);
+		assertEquals(2, fPrefetcher.size());
+		assertSame(a, getAST(getContents("A"), null));
+		assertNotSame(b, getAST(getContents("B"), null));
+	}
+
+	public void testPrefetchAndClear() throws Exception {
+		final String contents= getContents("A");
+		fPrefetcher.prefetch(new Object[] { new Input(contents) });
+
+		long end= System.currentTimeMillis() + TIMEOUT;
+		while (fPrefetcher.size() == 0) {
+			assertTrue("input not prefetched", System.currentTimeMillis() < end);
+			Thread.sleep(50);
+		}
+		CompilationUnit ast= getAST(contents, null);
+		assertEquals(1, fPrefetcher.size());
+
+		fPrefetcher.clear();
+		assertEquals(0, fPrefetcher.size());
+		assertNotSame(ast, getAST(contents, null));
+	}
+
+	private static class Input implements ITypedElement, IStreamContentAccessor {
+		private final String fContents;
+
+		Input(String contents) {
+			fContents= contents;
+		}
+
+		@Override
+		public String getName() {
+			return "A.java";
+		}
+
+		@Override
+		public Image getImage() {
+			return null;
+		}
+
+		@Override
+		public String getType() {
+			return "java";
+		}
+
+		@Override
+		public InputStream getContents() throws CoreException {
+			return new ByteArrayInputStream(fContents.getBytes());
+		}
+	}
+}
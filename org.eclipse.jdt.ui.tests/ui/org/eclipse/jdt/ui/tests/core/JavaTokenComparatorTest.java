@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.internal.ui.compare.JavaTokenComparator;
+
+public class JavaTokenComparatorTest extends TestCase {
+
+	private static final String TEXT= "int a= foo(\"Aa BB\"); // bar(a)\n";
+
+	public JavaTokenComparatorTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(JavaTokenComparatorTest.class);
+	}
+
+	private static String getToken(JavaTokenComparator comparator, int index) {
+		int start= comparator.getTokenStart(index);
+		return TEXT.substring(start, start + comparator.getTokenLength(index));
+	}
+
+	private static void assertSameTokens(JavaTokenComparator expected, JavaTokenComparator actual) {
+		assertEquals(expected.getRangeCount(), actual.getRangeCount());
+		for (int i= 0; i < expected.getRangeCount(); i++) {
+			assertEquals(expected.getTokenStart(i), actual.getTokenStart(i));
+			assertEquals(expected.getTokenLength(i), actual.getTokenLength(i));
+		}
+	}
+
+	public void testTokens() throws Exception {
+		JavaTokenComparator comparator= new JavaTokenComparator(TEXT);
+		StringBuffer buf= new StringBuffer();
+		for (int i= 0; i < comparator.getRangeCount(); i++) {
+			buf.append('[').append(getToken(comparator, i)).append(']');
+		}
+		// strings are split into words, line comments are scanned as code
+		assertEquals("[int][ ][a][=][ ][foo][(][\"][Aa][ ][BB][\"][)][;][ ][//][ ][bar][(][a][)][\n]", buf.toString());
+	}
+
+	public void testCache() throws Exception {
+		JavaTokenComparator.TokenCache cache= new JavaTokenComparator.TokenCache(2 * TEXT.length());
+		JavaTokenComparator uncached= new JavaTokenComparator(TEXT);
+
+		assertSameTokens(uncached, new JavaTokenComparator(TEXT, cache));
+		assertEquals(1, cache.size());
+		assertSameTokens(uncached, new JavaTokenComparator(new String(TEXT), cache));
+		assertEquals(1, cache.size());
+
+		new JavaTokenComparator(TEXT + "x", cache);
+		assertEquals(1, cache.size()); // the least recently used text is evicted
+		new JavaTokenComparator("x", cache);
+		assertEquals(2, cache.size());
+
+		// texts larger than the cache are not cached
+		new JavaTokenComparator(TEXT + TEXT + TEXT, cache);
+		assertEquals(2, cache.size());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertSameTokens(uncached, new JavaTokenComparator(TEXT, cache));
+	}
+
+	public void testRangesEqual() throws Exception {
+		JavaTokenComparator left= new JavaTokenComparator(TEXT);
+		JavaTokenComparator right= new JavaTokenComparator(TEXT, new JavaTokenComparator.TokenCache(TEXT.length()));
+		for (int i= 0; i < left.getRangeCount(); i++) {
+			for (int j= 0; j < right.getRangeCount(); j++) {
+				assertEquals(getToken(left, i) + " = " + getToken(right, j), getToken(left, i).equals(getToken(right, j)), left.rangesEqual(i, right, j));
+			}
+		}
+	}
+
+	public void testEqualHashCodes() throws Exception {
+		// "Aa" and "BB" have the same hash code, so the pre-check must not decide equality
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+		JavaTokenComparator comparator= new JavaTokenComparator(TEXT);
+		int aa= -1;
+		int bb= -1;
+		for (int i= 0; i < comparator.getRangeCount(); i++) {
+			if ("Aa".equals(getToken(comparator, i)))
+				aa= i;
+			else if ("BB".equals(getToken(comparator, i)))
+				bb= i;
+		}
+		assertTrue(aa != -1 && bb != -1);
+		assertFalse(comparator.rangesEqual(aa, comparator, bb));
+		assertTrue(comparator.rangesEqual(aa, new JavaTokenComparator(TEXT), aa));
+	}
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.jdt.testplugin.util.DisplayHelper;
+
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.jdt.core.IJavaProject;
+
+import org.eclipse.jdt.internal.ui.viewsupport.IProblemChangedListener;
+import org.eclipse.jdt.internal.ui.viewsupport.ProblemMarkerManager;
+
+public class ProblemMarkerManagerTest extends TestCase {
+
+	private static final long TIMEOUT= 10000;
+
+	private IJavaProject fJProject;
+	private IFolder fFolder;
+	private IFile fFileA;
+	private IFile fFileB;
+
+	private ProblemMarkerManager fManager;
+	private final Set<IResource> fNotified= new HashSet<>();
+	private final IProblemChangedListener fListener= new IProblemChangedListener() {
+		@Override
+		public void problemsChanged(IResource[] changedResources, boolean isMarkerChange) {
+			if (isMarkerChange) {
+				synchronized (fNotified) {
+					fNotified.addAll(Arrays.asList(changedResources));
+				}
+			}
+		}
+	};
+
+	public ProblemMarkerManagerTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(ProblemMarkerManagerTest.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fJProject= JavaProjectHelper.createJavaProject("ProblemMarkers", "bin");
+		IProject project= fJProject.getProject();
+		fFolder= project.getFolder("folder");
+		fFolder.create(true, true, null);
+		fFileA= fFolder.getFile("A.txt");
+		fFileA.create(new ByteArrayInputStream(new byte[0]), true, null);
+		fFileB= fFolder.getFile("B.txt");
+		fFileB.create(new ByteArrayInputStream(new byte[0]), true, null);
+
+		fManager= new ProblemMarkerManager();
+		fManager.addListener(fListener);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fManager.removeListener(fListener);
+		JavaProjectHelper.delete(fJProject);
+	}
+
+	private static IMarker createProblem(final IResource resource, final int severity) throws CoreException {
+		final IMarker[] marker= new IMarker[1];
+		ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+			@Override
+			public void run(IProgressMonitor monitor) throws CoreException {
+				marker[0]= resource.createMarker(IMarker.PROBLEM);
+				marker[0].setAttribute(IMarker.SEVERITY, severity);
+			}
+		}, null);
+		return marker[0];
+	}
+
+	/*
+	 * Waits until the given resource has been reported, and a while longer for notifications
+	 * about other resources of the same change.
+	 */
+	private Set<IResource> waitForNotification(final IResource resource) {
+		Display display= Display.getCurrent();
+		boolean notified= new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				synchronized (fNotified) {
+					return fNotified.contains(resource);
+				}
+			}
+		}.waitForCondition(display, TIMEOUT);
+		assertTrue("no notification for " + resource, notified);
+		DisplayHelper.sleep(display, 500);
+		synchronized (fNotified) {
+			Set<IResource> result= new HashSet<>(fNotified);
+			fNotified.clear();
+			return result;
+		}
+	}
+
+	public void testAncestorsOnlyNotifiedOnSeverityChange() throws Exception {
+		IMarker errorA= createProblem(fFileA, IMarker.SEVERITY_ERROR);
+		Set<IResource> notified= waitForNotification(fFileA);
+		assertTrue(notified.contains(fFolder));
+		assertTrue(notified.contains(fJProject.getProject()));
+
+		// the folder and the project already have an error
+		createProblem(fFileB, IMarker.SEVERITY_WARNING);
+		notified= waitForNotification(fFileB);
+		assertFalse(notified.contains(fFileA));
+		assertFalse(notified.contains(fFolder));
+		assertFalse(notified.contains(fJProject.getProject()));
+
+		// the folder and the project go down to a warning
+		errorA.delete();
+		notified= waitForNotification(fFileA);
+		assertTrue(notified.contains(fFolder));
+		assertTrue(notified.contains(fJProject.getProject()));
+		assertFalse(notified.contains(fFileB));
+	}
+
+	public void testStatistics() throws Exception {
+		createProblem(fFileA, IMarker.SEVERITY_ERROR);
+		waitForNotification(fFileA);
+		long[] before= fManager.getStatistics();
+
+		createProblem(fFileB, IMarker.SEVERITY_INFO);
+		waitForNotification(fFileB);
+		long[] after= fManager.getStatistics();
+		assertEquals(1, after[0] - before[0]); // marker changes in
+		assertEquals(1, after[1] - before[1]); // resource changes in
+		assertEquals(1, after[2] - before[2]); // resource changes out
+	}
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.jdt.internal.ui.viewsupport.ProblemSeverityIndex;
+
+public class ProblemSeverityIndexTest extends TestCase {
+
+	private IProject fProject;
+	private IFolder fPack;
+	private IFile fFileA;
+	private IFile fFileB;
+
+	public ProblemSeverityIndexTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(ProblemSeverityIndexTest.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		// the index works on handles, the resources don't need to exist
+		fProject= ResourcesPlugin.getWorkspace().getRoot().getProject("SeverityIndex");
+		fPack= fProject.getFolder("src").getFolder("p");
+		fFileA= fPack.getFile("A.java");
+		fFileB= fPack.getFile("B.java");
+	}
+
+	public void testRollUp() throws Exception {
+		ProblemSeverityIndex index= new ProblemSeverityIndex();
+		Set<IResource> changed= new HashSet<>();
+
+		index.update(fFileA, IMarker.SEVERITY_WARNING, changed);
+		assertEquals(IMarker.SEVERITY_WARNING, index.getSeverity(fFileA));
+		assertEquals(IMarker.SEVERITY_WARNING, index.getSeverity(fPack));
+		assertEquals(IMarker.SEVERITY_WARNING, index.getSeverity(fProject));
+		assertEquals(ProblemSeverityIndex.NONE, index.getOwnSeverity(fPack));
+		assertTrue(changed.contains(fFileA));
+		assertTrue(changed.contains(fProject));
+
+		changed.clear();
+		index.update(fFileB, IMarker.SEVERITY_ERROR, changed);
+		assertEquals(IMarker.SEVERITY_ERROR, index.getSeverity(fPack));
+		assertTrue(changed.contains(fPack));
+
+		changed.clear();
+		index.update(fFileB, IMarker.SEVERITY_ERROR, changed);
+		assertTrue(changed.isEmpty());
+
+		changed.clear();
+		index.update(fFileB, ProblemSeverityIndex.NONE, changed);
+		assertEquals(IMarker.SEVERITY_WARNING, index.getSeverity(fPack));
+		assertEquals(IMarker.SEVERITY_WARNING, index.getSeverity(fProject));
+		assertTrue(changed.contains(fProject));
+
+		changed.clear();
+		index.update(fFileA, ProblemSeverityIndex.NONE, changed);
+		assertEquals(ProblemSeverityIndex.NONE, index.getSeverity(fProject));
+		assertTrue(changed.contains(fProject));
+		assertEquals(0, index.size());
+	}
+
+	public void testOnlyNetChangesReported() throws Exception {
+		ProblemSeverityIndex index= new ProblemSeverityIndex();
+		index.update(fFileA, IMarker.SEVERITY_ERROR, null);
+
+		Set<IResource> changed= new HashSet<>();
+		index.update(fFileB, IMarker.SEVERITY_WARNING, changed);
+		assertTrue(changed.contains(fFileB));
+		assertFalse(changed.contains(fPack));
+		assertFalse(changed.contains(fProject));
+	}
+
+	public void testRemoveContainer() throws Exception {
+		ProblemSeverityIndex index= new ProblemSeverityIndex();
+		index.update(fFileA, IMarker.SEVERITY_ERROR, null);
+		index.update(fFileB, IMarker.SEVERITY_INFO, null);
+		index.update(fProject, IMarker.SEVERITY_WARNING, null);
+
+		Set<IResource> changed= new HashSet<>();
+		index.remove(fPack, changed);
+		assertEquals(ProblemSeverityIndex.NONE, index.getSeverity(fFileA));
+		assertEquals(ProblemSeverityIndex.NONE, index.getSeverity(fPack));
+		assertEquals(IMarker.SEVERITY_WARNING, index.getSeverity(fProject));
+		assertTrue(changed.contains(fProject));
+
+		index.remove(fProject, null);
+		assertEquals(0, index.size());
+	}
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+
+import org.eclipse.jdt.internal.ui.typehierarchy.HierarchyLabelProvider;
+import org.eclipse.jdt.internal.ui.typehierarchy.MoreTypesNode;
+import org.eclipse.jdt.internal.ui.typehierarchy.SubTypeHierarchyViewer;
+import org.eclipse.jdt.internal.ui.typehierarchy.TypeHierarchyContentProvider;
+import org.eclipse.jdt.internal.ui.typehierarchy.TypeHierarchyLifeCycle;
+import org.eclipse.jdt.internal.ui.typehierarchy.TypeHierarchyMessages;
+
+/**
+ * Tests the paging of large type hierarchies.
+ */
+public class TypeHierarchyContentProviderTest extends TestCase {
+
+	private static final int SUBTYPE_COUNT= TypeHierarchyContentProvider.PAGE_SIZE + 1;
+
+	private IJavaProject fJProject;
+	private IType fType;
+
+	private TypeHierarchyLifeCycle fLifeCycle;
+	private Shell fShell;
+	private SubTypeHierarchyViewer fViewer;
+
+	public TypeHierarchyContentProviderTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(TypeHierarchyContentProviderTest.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fJProject= JavaProjectHelper.createJavaProject("TypeHierarchyContentProvider", "bin");
+		JavaProjectHelper.addRTJar(fJProject);
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		IPackageFragment pack= root.createPackageFragment("p", true, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package p;\n");
+		buf.append("public class A {\n");
+		for (int i= 0; i < SUBTYPE_COUNT; i++) {
+			buf.append("\tstatic class S").append(i).append(" extends A {}\n");
+		}
+		buf.append("}\n");
+		fType= pack.createCompilationUnit("A.java", buf.toString(), true, null).getType("A");
+
+		fLifeCycle= new TypeHierarchyLifeCycle(false);
+		fLifeCycle.doHierarchyRefresh(new IJavaElement[] { fType }, null);
+		fShell= new Shell();
+		fViewer= new SubTypeHierarchyViewer(fShell, fLifeCycle);
+		fViewer.setInput(fViewer);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fShell.dispose();
+		fLifeCycle.freeHierarchy();
+		JavaProjectHelper.delete(fJProject);
+	}
+
+	private TypeHierarchyContentProvider getContentProvider() {
+		return (TypeHierarchyContentProvider) fViewer.getContentProvider();
+	}
+
+	private static MoreTypesNode getMoreTypesNode(Object[] children) {
+		MoreTypesNode node= null;
+		for (int i= 0; i < children.length; i++) {
+			if (children[i] instanceof MoreTypesNode) {
+				assertNull("more than one node", node);
+				node= (MoreTypesNode) children[i];
+			}
+		}
+		return node;
+	}
+
+	public void testPaging() throws Exception {
+		Object[] children= getContentProvider().getChildren(fType);
+		assertEquals(TypeHierarchyContentProvider.PAGE_SIZE + 1, children.length);
+		MoreTypesNode node= getMoreTypesNode(children);
+		assertNotNull(node);
+		assertEquals(fType, node.getParent());
+		assertEquals(1, node.getHiddenCount());
+
+		fViewer.showMoreTypes(node);
+		children= getContentProvider().getChildren(fType);
+		assertEquals(SUBTYPE_COUNT, children.length);
+		assertNull(getMoreTypesNode(children));
+	}
+
+	public void testLabel() throws Exception {
+		MoreTypesNode node= getMoreTypesNode(getContentProvider().getChildren(fType));
+		HierarchyLabelProvider labelProvider= new HierarchyLabelProvider(fLifeCycle);
+		try {
+			String label= labelProvider.getText(node);
+			assertTrue(label, label.startsWith("1 "));
+			assertTrue(label, label.endsWith(TypeHierarchyMessages.MoreTypesNode_doubleClickHint));
+
+			labelProvider.setMoreTypesHint(TypeHierarchyMessages.MoreTypesNode_clickHint);
+			label= labelProvider.getText(node);
+			assertTrue(label, label.endsWith(TypeHierarchyMessages.MoreTypesNode_clickHint));
+		} finally {
+			labelProvider.dispose();
+		}
+	}
+}
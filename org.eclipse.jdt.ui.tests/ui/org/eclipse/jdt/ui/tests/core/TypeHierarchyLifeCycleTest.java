@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+
+import org.eclipse.jdt.internal.ui.typehierarchy.ITypeHierarchyLifeCycleListener;
+import org.eclipse.jdt.internal.ui.typehierarchy.TypeHierarchyLifeCycle;
+
+/**
+ * Tests which changes make the type hierarchy life cycle recompute the hierarchy.
+ */
+public class TypeHierarchyLifeCycleTest extends TestCase {
+
+	private IJavaProject fJProject;
+	private IJavaProject fOtherProject;
+	private IPackageFragment fPack;
+
+	private TypeHierarchyLifeCycle fLifeCycle;
+	private boolean fInvalidated;
+	private final ITypeHierarchyLifeCycleListener fListener= new ITypeHierarchyLifeCycleListener() {
+		@Override
+		public void typeHierarchyChanged(TypeHierarchyLifeCycle typeHierarchyProvider, IType[] changedTypes) {
+			if (changedTypes == null)
+				fInvalidated= true;
+		}
+	};
+
+	public TypeHierarchyLifeCycleTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(TypeHierarchyLifeCycleTest.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fJProject= JavaProjectHelper.createJavaProject("TypeHierarchyLifeCycle", "bin");
+		JavaProjectHelper.addRTJar(fJProject);
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		fPack= root.createPackageFragment("p", true, null);
+		fPack.createCompilationUnit("A.java", "package p;\npublic class A {\n}\n", true, null);
+		fPack.createCompilationUnit("B.java", "package p;\npublic class B extends A {\n}\n", true, null);
+		fOtherProject= JavaProjectHelper.createJavaProject("TypeHierarchyLifeCycleOther", "bin");
+
+		fLifeCycle= new TypeHierarchyLifeCycle(false);
+		fLifeCycle.addChangedListener(fListener);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fLifeCycle.removeChangedListener(fListener);
+		fLifeCycle.freeHierarchy();
+		JavaProjectHelper.delete(fOtherProject);
+		JavaProjectHelper.delete(fJProject);
+	}
+
+	private void computeHierarchy(IType focus) throws Exception {
+		fLifeCycle.doHierarchyRefresh(new IJavaElement[] { focus }, null);
+		assertTrue(fLifeCycle.getHierarchy().contains(focus));
+		fInvalidated= false;
+	}
+
+	public void testBodyChange() throws Exception {
+		computeHierarchy(fPack.getCompilationUnit("A.java").getType("A"));
+		fPack.createCompilationUnit("B.java", "package p;\npublic class B extends A {\n\tvoid foo() {}\n}\n", true, null);
+		assertFalse(fInvalidated);
+	}
+
+	public void testNewSubclass() throws Exception {
+		computeHierarchy(fPack.getCompilationUnit("A.java").getType("A"));
+		fPack.createCompilationUnit("C.java", "package p;\npublic class C {\n}\n", true, null);
+		assertFalse(fInvalidated);
+		fPack.createCompilationUnit("D.java", "package p;\npublic class D extends B {\n}\n", true, null);
+		assertTrue(fInvalidated);
+	}
+
+	public void testSupertypeChange() throws Exception {
+		computeHierarchy(fPack.getCompilationUnit("A.java").getType("A"));
+		fPack.createCompilationUnit("B.java", "package p;\npublic class B {\n}\n", true, null);
+		assertTrue(fInvalidated);
+	}
+
+	public void testModifierChange() throws Exception {
+		computeHierarchy(fPack.getCompilationUnit("A.java").getType("A"));
+		fPack.createCompilationUnit("B.java", "package p;\npublic abstract class B extends A {\n}\n", true, null);
+		assertTrue(fInvalidated);
+	}
+
+	public void testNewTypesInObjectHierarchy() throws Exception {
+		computeHierarchy(fJProject.findType("java.lang.Object"));
+		fPack.createCompilationUnit("C.java", "package p;\npublic class C {\n}\n", true, null);
+		assertTrue(fInvalidated);
+
+		computeHierarchy(fJProject.findType("java.lang.Object"));
+		fPack.createCompilationUnit("I.java", "package p;\npublic interface I {\n}\n", true, null);
+		assertTrue(fInvalidated);
+	}
+
+	public void testClassPathChange() throws Exception {
+		computeHierarchy(fPack.getCompilationUnit("A.java").getType("A"));
+		// the other project neither contains nor requires types of the hierarchy
+		JavaProjectHelper.addSourceContainer(fOtherProject, "src");
+		assertFalse(fInvalidated);
+
+		JavaProjectHelper.addRequiredProject(fOtherProject, fJProject);
+		assertTrue(fInvalidated);
+
+		computeHierarchy(fPack.getCompilationUnit("A.java").getType("A"));
+		JavaProjectHelper.addSourceContainer(fJProject, "src2");
+		assertTrue(fInvalidated);
+	}
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.TypeNameMatch;
+
+import org.eclipse.jdt.internal.corext.util.TypeNameTable;
+
+public class TypeNameTableTest extends TestCase {
+
+	private static final long TIMEOUT= 30000;
+
+	private IJavaProject fJProject;
+	private IPackageFragment fPack;
+
+	public TypeNameTableTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(TypeNameTableTest.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fJProject= JavaProjectHelper.createJavaProject("TypeNameTable", "bin");
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		fPack= root.createPackageFragment("p", true, null);
+		fPack.createCompilationUnit("TnAlpha.java", "package p;\npublic class TnAlpha {\n}\n", true, null);
+		fPack.createCompilationUnit("TnAlphaBeta.java", "package p;\npublic class TnAlphaBeta {\n}\n", true, null);
+		fPack.createCompilationUnit("TnGamma.java", "package p;\npublic class TnGamma {\n}\n", true, null);
+		waitUntilReady();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		JavaProjectHelper.delete(fJProject);
+	}
+
+	private static void waitUntilReady() throws InterruptedException {
+		long end= System.currentTimeMillis() + TIMEOUT;
+		while (!TypeNameTable.getInstance().isReady()) {
+			assertTrue("table not built", System.currentTimeMillis() < end);
+			Thread.sleep(50);
+		}
+	}
+
+	private static Set<String> findCandidates(String pattern, int matchRule) {
+		final Set<String> names= new HashSet<>();
+		boolean answered= TypeNameTable.getInstance().findCandidates(pattern, matchRule, new TypeNameTable.ICandidateRequestor() {
+			@Override
+			public void accept(TypeNameMatch match) {
+				if ("p".equals(match.getPackageName()))
+					names.add(match.getSimpleTypeName());
+			}
+		}, new NullProgressMonitor());
+		assertTrue(answered);
+		return names;
+	}
+
+	public void testPrefix() throws Exception {
+		Set<String> names= findCandidates("tnalpha", SearchPattern.R_PREFIX_MATCH);
+		assertTrue(names.contains("TnAlpha"));
+		assertTrue(names.contains("TnAlphaBeta"));
+		assertFalse(names.contains("TnGamma"));
+
+		names= findCandidates("TnG*", SearchPattern.R_PATTERN_MATCH);
+		assertTrue(names.contains("TnGamma"));
+		assertFalse(names.contains("TnAlpha"));
+	}
+
+	public void testCamelCase() throws Exception {
+		Set<String> names= findCandidates("TAB", SearchPattern.R_CAMELCASE_MATCH);
+		assertTrue(names.contains("TnAlphaBeta"));
+		assertFalse(names.contains("TnAlpha"));
+		assertFalse(names.contains("TnGamma"));
+	}
+
+	public void testAddedUnit() throws Exception {
+		fPack.createCompilationUnit("TnDelta.java", "package p;\npublic class TnDelta {\n}\n", true, null);
+		// answered from the table, the new unit is read from the model
+		assertTrue(TypeNameTable.getInstance().isReady());
+		Set<String> names= findCandidates("TnD", SearchPattern.R_PREFIX_MATCH);
+		assertTrue(names.contains("TnDelta"));
+	}
+
+	public void testUnsavedWorkingCopy() throws Exception {
+		ICompilationUnit cu= fPack.getCompilationUnit("TnGamma.java");
+		cu.becomeWorkingCopy(null);
+		try {
+			cu.getBuffer().setContents("package p;\npublic class TnEpsilon {\n}\n");
+			cu.reconcile(ICompilationUnit.NO_AST, false, null, null);
+
+			Set<String> names= findCandidates("Tn", SearchPattern.R_PREFIX_MATCH);
+			assertTrue(names.contains("TnEpsilon"));
+			assertFalse(names.contains("TnGamma"));
+			assertTrue(names.contains("TnAlpha"));
+		} finally {
+			cu.discardWorkingCopy();
+		}
+
+		Set<String> names= findCandidates("Tn", SearchPattern.R_PREFIX_MATCH);
+		assertTrue(names.contains("TnGamma"));
+		assertFalse(names.contains("TnEpsilon"));
+	}
+}
@@ -19,8 +19,14 @@ package org.eclipse.jdt.ui.tests.jarexport;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -999,4 +1005,122 @@ public class FatJarExportTests extends TestCase {
 			JavaProjectHelper.removeFromClasspath(fProject, externalRoot.getPath());
 		}
 	}
+
+	private static void addStoredEntry(JarOutputStream out, String name, byte[] content) throws IOException {
+		JarEntry entry= new JarEntry(name);
+		entry.setMethod(ZipEntry.STORED);
+		entry.setSize(content.length);
+		CRC32 crc= new CRC32();
+		crc.update(content);
+		entry.setCrc(crc.getValue());
+		out.putNextEntry(entry);
+		out.write(content);
+		out.closeEntry();
+	}
+
+	private static byte[] readEntry(ZipFile archive, ZipEntry entry) throws IOException {
+		InputStream in= archive.getInputStream(entry);
+		try {
+			byte[] content= new byte[(int) entry.getSize()];
+			int offset= 0;
+			int count;
+			while (offset < content.length && (count= in.read(content, offset, content.length - offset)) != -1)
+				offset+= count;
+			assertEquals(-1, in.read()); // verifies the crc
+			return content;
+		} finally {
+			in.close();
+		}
+	}
+
+	public void testStoredLibraryEntries() throws Exception {
+		File lib= JavaTestPlugin.getDefault().getFileInPlugin(JavaProjectHelper.MYLIB_STDOUT);
+		IPackageFragmentRoot root= JavaProjectHelper.addLibraryWithImport(fProject, Path.fromOSString(lib.getPath()), null, null);
+
+		byte[] text= new byte[10000];
+		byte[] image= new byte[1000];
+		for (int i= 0; i < text.length; i++)
+			text[i]= (byte) ('a' + i % 3);
+		for (int i= 0; i < image.length; i++)
+			image[i]= (byte) (i * 31);
+		File resources= File.createTempFile("resources", ".jar"); //$NON-NLS-1$ //$NON-NLS-2$
+		JarOutputStream out= new JarOutputStream(new FileOutputStream(resources));
+		try {
+			addStoredEntry(out, "res/data.txt", text); //$NON-NLS-1$
+			addStoredEntry(out, "res/icon.png", image); //$NON-NLS-1$
+		} finally {
+			out.close();
+		}
+		IPackageFragmentRoot resourcesRoot= JavaProjectHelper.addLibrary(fProject, Path.fromOSString(resources.getPath()));
+
+		try {
+			// stored entries that are not compressed already are compressed as requested
+			JarPackageData data= createAndRunFatJar(fProject, getName(), true, new ExtractLibraryHandler());
+			ZipFile archive= JarPackagerUtil.getArchiveFile(data.getJarLocation());
+			try {
+				ZipEntry textEntry= archive.getEntry("res/data.txt"); //$NON-NLS-1$
+				assertEquals(ZipEntry.DEFLATED, textEntry.getMethod());
+				assertEquals(new String(text, "US-ASCII"), new String(readEntry(archive, textEntry), "US-ASCII")); //$NON-NLS-1$ //$NON-NLS-2$
+				ZipEntry imageEntry= archive.getEntry("res/icon.png"); //$NON-NLS-1$
+				assertEquals(ZipEntry.STORED, imageEntry.getMethod());
+				assertTrue(Arrays.equals(image, readEntry(archive, imageEntry)));
+			} finally {
+				archive.close();
+			}
+
+			data= createAndRunFatJar(fProject, getName() + "_Uncompressed", false, new ExtractLibraryHandler()); //$NON-NLS-1$
+			archive= JarPackagerUtil.getArchiveFile(data.getJarLocation());
+			try {
+				ZipEntry textEntry= archive.getEntry("res/data.txt"); //$NON-NLS-1$
+				assertEquals(ZipEntry.STORED, textEntry.getMethod());
+				assertEquals(text.length, textEntry.getSize());
+				readEntry(archive, textEntry);
+			} finally {
+				archive.close();
+			}
+		} finally {
+			JavaProjectHelper.removeFromClasspath(fProject, resourcesRoot.getPath());
+			JavaProjectHelper.removeFromClasspath(fProject, root.getPath());
+			resources.delete();
+		}
+	}
+
+	public void testJarInJarIndex() throws Exception {
+		File lib= JavaTestPlugin.getDefault().getFileInPlugin(JavaProjectHelper.MYLIB_STDOUT);
+		IPackageFragmentRoot root= JavaProjectHelper.addLibraryWithImport(fProject, Path.fromOSString(lib.getPath()), null, null);
+
+		IPackageFragment fragment= fMainRoot.getPackageFragment("org.eclipse.jdt.ui.test"); //$NON-NLS-1$
+		StringBuffer buf= new StringBuffer();
+		buf.append("package org.eclipse.jdt.ui.test;\n"); //$NON-NLS-1$
+		buf.append("import mylib.Foo;\n"); //$NON-NLS-1$
+		buf.append("public class Main {\n"); //$NON-NLS-1$
+		buf.append("    public static void main(String[] args) {\n"); //$NON-NLS-1$
+		buf.append("        new Foo();\n"); //$NON-NLS-1$
+		buf.append("        System.out.println(Foo.class.getClassLoader().getClass().getName());\n"); //$NON-NLS-1$
+		buf.append("        System.out.println(Foo.class.getPackage() != null);\n"); //$NON-NLS-1$
+		buf.append("    }\n"); //$NON-NLS-1$
+		buf.append("}\n"); //$NON-NLS-1$
+		fragment.createCompilationUnit("Main.java", buf.toString(), true, null); //$NON-NLS-1$
+
+		try {
+			JarPackageData data= assertFatJarWithLoaderExport(fProject, getName(), true, new PackageLibraryHandler());
+			ZipFile archive= JarPackagerUtil.getArchiveFile(data.getJarLocation());
+			try {
+				ZipEntry libEntry= archive.getEntry("mylib_stdout.jar"); //$NON-NLS-1$
+				assertEquals(ZipEntry.STORED, libEntry.getMethod());
+				assertNotNull(archive.getEntry("META-INF/jarinjar/mylib_stdout.jar.idx")); //$NON-NLS-1$
+				assertNotNull(archive.getEntry("org/eclipse/jdt/internal/jarinjarloader/IndexedJarClassLoader.class")); //$NON-NLS-1$
+				assertNotNull(archive.getEntry("org/eclipse/jdt/internal/jarinjarloader/NestedJarIndex.class")); //$NON-NLS-1$
+			} finally {
+				archive.close();
+			}
+
+			// the classes of the library are read in place
+			String stdout= runJar(fProject, data.getJarLocation().toOSString());
+			stdout= stdout.replaceAll("\r\n", "\n").replaceAll("\r", "\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			assertEquals("created mylib.Foo\norg.eclipse.jdt.internal.jarinjarloader.IndexedJarClassLoader\ntrue\n", stdout); //$NON-NLS-1$
+		} finally {
+			JavaProjectHelper.removeFromClasspath(fProject, root.getPath());
+		}
+	}
 }
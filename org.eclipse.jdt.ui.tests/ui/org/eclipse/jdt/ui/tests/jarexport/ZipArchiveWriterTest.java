@@ -0,0 +1,261 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.jarexport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.jdt.internal.ui.jarpackager.ZipArchiveWriter;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class ZipArchiveWriterTest extends TestCase {
+
+	private static final Class<ZipArchiveWriterTest> THIS= ZipArchiveWriterTest.class;
+
+	public static Test suite() {
+		return new TestSuite(THIS);
+	}
+
+	private File fArchive;
+	private File fSource;
+
+	@Override
+	protected void setUp() throws Exception {
+		fArchive= File.createTempFile("ZipArchiveWriterTest", ".jar");
+		fSource= File.createTempFile("ZipArchiveWriterTest", ".zip");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fArchive.delete();
+		fSource.delete();
+	}
+
+	private static byte[] createContent(int size, boolean random) {
+		byte[] content= new byte[size];
+		if (random) {
+			new Random(size).nextBytes(content);
+		} else {
+			for (int i= 0; i < size; i++)
+				content[i]= (byte) ('a' + i % 7);
+		}
+		return content;
+	}
+
+	private static long getCrc(byte[] content) {
+		CRC32 crc= new CRC32();
+		crc.update(content, 0, content.length);
+		return crc.getValue();
+	}
+
+	private static byte[] read(InputStream in) throws IOException {
+		try {
+			ByteArrayOutputStream out= new ByteArrayOutputStream();
+			byte[] buffer= new byte[8192];
+			int count;
+			while ((count= in.read(buffer)) != -1)
+				out.write(buffer, 0, count);
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+
+	private static ZipEntry createEntry(String name, int method) {
+		ZipEntry entry= new ZipEntry(name);
+		entry.setMethod(method);
+		return entry;
+	}
+
+	private ZipArchiveWriter createWriter(int threads) throws IOException {
+		return new ZipArchiveWriter(new FileOutputStream(fArchive), threads);
+	}
+
+	private void assertContent(ZipFile zipFile, String name, int method, byte[] expected) throws IOException {
+		ZipEntry entry= zipFile.getEntry(name);
+		assertNotNull(name, entry);
+		assertEquals(name, method, entry.getMethod());
+		assertEquals(name, expected.length, entry.getSize());
+		assertEquals(name, getCrc(expected), entry.getCrc());
+		assertTrue(name, Arrays.equals(expected, read(zipFile.getInputStream(entry))));
+	}
+
+	private void assertStreamContent(String[] names, byte[][] contents) throws IOException {
+		ZipInputStream in= new ZipInputStream(new FileInputStream(fArchive));
+		try {
+			for (int i= 0; i < names.length; i++) {
+				ZipEntry entry= in.getNextEntry();
+				assertNotNull(names[i], entry);
+				assertEquals(names[i], entry.getName());
+				ByteArrayOutputStream out= new ByteArrayOutputStream();
+				byte[] buffer= new byte[8192];
+				int count;
+				while ((count= in.read(buffer)) != -1)
+					out.write(buffer, 0, count);
+				assertTrue(names[i], Arrays.equals(contents[i], out.toByteArray()));
+			}
+			assertNull(in.getNextEntry());
+		} finally {
+			in.close();
+		}
+	}
+
+	public void testRoundTrip() throws Exception {
+		byte[] small= createContent(1000, false);
+		byte[] large= createContent(3 * 1024 * 1024, true);
+		byte[] known= createContent(2 * 1024 * 1024, true);
+
+		ZipEntry storedKnown= createEntry("known.bin", ZipEntry.STORED);
+		storedKnown.setSize(known.length);
+		storedKnown.setCrc(getCrc(known));
+
+		ZipArchiveWriter writer= createWriter(4);
+		writer.putEntry(createEntry("dir/", ZipEntry.STORED), null);
+		writer.putEntry(createEntry("dir/small.txt", ZipEntry.DEFLATED), new ByteArrayInputStream(small));
+		writer.putEntry(createEntry("dir/small.bin", ZipEntry.STORED), new ByteArrayInputStream(small));
+		writer.putEntry(createEntry("large.txt", ZipEntry.DEFLATED), new ByteArrayInputStream(large));
+		writer.putEntry(createEntry("large.bin", ZipEntry.STORED), new ByteArrayInputStream(large));
+		writer.putEntry(storedKnown, new ByteArrayInputStream(known));
+		writer.close();
+
+		assertEquals(6, writer.getEntryCount());
+		assertEquals(2 * small.length + 2 * large.length + known.length, writer.getContentSize());
+		assertEquals(fArchive.length(), writer.getArchiveSize());
+
+		ZipFile zipFile= new ZipFile(fArchive);
+		try {
+			assertEquals(6, zipFile.size());
+			assertContent(zipFile, "dir/", ZipEntry.STORED, new byte[0]);
+			assertContent(zipFile, "dir/small.txt", ZipEntry.DEFLATED, small);
+			assertContent(zipFile, "dir/small.bin", ZipEntry.STORED, small);
+			assertContent(zipFile, "large.txt", ZipEntry.DEFLATED, large);
+			assertContent(zipFile, "large.bin", ZipEntry.STORED, large);
+			assertContent(zipFile, "known.bin", ZipEntry.STORED, known);
+		} finally {
+			zipFile.close();
+		}
+		assertStreamContent(new String[] { "dir/", "dir/small.txt", "dir/small.bin", "large.txt", "large.bin", "known.bin" },
+				new byte[][] { new byte[0], small, small, large, large, known });
+	}
+
+	public void testEntryOrder() throws Exception {
+		int count= 200;
+		String[] names= new String[count];
+		byte[][] contents= new byte[count][];
+		ZipArchiveWriter writer= createWriter(4);
+		for (int i= 0; i < count; i++) {
+			names[i]= "entry" + i + ".txt";
+			contents[i]= createContent(i * 97, false);
+			writer.putEntry(createEntry(names[i], ZipEntry.DEFLATED), new ByteArrayInputStream(contents[i]));
+		}
+		writer.close();
+		assertStreamContent(names, contents);
+	}
+
+	public void testRawCopy() throws Exception {
+		byte[] content= createContent(100000, false);
+		ZipOutputStream out= new ZipOutputStream(new FileOutputStream(fSource));
+		try {
+			out.putNextEntry(new ZipEntry("a.txt"));
+			out.write(content);
+			out.closeEntry();
+		} finally {
+			out.close();
+		}
+
+		ZipFile source= new ZipFile(fSource);
+		try {
+			ZipEntry sourceEntry= source.getEntry("a.txt");
+			ZipArchiveWriter writer= createWriter(1);
+			assertTrue(writer.putRawEntry(new ZipEntry("a.txt"), fSource, sourceEntry));
+			writer.close();
+			assertEquals(1, writer.getCopiedEntryCount());
+
+			ZipFile zipFile= new ZipFile(fArchive);
+			try {
+				assertContent(zipFile, "a.txt", ZipEntry.DEFLATED, content);
+				assertEquals(sourceEntry.getCompressedSize(), zipFile.getEntry("a.txt").getCompressedSize());
+			} finally {
+				zipFile.close();
+			}
+		} finally {
+			source.close();
+		}
+	}
+
+	public void testRawCopyOfStoredEntry() throws Exception {
+		ZipEntry sourceEntry= createEntry("a.txt", ZipEntry.STORED);
+		ZipArchiveWriter writer= createWriter(1);
+		assertFalse(writer.putRawEntry(new ZipEntry("a.txt"), fSource, sourceEntry));
+		writer.close();
+		assertEquals(0, writer.getEntryCount());
+	}
+
+	public void testDuplicateEntry() throws Exception {
+		ZipArchiveWriter writer= createWriter(1);
+		try {
+			writer.putEntry(createEntry("a.txt", ZipEntry.DEFLATED), new ByteArrayInputStream(new byte[1]));
+			writer.putEntry(createEntry("a.txt", ZipEntry.STORED), new ByteArrayInputStream(new byte[1]));
+			fail();
+		} catch (ZipException e) {
+			assertTrue(e.getMessage().startsWith("duplicate entry:"));
+		} finally {
+			writer.close();
+		}
+	}
+
+	public void testInvalidCrc() throws Exception {
+		byte[] content= createContent(100, false);
+		ZipEntry entry= createEntry("a.bin", ZipEntry.STORED);
+		entry.setCrc(getCrc(content) ^ 1);
+		ZipArchiveWriter writer= createWriter(1);
+		try {
+			writer.putEntry(entry, new ByteArrayInputStream(content));
+			fail();
+		} catch (ZipException e) {
+			// expected
+		} finally {
+			writer.close();
+		}
+	}
+
+	public void testManyEntries() throws Exception {
+		int count= 70000;
+		ZipArchiveWriter writer= createWriter(2);
+		for (int i= 0; i < count; i++)
+			writer.putEntry(createEntry("e" + i, ZipEntry.STORED), null);
+		writer.close();
+
+		ZipFile zipFile= new ZipFile(fArchive);
+		try {
+			assertEquals(count, zipFile.size());
+			assertNotNull(zipFile.getEntry("e" + (count - 1)));
+		} finally {
+			zipFile.close();
+		}
+	}
+}
@@ -43,6 +43,7 @@ import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 
+import org.eclipse.jdt.internal.ui.packageview.RefreshPlanner;
 import org.eclipse.jdt.internal.ui.util.CoreUtility;
 import org.eclipse.jdt.internal.ui.wizards.buildpaths.CPListElement;
 
@@ -266,6 +267,24 @@ public class ContentProviderTests1 extends TestCase {
 		assertEquals("No refreshes", 0, fMyPart.getRefreshedObject().size()); //$NON-NLS-1$
 	}
 
+	public void testCoalescedRefreshes() throws Exception {
+		RefreshPlanner planner= new RefreshPlanner(fMyPart.getTreeViewer(), fProvider);
+		planner.add(fPack2, true);
+		planner.add(fPack6, false);
+		planner.add(fRoot1, true);
+		planner.add(fPack2, false);
+		planner.add(fJProject2, false);
+		assertEquals("Planned refreshes", 5, planner.getPlannedCount()); //$NON-NLS-1$
+
+		assertTrue("All refreshes executed", planner.execute(0)); //$NON-NLS-1$
+		assertTrue(planner.isEmpty());
+
+		// the packages are covered by the source folder, the source folder updates labels but the project does not
+		assertEquals("Two refreshes", 2, fMyPart.getRefreshedObject().size()); //$NON-NLS-1$
+		assertTrue("Source folder refreshed", fMyPart.wasObjectRefreshed(fRoot1)); //$NON-NLS-1$
+		assertTrue("Project refreshed", fMyPart.wasObjectRefreshed(fJProject2)); //$NON-NLS-1$
+	}
+
 	public void testBug65240() throws Exception {
 		IClasspathEntry[] rawClasspath= fJProject2.getRawClasspath();
 		IClasspathEntry src1= rawClasspath[0];
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.packageview;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.jface.viewers.ViewerFilter;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
+import org.eclipse.jdt.internal.ui.filters.EmptyInnerPackageFilter;
+import org.eclipse.jdt.internal.ui.filters.EmptyPackageFilter;
+import org.eclipse.jdt.internal.ui.filters.NonJavaProjectsFilter;
+
+/**
+ * Tests that the filters using the element filter cache see added and removed elements.
+ */
+public class ElementFilterCacheTest extends TestCase {
+
+	private IJavaProject fJProject;
+	private IPackageFragmentRoot fRoot;
+
+	public ElementFilterCacheTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(ElementFilterCacheTest.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fJProject= JavaProjectHelper.createJavaProject("ElementFilterCache", "bin");
+		fRoot= JavaProjectHelper.addSourceContainer(fJProject, "src");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		JavaProjectHelper.delete(fJProject);
+	}
+
+	private static boolean select(ViewerFilter filter, Object element) {
+		// without a viewer, the non-Java resources of packages are not filtered
+		return filter.select(null, null, element);
+	}
+
+	public void testEmptyPackage() throws Exception {
+		ViewerFilter filter= new EmptyPackageFilter();
+		IPackageFragment pack= fRoot.createPackageFragment("p", true, null);
+		assertFalse(select(filter, pack));
+		assertFalse(select(filter, pack)); // cached
+
+		ICompilationUnit cu= pack.createCompilationUnit("A.java", "package p;\npublic class A {\n}\n", true, null);
+		assertTrue(select(filter, pack));
+
+		// changing the content keeps the package
+		cu.getBuffer().setContents("package p;\npublic class A {\n\tint x;\n}\n");
+		cu.save(null, true);
+		assertTrue(select(filter, pack));
+
+		cu.delete(true, null);
+		assertFalse(select(filter, pack));
+	}
+
+	public void testEmptyInnerPackage() throws Exception {
+		ViewerFilter filter= new EmptyInnerPackageFilter();
+		IPackageFragment pack= fRoot.createPackageFragment("p", true, null);
+		assertTrue(select(filter, pack));
+
+		IPackageFragment inner= fRoot.createPackageFragment("p.q", true, null);
+		assertFalse(select(filter, pack));
+		assertTrue(select(filter, inner));
+
+		inner.delete(true, null);
+		assertTrue(select(filter, pack));
+	}
+
+	public void testNonJavaProject() throws Exception {
+		ViewerFilter filter= new NonJavaProjectsFilter();
+		IProject project= ResourcesPlugin.getWorkspace().getRoot().getProject("ElementFilterCacheOther");
+		project.create(null);
+		project.open(null);
+		try {
+			assertFalse(select(filter, project));
+
+			IProjectDescription description= project.getDescription();
+			description.setNatureIds(fJProject.getProject().getDescription().getNatureIds());
+			project.setDescription(description, null);
+			assertTrue(select(filter, project));
+		} finally {
+			JavaProjectHelper.delete(project);
+		}
+		assertTrue(select(filter, fJProject.getProject()));
+	}
+}
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.packageview;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerFilter;
+
+import org.eclipse.jdt.internal.ui.viewsupport.ProblemTreeViewer;
+
+/**
+ * Tests that the filters of a {@link ProblemTreeViewer} are ordered by their cost without
+ * changing the filtered elements.
+ */
+public class ProblemTreeViewerFilterTest extends TestCase {
+
+	private static final Object ROOT= new Object();
+	private static final int ELEMENT_COUNT= 300; // more than the number of sampled tests
+
+	private static class TestViewer extends ProblemTreeViewer {
+		TestViewer(Shell shell) {
+			super(shell);
+		}
+
+		ViewerFilter[] getTestOrder() {
+			return getOrderedFilters();
+		}
+
+		Object[] getTestChildren() {
+			return getFilteredChildren(ROOT);
+		}
+	}
+
+	/** Sleeps, rejects multiples of 3. */
+	private static class SlowFilter extends ViewerFilter {
+		@Override
+		public boolean select(Viewer viewer, Object parent, Object element) {
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				// continue
+			}
+			int n= ((Integer) element).intValue();
+			return n < 0 || n % 3 != 0;
+		}
+	}
+
+	/** Tests another element with the viewer, rejects every eighth element. */
+	private static class NestingFilter extends ViewerFilter {
+		@Override
+		public boolean select(Viewer viewer, Object parent, Object element) {
+			int n= ((Integer) element).intValue();
+			if (n < 0)
+				return true;
+			((ProblemTreeViewer) viewer).isFiltered(Integer.valueOf(-n - 1), parent);
+			return n % 8 != 7;
+		}
+	}
+
+	private Shell fShell;
+	private TestViewer fViewer;
+
+	public ProblemTreeViewerFilterTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(ProblemTreeViewerFilterTest.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fShell= new Shell();
+		fViewer= new TestViewer(fShell);
+		fViewer.setContentProvider(new ITreeContentProvider() {
+			@Override
+			public Object[] getElements(Object inputElement) {
+				return getChildren(inputElement);
+			}
+
+			@Override
+			public Object[] getChildren(Object parentElement) {
+				if (parentElement != ROOT)
+					return new Object[0];
+				Object[] children= new Object[ELEMENT_COUNT];
+				for (int i= 0; i < children.length; i++) {
+					children[i]= Integer.valueOf(i);
+				}
+				return children;
+			}
+
+			@Override
+			public Object getParent(Object element) {
+				return element == ROOT ? null : ROOT;
+			}
+
+			@Override
+			public boolean hasChildren(Object element) {
+				return element == ROOT;
+			}
+
+			@Override
+			public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+			}
+
+			@Override
+			public void dispose() {
+			}
+		});
+		fViewer.setLabelProvider(new LabelProvider());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fShell.dispose();
+	}
+
+	private void assertFilterResults() {
+		int selected= 0;
+		for (int i= 0; i < ELEMENT_COUNT; i++) {
+			boolean expected= i % 3 == 0 || i % 8 == 7;
+			assertEquals(String.valueOf(i), expected, fViewer.isFiltered(Integer.valueOf(i), ROOT));
+			if (!expected)
+				selected++;
+		}
+		assertEquals(selected, fViewer.getTestChildren().length);
+	}
+
+	public void testFilterOrder() throws Exception {
+		ViewerFilter slow= new SlowFilter();
+		ViewerFilter nesting= new NestingFilter();
+		fViewer.addFilter(slow);
+		fViewer.addFilter(nesting);
+		assertSame(slow, fViewer.getTestOrder()[0]);
+
+		// the results are the same while the filters are sampled and after they are ordered
+		assertFilterResults();
+		// the time of the nested tests, which are slow, is not part of the nesting filter's cost
+		assertSame(nesting, fViewer.getTestOrder()[0]);
+		assertFilterResults();
+	}
+
+	public void testOrderResetOnFilterChange() throws Exception {
+		ViewerFilter slow= new SlowFilter();
+		ViewerFilter nesting= new NestingFilter();
+		fViewer.addFilter(slow);
+		fViewer.addFilter(nesting);
+		assertFilterResults();
+		assertSame(nesting, fViewer.getTestOrder()[0]);
+
+		fViewer.removeFilter(nesting);
+		assertEquals(1, fViewer.getTestOrder().length);
+		fViewer.addFilter(nesting);
+		assertSame(slow, fViewer.getTestOrder()[0]);
+		assertFilterResults();
+	}
+}
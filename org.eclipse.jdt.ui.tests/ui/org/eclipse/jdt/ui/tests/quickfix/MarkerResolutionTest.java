@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,16 +10,21 @@
  *******************************************************************************/
 package org.eclipse.jdt.ui.tests.quickfix;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Hashtable;
+import java.util.List;
 
 import org.eclipse.jdt.testplugin.JavaProjectHelper;
 import org.eclipse.jdt.testplugin.TestOptions;
 
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
 
 import org.eclipse.jface.preference.IPreferenceStore;
 
@@ -29,25 +34,33 @@ import org.eclipse.jface.text.quickassist.IQuickAssistInvocationContext;
 import org.eclipse.jface.text.source.ISourceViewer;
 
 import org.eclipse.ui.IEditorPart;
+import org.eclipse.ui.IMarkerResolution;
+import org.eclipse.ui.views.markers.WorkbenchMarkerResolution;
 
 import org.eclipse.ui.texteditor.ITextEditor;
 
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaModelMarker;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.compiler.IProblem;
+import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.formatter.DefaultCodeFormatterConstants;
 
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jdt.ui.PreferenceConstants;
 import org.eclipse.jdt.ui.examples.AddTestMarkersAction;
 import org.eclipse.jdt.ui.tests.core.ProjectTestSetup;
+import org.eclipse.jdt.ui.text.java.IJavaCompletionProposal;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
 import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jdt.internal.ui.text.correction.CorrectionMarkerResolutionGenerator;
 import org.eclipse.jdt.internal.ui.text.correction.JavaCorrectionAssistant;
 import org.eclipse.jdt.internal.ui.text.correction.JavaCorrectionProcessor;
+import org.eclipse.jdt.internal.ui.text.correction.QuickFixResultCache;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
@@ -240,4 +253,94 @@ public class MarkerResolutionTest extends QuickFixTest {
 		}
 	}
 
+	public void testQuickFixResultCache() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("import java.util.Vector;\n");
+		buf.append("public class E {\n");
+		buf.append("}\n");
+		ICompilationUnit cu= pack1.createCompilationUnit("E.java", buf.toString(), false, null);
+
+		QuickFixResultCache cache= JavaPlugin.getDefault().getQuickFixResultCache();
+		assertTrue(cache.hasCorrections(cu, IProblem.UnusedImport, IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER));
+		assertTrue(cache.hasCorrections(cu, IProblem.UnusedImport, IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER));
+
+		CompilationUnit ast= cache.getAST(cu, null);
+		assertNotNull(ast);
+		assertSame(ast, cache.getAST(cu, null));
+
+		IJavaCompletionProposal[] proposals= new IJavaCompletionProposal[0];
+		cache.putProposals(ast, 22, 16, IProblem.UnusedImport, proposals);
+		assertSame(proposals, cache.getProposals(ast, 22, 16, IProblem.UnusedImport));
+		assertNull(cache.getProposals(ast, 0, 16, IProblem.UnusedImport));
+
+		buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("import java.util.List;\n");
+		buf.append("public class E {\n");
+		buf.append("}\n");
+		pack1.createCompilationUnit("E.java", buf.toString(), true, null);
+
+		assertNull(cache.getProposals(ast, 22, 16, IProblem.UnusedImport));
+		CompilationUnit newAST= cache.getAST(cu, null);
+		assertNotSame(ast, newAST);
+		assertEquals(buf.toString().length(), newAST.getLength());
+	}
+
+	public void testMultiFix() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("import java.util.List;\n");
+		buf.append("import java.util.Vector;\n");
+		buf.append("public class E1 {\n");
+		buf.append("}\n");
+		ICompilationUnit cu1= pack1.createCompilationUnit("E1.java", buf.toString(), false, null);
+
+		buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("import java.util.Vector;\n");
+		buf.append("public class E2 {\n");
+		buf.append("}\n");
+		ICompilationUnit cu2= pack1.createCompilationUnit("E2.java", buf.toString(), false, null);
+
+		fJProject1.getProject().build(IncrementalProjectBuilder.FULL_BUILD, null);
+		IMarker[] problems= fJProject1.getProject().findMarkers(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, false, IResource.DEPTH_INFINITE);
+		List<IMarker> markers= new ArrayList<>();
+		for (int i= 0; i < problems.length; i++) {
+			if (problems[i].getAttribute(IJavaModelMarker.ID, -1) == IProblem.UnusedImport)
+				markers.add(problems[i]);
+		}
+		assertEquals(3, markers.size());
+
+		IMarker marker= markers.get(0);
+		IMarker[] allMarkers= markers.toArray(new IMarker[markers.size()]);
+		WorkbenchMarkerResolution multiFix= null;
+		IMarkerResolution[] resolutions= new CorrectionMarkerResolutionGenerator().getResolutions(marker);
+		for (int i= 0; i < resolutions.length; i++) {
+			if (resolutions[i] instanceof WorkbenchMarkerResolution) {
+				WorkbenchMarkerResolution resolution= (WorkbenchMarkerResolution) resolutions[i];
+				if (resolution.findOtherMarkers(allMarkers).length == 2)
+					multiFix= resolution;
+			}
+		}
+		assertNotNull(multiFix);
+
+		// the selected markers include the one the resolution was created for
+		multiFix.run(allMarkers, new NullProgressMonitor());
+
+		buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E1 {\n");
+		buf.append("}\n");
+		assertEqualString(cu1.getSource(), buf.toString());
+
+		buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E2 {\n");
+		buf.append("}\n");
+		assertEqualString(cu2.getSource(), buf.toString());
+	}
+
 }
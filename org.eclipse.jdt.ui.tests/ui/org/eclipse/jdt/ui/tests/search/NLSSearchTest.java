@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2011 IBM Corporation and others.
+ * Copyright (c) 2006, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -39,6 +39,7 @@ import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
 
 import org.eclipse.jdt.ui.tests.core.ProjectTestSetup;
 
@@ -635,4 +636,90 @@ public class NLSSearchTest extends TestCase {
 		NLSSearchTestHelper.assertNumberOfProblems(accessor, propertiesFile, 1);
 	}
 
+	public void testSeveralAccessorClasses() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		IPackageFragment pack2= fSourceFolder.createPackageFragment("test2", false, null);
+		ICompilationUnit accessor1= pack1.createCompilationUnit("Accessor.java", getAccessor("test1"), false, null);
+		ICompilationUnit accessor2= pack2.createCompilationUnit("Accessor.java", getAccessor("test2"), false, null);
+
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class Client {\n");
+		buf.append("    public String s1= Accessor.Client_s1;\n");
+		buf.append("}\n");
+		ICompilationUnit client= pack1.createCompilationUnit("Client.java", buf.toString(), false, null);
+
+		buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("import test2.Accessor;\n");
+		buf.append("public class Client2 {\n");
+		buf.append("    public String s1= Accessor.Client_s1;\n");
+		buf.append("}\n");
+		ICompilationUnit client2= pack1.createCompilationUnit("Client2.java", buf.toString(), false, null);
+
+		IFile propertiesFile1= write((IFolder)pack1.getCorrespondingResource(), "Client_s1=s1\n", "Accessor.properties");
+		IFile propertiesFile2= write((IFolder)pack2.getCorrespondingResource(), "Client_s2=s2\n", "Accessor.properties");
+
+		IType[] accessors= new IType[] {accessor1.getType("Accessor"), accessor2.getType("Accessor")};
+		IFile[] propertiesFiles= new IFile[] {propertiesFile1, propertiesFile2};
+		NLSSearchTestHelper.assertHasUndefinedKey(accessors, propertiesFiles, "Client_s1", (IFile)client2.getCorrespondingResource(), false);
+		NLSSearchTestHelper.assertHasUndefinedKey(accessors, propertiesFiles, "Client_s1", (IFile)accessor2.getCorrespondingResource(), true);
+		NLSSearchTestHelper.assertHasUnusedKey(accessors, propertiesFiles, "Client_s2", propertiesFile2, false);
+		NLSSearchTestHelper.assertNoProblems(accessors, propertiesFiles, (IFile)client.getCorrespondingResource());
+		NLSSearchTestHelper.assertNoProblems(accessors, propertiesFiles, (IFile)accessor1.getCorrespondingResource());
+	}
+
+	public void testSeveralAccessorClassesWithMemberType() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		IPackageFragment pack2= fSourceFolder.createPackageFragment("test2", false, null);
+
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("import org.eclipse.osgi.util.NLS;\n");
+		buf.append("public class Outer {\n");
+		buf.append("    public static class Accessor extends NLS {\n");
+		buf.append("        public static String Client_s1;\n");
+		buf.append("        private Accessor() {}\n");
+		buf.append("        private static final String BUNDLE_NAME = \"test1.Accessor\"; //$NON-NLS-1$\n");
+		buf.append("        static {NLS.initializeMessages(BUNDLE_NAME, Accessor.class);}\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		ICompilationUnit outer= pack1.createCompilationUnit("Outer.java", buf.toString(), false, null);
+		ICompilationUnit accessor2= pack2.createCompilationUnit("Accessor.java", getAccessor("test2"), false, null);
+
+		buf= new StringBuffer();
+		buf.append("package test2;\n");
+		buf.append("import test1.Outer;\n");
+		buf.append("public class Client {\n");
+		buf.append("    public String s1= Outer.Accessor.Client_s1;\n");
+		buf.append("    public String s2= Accessor.Client_s1;\n");
+		buf.append("}\n");
+		ICompilationUnit client= pack2.createCompilationUnit("Client.java", buf.toString(), false, null);
+
+		IFile propertiesFile1= write((IFolder)pack1.getCorrespondingResource(), "Client_s1=s1\n", "Accessor.properties");
+		IFile propertiesFile2= write((IFolder)pack2.getCorrespondingResource(), "Client_s2=s2\n", "Accessor.properties");
+
+		IType[] accessors= new IType[] {outer.getType("Outer").getType("Accessor"), accessor2.getType("Accessor")};
+		IFile[] propertiesFiles= new IFile[] {propertiesFile1, propertiesFile2};
+		// the partially qualified reference uses the key of the member type
+		NLSSearchTestHelper.assertNoProblems(accessors, propertiesFiles, propertiesFile1);
+		NLSSearchTestHelper.assertHasUndefinedKey(accessors, propertiesFiles, "Client_s1", (IFile)accessor2.getCorrespondingResource(), true);
+		NLSSearchTestHelper.assertHasUndefinedKey(accessors, propertiesFiles, "Client_s1", (IFile)client.getCorrespondingResource(), false);
+	}
+
+	private static String getAccessor(String packageName) {
+		StringBuffer buf= new StringBuffer();
+		buf.append("package " + packageName + ";\n");
+		buf.append("import org.eclipse.osgi.util.NLS;\n");
+		buf.append("public class Accessor extends NLS {\n");
+		buf.append("\n");
+		buf.append("    public static String Client_s1;\n");
+		buf.append("\n");
+		buf.append("    private Accessor() {}\n");
+		buf.append("    private static final String BUNDLE_NAME = \"" + packageName + ".Accessor\"; //$NON-NLS-1$\n");
+		buf.append("    static {NLS.initializeMessages(BUNDLE_NAME, Accessor.class);}\n");
+		buf.append("}\n");
+		return buf.toString();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -50,9 +50,26 @@ public class NLSSearchTestHelper {
 		assertResultHasDuplicateKey(key, file, searchProblems(accessor, propertiesFile));
 	}
 
+	public static void assertHasUndefinedKey(IType[] accessorClasses, IFile[] propertiesFiles, String key, IFile file, boolean isAccessor) throws CoreException {
+		assertResultHasUndefinedKey(key, file, isAccessor, searchProblems(accessorClasses, propertiesFiles));
+	}
+
+	public static void assertHasUnusedKey(IType[] accessorClasses, IFile[] propertiesFiles, String key, IFile file, boolean isAccessor) throws IOException, CoreException {
+		assertResultHasUnusedKey(key, file, isAccessor, searchProblems(accessorClasses, propertiesFiles));
+	}
+
+	public static void assertNoProblems(IType[] accessorClasses, IFile[] propertiesFiles, IFile file) {
+		NLSSearchResult result= searchProblems(accessorClasses, propertiesFiles);
+		int is= result.getFileMatchAdapter().computeContainedMatches(result, file).length;
+		Assert.assertTrue("Expected no problems in " + file.getName() + " but was " + is, is == 0);
+	}
+
 	private static NLSSearchResult searchProblems(ICompilationUnit accessor, IFile propertiesFile) {
-		IType type= accessor.getType("Accessor");
-		NLSSearchQuery query= new NLSSearchQuery((new IType[] {type}), (new IFile[] {propertiesFile}), SearchEngine.createWorkspaceScope(), ""); //$NON-NLS-1$
+		return searchProblems(new IType[] {accessor.getType("Accessor")}, new IFile[] {propertiesFile});
+	}
+
+	private static NLSSearchResult searchProblems(IType[] accessorClasses, IFile[] propertiesFiles) {
+		NLSSearchQuery query= new NLSSearchQuery(accessorClasses, propertiesFiles, SearchEngine.createWorkspaceScope(), ""); //$NON-NLS-1$
 		NewSearchUI.runQueryInForeground(new BusyIndicatorRunnableContext(), query);
 		NLSSearchResult result= (NLSSearchResult)query.getSearchResult();
 		return result;
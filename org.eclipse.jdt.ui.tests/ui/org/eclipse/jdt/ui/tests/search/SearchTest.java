@@ -20,6 +20,7 @@ public class SearchTest {
 		//suite.addTestSuite(WorkspaceScopeTest.class);
 		suite.addTest(WorkspaceReferenceTest.suite());
 		suite.addTest(TreeContentProviderTestWrapper.suite());
+		suite.addTest(TableContentProviderTest.suite());
 		suite.addTest(ParticipantTest.suite());
 		suite.addTest(FileAdapterTest.suite());
 		suite.addTest(NLSSearchTest.suite());
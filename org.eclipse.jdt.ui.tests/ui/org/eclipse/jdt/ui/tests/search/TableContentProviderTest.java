@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.search;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.TableViewer;
+
+import org.eclipse.search.ui.text.AbstractTextSearchResult;
+import org.eclipse.search.ui.text.Match;
+
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IType;
+
+import org.eclipse.jdt.internal.ui.search.JavaSearchResult;
+import org.eclipse.jdt.internal.ui.search.JavaSearchResultPage;
+import org.eclipse.jdt.internal.ui.search.JavaSearchTableContentProvider;
+
+/**
+ * Tests the content provider of the flat search result table, which is virtual.
+ */
+public class TableContentProviderTest extends TestCase {
+
+	private Shell fShell;
+	private TableViewer fViewer;
+	private JavaSearchTableContentProvider fProvider;
+	private JavaSearchResult fResult;
+
+	public TableContentProviderTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new JUnitSourceSetup(new TestSuite(TableContentProviderTest.class));
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fShell= new Shell();
+		fViewer= new TableViewer(fShell, SWT.VIRTUAL);
+		fResult= new JavaSearchResult(null);
+		fProvider= new JavaSearchTableContentProvider(new JavaSearchResultPage() {
+			@Override
+			protected StructuredViewer getViewer() {
+				return fViewer;
+			}
+
+			@Override
+			public AbstractTextSearchResult getInput() {
+				return fResult;
+			}
+		});
+		fViewer.setContentProvider(fProvider);
+		fViewer.setLabelProvider(new LabelProvider());
+		fViewer.setInput(fResult);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fShell.dispose();
+	}
+
+	private void addMatch(Match match) {
+		fResult.addMatch(match);
+		fProvider.elementsChanged(new Object[] { match.getElement() });
+	}
+
+	private void removeMatch(Match match) {
+		fResult.removeMatch(match);
+		fProvider.elementsChanged(new Object[] { match.getElement() });
+	}
+
+	private int getItemCount() {
+		return ((Table) fViewer.getControl()).getItemCount();
+	}
+
+	public void testUnrevealedRowsNotDuplicated() throws Exception {
+		IMethod method= SearchTestHelper.getMethod("junit.framework.TestCase", "getName", new String[0]);
+		IType type= SearchTestHelper.getType("junit.framework.Assert");
+
+		// the items of the virtual table are not revealed, so they can't be found in the table
+		addMatch(new Match(method, 0, 1));
+		addMatch(new Match(type, 0, 1));
+		assertEquals(2, getItemCount());
+
+		Match second= new Match(method, 5, 1);
+		addMatch(second);
+		assertEquals(2, getItemCount());
+
+		removeMatch(second);
+		assertEquals(2, getItemCount());
+	}
+
+	public void testRemoveLastMatch() throws Exception {
+		IMethod method= SearchTestHelper.getMethod("junit.framework.TestCase", "getName", new String[0]);
+		Match match= new Match(method, 0, 1);
+		addMatch(match);
+		assertEquals(1, getItemCount());
+
+		removeMatch(match);
+		assertEquals(0, getItemCount());
+
+		addMatch(match);
+		assertEquals(1, getItemCount());
+	}
+
+	public void testRefresh() throws Exception {
+		IMethod method= SearchTestHelper.getMethod("junit.framework.TestCase", "getName", new String[0]);
+		addMatch(new Match(method, 0, 1));
+		fProvider.clear();
+		assertEquals(1, getItemCount());
+
+		addMatch(new Match(method, 5, 1));
+		assertEquals(1, getItemCount());
+	}
+}
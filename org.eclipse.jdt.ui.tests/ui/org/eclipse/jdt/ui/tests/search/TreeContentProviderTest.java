@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -255,6 +255,75 @@ public class TreeContentProviderTest extends TestCase {
 		assertEquals(0, fProvider.getElements(fResult).length);
 	}
 
+	public void testBuildBeforeExpanding() throws Exception {
+		IMethod method1= SearchTestHelper.getMethod("junit.framework.TestCase", "getName", new String[0]);
+		IMethod method2= SearchTestHelper.getMethod("junit.framework.TestCase", "countTestCases", new String[0]);
+		IType type= method1.getDeclaringType();
+		IPackageFragment pkg= type.getPackageFragment();
+		addMatch(new Match(method1, 0, 1));
+		addMatch(new Match(method2, 0, 1));
+
+		// the children of the package and of the result are materialized on the way to the type
+		assertEquals(2, fProvider.getChildren(type).length);
+		assertEquals(1, fProvider.getChildren(pkg).length);
+		assertEquals(1, fProvider.getElements(fResult).length);
+	}
+
+	public void testAddBelowCollapsedNode() throws Exception {
+		IMethod method1= SearchTestHelper.getMethod("junit.framework.TestCase", "getName", new String[0]);
+		IMethod method2= SearchTestHelper.getMethod("junit.framework.TestCase", "countTestCases", new String[0]);
+		IType type= method1.getDeclaringType();
+		IPackageFragment pkg= type.getPackageFragment();
+		assertEquals(0, fProvider.getElements(fResult).length);
+
+		addMatch(new Match(method1, 0, 1));
+		assertEquals(1, fProvider.getElements(fResult).length);
+		assertTrue(fProvider.hasChildren(pkg));
+
+		addMatch(new Match(method2, 0, 1));
+		assertEquals(1, fProvider.getElements(fResult).length);
+		assertEquals(1, fProvider.getChildren(pkg).length);
+		assertEquals(2, fProvider.getChildren(type).length);
+		assertFalse(fProvider.hasChildren(method1));
+	}
+
+	public void testRemoveBelowCollapsedNode() throws Exception {
+		IMethod method1= SearchTestHelper.getMethod("junit.framework.TestCase", "getName", new String[0]);
+		IMethod method2= SearchTestHelper.getMethod("junit.framework.TestCase", "countTestCases", new String[0]);
+		IType type= method1.getDeclaringType();
+		IPackageFragment pkg= type.getPackageFragment();
+		assertEquals(0, fProvider.getElements(fResult).length);
+
+		Match match1= new Match(method1, 0, 1);
+		addMatch(match1);
+		Match match2= new Match(method2, 0, 1);
+		addMatch(match2);
+
+		removeMatch(match1);
+		assertTrue(fProvider.hasChildren(pkg));
+		assertEquals(1, fProvider.getChildren(type).length);
+
+		removeMatch(match2);
+		assertEquals(0, fProvider.getChildren(type).length);
+		assertEquals(0, fProvider.getChildren(pkg).length);
+		assertEquals(0, fProvider.getElements(fResult).length);
+	}
+
+	public void testRemoveBelowUnexpandedResult() throws Exception {
+		IMethod method= SearchTestHelper.getMethod("junit.framework.TestCase", "getName", new String[0]);
+		IType type= method.getDeclaringType();
+		Match match1= new Match(method, 0, 1);
+		addMatch(match1);
+		Match match2= new Match(type, 0, 1);
+		addMatch(match2);
+
+		// only the result has been built, its children are still pending
+		assertTrue(fProvider.hasChildren(fResult));
+		removeMatch(match1);
+		removeMatch(match2);
+		assertEquals(0, fProvider.getElements(fResult).length);
+	}
+
 	private void removeMatch(Match match) {
 		fResult.removeMatch(match);
 		fProvider.elementsChanged(new Object[] { match.getElement() });
@@ -73,4 +73,20 @@ public class TreeContentProviderTestWrapper extends TestCase {
 	public void testRemoveParentLast() throws Exception {
 		fTest.testRemoveParentLast();
 	}
+
+	public void testBuildBeforeExpanding() throws Exception {
+		fTest.testBuildBeforeExpanding();
+	}
+
+	public void testAddBelowCollapsedNode() throws Exception {
+		fTest.testAddBelowCollapsedNode();
+	}
+
+	public void testRemoveBelowCollapsedNode() throws Exception {
+		fTest.testRemoveBelowCollapsedNode();
+	}
+
+	public void testRemoveBelowUnexpandedResult() throws Exception {
+		fTest.testRemoveBelowUnexpandedResult();
+	}
 }
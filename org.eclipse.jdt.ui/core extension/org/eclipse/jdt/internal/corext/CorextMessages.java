@@ -39,6 +39,8 @@ public final class CorextMessages extends NLS {
 	public static String History_error_read;
 	public static String TypeInfoHistory_consistency_check;
 
+	public static String TypeNameTable_build_job;
+
 	static {
 		NLS.initializeMessages(BUNDLE_NAME, CorextMessages.class);
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -70,9 +70,27 @@ public class ImportReferencesCollector extends GenericVisitor {
 	}
 
 	public static void collect(ASTNode node, IJavaProject project, Region rangeLimit, boolean skipMethodBodies, Collection<SimpleName> resultingTypeImports, Collection<SimpleName> resultingStaticImports) {
+		boolean staticImports= project != null && JavaModelUtil.is50OrHigher(project);
+		collect(node, staticImports, rangeLimit, skipMethodBodies, resultingTypeImports, resultingStaticImports);
+	}
+
+	/**
+	 * Collects the references that need imports, for clients that know whether the project of the
+	 * node supports static imports.
+	 *
+	 * @param node the node to collect the references of
+	 * @param staticImports <code>true</code> if the project supports static imports, see
+	 *            {@link JavaModelUtil#is50OrHigher(IJavaProject)}
+	 * @param rangeLimit the range to collect the references in, or <code>null</code>
+	 * @param skipMethodBodies <code>true</code> to skip the bodies of methods
+	 * @param resultingTypeImports the collection to add the type references to
+	 * @param resultingStaticImports the collection to add the static member references to
+	 * @since 3.12
+	 */
+	public static void collect(ASTNode node, boolean staticImports, Region rangeLimit, boolean skipMethodBodies, Collection<SimpleName> resultingTypeImports, Collection<SimpleName> resultingStaticImports) {
 		ASTNode root= node.getRoot();
 		CompilationUnit astRoot= root instanceof CompilationUnit ? (CompilationUnit) root : null;
-		node.accept(new ImportReferencesCollector(project, astRoot, rangeLimit, skipMethodBodies, resultingTypeImports, resultingStaticImports));
+		node.accept(new ImportReferencesCollector(staticImports, astRoot, rangeLimit, skipMethodBodies, resultingTypeImports, resultingStaticImports));
 	}
 
 	private CompilationUnit fASTRoot;
@@ -81,12 +99,12 @@ public class ImportReferencesCollector extends GenericVisitor {
 	private Collection<SimpleName> fStaticImports;
 	private boolean fSkipMethodBodies;
 
-	private ImportReferencesCollector(IJavaProject project, CompilationUnit astRoot, Region rangeLimit, boolean skipMethodBodies, Collection<SimpleName> resultingTypeImports, Collection<SimpleName> resultingStaticImports) {
+	private ImportReferencesCollector(boolean staticImports, CompilationUnit astRoot, Region rangeLimit, boolean skipMethodBodies, Collection<SimpleName> resultingTypeImports, Collection<SimpleName> resultingStaticImports) {
 		super(processJavadocComments(astRoot));
 		fTypeImports= resultingTypeImports;
 		fStaticImports= resultingStaticImports;
 		fSubRange= rangeLimit;
-		if (project == null || !JavaModelUtil.is50OrHigher(project)) {
+		if (!staticImports) {
 			fStaticImports= null; // do not collect
 		}
 		fASTRoot= astRoot; // can be null
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.codemanipulation;
+
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.dom.rewrite.ImportRewrite;
+
+import org.eclipse.jdt.ui.CodeStyleConfiguration;
+import org.eclipse.jdt.ui.PreferenceConstants;
+
+/**
+ * The import order and on demand thresholds of a project, as specified in the JDT UI
+ * preferences. The settings are read when the object is created, clients that create many
+ * import rewrites for the same project can keep them instead of reading the preferences for each
+ * rewrite.
+ *
+ * @see CodeStyleConfiguration
+ * @since 3.12
+ */
+public final class ImportRewriteSettings {
+
+	private static final Pattern SEMICOLON_PATTERN= Pattern.compile(";"); //$NON-NLS-1$
+
+	private final String[] fImportOrder;
+	private final int fOnDemandThreshold;
+	private final int fStaticOnDemandThreshold;
+
+	/**
+	 * Reads the import settings of the given project.
+	 *
+	 * @param project the project, or <code>null</code> for the workspace settings
+	 */
+	public ImportRewriteSettings(IJavaProject project) {
+		String order= PreferenceConstants.getPreference(PreferenceConstants.ORGIMPORTS_IMPORTORDER, project);
+		if (order.endsWith(";")) { //$NON-NLS-1$
+			order= order.substring(0, order.length() - 1);
+		}
+		fImportOrder= SEMICOLON_PATTERN.split(order, -1);
+		fOnDemandThreshold= getThreshold(PreferenceConstants.ORGIMPORTS_ONDEMANDTHRESHOLD, project);
+		fStaticOnDemandThreshold= getThreshold(PreferenceConstants.ORGIMPORTS_STATIC_ONDEMANDTHRESHOLD, project);
+	}
+
+	private static int getThreshold(String key, IJavaProject project) {
+		String threshold= PreferenceConstants.getPreference(key, project);
+		try {
+			int num= Integer.parseInt(threshold);
+			if (num == 0)
+				num= 1;
+			return num;
+		} catch (NumberFormatException e) {
+			return -1; // keep the default of the import rewrite
+		}
+	}
+
+	/**
+	 * Configures the given import rewrite with these settings.
+	 *
+	 * @param rewrite the import rewrite to configure
+	 * @return the given rewrite
+	 */
+	public ImportRewrite configure(ImportRewrite rewrite) {
+		rewrite.setImportOrder(fImportOrder);
+		if (fOnDemandThreshold != -1)
+			rewrite.setOnDemandImportThreshold(fOnDemandThreshold);
+		if (fStaticOnDemandThreshold != -1)
+			rewrite.setStaticOnDemandImportThreshold(fStaticOnDemandThreshold);
+		return rewrite;
+	}
+}
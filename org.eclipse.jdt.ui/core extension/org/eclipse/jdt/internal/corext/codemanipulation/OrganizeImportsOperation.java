@@ -217,6 +217,8 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 
 		private final UnresolvableImportMatcher fUnresolvableImportMatcher;
 
+		private final TypeNameLookupSession fLookupSession;
+
 		private IPackageFragment fCurrPackage;
 
 		private ScopeAnalyzer fAnalyzer;
@@ -228,12 +230,13 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 		private SourceRange[] fSourceRanges;
 
 
-		public TypeReferenceProcessor(Set<String> oldSingleImports, Set<String> oldDemandImports, CompilationUnit root, ImportRewrite impStructure, boolean ignoreLowerCaseNames, UnresolvableImportMatcher unresolvableImportMatcher) {
+		public TypeReferenceProcessor(Set<String> oldSingleImports, Set<String> oldDemandImports, CompilationUnit root, ImportRewrite impStructure, boolean ignoreLowerCaseNames, UnresolvableImportMatcher unresolvableImportMatcher, TypeNameLookupSession lookupSession) {
 			fOldSingleImports= oldSingleImports;
 			fOldDemandImports= oldDemandImports;
 			fImpStructure= impStructure;
 			fDoIgnoreLowerCaseNames= ignoreLowerCaseNames;
 			fUnresolvableImportMatcher= unresolvableImportMatcher;
+			fLookupSession= lookupSession;
 
 			ICompilationUnit cu= impStructure.getCompilationUnit();
 
@@ -346,20 +349,25 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 				if (nUnresolved == 0) {
 					return false;
 				}
-				char[][] allTypes= new char[nUnresolved][];
-				int i= 0;
-				for (Iterator<String> iter= fUnresolvedTypes.keySet().iterator(); iter.hasNext();) {
-					allTypes[i++]= iter.next().toCharArray();
-				}
-				final ArrayList<TypeNameMatch> typesFound= new ArrayList<>();
 				final IJavaProject project= fCurrPackage.getJavaProject();
-				IJavaSearchScope scope= SearchEngine.createJavaSearchScope(new IJavaElement[] { project });
-				TypeNameMatchCollector collector= new TypeNameMatchCollector(typesFound);
-				new SearchEngine().searchAllTypeNames(null, allTypes, scope, collector, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+				final List<TypeNameMatch> typesFound;
+				if (fLookupSession != null && project.equals(fLookupSession.getProject())) {
+					typesFound= fLookupSession.findTypes(fUnresolvedTypes.keySet(), monitor);
+				} else {
+					char[][] allTypes= new char[nUnresolved][];
+					int i= 0;
+					for (Iterator<String> iter= fUnresolvedTypes.keySet().iterator(); iter.hasNext();) {
+						allTypes[i++]= iter.next().toCharArray();
+					}
+					typesFound= new ArrayList<>();
+					IJavaSearchScope scope= SearchEngine.createJavaSearchScope(new IJavaElement[] { project });
+					TypeNameMatchCollector collector= new TypeNameMatchCollector(typesFound);
+					new SearchEngine().searchAllTypeNames(null, allTypes, scope, collector, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+				}
 
 				boolean is50OrHigher= 	JavaModelUtil.is50OrHigher(project);
 
-				for (i= 0; i < typesFound.size(); i++) {
+				for (int i= 0; i < typesFound.size(); i++) {
 					TypeNameMatch curr= typesFound.get(i);
 					UnresolvedTypeData data= fUnresolvedTypes.get(curr.getSimpleTypeName());
 					if (data != null && isVisible(curr) && isOfKind(curr, data.typeKinds, is50OrHigher)) {
@@ -490,7 +498,28 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 
 	private final boolean fAllowSyntaxErrors;
 
+	private final TypeNameLookupSession fLookupSession;
+
 	public OrganizeImportsOperation(ICompilationUnit cu, CompilationUnit astRoot, boolean ignoreLowerCaseNames, boolean save, boolean allowSyntaxErrors, IChooseImportQuery chooseImportQuery) {
+		this(cu, astRoot, ignoreLowerCaseNames, save, allowSyntaxErrors, chooseImportQuery, null);
+	}
+
+	/**
+	 * Creates an operation that resolves unresolved simple type names using the given session.
+	 * Passing the same session to the operations for many compilation units of a project avoids
+	 * repeating the type name searches for the same simple names.
+	 *
+	 * @param cu the compilation unit
+	 * @param astRoot the AST of the compilation unit or <code>null</code> to use the shared AST
+	 * @param ignoreLowerCaseNames whether lower case names should be ignored
+	 * @param save whether the compilation unit should be saved after the edit is applied
+	 * @param allowSyntaxErrors whether to organize the imports when the unit has syntax errors
+	 * @param chooseImportQuery the query to resolve ambiguous imports or <code>null</code>
+	 * @param lookupSession the session to use for resolving simple type names, or
+	 *            <code>null</code> to search for each unit separately
+	 * @since 3.12
+	 */
+	public OrganizeImportsOperation(ICompilationUnit cu, CompilationUnit astRoot, boolean ignoreLowerCaseNames, boolean save, boolean allowSyntaxErrors, IChooseImportQuery chooseImportQuery, TypeNameLookupSession lookupSession) {
 		fCompilationUnit= cu;
 		fASTRoot= astRoot;
 
@@ -498,6 +527,7 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 		fIgnoreLowerCaseNames= ignoreLowerCaseNames;
 		fAllowSyntaxErrors= allowSyntaxErrors;
 		fChooseImportQuery= chooseImportQuery;
+		fLookupSession= lookupSession;
 
 		fNumberOfImportsAdded= 0;
 		fNumberOfImportsRemoved= 0;
@@ -569,7 +599,8 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 					astRoot,
 					importsRewrite,
 					fIgnoreLowerCaseNames,
-					unresolvableImportMatcher);
+					unresolvableImportMatcher,
+					fLookupSession);
 
 			Iterator<SimpleName> refIterator= typeReferences.iterator();
 			while (refIterator.hasNext()) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -1486,6 +1486,21 @@ public class StubUtility {
 		return CodeStyleConfiguration.createImportRewrite(cu, restoreExistingImports);
 	}
 
+	/**
+	 * Like {@link #createImportRewrite(ICompilationUnit, boolean)}, but configures the rewriter with
+	 * the given settings instead of reading them from the preferences.
+	 *
+	 * @param cu the compilation unit to create the rewriter on
+	 * @param restoreExistingImports specifies if the existing imports should be kept or removed.
+	 * @param settings the import settings of the compilation unit's project
+	 * @return the new rewriter configured with the given settings
+	 * @throws JavaModelException thrown when the compilation unit could not be accessed.
+	 * @since 3.12
+	 */
+	public static ImportRewrite createImportRewrite(ICompilationUnit cu, boolean restoreExistingImports, ImportRewriteSettings settings) throws JavaModelException {
+		return settings.configure(ImportRewrite.create(cu, restoreExistingImports));
+	}
+
 	/**
 	 * Returns a {@link ImportRewrite} using {@link ImportRewrite#create(CompilationUnit, boolean)} and
 	 * configures the rewriter with the settings as specified in the JDT UI preferences.
@@ -1502,7 +1517,24 @@ public class StubUtility {
 	 * @see ImportRewrite#create(CompilationUnit, boolean)
 	 */
 	public static ImportRewrite createImportRewrite(CompilationUnit astRoot, boolean restoreExistingImports) {
-		ImportRewrite rewrite= CodeStyleConfiguration.createImportRewrite(astRoot, restoreExistingImports);
+		return filterImplicitImports(CodeStyleConfiguration.createImportRewrite(astRoot, restoreExistingImports), astRoot);
+	}
+
+	/**
+	 * Like {@link #createImportRewrite(CompilationUnit, boolean)}, but configures the rewriter with
+	 * the given settings instead of reading them from the preferences.
+	 *
+	 * @param astRoot the AST root to create the rewriter on
+	 * @param restoreExistingImports specifies if the existing imports should be kept or removed.
+	 * @param settings the import settings of the AST's project
+	 * @return the new rewriter configured with the given settings
+	 * @since 3.12
+	 */
+	public static ImportRewrite createImportRewrite(CompilationUnit astRoot, boolean restoreExistingImports, ImportRewriteSettings settings) {
+		return filterImplicitImports(settings.configure(ImportRewrite.create(astRoot, restoreExistingImports)), astRoot);
+	}
+
+	private static ImportRewrite filterImplicitImports(ImportRewrite rewrite, CompilationUnit astRoot) {
 		if (astRoot.getAST().hasResolvedBindings()) {
 			rewrite.setUseContextToFilterImplicitImports(true);
 		}
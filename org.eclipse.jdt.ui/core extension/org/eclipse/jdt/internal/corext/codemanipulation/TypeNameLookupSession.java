@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.codemanipulation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.TypeNameMatch;
+
+import org.eclipse.jdt.internal.corext.util.TypeNameMatchCollector;
+
+/**
+ * Caches the types found for simple type names on the class path of a project, so that
+ * organizing the imports of many compilation units of the same project does not search for
+ * the same simple names over and over again.
+ * <p>
+ * A session is meant to be used for a single batch of compilation units. Types created or
+ * removed while the session is in use are not detected.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @since 3.12
+ */
+public class TypeNameLookupSession {
+
+	private final IJavaProject fProject;
+
+	private final Map<String, List<TypeNameMatch>> fMatchesBySimpleName;
+
+	private int fSearchCount;
+	private int fLookupCount;
+
+	public TypeNameLookupSession(IJavaProject project) {
+		Assert.isNotNull(project);
+		fProject= project;
+		fMatchesBySimpleName= new HashMap<>();
+	}
+
+	/**
+	 * @return the project whose class path the session resolves names on
+	 */
+	public IJavaProject getProject() {
+		return fProject;
+	}
+
+	/**
+	 * Returns the types with one of the given simple names. Names that have not been looked up
+	 * before in this session are searched for with a single type name query.
+	 *
+	 * @param simpleNames the simple type names
+	 * @param monitor the progress monitor
+	 * @return the types found, not filtered by visibility or kind
+	 * @throws JavaModelException if the search failed
+	 */
+	public synchronized List<TypeNameMatch> findTypes(Collection<String> simpleNames, IProgressMonitor monitor) throws JavaModelException {
+		fLookupCount++;
+		List<String> missing= new ArrayList<>();
+		for (String name : simpleNames) {
+			if (!fMatchesBySimpleName.containsKey(name))
+				missing.add(name);
+		}
+		if (!missing.isEmpty()) {
+			search(missing, monitor);
+		} else if (monitor != null) {
+			monitor.done();
+		}
+
+		List<TypeNameMatch> result= new ArrayList<>();
+		for (String name : simpleNames) {
+			result.addAll(fMatchesBySimpleName.get(name));
+		}
+		return result;
+	}
+
+	private void search(List<String> simpleNames, IProgressMonitor monitor) throws JavaModelException {
+		char[][] allTypes= new char[simpleNames.size()][];
+		for (int i= 0; i < allTypes.length; i++) {
+			allTypes[i]= simpleNames.get(i).toCharArray();
+		}
+		ArrayList<TypeNameMatch> typesFound= new ArrayList<>();
+		IJavaSearchScope scope= SearchEngine.createJavaSearchScope(new IJavaElement[] { fProject });
+		TypeNameMatchCollector collector= new TypeNameMatchCollector(typesFound);
+		new SearchEngine().searchAllTypeNames(null, allTypes, scope, collector, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+		fSearchCount++;
+
+		for (int i= 0; i < simpleNames.size(); i++) {
+			fMatchesBySimpleName.put(simpleNames.get(i), Collections.<TypeNameMatch> emptyList());
+		}
+		for (int i= 0; i < typesFound.size(); i++) {
+			TypeNameMatch curr= typesFound.get(i);
+			String name= curr.getSimpleTypeName();
+			List<TypeNameMatch> matches= fMatchesBySimpleName.get(name);
+			if (matches == null)
+				continue; // not asked for
+			if (matches.isEmpty()) {
+				matches= new ArrayList<>(2);
+				fMatchesBySimpleName.put(name, matches);
+			}
+			matches.add(curr);
+		}
+	}
+
+	/**
+	 * @return the number of type name searches performed so far
+	 */
+	public synchronized int getSearchCount() {
+		return fSearchCount;
+	}
+
+	/**
+	 * @return the number of calls to {@link #findTypes(Collection, IProgressMonitor)} so far
+	 */
+	public synchronized int getLookupCount() {
+		return fLookupCount;
+	}
+}
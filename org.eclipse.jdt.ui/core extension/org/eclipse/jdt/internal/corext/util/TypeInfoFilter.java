@@ -135,6 +135,10 @@ public class TypeInfoFilter {
 		return fSearchScope;
 	}
 
+	public boolean isWorkspaceScope() {
+		return fIsWorkspaceScope;
+	}
+
 	public int getPackageFlags() {
 		if (fPackageMatcher == null)
 			return SearchPattern.R_EXACT_MATCH;
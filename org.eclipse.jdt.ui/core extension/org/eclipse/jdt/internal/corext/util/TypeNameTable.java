@@ -0,0 +1,494 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.WorkingCopyOwner;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.TypeNameMatch;
+import org.eclipse.jdt.core.search.TypeNameMatchRequestor;
+
+import org.eclipse.jdt.internal.corext.CorextMessages;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * In-memory table of all types in the workspace scope, used by the Open Type dialog to answer
+ * name queries without running a search for every pattern.
+ * <p>
+ * The table keeps the {@link TypeNameMatch} of every type, so that candidates can be reported
+ * without accessing the Java model. To find the candidates of a query, the simple type names are
+ * additionally packed into a single <code>char[]</code> sorted case-insensitively, so that the
+ * candidates for a prefix are found with a binary search. For camel case patterns, the upper case
+ * letters of each name are packed into a second array and used as a cheap pre-filter. The final
+ * decision whether a candidate matches is left to the caller.
+ * </p>
+ * <p>
+ * The table is kept current with Java element deltas: changed compilation units are recorded
+ * and their types are read from the Java model on the next query. Class path changes or too
+ * many changed compilation units discard the table, and it is rebuilt in the background. The
+ * types of the primary working copies, e.g. of the units open in editors, are always read from
+ * the working copies, so that types that are added or renamed but not saved yet are found.
+ * </p>
+ *
+ * @since 3.12
+ */
+public class TypeNameTable {
+
+	/**
+	 * Receives the candidates of a query.
+	 */
+	public interface ICandidateRequestor {
+		/**
+		 * Called for every type whose name may match the query.
+		 *
+		 * @param match the candidate
+		 */
+		void accept(TypeNameMatch match);
+	}
+
+	/**
+	 * Number of changed compilation units after which the table is rebuilt.
+	 */
+	private static final int MAX_DIRTY_UNITS= 64;
+
+	private static final class Snapshot {
+
+		final TypeNameMatch[] fMatches;
+
+		/** Simple names in case-insensitive order, packed */
+		final char[] fNames;
+		final int[] fNameStarts;
+
+		/** Upper case letters of the simple names, packed */
+		final char[] fHumps;
+		final int[] fHumpStarts;
+
+		Snapshot(List<TypeNameMatch> matches) {
+			final String[] keys= new String[matches.size()];
+			Integer[] order= new Integer[keys.length];
+			for (int i= 0; i < keys.length; i++) {
+				keys[i]= toLowerCase(matches.get(i).getSimpleTypeName());
+				order[i]= Integer.valueOf(i);
+			}
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer o1, Integer o2) {
+					return keys[o1.intValue()].compareTo(keys[o2.intValue()]);
+				}
+			});
+
+			int nameLength= 0;
+			int humpLength= 0;
+			for (int i= 0; i < keys.length; i++) {
+				String name= matches.get(i).getSimpleTypeName();
+				nameLength+= name.length();
+				humpLength+= countUpperCase(name);
+			}
+
+			fMatches= new TypeNameMatch[keys.length];
+			fNames= new char[nameLength];
+			fNameStarts= new int[keys.length + 1];
+			fHumps= new char[humpLength];
+			fHumpStarts= new int[keys.length + 1];
+			int namePos= 0;
+			int humpPos= 0;
+			for (int i= 0; i < order.length; i++) {
+				TypeNameMatch match= matches.get(order[i].intValue());
+				String name= match.getSimpleTypeName();
+				fMatches[i]= match;
+				fNameStarts[i]= namePos;
+				fHumpStarts[i]= humpPos;
+				for (int k= 0; k < name.length(); k++) {
+					char ch= name.charAt(k);
+					fNames[namePos++]= ch;
+					if (Character.isUpperCase(ch))
+						fHumps[humpPos++]= ch;
+				}
+			}
+			fNameStarts[keys.length]= namePos;
+			fHumpStarts[keys.length]= humpPos;
+		}
+
+		/**
+		 * Compares the name at the given index with the given lower case prefix, considering only
+		 * the length of the prefix.
+		 *
+		 * @param index the index of the name
+		 * @param prefix the prefix in lower case
+		 * @return a negative number, zero or a positive number if the name is less than, starts
+		 *         with or is greater than the prefix
+		 */
+		int compareToPrefix(int index, String prefix) {
+			int start= fNameStarts[index];
+			int length= fNameStarts[index + 1] - start;
+			int n= Math.min(length, prefix.length());
+			for (int i= 0; i < n; i++) {
+				int diff= Character.toLowerCase(fNames[start + i]) - prefix.charAt(i);
+				if (diff != 0)
+					return diff;
+			}
+			return length >= prefix.length() ? 0 : -1;
+		}
+
+		/**
+		 * Returns the first index whose name compares greater or equal (<code>inclusive</code>)
+		 * or greater (<code>!inclusive</code>) to the given prefix.
+		 *
+		 * @param prefix the prefix in lower case
+		 * @param inclusive whether names starting with the prefix are included
+		 * @return the bound
+		 */
+		int bound(String prefix, boolean inclusive) {
+			int low= 0;
+			int high= fMatches.length;
+			while (low < high) {
+				int mid= (low + high) >>> 1;
+				int cmp= compareToPrefix(mid, prefix);
+				if (cmp < 0 || (!inclusive && cmp == 0)) {
+					low= mid + 1;
+				} else {
+					high= mid;
+				}
+			}
+			return low;
+		}
+
+		boolean startsWithIgnoreCase(int index, String prefix) {
+			return compareToPrefix(index, prefix) == 0;
+		}
+
+		/**
+		 * Tests whether the given upper case letters appear in order in the upper case letters of
+		 * the name at the given index.
+		 *
+		 * @param index the index of the name
+		 * @param humps the upper case letters of the pattern
+		 * @return <code>true</code> if the humps are contained
+		 */
+		boolean containsHumps(int index, char[] humps) {
+			int pos= fHumpStarts[index];
+			int end= fHumpStarts[index + 1];
+			for (int i= 0; i < humps.length; i++) {
+				while (pos < end && fHumps[pos] != humps[i])
+					pos++;
+				if (pos == end)
+					return false;
+				pos++;
+			}
+			return true;
+		}
+	}
+
+	private class DeltaListener implements IElementChangedListener {
+
+		@Override
+		public void elementChanged(ElementChangedEvent event) {
+			processDelta(event.getDelta());
+		}
+
+		private void processDelta(IJavaElementDelta delta) {
+			IJavaElement element= delta.getElement();
+			int kind= delta.getKind();
+			int flags= delta.getFlags();
+			switch (element.getElementType()) {
+				case IJavaElement.JAVA_MODEL:
+					processChildren(delta);
+					return;
+				case IJavaElement.JAVA_PROJECT:
+					if (kind != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_CLOSED | IJavaElementDelta.F_OPENED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED)) != 0) {
+						invalidate();
+						return;
+					}
+					processChildren(delta);
+					return;
+				case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+					if (kind != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED | IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH)) != 0) {
+						invalidate();
+						return;
+					}
+					processChildren(delta);
+					return;
+				case IJavaElement.PACKAGE_FRAGMENT:
+					if (kind == IJavaElementDelta.REMOVED) {
+						invalidate();
+						return;
+					}
+					processChildren(delta);
+					return;
+				case IJavaElement.CLASS_FILE:
+					if (kind != IJavaElementDelta.CHANGED)
+						invalidate();
+					return;
+				case IJavaElement.COMPILATION_UNIT:
+					ICompilationUnit cu= (ICompilationUnit) element;
+					if (!JavaModelUtil.isPrimary(cu))
+						return;
+					if (kind != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_CHILDREN | IJavaElementDelta.F_MODIFIERS)) != 0
+							|| ((flags & IJavaElementDelta.F_CONTENT) != 0 && (flags & IJavaElementDelta.F_FINE_GRAINED) == 0)) {
+						markDirty(cu);
+					}
+					return;
+				default:
+					return;
+			}
+		}
+
+		private void processChildren(IJavaElementDelta delta) {
+			IJavaElementDelta[] children= delta.getAffectedChildren();
+			for (int i= 0; i < children.length; i++) {
+				processDelta(children[i]);
+			}
+		}
+	}
+
+	private class BuildJob extends Job {
+
+		public BuildJob() {
+			super(CorextMessages.TypeNameTable_build_job);
+			setSystem(true);
+			setPriority(Job.LONG);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			final List<TypeNameMatch> matches= new ArrayList<>();
+			int generation;
+			synchronized (TypeNameTable.this) {
+				// the search sees all changes made so far
+				generation= fGeneration;
+				fDirtyUnits.clear();
+			}
+			long start= System.currentTimeMillis();
+			try {
+				new SearchEngine((WorkingCopyOwner) null).searchAllTypeNames(null, SearchPattern.R_EXACT_MATCH,
+						null, SearchPattern.R_PREFIX_MATCH, IJavaSearchConstants.TYPE, SearchEngine.createWorkspaceScope(),
+						new TypeNameMatchRequestor() {
+							@Override
+							public void acceptTypeNameMatch(TypeNameMatch match) {
+								matches.add(match);
+							}
+						}, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+			} catch (JavaModelException e) {
+				JavaPlugin.log(e);
+				return Status.OK_STATUS;
+			} catch (OperationCanceledException e) {
+				return Status.CANCEL_STATUS;
+			}
+			Snapshot snapshot= new Snapshot(matches);
+			synchronized (TypeNameTable.this) {
+				// discard the result if the class path changed in between, units changed in
+				// between are still marked as dirty
+				if (generation == fGeneration) {
+					fSnapshot= snapshot;
+				}
+			}
+			if (JavaPlugin.DEBUG_TYPE_NAME_TABLE) {
+				System.out.println("TypeNameTable: indexed " + matches.size() + " types in " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	private static TypeNameTable fgInstance;
+
+	public static synchronized TypeNameTable getInstance() {
+		if (fgInstance == null)
+			fgInstance= new TypeNameTable();
+		return fgInstance;
+	}
+
+	public static synchronized void shutdown() {
+		if (fgInstance == null)
+			return;
+		fgInstance.doShutdown();
+		fgInstance= null;
+	}
+
+	private final IElementChangedListener fDeltaListener;
+	private final BuildJob fBuildJob;
+
+	private Snapshot fSnapshot;
+	private final Set<ICompilationUnit> fDirtyUnits;
+	private int fGeneration;
+
+	private TypeNameTable() {
+		fDirtyUnits= new HashSet<>();
+		fGeneration= 0;
+		fBuildJob= new BuildJob();
+		fDeltaListener= new DeltaListener();
+		JavaCore.addElementChangedListener(fDeltaListener, ElementChangedEvent.POST_CHANGE);
+	}
+
+	private void doShutdown() {
+		JavaCore.removeElementChangedListener(fDeltaListener);
+		fBuildJob.cancel();
+		synchronized (this) {
+			fSnapshot= null;
+			fDirtyUnits.clear();
+		}
+	}
+
+	/**
+	 * Returns whether queries can be answered from the table. If not, a build of the table is
+	 * scheduled.
+	 *
+	 * @return <code>true</code> if the table is available
+	 */
+	public synchronized boolean isReady() {
+		if (fSnapshot != null)
+			return true;
+		fBuildJob.schedule();
+		return false;
+	}
+
+	/**
+	 * Reports all types whose simple name may match the given name pattern. The reported set is a
+	 * superset of the types matching the pattern, callers have to apply their own filter.
+	 *
+	 * @param namePattern the name pattern, see {@link org.eclipse.jdt.internal.ui.util.PatternMatcher#getPattern()}
+	 * @param matchRule the match rule of the name pattern, see
+	 *            {@link org.eclipse.jdt.internal.ui.util.PatternMatcher#getMatchKind()}
+	 * @param requestor the requestor to report the candidates to
+	 * @param monitor the progress monitor, used for cancellation
+	 * @return <code>false</code> if the table is not available and the caller needs to search
+	 */
+	public boolean findCandidates(String namePattern, int matchRule, ICandidateRequestor requestor, IProgressMonitor monitor) {
+		Snapshot snapshot;
+		Set<ICompilationUnit> dirtyUnits;
+		synchronized (this) {
+			if (fSnapshot == null) {
+				fBuildJob.schedule();
+				return false;
+			}
+			snapshot= fSnapshot;
+			dirtyUnits= new HashSet<>(fDirtyUnits);
+		}
+		// unsaved changes are only reported as POST_RECONCILE deltas, read the working copies instead
+		ICompilationUnit[] workingCopies= JavaCore.getWorkingCopies(null);
+		for (int i= 0; i < workingCopies.length; i++) {
+			dirtyUnits.add(workingCopies[i]);
+		}
+
+		boolean isCamelCase= (matchRule & (SearchPattern.R_CAMELCASE_MATCH | SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH)) != 0;
+		String prefix= toLowerCase(getLiteralPrefix(namePattern, isCamelCase));
+		String fullPrefix= toLowerCase(getLiteralPrefix(namePattern, false));
+		char[] humps= isCamelCase ? getHumps(namePattern) : null;
+
+		Set<ICompilationUnit> dirty= dirtyUnits.isEmpty() ? null : dirtyUnits;
+		int start= snapshot.bound(prefix, true);
+		int end= snapshot.bound(prefix, false);
+		for (int i= start; i < end; i++) {
+			if ((i & 0xFFF) == 0 && monitor.isCanceled())
+				throw new OperationCanceledException();
+			if (humps != null && !snapshot.containsHumps(i, humps) && !snapshot.startsWithIgnoreCase(i, fullPrefix))
+				continue;
+			TypeNameMatch match= snapshot.fMatches[i];
+			if (dirty != null) {
+				ICompilationUnit cu= match.getType().getCompilationUnit();
+				if (cu != null && dirty.contains(cu))
+					continue;
+			}
+			requestor.accept(match);
+		}
+
+		// types of changed compilation units are read from the model
+		for (ICompilationUnit cu : dirtyUnits) {
+			if (!cu.exists() || !cu.getJavaProject().isOnClasspath(cu))
+				continue;
+			try {
+				IType[] types= cu.getAllTypes();
+				for (int k= 0; k < types.length; k++) {
+					requestor.accept(SearchEngine.createTypeNameMatch(types[k], types[k].getFlags()));
+				}
+			} catch (JavaModelException e) {
+				// unit got deleted or is not on the class path anymore
+			}
+		}
+		return true;
+	}
+
+	private synchronized void markDirty(ICompilationUnit cu) {
+		fDirtyUnits.add(cu);
+		if (fDirtyUnits.size() > MAX_DIRTY_UNITS)
+			invalidate();
+	}
+
+	private synchronized void invalidate() {
+		fGeneration++;
+		fSnapshot= null;
+		fDirtyUnits.clear();
+	}
+
+	private static String getLiteralPrefix(String pattern, boolean isCamelCase) {
+		int end= 0;
+		while (end < pattern.length()) {
+			char ch= pattern.charAt(end);
+			if (ch == '*' || ch == '?')
+				break;
+			end++;
+		}
+		if (isCamelCase && end > 1)
+			end= 1;
+		return pattern.substring(0, end);
+	}
+
+	private static char[] getHumps(String pattern) {
+		StringBuffer buf= new StringBuffer();
+		for (int i= 0; i < pattern.length(); i++) {
+			char ch= pattern.charAt(i);
+			if (Character.isUpperCase(ch))
+				buf.append(ch);
+		}
+		char[] humps= new char[buf.length()];
+		buf.getChars(0, humps.length, humps, 0);
+		return humps;
+	}
+
+	private static int countUpperCase(String name) {
+		int count= 0;
+		for (int i= 0; i < name.length(); i++) {
+			if (Character.isUpperCase(name.charAt(i)))
+				count++;
+		}
+		return count;
+	}
+
+	private static String toLowerCase(String name) {
+		char[] chars= new char[name.length()];
+		for (int i= 0; i < chars.length; i++) {
+			chars[i]= Character.toLowerCase(name.charAt(i));
+		}
+		return new String(chars);
+	}
+}
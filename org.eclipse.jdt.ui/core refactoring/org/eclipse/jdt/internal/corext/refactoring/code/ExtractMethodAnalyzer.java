@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -88,6 +88,7 @@ import org.eclipse.jdt.internal.corext.refactoring.RefactoringCoreMessages;
 import org.eclipse.jdt.internal.corext.refactoring.base.JavaStatusContext;
 import org.eclipse.jdt.internal.corext.refactoring.code.flow.FlowContext;
 import org.eclipse.jdt.internal.corext.refactoring.code.flow.FlowInfo;
+import org.eclipse.jdt.internal.corext.refactoring.code.flow.FlowInfoCache;
 import org.eclipse.jdt.internal.corext.refactoring.code.flow.InOutFlowAnalyzer;
 import org.eclipse.jdt.internal.corext.refactoring.code.flow.InputFlowAnalyzer;
 import org.eclipse.jdt.internal.corext.refactoring.util.CodeAnalyzer;
@@ -371,7 +372,7 @@ import org.eclipse.jdt.internal.ui.viewsupport.BindingLabelProvider;
 		fInputFlowContext.setConsiderAccessMode(true);
 		fInputFlowContext.setComputeMode(FlowContext.ARGUMENTS);
 
-		InOutFlowAnalyzer flowAnalyzer= new InOutFlowAnalyzer(fInputFlowContext);
+		InOutFlowAnalyzer flowAnalyzer= new InOutFlowAnalyzer(fInputFlowContext, FlowInfoCache.getCache(getFirstSelectedNode()));
 		fInputFlowInfo= flowAnalyzer.perform(getSelectedNodes());
 
 		if (fInputFlowInfo.branches()) {
@@ -594,7 +595,9 @@ import org.eclipse.jdt.internal.ui.viewsupport.BindingLabelProvider;
 		FlowContext flowContext= new FlowContext(0, fMaxVariableId + 1);
 		flowContext.setConsiderAccessMode(true);
 		flowContext.setComputeMode(FlowContext.RETURN_VALUES);
-		FlowInfo returnInfo= new InOutFlowAnalyzer(flowContext).perform(getSelectedNodes());
+		// the analyses share the flow infos of the statements with earlier analyses of the AST
+		FlowInfoCache flowInfoCache= FlowInfoCache.getCache(fEnclosingBodyDeclaration);
+		FlowInfo returnInfo= new InOutFlowAnalyzer(flowContext, flowInfoCache).perform(getSelectedNodes());
 		IVariableBinding[] returnValues= returnInfo.get(flowContext, FlowInfo.WRITE | FlowInfo.WRITE_POTENTIAL | FlowInfo.UNKNOWN);
 
 		// Compute a selection that exactly covers the selected nodes
@@ -603,7 +606,7 @@ import org.eclipse.jdt.internal.ui.viewsupport.BindingLabelProvider;
 
 		List<IVariableBinding> localReads= new ArrayList<>();
 		flowContext.setComputeMode(FlowContext.ARGUMENTS);
-		FlowInfo argInfo= new InputFlowAnalyzer(flowContext, selection, true).perform(fEnclosingBodyDeclaration);
+		FlowInfo argInfo= new InputFlowAnalyzer(flowContext, selection, true, flowInfoCache).perform(fEnclosingBodyDeclaration);
 		IVariableBinding[] reads= argInfo.get(flowContext, FlowInfo.READ | FlowInfo.READ_POTENTIAL | FlowInfo.UNKNOWN);
 		outer: for (int i= 0; i < returnValues.length && localReads.size() < returnValues.length; i++) {
 			IVariableBinding binding= returnValues[i];
@@ -637,7 +640,7 @@ import org.eclipse.jdt.internal.ui.viewsupport.BindingLabelProvider;
 				return;
 		}
 		List<IVariableBinding> callerLocals= new ArrayList<>(5);
-		FlowInfo localInfo= new InputFlowAnalyzer(flowContext, selection, false).perform(fEnclosingBodyDeclaration);
+		FlowInfo localInfo= new InputFlowAnalyzer(flowContext, selection, false, flowInfoCache).perform(fEnclosingBodyDeclaration);
 		IVariableBinding[] writes= localInfo.get(flowContext, FlowInfo.WRITE | FlowInfo.WRITE_POTENTIAL | FlowInfo.UNKNOWN);
 		for (int i= 0; i < writes.length; i++) {
 			IVariableBinding write= writes[i];
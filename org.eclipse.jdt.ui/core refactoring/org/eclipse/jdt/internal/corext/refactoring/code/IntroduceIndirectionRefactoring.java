@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -107,6 +107,7 @@ import org.eclipse.jdt.internal.corext.refactoring.structure.ASTNodeSearchUtil;
 import org.eclipse.jdt.internal.corext.refactoring.structure.CompilationUnitRewrite;
 import org.eclipse.jdt.internal.corext.refactoring.structure.MemberVisibilityAdjustor;
 import org.eclipse.jdt.internal.corext.refactoring.structure.MemberVisibilityAdjustor.IncomingMemberVisibilityAdjustment;
+import org.eclipse.jdt.internal.corext.refactoring.structure.ProjectRewriteContext;
 import org.eclipse.jdt.internal.corext.refactoring.util.ResourceUtil;
 import org.eclipse.jdt.internal.corext.refactoring.util.TextChangeManager;
 import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
@@ -213,6 +214,10 @@ public class IntroduceIndirectionRefactoring extends Refactoring {
 	 * CompilationUnitRewrites for all affected cus
 	 */
 	private Map<ICompilationUnit, CompilationUnitRewrite> fRewrites;
+	/**
+	 * Project settings shared by the CompilationUnitRewrites
+	 */
+	private ProjectRewriteContext.Cache fProjectContexts;
 	/**
 	 * Text change manager (actually a CompilationUnitChange manager) which
 	 * manages all changes.
@@ -380,6 +385,7 @@ public class IntroduceIndirectionRefactoring extends Refactoring {
 		try {
 			pm.beginTask(RefactoringCoreMessages.IntroduceIndirectionRefactoring_checking_activation, 1);
 			fRewrites= new HashMap<>();
+			fProjectContexts= new ProjectRewriteContext.Cache();
 
 			// This refactoring has been invoked on
 			// (1) a TextSelection inside an ICompilationUnit or inside an IClassFile (definitely with source), or
@@ -1137,11 +1143,12 @@ public class IntroduceIndirectionRefactoring extends Refactoring {
 			CompilationUnit cuNode= ASTResolving.findParentCompilationUnit(fSelectionMethodInvocation);
 			if (cuNode != null && cuNode.getJavaElement().equals(unit)) {
 				rewrite= new CompilationUnitRewrite(unit, cuNode);
+				rewrite.setProjectContext(fProjectContexts.get(unit.getJavaProject()));
 				fRewrites.put(unit, rewrite);
 			}
 		}
 		if (rewrite == null) {
-			rewrite= new CompilationUnitRewrite(unit);
+			rewrite= fProjectContexts.createRewrite(unit);
 			fRewrites.put(unit, rewrite);
 		}
 		return rewrite;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -65,6 +65,7 @@ import org.eclipse.jdt.internal.corext.refactoring.RefactoringCoreMessages;
 import org.eclipse.jdt.internal.corext.refactoring.base.JavaStatusContext;
 import org.eclipse.jdt.internal.corext.refactoring.code.flow.FlowContext;
 import org.eclipse.jdt.internal.corext.refactoring.code.flow.FlowInfo;
+import org.eclipse.jdt.internal.corext.refactoring.code.flow.FlowInfoCache;
 import org.eclipse.jdt.internal.corext.refactoring.code.flow.InOutFlowAnalyzer;
 
 class SourceAnalyzer  {
@@ -486,7 +487,7 @@ class SourceAnalyzer  {
 		FlowContext context= new FlowContext(0, numberOfLocals + 1);
 		context.setConsiderAccessMode(true);
 		context.setComputeMode(FlowContext.MERGE);
-		InOutFlowAnalyzer flowAnalyzer= new InOutFlowAnalyzer(context);
+		InOutFlowAnalyzer flowAnalyzer= new InOutFlowAnalyzer(context, FlowInfoCache.getCache(fDeclaration));
 		FlowInfo info= flowAnalyzer.perform(getStatements());
 
 		for (Iterator<SingleVariableDeclaration> iter= fDeclaration.parameters().iterator(); iter.hasNext();) {
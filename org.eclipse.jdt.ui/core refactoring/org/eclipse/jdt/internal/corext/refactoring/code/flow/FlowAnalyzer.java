@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -144,9 +144,23 @@ abstract class FlowAnalyzer extends GenericVisitor {
 
 	private HashMap<ASTNode, FlowInfo> fData = new HashMap<>(100);
 	/* package */ FlowContext fFlowContext= null;
+	private final FlowInfoCache fCache;
 
 	public FlowAnalyzer(FlowContext context) {
+		this(context, null);
+	}
+
+	/**
+	 * Creates an analyzer that reuses the flow infos of the statements for which
+	 * {@link #isCacheable(ASTNode)} holds.
+	 *
+	 * @param context the flow context
+	 * @param cache the cache of the analyzed AST, or <code>null</code>
+	 * @since 3.12
+	 */
+	public FlowAnalyzer(FlowContext context, FlowInfoCache cache) {
 		fFlowContext= context;
+		fCache= cache;
 	}
 
 	protected abstract boolean createReturnFlowInfo(ReturnStatement node);
@@ -162,6 +176,39 @@ abstract class FlowAnalyzer extends GenericVisitor {
 		return traverseNode(node);
 	}
 
+	/**
+	 * Returns whether the flow info of the given node only depends on the node and the flow
+	 * context, so that it can be reused by later analyses of the same AST.
+	 *
+	 * @param node the node
+	 * @return <code>true</code> if the flow info of the node can be cached
+	 * @since 3.12
+	 */
+	protected boolean isCacheable(ASTNode node) {
+		return false;
+	}
+
+	@Override
+	public boolean preVisit2(ASTNode node) {
+		if (fCache != null && isCacheable(node)) {
+			FlowInfo info= fCache.get(node, this);
+			if (info != null) {
+				setFlowInfo(node, info);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void postVisit(ASTNode node) {
+		if (fCache != null && isCacheable(node)) {
+			FlowInfo info= accessFlowInfo(node);
+			if (info != null)
+				fCache.put(node, info, this);
+		}
+	}
+
 	//---- Hooks to create Flow info objects. User may introduce their own infos.
 
 	protected ReturnFlowInfo createReturn(ReturnStatement statement) {
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.refactoring.code.flow;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+
+/**
+ * Flow summaries of statements, computed by the {@link InputFlowAnalyzer} and the
+ * {@link InOutFlowAnalyzer}. The flow info of a statement that is located after the selection of
+ * an input flow analysis, or inside the selection of an in-out flow analysis, doesn't depend on
+ * the selection. Analyzing the same AST again with another selection (e.g. when inlining several
+ * calls in the same method, or when quick assists analyze the editor's AST) reuses the summaries
+ * instead of traversing the statements again.
+ * <p>
+ * {@link #getCache(ASTNode)} shares one cache per AST. The caches are not attached to the AST,
+ * which may be used by other clients concurrently, but kept in a weak map keyed by the AST root.
+ * As the summaries refer to the nodes of the AST, the map holds the caches through soft
+ * references, so that an AST that is no longer used can be collected once its cache has been
+ * cleared. The summaries are discarded when the AST is modified. Flow infos are mutated when they
+ * are merged, so the summaries are copied when they are stored and when they are restored.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @see InputFlowAnalyzer
+ * @see InOutFlowAnalyzer
+ * @since 3.12
+ */
+public final class FlowInfoCache {
+
+	private static final int MODE_BITS= 6;
+	private static final int MODE_MASK= (1 << MODE_BITS) - 1;
+
+	/**
+	 * The flow info of a statement. Only the locals that are used by the statement are stored:
+	 * each element of <code>fAccess</code> packs the index of a local and its access mode.
+	 */
+	private static final class Summary {
+		final int fReturnKind;
+		final int[] fAccess;
+		final IVariableBinding[] fLocals;
+		final String[] fBranches;
+		final ITypeBinding[] fTypeVariables;
+
+		Summary(FlowInfo info, FlowContext context) {
+			fReturnKind= info.fReturnKind;
+			int[] modes= info.fAccessModes;
+			if (modes == null) {
+				fAccess= null;
+				fLocals= null;
+			} else {
+				int[] access= new int[modes.length];
+				IVariableBinding[] locals= new IVariableBinding[modes.length];
+				int count= 0;
+				for (int i= 0; i < modes.length; i++) {
+					if (modes[i] != FlowInfo.UNUSED) {
+						access[count]= (i << MODE_BITS) | modes[i];
+						locals[count]= context.getLocalFromIndex(i);
+						count++;
+					}
+				}
+				fAccess= Arrays.copyOf(access, count);
+				fLocals= Arrays.copyOf(locals, count);
+			}
+			fBranches= info.fBranches != null ? info.fBranches.toArray(new String[info.fBranches.size()]) : null;
+			fTypeVariables= info.fTypeVariables != null ? info.fTypeVariables.toArray(new ITypeBinding[info.fTypeVariables.size()]) : null;
+		}
+
+		FlowInfo restore(FlowContext context) {
+			GenericSequentialFlowInfo result= new GenericSequentialFlowInfo();
+			result.fReturnKind= fReturnKind;
+			if (fAccess != null) {
+				result.createAccessModeArray(context);
+				for (int i= 0; i < fAccess.length; i++) {
+					result.fAccessModes[fAccess[i] >>> MODE_BITS]= fAccess[i] & MODE_MASK;
+					if (fLocals[i] != null)
+						context.manageLocal(fLocals[i]);
+				}
+			}
+			if (fBranches != null)
+				result.fBranches= new HashSet<>(Arrays.asList(fBranches));
+			if (fTypeVariables != null)
+				result.fTypeVariables= new HashSet<>(Arrays.asList(fTypeVariables));
+			return result;
+		}
+	}
+
+	/** AST root -> cache */
+	private static final Map<ASTNode, SoftReference<FlowInfoCache>> fgCaches= new WeakHashMap<>();
+
+	private AST fAST;
+	private long fModificationCount;
+
+	/** analyzer and flow context configuration -> (statement -> summary) */
+	private final Map<String, Map<ASTNode, Summary>> fSummaries= new HashMap<>();
+
+	/**
+	 * Returns the cache shared by the flow analyses of the AST that contains the given node.
+	 *
+	 * @param node a node of the AST to analyze
+	 * @return the cache of the AST
+	 */
+	public static FlowInfoCache getCache(ASTNode node) {
+		ASTNode root= node.getRoot();
+		synchronized (fgCaches) {
+			SoftReference<FlowInfoCache> reference= fgCaches.get(root);
+			FlowInfoCache cache= reference != null ? reference.get() : null;
+			if (cache == null) {
+				cache= new FlowInfoCache();
+				fgCaches.put(root, new SoftReference<>(cache));
+			}
+			return cache;
+		}
+	}
+
+	/*
+	 * Drops the summaries if they belong to another AST or if the AST has been modified.
+	 */
+	private void validate(ASTNode statement) {
+		AST ast= statement.getAST();
+		long modificationCount= ast.modificationCount();
+		if (ast != fAST || modificationCount != fModificationCount) {
+			fSummaries.clear();
+			fAST= ast;
+			fModificationCount= modificationCount;
+		}
+	}
+
+	/**
+	 * Returns a copy of the flow info stored for the given statement and registers the locals it
+	 * uses with the flow context.
+	 *
+	 * @param statement the statement
+	 * @param analyzer the analyzer performing the analysis
+	 * @return the flow info or <code>null</code> if none is stored
+	 */
+	synchronized FlowInfo get(ASTNode statement, FlowAnalyzer analyzer) {
+		validate(statement);
+		FlowContext context= analyzer.fFlowContext;
+		Map<ASTNode, Summary> summaries= fSummaries.get(getConfiguration(analyzer));
+		if (summaries == null)
+			return null;
+		Summary summary= summaries.get(statement);
+		return summary != null ? summary.restore(context) : null;
+	}
+
+	/**
+	 * Stores a copy of the flow info of the given statement.
+	 *
+	 * @param statement the statement
+	 * @param info the flow info computed for the statement
+	 * @param analyzer the analyzer performing the analysis
+	 */
+	synchronized void put(ASTNode statement, FlowInfo info, FlowAnalyzer analyzer) {
+		validate(statement);
+		FlowContext context= analyzer.fFlowContext;
+		String configuration= getConfiguration(analyzer);
+		Map<ASTNode, Summary> summaries= fSummaries.get(configuration);
+		if (summaries == null) {
+			summaries= new HashMap<>();
+			fSummaries.put(configuration, summaries);
+		}
+		if (!summaries.containsKey(statement))
+			summaries.put(statement, new Summary(info, context));
+	}
+
+	private static String getConfiguration(FlowAnalyzer analyzer) {
+		FlowContext context= analyzer.fFlowContext;
+		int mode;
+		if (context.computeMerge())
+			mode= 0;
+		else if (context.computeArguments())
+			mode= 1;
+		else if (context.computeReturnValues())
+			mode= 2;
+		else
+			mode= 3;
+		return analyzer.getClass().getName() + ':' + context.getStartingIndex() + ':' + context.getArrayLength() + ':' + context.considerAccessMode() + ':' + mode;
+	}
+}
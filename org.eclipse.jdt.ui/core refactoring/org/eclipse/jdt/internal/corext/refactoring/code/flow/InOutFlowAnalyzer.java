@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -22,6 +22,7 @@ import org.eclipse.jdt.core.dom.IVariableBinding;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.ReturnStatement;
 import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
 import org.eclipse.jdt.core.dom.VariableDeclarationExpression;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
@@ -32,6 +33,19 @@ public class InOutFlowAnalyzer extends FlowAnalyzer {
 		super(context);
 	}
 
+	/**
+	 * Creates an analyzer that reuses the flow infos of statements that have been computed by
+	 * earlier analyses of the same AST.
+	 *
+	 * @param context the flow context
+	 * @param cache the cache of the analyzed AST, see {@link FlowInfoCache#getCache(ASTNode)}, or
+	 *            <code>null</code>
+	 * @since 3.12
+	 */
+	public InOutFlowAnalyzer(FlowContext context, FlowInfoCache cache) {
+		super(context, cache);
+	}
+
 	public FlowInfo perform(ASTNode[] selectedNodes) {
 		FlowContext context= getFlowContext();
 		GenericSequentialFlowInfo result= createSequential();
@@ -55,6 +69,15 @@ public class InOutFlowAnalyzer extends FlowAnalyzer {
 		return true;
 	}
 
+	/*
+	 * All selected nodes are traversed completely, so the flow info of a statement doesn't depend
+	 * on the selection.
+	 */
+	@Override
+	protected boolean isCacheable(ASTNode node) {
+		return node instanceof Statement;
+	}
+
 	@Override
 	public void endVisit(Block node) {
 		super.endVisit(node);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -135,7 +135,22 @@ public class InputFlowAnalyzer extends FlowAnalyzer {
 	private LoopReentranceVisitor fLoopReentranceVisitor;
 
 	public InputFlowAnalyzer(FlowContext context, Selection selection, boolean doLoopReentrance) {
-		super(context);
+		this(context, selection, doLoopReentrance, null);
+	}
+
+	/**
+	 * Creates an analyzer that reuses the flow infos of statements after the selection that
+	 * have been computed by earlier analyses of the same AST.
+	 *
+	 * @param context the flow context
+	 * @param selection the selection
+	 * @param doLoopReentrance whether to process the reentrance of loops containing the selection
+	 * @param cache the cache of the analyzed AST, see {@link FlowInfoCache#getCache(ASTNode)}, or
+	 *            <code>null</code>
+	 * @since 3.12
+	 */
+	public InputFlowAnalyzer(FlowContext context, Selection selection, boolean doLoopReentrance, FlowInfoCache cache) {
+		super(context, cache);
 		fSelection= selection;
 		Assert.isNotNull(fSelection);
 		fDoLoopReentrance= doLoopReentrance;
@@ -147,6 +162,14 @@ public class InputFlowAnalyzer extends FlowAnalyzer {
 		return getFlowInfo(node);
 	}
 
+	/*
+	 * The flow info of a statement located after the selection doesn't depend on the selection.
+	 */
+	@Override
+	protected boolean isCacheable(ASTNode node) {
+		return node instanceof Statement && node.getStartPosition() >= fSelection.getExclusiveEnd();
+	}
+
 	@Override
 	protected boolean traverseNode(ASTNode node) {
 		return node.getStartPosition() + node.getLength() > fSelection.getInclusiveEnd();
@@ -14,8 +14,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.ibm.icu.text.Collator;
 
@@ -39,6 +40,8 @@ import org.eclipse.jdt.internal.ui.viewsupport.BasicElementLabels;
 public class PropertyFileDocumentModel {
 
 	private List<KeyValuePairModell> fKeyValuePairs;
+	/** key -> first pair with the key, does not contain the {@link LastKeyValuePair} */
+	private Map<String, KeyValuePairModell> fKeyIndex;
     private String fLineDelimiter;
 
     public PropertyFileDocumentModel(IDocument document) {
@@ -60,13 +63,7 @@ public class PropertyFileDocumentModel {
 	 * @return the pair with the key or <b>null</b> if no such pair.
 	 */
     public KeyValuePair getKeyValuePair(String key) {
-    	for (int i= 0; i < fKeyValuePairs.size(); i++) {
-            KeyValuePairModell keyValuePair = fKeyValuePairs.get(i);
-            if (keyValuePair.getKey().equals(key)) {
-            	return keyValuePair;
-            }
-    	}
-    	return null;
+    	return fKeyIndex.get(key);
     }
 
     private InsertEdit insert(KeyValuePair keyValuePair) {
@@ -101,6 +98,7 @@ public class PropertyFileDocumentModel {
         keyValuePairModell.fOffset= offset;
         keyValuePairModell.fLength= text.length();
         fKeyValuePairs.add(index, keyValuePairModell);
+        addToIndex(keyValuePairModell);
 		return new InsertEdit(offset, text);
     }
 
@@ -131,24 +129,23 @@ public class PropertyFileDocumentModel {
     }
 
     public DeleteEdit remove(String key) {
-    	for (Iterator<KeyValuePairModell> iter = fKeyValuePairs.iterator(); iter.hasNext();) {
-            KeyValuePairModell keyValuePair = iter.next();
-            if (keyValuePair.fKey.equals(key)) {
-            	return new DeleteEdit(keyValuePair.fOffset, keyValuePair.getLength());
-            }
-        }
-        return null;
+    	KeyValuePairModell keyValuePair= fKeyIndex.get(key);
+    	if (keyValuePair == null)
+    		return null;
+    	return new DeleteEdit(keyValuePair.fOffset, keyValuePair.getLength());
     }
 
     public ReplaceEdit replace(KeyValuePair toReplace, KeyValuePair replaceWith) {
-        for (Iterator<KeyValuePairModell> iter = fKeyValuePairs.iterator(); iter.hasNext();) {
-            KeyValuePairModell keyValuePair = iter.next();
-            if (keyValuePair.fKey.equals(toReplace.getKey())) {
-                String newText= new KeyValuePairModell(replaceWith).getKeyValueText();
-                return new ReplaceEdit(keyValuePair.fOffset, keyValuePair.getLength(), newText);
-            }
-        }
-        return null;
+    	KeyValuePairModell keyValuePair= fKeyIndex.get(toReplace.getKey());
+    	if (keyValuePair == null)
+    		return null;
+    	String newText= new KeyValuePairModell(replaceWith).getKeyValueText();
+    	return new ReplaceEdit(keyValuePair.fOffset, keyValuePair.getLength(), newText);
+    }
+
+    private void addToIndex(KeyValuePairModell keyValuePair) {
+    	if (!fKeyIndex.containsKey(keyValuePair.fKey))
+    		fKeyIndex.put(keyValuePair.fKey, keyValuePair);
     }
 
     private int findInsertPosition(KeyValuePairModell keyValuePair) {
@@ -169,6 +166,7 @@ public class PropertyFileDocumentModel {
 
     private void parsePropertyDocument(IDocument document) {
         fKeyValuePairs = new ArrayList<>();
+        fKeyIndex= new HashMap<>();
 
         SimpleLineReader reader = new SimpleLineReader(document);
         int offset = 0;
@@ -183,7 +181,9 @@ public class PropertyFileDocumentModel {
 					String value= line.substring(idx + 1);
 					String trimmedValue= Strings.trimLeadingTabsAndSpaces(value);
 					int length= key.length() + 1 + value.length();
-                    fKeyValuePairs.add(new KeyValuePairModell(trimmedKey, trimmedValue, offset, length, leadingWhiteSpaces));
+                    KeyValuePairModell keyValuePair= new KeyValuePairModell(trimmedKey, trimmedValue, offset, length, leadingWhiteSpaces);
+                    fKeyValuePairs.add(keyValuePair);
+                    addToIndex(keyValuePair);
                     leadingWhiteSpaces = 0;
                 }
             } else {
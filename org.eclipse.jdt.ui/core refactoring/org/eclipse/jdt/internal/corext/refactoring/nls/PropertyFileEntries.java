@@ -0,0 +1,354 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.refactoring.nls;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The entries of a properties file, indexed by key. The text is parsed in one pass with the
+ * rules of {@link java.util.Properties#load(java.io.Reader)}, and each entry remembers where
+ * its key is located in the text, so that keys containing escape sequences or continuation
+ * lines can be found without searching the text again.
+ *
+ * @since 3.12
+ */
+public class PropertyFileEntries {
+
+	/**
+	 * A key value pair of a properties file.
+	 */
+	public static class Entry {
+
+		private final String fKey;
+		private final String fValue;
+		private final int fOffset;
+		private final int fLength;
+		private final int fKeyLength;
+
+		Entry(String key, String value, int offset, int length, int keyLength) {
+			fKey= key;
+			fValue= value;
+			fOffset= offset;
+			fLength= length;
+			fKeyLength= keyLength;
+		}
+
+		/**
+		 * @return the key, with escape sequences resolved
+		 */
+		public String getKey() {
+			return fKey;
+		}
+
+		/**
+		 * @return the value of this entry, with escape sequences and continuation lines resolved
+		 */
+		public String getValue() {
+			return fValue;
+		}
+
+		/**
+		 * @return the offset of the entry, which is the offset of the key as written in the file
+		 */
+		public int getOffset() {
+			return fOffset;
+		}
+
+		/**
+		 * @return the length of the entry, up to the end of its last line without the line
+		 *         delimiter
+		 */
+		public int getLength() {
+			return fLength;
+		}
+
+		/**
+		 * @return the length of the key as written in the file
+		 */
+		public int getKeyLength() {
+			return fKeyLength;
+		}
+	}
+
+	private final List<Entry> fEntries= new ArrayList<>();
+
+	/** key -> first entry with the key, in the order of the file */
+	private final Map<String, Entry> fIndex= new LinkedHashMap<>();
+
+	private final Set<String> fDuplicateKeys= new LinkedHashSet<>();
+
+	/**
+	 * Parses the given content of a properties file.
+	 *
+	 * @param text the content of the properties file
+	 */
+	public PropertyFileEntries(String text) {
+		parse(text);
+	}
+
+	/**
+	 * Returns the first entry with the given key.
+	 *
+	 * @param key the key, with escape sequences resolved
+	 * @return the entry or <code>null</code> if the key is not defined
+	 */
+	public Entry getEntry(String key) {
+		return fIndex.get(key);
+	}
+
+	/**
+	 * @param key the key, with escape sequences resolved
+	 * @return <code>true</code> if the key is defined
+	 */
+	public boolean containsKey(String key) {
+		return fIndex.containsKey(key);
+	}
+
+	/**
+	 * @return the defined keys in the order of their first definition
+	 */
+	public Set<String> getKeys() {
+		return Collections.unmodifiableSet(fIndex.keySet());
+	}
+
+	/**
+	 * @return the keys that are defined more than once
+	 */
+	public Set<String> getDuplicateKeys() {
+		return Collections.unmodifiableSet(fDuplicateKeys);
+	}
+
+	/**
+	 * @return all entries in the order of the file, including the entries of duplicate keys
+	 */
+	public List<Entry> getEntries() {
+		return Collections.unmodifiableList(fEntries);
+	}
+
+	/**
+	 * @return the number of defined keys
+	 */
+	public int size() {
+		return fIndex.size();
+	}
+
+	/**
+	 * Resolves the escape sequences of a key or value as written in a properties file. Malformed
+	 * unicode escapes are kept as they are.
+	 *
+	 * @param s the escaped string
+	 * @return the unescaped string
+	 */
+	public static String unescape(String s) {
+		if (s.indexOf('\\') == -1)
+			return s;
+		char[] chars= s.toCharArray();
+		return unescape(chars, 0, chars.length);
+	}
+
+	//---- Parsing ---------------------------------------------------------------------------
+
+	private void parse(String text) {
+		int length= text.length();
+		char[] line= new char[80];
+		int[] offsets= new int[80];
+		int pos= 0;
+		while (pos < length) {
+			// start of a logical line: skip white space, empty lines and comments
+			pos= skipWhiteSpace(text, pos);
+			if (pos == length)
+				break;
+			char c= text.charAt(pos);
+			if (c == '\n' || c == '\r') {
+				pos++;
+				continue;
+			}
+			if (c == '#' || c == '!') {
+				pos= skipToLineEnd(text, pos);
+				continue;
+			}
+
+			// read the logical line, joining continuation lines
+			int count= 0;
+			int end= pos;
+			while (pos < length) {
+				c= text.charAt(pos);
+				if (c == '\n' || c == '\r') {
+					if (isContinued(line, count)) {
+						count--; // drop the backslash
+						pos= skipLineDelimiter(text, pos);
+						pos= skipWhiteSpace(text, pos);
+						continue;
+					}
+					break;
+				}
+				if (count == line.length) {
+					char[] newLine= new char[count * 2];
+					System.arraycopy(line, 0, newLine, 0, count);
+					line= newLine;
+					int[] newOffsets= new int[count * 2];
+					System.arraycopy(offsets, 0, newOffsets, 0, count);
+					offsets= newOffsets;
+				}
+				line[count]= c;
+				offsets[count]= pos;
+				count++;
+				pos++;
+				end= pos;
+			}
+			if (pos == length && isContinued(line, count))
+				count--; // continuation at the end of the file
+			if (count > 0)
+				addEntry(line, offsets, count, end);
+		}
+	}
+
+	private void addEntry(char[] line, int[] offsets, int count, int end) {
+		int keyLength= 0;
+		int valueStart= count;
+		boolean hasSeparator= false;
+		boolean precedingBackslash= false;
+		while (keyLength < count) {
+			char c= line[keyLength];
+			if ((c == '=' || c == ':') && !precedingBackslash) {
+				valueStart= keyLength + 1;
+				hasSeparator= true;
+				break;
+			} else if ((c == ' ' || c == '\t' || c == '\f') && !precedingBackslash) {
+				valueStart= keyLength + 1;
+				break;
+			}
+			precedingBackslash= c == '\\' ? !precedingBackslash : false;
+			keyLength++;
+		}
+		while (valueStart < count) {
+			char c= line[valueStart];
+			if (c != ' ' && c != '\t' && c != '\f') {
+				if (!hasSeparator && (c == '=' || c == ':')) {
+					hasSeparator= true;
+				} else {
+					break;
+				}
+			}
+			valueStart++;
+		}
+		String key= unescape(line, 0, keyLength);
+		String value= unescape(line, valueStart, count - valueStart);
+		int offset= offsets[0];
+		int keyEnd= keyLength > 0 ? offsets[keyLength - 1] + 1 : offset;
+
+		Entry entry= new Entry(key, value, offset, end - offset, keyEnd - offset);
+		fEntries.add(entry);
+		if (fIndex.containsKey(key)) {
+			fDuplicateKeys.add(key);
+		} else {
+			fIndex.put(key, entry);
+		}
+	}
+
+	/*
+	 * A line is continued if it ends with an odd number of backslashes.
+	 */
+	private static boolean isContinued(char[] line, int count) {
+		int backslashes= 0;
+		for (int i= count - 1; i >= 0 && line[i] == '\\'; i--) {
+			backslashes++;
+		}
+		return backslashes % 2 == 1;
+	}
+
+	private static int skipWhiteSpace(String text, int pos) {
+		int length= text.length();
+		while (pos < length) {
+			char c= text.charAt(pos);
+			if (c != ' ' && c != '\t' && c != '\f')
+				break;
+			pos++;
+		}
+		return pos;
+	}
+
+	private static int skipToLineEnd(String text, int pos) {
+		int length= text.length();
+		while (pos < length) {
+			char c= text.charAt(pos);
+			if (c == '\n' || c == '\r')
+				break;
+			pos++;
+		}
+		return pos;
+	}
+
+	private static int skipLineDelimiter(String text, int pos) {
+		if (text.charAt(pos) == '\r' && pos + 1 < text.length() && text.charAt(pos + 1) == '\n')
+			return pos + 2;
+		return pos + 1;
+	}
+
+	private static String unescape(char[] chars, int offset, int length) {
+		StringBuffer buf= new StringBuffer(length);
+		int end= offset + length;
+		int i= offset;
+		while (i < end) {
+			char c= chars[i++];
+			if (c != '\\' || i == end) {
+				buf.append(c);
+				continue;
+			}
+			c= chars[i++];
+			switch (c) {
+				case 't':
+					buf.append('\t');
+					break;
+				case 'r':
+					buf.append('\r');
+					break;
+				case 'n':
+					buf.append('\n');
+					break;
+				case 'f':
+					buf.append('\f');
+					break;
+				case 'u':
+					int value= parseUnicode(chars, i, end);
+					if (value == -1) {
+						buf.append('\\').append('u');
+					} else {
+						buf.append((char) value);
+						i+= 4;
+					}
+					break;
+				default:
+					buf.append(c);
+			}
+		}
+		return buf.toString();
+	}
+
+	private static int parseUnicode(char[] chars, int offset, int end) {
+		if (offset + 4 > end)
+			return -1;
+		int value= 0;
+		for (int i= offset; i < offset + 4; i++) {
+			int digit= Character.digit(chars[i], 16);
+			if (digit == -1)
+				return -1;
+			value= (value << 4) + digit;
+		}
+		return value;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -1395,6 +1395,7 @@ public class ChangeSignatureProcessor extends RefactoringProcessor implements ID
 	private TextChangeManager createChangeManager(IProgressMonitor pm, RefactoringStatus result) throws CoreException {
 		pm.beginTask(RefactoringCoreMessages.ChangeSignatureRefactoring_preview, 2);
 		fChangeManager= new TextChangeManager();
+		ProjectRewriteContext.Cache projectContexts= new ProjectRewriteContext.Cache();
 		boolean isNoArgConstructor= isNoArgConstructor();
 		Map<ICompilationUnit, Set<IType>> namedSubclassMapping= null;
 		if (isNoArgConstructor){
@@ -1414,7 +1415,7 @@ public class ChangeSignatureProcessor extends RefactoringProcessor implements ID
 			if (cu.equals(getCu())) {
 				cuRewrite= fBaseCuRewrite;
 			} else {
-				cuRewrite= new CompilationUnitRewrite(cu);
+				cuRewrite= projectContexts.createRewrite(cu);
 				cuRewrite.getASTRewrite().setTargetSourceRangeComputer(new TightSourceRangeComputer());
 			}
 			ASTNode[] nodes= ASTNodeSearchUtil.findNodes(group.getSearchResults(), cuRewrite.getRoot());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -36,7 +36,6 @@ import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
 import org.eclipse.jdt.core.dom.rewrite.ImportRewrite;
 import org.eclipse.jdt.core.refactoring.CompilationUnitChange;
 
-import org.eclipse.jdt.internal.corext.codemanipulation.StubUtility;
 import org.eclipse.jdt.internal.corext.refactoring.RefactoringCoreMessages;
 import org.eclipse.jdt.internal.corext.refactoring.util.RefactoringASTParser;
 import org.eclipse.jdt.internal.corext.util.JDTUIHelperClasses;
@@ -71,6 +70,7 @@ public class CompilationUnitRewrite {
 	private boolean fBindingsRecovery= false;
 	private final WorkingCopyOwner fOwner;
 	private IDocument fRememberContent= null;
+	private ProjectRewriteContext fProjectContext; // lazily initialized
 
 
 	public CompilationUnitRewrite(ICompilationUnit cu) {
@@ -151,6 +151,28 @@ public class CompilationUnitRewrite {
 		fBindingsRecovery= bindingsRecovery;
 	}
 
+	/**
+	 * Sets the project settings used by this rewrite. Refactorings that create rewrites for
+	 * many compilation units can share the settings between them, see
+	 * {@link ProjectRewriteContext.Cache}. By default, each rewrite reads the settings itself.
+	 *
+	 * @param context the context of the compilation unit's project
+	 * @since 3.12
+	 */
+	public void setProjectContext(ProjectRewriteContext context) {
+		fProjectContext= context;
+	}
+
+	/**
+	 * @return the project settings used by this rewrite
+	 * @since 3.12
+	 */
+	public ProjectRewriteContext getProjectContext() {
+		if (fProjectContext == null)
+			fProjectContext= new ProjectRewriteContext(fCu.getJavaProject());
+		return fProjectContext;
+	}
+
 	public void clearASTRewrite() {
 		fRewrite= null;
 		fTextEditGroups= new ArrayList<>();
@@ -274,7 +296,7 @@ public class CompilationUnitRewrite {
 				clearGroupDescriptionEdits();
 				TextEdit rewriteEdit;
 				if (fRememberContent != null) {
-					rewriteEdit= fRewrite.rewriteAST(fRememberContent, fCu.getJavaProject().getOptions(true));
+					rewriteEdit= fRewrite.rewriteAST(fRememberContent, getProjectContext().getOptions());
 				} else {
 					rewriteEdit= fRewrite.rewriteAST();
 				}
@@ -350,9 +372,9 @@ public class CompilationUnitRewrite {
 				 * ImportRewrite#setUseContextToFilterImplicitImports(boolean) will be set to true
 				 * and ContextSensitiveImportRewriteContext etc. can be used. */
 				if (fRoot == null && ! fResolveBindings) {
-					fImportRewrite= StubUtility.createImportRewrite(fCu, true);
+					fImportRewrite= getProjectContext().createImportRewrite(fCu);
 				} else {
-					fImportRewrite= StubUtility.createImportRewrite(getRoot(), true);
+					fImportRewrite= getProjectContext().createImportRewrite(getRoot());
 				}
 			} catch (CoreException e) {
 				JavaPlugin.log(e);
@@ -365,7 +387,7 @@ public class CompilationUnitRewrite {
 
 	public ImportRemover getImportRemover() {
 		if (fImportRemover == null) {
-			fImportRemover= new ImportRemover(fCu.getJavaProject(), getRoot());
+			fImportRemover= getProjectContext().createImportRemover(getRoot());
 		}
 		return fImportRemover;
 	}
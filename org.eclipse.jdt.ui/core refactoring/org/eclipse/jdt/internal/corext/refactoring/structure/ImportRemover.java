@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -37,6 +37,7 @@ import org.eclipse.jdt.core.dom.rewrite.ImportRewrite;
 
 import org.eclipse.jdt.internal.corext.codemanipulation.ImportReferencesCollector;
 import org.eclipse.jdt.internal.corext.dom.Bindings;
+import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 
 /**
  * Removes imports that are no longer required.
@@ -76,7 +77,7 @@ public class ImportRemover {
 
 	private Set<StaticImportData> fAddedStaticImports= new HashSet<>();
 
-	private final IJavaProject fProject;
+	private final boolean fStaticImports;
 
 	private boolean fHasRemovedNodes;
 
@@ -85,7 +86,19 @@ public class ImportRemover {
 	private final CompilationUnit fRoot;
 
 	public ImportRemover(IJavaProject project, CompilationUnit root) {
-		fProject= project;
+		this(project != null && JavaModelUtil.is50OrHigher(project), root);
+	}
+
+	/**
+	 * Creates an import remover for clients that know whether the project supports static imports.
+	 *
+	 * @param staticImports <code>true</code> if the project of the compilation unit supports
+	 *            static imports, see {@link JavaModelUtil#is50OrHigher(IJavaProject)}
+	 * @param root the AST of the compilation unit
+	 * @since 3.12
+	 */
+	public ImportRemover(boolean staticImports, CompilationUnit root) {
+		fStaticImports= staticImports;
 		fRoot= root;
 	}
 
@@ -177,7 +190,7 @@ public class ImportRemover {
 		ArrayList<SimpleName> importNames= new ArrayList<>();
 		ArrayList<SimpleName> staticNames= new ArrayList<>();
 
-		ImportReferencesCollector.collect(fRoot, fProject, null, importNames, staticNames);
+		ImportReferencesCollector.collect(fRoot, fStaticImports, null, false, importNames, staticNames);
 
 		List<SimpleName> removedRefs= new ArrayList<>();
 		List<SimpleName> unremovedRefs= new ArrayList<>();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -71,7 +71,7 @@ public final class ImportRewriteUtil {
 		final Set<SimpleName> types= new HashSet<>();
 		final Set<SimpleName> members= new HashSet<>();
 
-		ImportReferencesCollector.collect(node, rewrite.getCu().getJavaProject(), null, declarations, types, members);
+		ImportReferencesCollector.collect(node, rewrite.getProjectContext().isStaticImportSupported(), null, declarations, types, members);
 
 		final ImportRewrite rewriter= rewrite.getImportRewrite();
 		final ImportRemover remover= rewrite.getImportRemover();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -147,6 +147,7 @@ public final class MoveStaticMembersProcessor extends MoveProcessor implements I
 	private CompilationUnitRewrite fSource;
 	private ITypeBinding fSourceBinding;
 	private CompilationUnitRewrite fTarget;
+	private ProjectRewriteContext.Cache fProjectContexts;
 	private IBinding[] fMemberBindings;
 	private BodyDeclaration[] fMemberDeclarations;
 	private boolean fDelegateUpdating;
@@ -721,6 +722,7 @@ public final class MoveStaticMembersProcessor extends MoveProcessor implements I
 	private void createChange(List<ICompilationUnit> modifiedCus, RefactoringStatus status, IProgressMonitor monitor) throws CoreException {
 		monitor.beginTask(RefactoringCoreMessages.MoveMembersRefactoring_creating, 5);
 		fChange= new DynamicValidationRefactoringChange(createDescriptor(), RefactoringCoreMessages.MoveMembersRefactoring_move_members);
+		fProjectContexts= new ProjectRewriteContext.Cache();
 		fTarget= getCuRewrite(fDestinationType.getCompilationUnit());
 		ITypeBinding targetBinding= getDestinationBinding();
 		if (targetBinding == null) {
@@ -870,7 +872,7 @@ public final class MoveStaticMembersProcessor extends MoveProcessor implements I
 			return fSource;
 		if (fTarget != null && fTarget.getCu().equals(unit))
 			return fTarget;
-		return new CompilationUnitRewrite(unit);
+		return fProjectContexts.createRewrite(unit);
 	}
 
 	private AbstractTypeDeclaration getDestinationNode() throws JavaModelException {
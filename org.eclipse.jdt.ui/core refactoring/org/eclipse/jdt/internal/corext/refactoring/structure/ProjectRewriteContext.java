@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.refactoring.structure;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.rewrite.ImportRewrite;
+
+import org.eclipse.jdt.internal.corext.codemanipulation.ImportRewriteSettings;
+import org.eclipse.jdt.internal.corext.codemanipulation.StubUtility;
+import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
+
+/**
+ * The settings of a project that each {@link CompilationUnitRewrite} needs: the import settings,
+ * whether the project supports static imports, and the compiler options used to rewrite the AST.
+ * The settings are read once and shared by the rewrites of all compilation units of the project
+ * that one refactoring creates, see {@link Cache}.
+ * <p>
+ * The settings are not updated when the preferences change, so a context must not be kept
+ * longer than the refactoring using it.
+ * </p>
+ *
+ * @see CompilationUnitRewrite#setProjectContext(ProjectRewriteContext)
+ * @since 3.12
+ */
+public final class ProjectRewriteContext {
+
+	/**
+	 * The contexts of the projects touched by one refactoring.
+	 */
+	public static final class Cache {
+
+		private final Map<IJavaProject, ProjectRewriteContext> fContexts= new HashMap<>();
+
+		/**
+		 * Returns the context for the given project.
+		 *
+		 * @param project the project
+		 * @return the context, shared by all callers asking for the same project
+		 */
+		public synchronized ProjectRewriteContext get(IJavaProject project) {
+			ProjectRewriteContext context= fContexts.get(project);
+			if (context == null) {
+				context= new ProjectRewriteContext(project);
+				fContexts.put(project, context);
+			}
+			return context;
+		}
+
+		/**
+		 * Creates a compilation unit rewrite that uses the context of the unit's project.
+		 *
+		 * @param cu the compilation unit
+		 * @return the new rewrite
+		 */
+		public CompilationUnitRewrite createRewrite(ICompilationUnit cu) {
+			CompilationUnitRewrite rewrite= new CompilationUnitRewrite(cu);
+			rewrite.setProjectContext(get(cu.getJavaProject()));
+			return rewrite;
+		}
+	}
+
+	private final IJavaProject fProject;
+
+	private ImportRewriteSettings fImportSettings; // lazily initialized
+	private Boolean fStaticImports; // lazily initialized
+	private Map<String, String> fOptions; // lazily initialized
+
+	public ProjectRewriteContext(IJavaProject project) {
+		fProject= project;
+	}
+
+	public IJavaProject getProject() {
+		return fProject;
+	}
+
+	/**
+	 * @return the compiler options of the project, including the inherited workspace options.
+	 *         The map must not be modified.
+	 */
+	public synchronized Map<String, String> getOptions() {
+		if (fOptions == null)
+			fOptions= fProject.getOptions(true);
+		return fOptions;
+	}
+
+	/**
+	 * @return <code>true</code> if the project supports static imports
+	 * @see JavaModelUtil#is50OrHigher(IJavaProject)
+	 */
+	public synchronized boolean isStaticImportSupported() {
+		if (fStaticImports == null)
+			fStaticImports= Boolean.valueOf(JavaModelUtil.is50OrHigher(fProject));
+		return fStaticImports.booleanValue();
+	}
+
+	private synchronized ImportRewriteSettings getImportSettings() {
+		if (fImportSettings == null)
+			fImportSettings= new ImportRewriteSettings(fProject);
+		return fImportSettings;
+	}
+
+	/**
+	 * Creates an import rewrite configured with the import settings of the project.
+	 *
+	 * @param cu the compilation unit to create the rewriter on
+	 * @return the new import rewrite
+	 * @throws JavaModelException if the compilation unit could not be accessed
+	 * @see StubUtility#createImportRewrite(ICompilationUnit, boolean)
+	 */
+	public ImportRewrite createImportRewrite(ICompilationUnit cu) throws JavaModelException {
+		return StubUtility.createImportRewrite(cu, true, getImportSettings());
+	}
+
+	/**
+	 * Creates an import rewrite configured with the import settings of the project.
+	 *
+	 * @param astRoot the AST root to create the rewriter on
+	 * @return the new import rewrite
+	 * @see StubUtility#createImportRewrite(CompilationUnit, boolean)
+	 */
+	public ImportRewrite createImportRewrite(CompilationUnit astRoot) {
+		return StubUtility.createImportRewrite(astRoot, true, getImportSettings());
+	}
+
+	/**
+	 * Creates an import remover for an AST of the project.
+	 *
+	 * @param astRoot the AST root
+	 * @return the new import remover
+	 */
+	public ImportRemover createImportRemover(CompilationUnit astRoot) {
+		return new ImportRemover(isStaticImportSupported(), astRoot);
+	}
+}
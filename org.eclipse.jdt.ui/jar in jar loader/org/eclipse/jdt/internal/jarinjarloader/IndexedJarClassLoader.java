@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.jarinjarloader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.security.cert.Certificate;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * This class will be compiled into the binary jar-in-jar-loader.zip. This ZIP is used for the
+ * "Runnable JAR File Exporter"
+ *
+ * A class loader over the "rsrc:" class path that loads classes of indexed nested jars directly
+ * from the runnable jar, using a {@link NestedJarIndex} per nested jar. This avoids streaming
+ * and extracting whole nested jars through "jar:rsrc:" URLs. Class path entries without index
+ * and all other requests are delegated to the {@link URLClassLoader}, preserving the class path
+ * order. Packages are defined from the manifest of the nested jar, like the {@link URLClassLoader}
+ * does. Signed nested jars are not indexed, so classes loaded in place have no certificates.
+ *
+ * @since 3.12
+ */
+public class IndexedJarClassLoader extends URLClassLoader {
+
+	private static final int NOT_FOUND = -1;
+	private static final int USE_URL_CLASS_PATH = -2;
+
+	private final URL[] urls;
+	private final String[] rsrcPaths;
+	private final NestedJarIndex[] indexes;
+	private final ClassLoader rsrcLoader;
+	private final RandomAccessFile file;
+	/** manifest per class path entry, read on demand */
+	private final Manifest[] manifests;
+	private final boolean[] manifestRead;
+
+	/**
+	 * @param urls the "rsrc:" class path
+	 * @param rsrcPaths the decoded resource paths of the class path entries
+	 * @param indexes the index per class path entry, or <code>null</code> for entries without
+	 *            index
+	 * @param rsrcLoader the class loader resolving "rsrc:" resources
+	 * @param file the runnable jar, kept open by this class loader
+	 */
+	IndexedJarClassLoader(URL[] urls, String[] rsrcPaths, NestedJarIndex[] indexes, ClassLoader rsrcLoader, RandomAccessFile file) {
+		super(urls, null);
+		this.urls = urls;
+		this.rsrcPaths = rsrcPaths;
+		this.indexes = indexes;
+		this.rsrcLoader = rsrcLoader;
+		this.file = file;
+		this.manifests = new Manifest[urls.length];
+		this.manifestRead = new boolean[urls.length];
+	}
+
+	protected Class findClass(String name) throws ClassNotFoundException {
+		String path = name.replace('.', '/') + ".class"; //$NON-NLS-1$
+		int entry = find(path);
+		if (entry == NOT_FOUND)
+			throw new ClassNotFoundException(name);
+		if (entry != USE_URL_CLASS_PATH) {
+			byte[] bytes;
+			try {
+				bytes = read(entry, path);
+			} catch (IOException e) {
+				bytes = null;
+			}
+			if (bytes != null) {
+				definePackageIfNeeded(name, entry);
+				// signed jars are not indexed
+				return defineClass(name, bytes, 0, bytes.length, new CodeSource(urls[entry], (Certificate[]) null));
+			}
+		}
+		return super.findClass(name);
+	}
+
+	public URL findResource(String name) {
+		int entry = find(name);
+		if (entry == NOT_FOUND)
+			return null;
+		if (entry != USE_URL_CLASS_PATH) {
+			try {
+				return new URL(urls[entry], name);
+			} catch (MalformedURLException e) {
+				// fall through
+			}
+		}
+		return super.findResource(name);
+	}
+
+	/**
+	 * Returns the class path entry containing the given resource.
+	 *
+	 * @param path the resource path
+	 * @return the index of an indexed class path entry, {@link #USE_URL_CLASS_PATH} if a class
+	 *         path entry without index must be asked first, or {@link #NOT_FOUND}
+	 */
+	private int find(String path) {
+		for (int i = 0; i < indexes.length; i++) {
+			if (indexes[i] != null) {
+				if (indexes[i].contains(path))
+					return i;
+			} else if (rsrcPaths[i].endsWith(JIJConstants.PATH_SEPARATOR)) {
+				String prefix = rsrcPaths[i].equals(JIJConstants.CURRENT_DIR) ? "" : rsrcPaths[i]; //$NON-NLS-1$
+				if (rsrcLoader.getResource(prefix + path) != null)
+					return USE_URL_CLASS_PATH;
+			} else {
+				return USE_URL_CLASS_PATH;
+			}
+		}
+		return NOT_FOUND;
+	}
+
+	private byte[] read(int entry, String path) throws IOException {
+		synchronized (file) {
+			return indexes[entry].readEntry(file, path);
+		}
+	}
+
+	private Manifest getManifest(int entry) {
+		synchronized (file) {
+			if (!manifestRead[entry]) {
+				manifestRead[entry] = true;
+				try {
+					byte[] bytes = indexes[entry].readEntry(file, JarFile.MANIFEST_NAME);
+					if (bytes != null)
+						manifests[entry] = new Manifest(new ByteArrayInputStream(bytes));
+				} catch (IOException e) {
+					// no manifest
+				}
+			}
+			return manifests[entry];
+		}
+	}
+
+	/**
+	 * Defines the package of a class loaded from an indexed class path entry, with the
+	 * specification, implementation and sealing attributes of the entry's manifest. Checks the
+	 * sealing of packages that are already defined, like the {@link URLClassLoader}.
+	 *
+	 * @param className the name of the class
+	 * @param entry the index of the class path entry
+	 */
+	private void definePackageIfNeeded(String className, int entry) {
+		int lastDot = className.lastIndexOf('.');
+		if (lastDot == -1)
+			return;
+		String packageName = className.substring(0, lastDot);
+		URL url = urls[entry];
+		Manifest manifest = getManifest(entry);
+		Package pkg = getPackage(packageName);
+		if (pkg != null) {
+			checkSealing(pkg, packageName, manifest, url);
+			return;
+		}
+		try {
+			if (manifest != null)
+				definePackage(packageName, manifest, url);
+			else
+				definePackage(packageName, null, null, null, null, null, null, null);
+		} catch (IllegalArgumentException e) {
+			// defined concurrently
+			pkg = getPackage(packageName);
+			if (pkg != null)
+				checkSealing(pkg, packageName, manifest, url);
+		}
+	}
+
+	private static void checkSealing(Package pkg, String packageName, Manifest manifest, URL url) {
+		if (pkg.isSealed()) {
+			if (!pkg.isSealed(url))
+				throw new SecurityException("sealing violation: package " + packageName + " is sealed"); //$NON-NLS-1$ //$NON-NLS-2$
+		} else if (manifest != null && isSealed(packageName, manifest)) {
+			throw new SecurityException("sealing violation: can't seal package " + packageName + ": already loaded"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	private static boolean isSealed(String packageName, Manifest manifest) {
+		String sealed = null;
+		Attributes attributes = manifest.getAttributes(packageName.replace('.', '/') + '/');
+		if (attributes != null)
+			sealed = attributes.getValue(Attributes.Name.SEALED);
+		if (sealed == null) {
+			attributes = manifest.getMainAttributes();
+			if (attributes != null)
+				sealed = attributes.getValue(Attributes.Name.SEALED);
+		}
+		return "true".equalsIgnoreCase(sealed); //$NON-NLS-1$
+	}
+}
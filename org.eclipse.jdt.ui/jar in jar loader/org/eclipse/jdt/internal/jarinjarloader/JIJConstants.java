@@ -32,4 +32,7 @@ final class JIJConstants {
 	static final String PATH_SEPARATOR                       = "/";  //$NON-NLS-1$
 	static final String CURRENT_DIR                          = "./";  //$NON-NLS-1$
 	static final String UTF8_ENCODING                        = "UTF-8";  //$NON-NLS-1$
+	static final String NESTED_JAR_INDEX_PREFIX              = "META-INF/jarinjar/";  //$NON-NLS-1$
+	static final String NESTED_JAR_INDEX_SUFFIX              = ".idx";  //$NON-NLS-1$
+	static final int    NESTED_JAR_INDEX_VERSION             = 1;
 }
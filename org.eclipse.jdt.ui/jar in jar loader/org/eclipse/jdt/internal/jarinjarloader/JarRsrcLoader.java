@@ -13,12 +13,16 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.jarinjarloader;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.net.URLDecoder;
+import java.security.CodeSource;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
@@ -51,13 +55,78 @@ public class JarRsrcLoader {
 			else
 				rsrcUrls[i] = new URL(JIJConstants.JAR_INTERNAL_URL_PROTOCOL_WITH_COLON + rsrcPath + JIJConstants.JAR_INTERNAL_SEPARATOR);    
 		}
-		ClassLoader jceClassLoader = new URLClassLoader(rsrcUrls, null);
+		ClassLoader jceClassLoader = createIndexedClassLoader(mi.rsrcClassPath, rsrcUrls, cl);
+		if (jceClassLoader == null)
+			jceClassLoader = new URLClassLoader(rsrcUrls, null);
 		Thread.currentThread().setContextClassLoader(jceClassLoader);
 		Class c = Class.forName(mi.rsrcMainClass, true, jceClassLoader);
 		Method main = c.getMethod(JIJConstants.MAIN_METHOD_NAME, new Class[]{args.getClass()}); 
 		main.invoke((Object)null, new Object[]{args});
 	}
 
+	/**
+	 * Creates a class loader that reads classes of nested jars in place, if the runnable jar is a
+	 * local file and contains an index for at least one stored nested jar.
+	 * 
+	 * @param rsrcClassPath the class path from the manifest
+	 * @param rsrcUrls the "rsrc:" URLs of the class path
+	 * @param cl the class loader resolving "rsrc:" resources
+	 * @return the class loader or <code>null</code> if no nested jar is indexed
+	 */
+	private static ClassLoader createIndexedClassLoader(String[] rsrcClassPath, URL[] rsrcUrls, ClassLoader cl) {
+		RandomAccessFile file = null;
+		try {
+			File jarFile = getLoaderJarFile();
+			if (jarFile == null)
+				return null;
+			file = new RandomAccessFile(jarFile, "r"); //$NON-NLS-1$
+			String[] rsrcPaths = new String[rsrcClassPath.length];
+			NestedJarIndex[] indexes = new NestedJarIndex[rsrcClassPath.length];
+			boolean hasIndex = false;
+			for (int i = 0; i < rsrcClassPath.length; i++) {
+				rsrcPaths[i] = URLDecoder.decode(rsrcClassPath[i], JIJConstants.UTF8_ENCODING);
+				if (rsrcPaths[i].endsWith(JIJConstants.PATH_SEPARATOR))
+					continue;
+				InputStream indexStream = cl.getResourceAsStream(JIJConstants.NESTED_JAR_INDEX_PREFIX + rsrcPaths[i] + JIJConstants.NESTED_JAR_INDEX_SUFFIX);
+				if (indexStream == null)
+					continue;
+				long start = NestedJarIndex.findStoredEntry(file, rsrcPaths[i]);
+				if (start == -1) {
+					indexStream.close();
+					continue;
+				}
+				indexes[i] = NestedJarIndex.read(indexStream, start);
+				// entries of signed jars must be verified by the "rsrc:" class path
+				if (indexes[i] != null && indexes[i].isSigned())
+					indexes[i] = null;
+				hasIndex |= indexes[i] != null;
+			}
+			if (!hasIndex) {
+				file.close();
+				return null;
+			}
+			return new IndexedJarClassLoader(rsrcUrls, rsrcPaths, indexes, cl, file);
+		} catch (Exception e) {
+			// fall back to the "rsrc:" class path
+			if (file != null) {
+				try {
+					file.close();
+				} catch (IOException e1) {
+					// ignore
+				}
+			}
+			return null;
+		}
+	}
+
+	private static File getLoaderJarFile() throws IOException {
+		CodeSource codeSource = JarRsrcLoader.class.getProtectionDomain().getCodeSource();
+		if (codeSource == null || codeSource.getLocation() == null || !"file".equals(codeSource.getLocation().getProtocol())) //$NON-NLS-1$
+			return null;
+		File file = new File(URLDecoder.decode(codeSource.getLocation().getFile(), JIJConstants.UTF8_ENCODING));
+		return file.isFile() ? file : null;
+	}
+
 	private static ManifestInfo getManifestInfo() throws IOException {
 		Enumeration resEnum;
 		resEnum = Thread.currentThread().getContextClassLoader().getResources(JarFile.MANIFEST_NAME); 
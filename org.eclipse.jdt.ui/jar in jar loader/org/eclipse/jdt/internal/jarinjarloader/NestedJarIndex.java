@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.jarinjarloader;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * This class will be compiled into the binary jar-in-jar-loader.zip. This ZIP is used for the
+ * "Runnable JAR File Exporter"
+ *
+ * The entry index of a library jar that is stored uncompressed inside the runnable jar. The
+ * index is written at export time (see NestedJarIndexWriter in
+ * {@link org.eclipse.jdt.internal.ui.jarpackagerfat}, which duplicates the format) and maps
+ * the entry names of the library to the position of their data inside the library. Together
+ * with the position of the library inside the runnable jar, entries can be read in place.
+ *
+ * @since 3.12
+ */
+final class NestedJarIndex {
+
+	private static final int END_SIGNATURE     = 0x06054b50;
+	private static final int CENTRAL_SIGNATURE = 0x02014b50;
+	private static final int LOCAL_SIGNATURE   = 0x04034b50;
+	private static final int END_SIZE          = 22;
+	private static final int CENTRAL_SIZE      = 46;
+	private static final int LOCAL_SIZE        = 30;
+	private static final int MAX_COMMENT_SIZE  = 0xFFFF;
+
+	private static final String META_INF         = "META-INF/"; //$NON-NLS-1$
+	private static final String SIGNATURE_SUFFIX = ".SF"; //$NON-NLS-1$
+
+	private static final int STORED   = 0;
+	private static final int DEFLATED = 8;
+
+	private static final int METHOD            = 0;
+	private static final int DATA_OFFSET       = 1;
+	private static final int COMPRESSED_SIZE   = 2;
+	private static final int SIZE              = 3;
+
+	/** entry name -> long[] { method, data offset, compressed size, size } */
+	private final Map entries;
+	private final long start;
+
+	private NestedJarIndex(Map entries, long start) {
+		this.entries = entries;
+		this.start = start;
+	}
+
+	/**
+	 * Reads an index.
+	 *
+	 * @param in the index content, closed by this method
+	 * @param start the position of the library's data inside the runnable jar
+	 * @return the index or <code>null</code> if the index has an unknown version
+	 * @throws IOException if the index cannot be read
+	 */
+	static NestedJarIndex read(InputStream in, long start) throws IOException {
+		try {
+			DataInputStream data = new DataInputStream(in);
+			if (data.readInt() != JIJConstants.NESTED_JAR_INDEX_VERSION)
+				return null;
+			int count = data.readInt();
+			Map entries = new HashMap(count * 4 / 3 + 1);
+			for (int i = 0; i < count; i++) {
+				String name = data.readUTF();
+				long[] entry = new long[4];
+				entry[METHOD] = data.readShort();
+				entry[DATA_OFFSET] = data.readLong();
+				entry[COMPRESSED_SIZE] = data.readLong();
+				entry[SIZE] = data.readLong();
+				entries.put(name, entry);
+			}
+			return new NestedJarIndex(entries, start);
+		} finally {
+			in.close();
+		}
+	}
+
+	boolean contains(String name) {
+		return entries.containsKey(name);
+	}
+
+	/**
+	 * Tells whether the library is signed. Entries of signed libraries must be verified, so they
+	 * can't be read in place.
+	 *
+	 * @return <code>true</code> if the library contains a signature file
+	 */
+	boolean isSigned() {
+		for (Iterator iter = entries.keySet().iterator(); iter.hasNext();) {
+			String name = ((String) iter.next()).toUpperCase(Locale.ENGLISH);
+			if (name.startsWith(META_INF) && name.endsWith(SIGNATURE_SUFFIX))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Reads the content of an entry.
+	 *
+	 * @param file the runnable jar, the caller is responsible for synchronizing the access
+	 * @param name the entry name
+	 * @return the content or <code>null</code> if the entry is not in the index
+	 * @throws IOException if the entry cannot be read
+	 */
+	byte[] readEntry(RandomAccessFile file, String name) throws IOException {
+		long[] entry = (long[]) entries.get(name);
+		if (entry == null)
+			return null;
+		int compressedSize = (int) entry[COMPRESSED_SIZE];
+		int size = (int) entry[SIZE];
+		file.seek(start + entry[DATA_OFFSET]);
+		if (entry[METHOD] == STORED) {
+			byte[] result = new byte[size];
+			file.readFully(result);
+			return result;
+		}
+		if (entry[METHOD] != DEFLATED)
+			throw new IOException("Unsupported compression method for " + name); //$NON-NLS-1$
+		// nowrap inflaters need an extra dummy byte
+		byte[] compressed = new byte[compressedSize + 1];
+		file.readFully(compressed, 0, compressedSize);
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(compressed);
+			byte[] result = new byte[size];
+			int length = 0;
+			while (length < size && !inflater.finished()) {
+				int count = inflater.inflate(result, length, size - length);
+				if (count == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+					break;
+				length += count;
+			}
+			if (length != size)
+				throw new IOException("Corrupt entry " + name); //$NON-NLS-1$
+			return result;
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupt entry " + name + ": " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Finds the data of an uncompressed entry of a zip file.
+	 *
+	 * @param file the zip file
+	 * @param name the entry name
+	 * @return the position of the entry's data or <code>-1</code> if the entry does not exist,
+	 *         is compressed or cannot be located
+	 * @throws IOException if the file cannot be read
+	 */
+	static long findStoredEntry(RandomAccessFile file, String name) throws IOException {
+		long length = file.length();
+		int tailSize = (int) Math.min(length, END_SIZE + MAX_COMMENT_SIZE);
+		byte[] tail = read(file, length - tailSize, tailSize);
+		int end = -1;
+		for (int i = tailSize - END_SIZE; i >= 0; i--) {
+			if (getInt(tail, i) == END_SIGNATURE && i + END_SIZE + getShort(tail, i + 20) == tailSize) {
+				end = i;
+				break;
+			}
+		}
+		if (end == -1)
+			return -1;
+		long centralSize = getInt(tail, end + 12);
+		long centralOffset = getInt(tail, end + 16);
+		if (centralOffset == 0xFFFFFFFFL || centralSize == 0xFFFFFFFFL)
+			return -1; // zip64 is not supported
+		byte[] central = read(file, centralOffset, (int) centralSize);
+		byte[] nameBytes = name.getBytes(JIJConstants.UTF8_ENCODING);
+		int pos = 0;
+		while (pos + CENTRAL_SIZE <= central.length && getInt(central, pos) == CENTRAL_SIGNATURE) {
+			int nameLength = getShort(central, pos + 28);
+			int next = pos + CENTRAL_SIZE + nameLength + getShort(central, pos + 30) + getShort(central, pos + 32);
+			if (nameLength == nameBytes.length && regionMatches(central, pos + CENTRAL_SIZE, nameBytes)) {
+				long localOffset = getInt(central, pos + 42);
+				if (getShort(central, pos + 10) != STORED || localOffset == 0xFFFFFFFFL)
+					return -1;
+				byte[] local = read(file, localOffset, LOCAL_SIZE);
+				if (getInt(local, 0) != LOCAL_SIGNATURE)
+					return -1;
+				return localOffset + LOCAL_SIZE + getShort(local, 26) + getShort(local, 28);
+			}
+			pos = next;
+		}
+		return -1;
+	}
+
+	private static boolean regionMatches(byte[] bytes, int offset, byte[] region) {
+		for (int i = 0; i < region.length; i++) {
+			if (bytes[offset + i] != region[i])
+				return false;
+		}
+		return true;
+	}
+
+	private static byte[] read(RandomAccessFile file, long position, int length) throws IOException {
+		byte[] result = new byte[length];
+		file.seek(position);
+		file.readFully(result);
+		return result;
+	}
+
+	private static int getShort(byte[] bytes, int offset) {
+		return (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8);
+	}
+
+	private static long getInt(byte[] bytes, int offset) {
+		return (getShort(bytes, offset) | ((long) getShort(bytes, offset + 2) << 16)) & 0xFFFFFFFFL;
+	}
+}
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.refactoring.nls.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ICodeAssist;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IImportDeclaration;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchRequestor;
+
+/**
+ * Dispatches the matches of one search for the references to several accessor classes to the
+ * {@link NLSSearchResultRequestor}s of the accessor classes.
+ * <p>
+ * The referenced accessor class is found by its name as written at the match. A qualified name
+ * that is not fully qualified (e.g. <code>Outer.Messages</code> for a member type) matches the
+ * accessor classes whose fully qualified names end with it. Names that match more than one
+ * accessor class are resolved with the imports and the package of the referencing compilation
+ * unit, and with code select if that is not sufficient.
+ * </p>
+ *
+ * @since 3.12
+ */
+class NLSAccessorSearchRequestor extends SearchRequestor {
+
+	private final NLSSearchResultRequestor[] fRequestors;
+
+	/** fully qualified name -> requestor */
+	private final Map<String, NLSSearchResultRequestor> fByQualifiedName= new HashMap<>();
+
+	/** simple name -> fully qualified names of the accessor classes with the name */
+	private final Map<String, List<String>> fBySimpleName= new HashMap<>();
+
+	/** the type root of the last match and the names resolved in it */
+	private ITypeRoot fLastTypeRoot;
+	private final Map<String, NLSSearchResultRequestor> fResolvedNames= new HashMap<>();
+
+	private int fMatchCount;
+
+	/**
+	 * @param accessorClasses the accessor classes
+	 * @param requestors the requestors of the accessor classes, in the same order
+	 */
+	public NLSAccessorSearchRequestor(IType[] accessorClasses, NLSSearchResultRequestor[] requestors) {
+		fRequestors= requestors;
+		for (int i= 0; i < accessorClasses.length; i++) {
+			String qualifiedName= accessorClasses[i].getFullyQualifiedName('.');
+			fByQualifiedName.put(qualifiedName, requestors[i]);
+			String simpleName= accessorClasses[i].getElementName();
+			List<String> list= fBySimpleName.get(simpleName);
+			if (list == null) {
+				list= new ArrayList<>(1);
+				fBySimpleName.put(simpleName, list);
+			}
+			list.add(qualifiedName);
+		}
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.search.SearchRequestor#beginReporting()
+	 */
+	@Override
+	public void beginReporting() {
+		for (int i= 0; i < fRequestors.length; i++) {
+			fRequestors[i].beginReporting();
+		}
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.search.SearchRequestor#acceptSearchMatch(org.eclipse.jdt.core.search.SearchMatch)
+	 */
+	@Override
+	public void acceptSearchMatch(SearchMatch match) throws CoreException {
+		if (match.getAccuracy() == SearchMatch.A_INACCURATE || match.getOffset() == -1 || match.getLength() == -1)
+			return;
+		if (!(match.getElement() instanceof IJavaElement))
+			return;
+
+		NLSSearchResultRequestor requestor= findRequestor((IJavaElement) match.getElement(), match.getOffset(), match.getLength());
+		if (requestor != null) {
+			fMatchCount++;
+			requestor.acceptSearchMatch(match);
+		}
+	}
+
+	/**
+	 * @return the number of matches dispatched to the requestors
+	 */
+	public int getMatchCount() {
+		return fMatchCount;
+	}
+
+	private NLSSearchResultRequestor findRequestor(IJavaElement element, int offset, int length) throws JavaModelException {
+		ITypeRoot typeRoot= (ITypeRoot) element.getAncestor(IJavaElement.COMPILATION_UNIT);
+		if (typeRoot == null)
+			typeRoot= (ITypeRoot) element.getAncestor(IJavaElement.CLASS_FILE);
+		if (typeRoot == null)
+			return null;
+
+		IBuffer buffer= typeRoot.getBuffer();
+		if (buffer == null || offset + length > buffer.getLength())
+			return null;
+		String name= removeWhiteSpace(buffer.getText(offset, length));
+
+		int lastDot= name.lastIndexOf('.');
+		if (lastDot != -1) {
+			NLSSearchResultRequestor requestor= fByQualifiedName.get(name);
+			if (requestor != null)
+				return requestor;
+		}
+
+		List<String> candidates= fBySimpleName.get(name.substring(lastDot + 1));
+		if (candidates == null)
+			return null;
+		if (lastDot != -1)
+			candidates= getSuffixMatches(candidates, name);
+		if (candidates.isEmpty())
+			return null;
+		if (candidates.size() == 1)
+			return fByQualifiedName.get(candidates.get(0));
+
+		if (!typeRoot.equals(fLastTypeRoot)) {
+			fLastTypeRoot= typeRoot;
+			fResolvedNames.clear();
+		}
+		if (fResolvedNames.containsKey(name))
+			return fResolvedNames.get(name);
+
+		NLSSearchResultRequestor requestor= resolve(typeRoot, name, offset, length);
+		fResolvedNames.put(name, requestor);
+		return requestor;
+	}
+
+	private static List<String> getSuffixMatches(List<String> qualifiedNames, String name) {
+		List<String> result= new ArrayList<>(qualifiedNames.size());
+		for (int i= 0; i < qualifiedNames.size(); i++) {
+			String qualifiedName= qualifiedNames.get(i);
+			if (qualifiedName.length() > name.length() && qualifiedName.endsWith(name) && qualifiedName.charAt(qualifiedName.length() - name.length() - 1) == '.')
+				result.add(qualifiedName);
+		}
+		return result;
+	}
+
+	/*
+	 * Resolves the first segment of the name like a simple type name. The rest of the name
+	 * selects a member type of that type.
+	 */
+	private NLSSearchResultRequestor resolve(ITypeRoot typeRoot, String name, int offset, int length) throws JavaModelException {
+		if (typeRoot instanceof ICompilationUnit) {
+			ICompilationUnit cu= (ICompilationUnit) typeRoot;
+			int firstDot= name.indexOf('.');
+			String firstSegment= firstDot != -1 ? name.substring(0, firstDot) : name;
+			String memberNames= firstDot != -1 ? name.substring(firstDot) : ""; //$NON-NLS-1$
+			IImportDeclaration[] imports= cu.getImports();
+			for (int i= 0; i < imports.length; i++) {
+				String importName= imports[i].getElementName();
+				if (!imports[i].isOnDemand() && importName.endsWith('.' + firstSegment))
+					return fByQualifiedName.get(importName + memberNames);
+			}
+			NLSSearchResultRequestor requestor= fByQualifiedName.get(getQualifiedName(cu.getParent().getElementName(), name));
+			if (requestor != null)
+				return requestor;
+			for (int i= 0; i < imports.length; i++) {
+				if (imports[i].isOnDemand() && !Flags.isStatic(imports[i].getFlags())) {
+					String importName= imports[i].getElementName();
+					requestor= fByQualifiedName.get(getQualifiedName(importName.substring(0, importName.length() - 2), name));
+					if (requestor != null)
+						return requestor;
+				}
+			}
+		}
+
+		// e.g. a reference from a type declaring a member type with the same name
+		IJavaElement[] elements= ((ICodeAssist) typeRoot).codeSelect(offset, length);
+		if (elements.length == 1 && elements[0] instanceof IType)
+			return fByQualifiedName.get(((IType) elements[0]).getFullyQualifiedName('.'));
+		return null;
+	}
+
+	private static String getQualifiedName(String packageName, String name) {
+		if (packageName.length() == 0)
+			return name;
+		return packageName + '.' + name;
+	}
+
+	private static String removeWhiteSpace(String name) {
+		StringBuffer buf= null;
+		for (int i= 0; i < name.length(); i++) {
+			char c= name.charAt(i);
+			if (Character.isWhitespace(c)) {
+				if (buf == null)
+					buf= new StringBuffer(name.substring(0, i));
+			} else if (buf != null) {
+				buf.append(c);
+			}
+		}
+		return buf != null ? buf.toString() : name;
+	}
+}
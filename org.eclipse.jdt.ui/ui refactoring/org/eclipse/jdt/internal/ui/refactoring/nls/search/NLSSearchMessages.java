@@ -30,6 +30,7 @@ final class NLSSearchMessages extends NLS {
 	public static String NLSSearchQuery_wrapperNotExists;
 	public static String NLSSearchQuery_xProblemsInScope_description;
 	public static String NLSSearchQuery_error;
+	public static String NLSSearchQuery_loading_properties;
 
 	public static String NLSSearchResultCollector_duplicateKeys;
 	public static String NLSSearchResultCollector_unusedKeys;
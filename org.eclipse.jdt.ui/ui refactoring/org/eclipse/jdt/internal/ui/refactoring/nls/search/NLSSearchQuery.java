@@ -16,6 +16,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.core.resources.IFile;
 
@@ -50,6 +51,77 @@ import org.eclipse.jdt.internal.ui.viewsupport.BasicElementLabels;
 
 public class NLSSearchQuery implements ISearchQuery {
 
+	private static final int LOADER_COUNT= Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	/**
+	 * The requestors whose properties files are loaded by the {@link PropertiesLoader}s.
+	 */
+	private static final class LoadQueue {
+		private final NLSSearchResultRequestor[] fRequestors;
+		private int fNext;
+		private int fLoaded;
+		private boolean fCanceled;
+
+		LoadQueue(NLSSearchResultRequestor[] requestors) {
+			fRequestors= requestors;
+		}
+
+		synchronized NLSSearchResultRequestor next() {
+			return !fCanceled && fNext < fRequestors.length ? fRequestors[fNext++] : null;
+		}
+
+		synchronized void loaded() {
+			fLoaded++;
+			notifyAll();
+		}
+
+		synchronized void cancel() {
+			fCanceled= true;
+			notifyAll();
+		}
+
+		synchronized boolean isCanceled() {
+			return fCanceled;
+		}
+
+		/*
+		 * Waits until more than the given number of files are loaded or the timeout expires,
+		 * returns the number of loaded files.
+		 */
+		synchronized int awaitLoaded(int loaded, long timeout) throws InterruptedException {
+			if (fLoaded == loaded && !fCanceled)
+				wait(timeout);
+			return fLoaded;
+		}
+	}
+
+	private static final class PropertiesLoader extends Job {
+		private final LoadQueue fQueue;
+
+		PropertiesLoader(LoadQueue queue) {
+			super(NLSSearchMessages.NLSSearchQuery_loading_properties);
+			fQueue= queue;
+			setSystem(true);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			NLSSearchResultRequestor requestor;
+			while ((requestor= fQueue.next()) != null) {
+				if (monitor.isCanceled()) {
+					fQueue.cancel();
+					return Status.CANCEL_STATUS;
+				}
+				try {
+					requestor.loadProperties();
+				} finally {
+					fQueue.loaded();
+				}
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
 	private NLSSearchResult fResult;
 	private IJavaElement[] fWrapperClass;
 	private IFile[] fPropertiesFile;
@@ -74,13 +146,16 @@ public class NLSSearchQuery implements ISearchQuery {
 			final AbstractTextSearchResult textResult= (AbstractTextSearchResult) getSearchResult();
 			textResult.removeAll();
 
+			IStatus status= checkExistence();
+			if (!status.isOK())
+				return status;
+
+			if (fWrapperClass.length > 1)
+				return runCombined(monitor);
+
 			for (int i= 0; i < fWrapperClass.length; i++) {
 				IJavaElement wrapperClass= fWrapperClass[i];
 				IFile propertieFile= fPropertiesFile[i];
-				if (! wrapperClass.exists())
-					return JavaUIStatus.createError(0, Messages.format(NLSSearchMessages.NLSSearchQuery_wrapperNotExists, JavaElementLabels.getElementLabel(wrapperClass, JavaElementLabels.ALL_DEFAULT)), null);
-				if (! propertieFile.exists())
-					return JavaUIStatus.createError(0, Messages.format(NLSSearchMessages.NLSSearchQuery_propertiesNotExists, BasicElementLabels.getResourceName(propertieFile)), null);
 
 				SearchPattern pattern= SearchPattern.createPattern(wrapperClass, IJavaSearchConstants.REFERENCES, SearchUtils.GENERICS_AGNOSTIC_MATCH_RULE);
 				SearchParticipant[] participants= new SearchParticipant[] {SearchEngine.getDefaultSearchParticipant()};
@@ -90,31 +165,7 @@ public class NLSSearchQuery implements ISearchQuery {
 					SearchEngine engine= new SearchEngine();
 					engine.search(pattern, participants, fScope, requestor, new SubProgressMonitor(monitor, 4));
 					requestor.reportUnusedPropertyNames(new SubProgressMonitor(monitor, 1));
-
-					ICompilationUnit compilationUnit= ((IType)wrapperClass).getCompilationUnit();
-					CompilationUnitEntry groupElement= new CompilationUnitEntry(NLSSearchMessages.NLSSearchResultCollector_unusedKeys, compilationUnit);
-
-					boolean hasUnusedPropertie= false;
-					IField[] fields= ((IType)wrapperClass).getFields();
-					for (int j= 0; j < fields.length; j++) {
-						IField field= fields[j];
-						if (isNLSField(field)) {
-							ISourceRange sourceRange= field.getSourceRange();
-							if (sourceRange != null) {
-								String fieldName= field.getElementName();
-								if (!requestor.hasPropertyKey(fieldName)) {
-									fResult.addMatch(new Match(compilationUnit, sourceRange.getOffset(), sourceRange.getLength()));
-								}
-								if (!requestor.isUsedPropertyKey(fieldName)) {
-									hasUnusedPropertie= true;
-									fResult.addMatch(new Match(groupElement, sourceRange.getOffset(), sourceRange.getLength()));
-								}
-							}
-						}
-					}
-					if (hasUnusedPropertie)
-						fResult.addCompilationUnitGroup(groupElement);
-
+					reportFieldProblems((IType) wrapperClass, requestor);
 				} catch (CoreException e) {
 					return new Status(e.getStatus().getSeverity(), JavaPlugin.getPluginId(), IStatus.OK, NLSSearchMessages.NLSSearchQuery_error, e);
 				}
@@ -125,6 +176,138 @@ public class NLSSearchQuery implements ISearchQuery {
 		return 	Status.OK_STATUS;
 	}
 
+	private IStatus checkExistence() {
+		for (int i= 0; i < fWrapperClass.length; i++) {
+			IJavaElement wrapperClass= fWrapperClass[i];
+			IFile propertieFile= fPropertiesFile[i];
+			if (! wrapperClass.exists())
+				return JavaUIStatus.createError(0, Messages.format(NLSSearchMessages.NLSSearchQuery_wrapperNotExists, JavaElementLabels.getElementLabel(wrapperClass, JavaElementLabels.ALL_DEFAULT)), null);
+			if (! propertieFile.exists())
+				return JavaUIStatus.createError(0, Messages.format(NLSSearchMessages.NLSSearchQuery_propertiesNotExists, BasicElementLabels.getResourceName(propertieFile)), null);
+		}
+		return Status.OK_STATUS;
+	}
+
+	/**
+	 * Searches the references to all accessor classes at once. The properties files are loaded
+	 * concurrently, and the matches of the search are dispatched to the requestor of the
+	 * referenced accessor class.
+	 *
+	 * @param monitor the progress monitor, with <code>5 * fWrapperClass.length</code> units of
+	 *            work
+	 * @return the status of the search
+	 */
+	private IStatus runCombined(IProgressMonitor monitor) {
+		int count= fWrapperClass.length;
+		IType[] accessorClasses= new IType[count];
+		NLSSearchResultRequestor[] requestors= new NLSSearchResultRequestor[count];
+		for (int i= 0; i < count; i++) {
+			accessorClasses[i]= (IType) fWrapperClass[i];
+			requestors[i]= new NLSSearchResultRequestor(fPropertiesFile[i], fResult);
+		}
+
+		long start= System.currentTimeMillis();
+		monitor.setTaskName(NLSSearchMessages.NLSSearchQuery_loading_properties);
+		if (!loadProperties(requestors, new SubProgressMonitor(monitor, count)))
+			return Status.CANCEL_STATUS;
+		long loaded= System.currentTimeMillis();
+
+		SearchPattern pattern= null;
+		for (int i= 0; i < count; i++) {
+			SearchPattern current= SearchPattern.createPattern(accessorClasses[i], IJavaSearchConstants.REFERENCES, SearchUtils.GENERICS_AGNOSTIC_MATCH_RULE);
+			pattern= pattern == null ? current : SearchPattern.createOrPattern(pattern, current);
+		}
+		SearchParticipant[] participants= new SearchParticipant[] {SearchEngine.getDefaultSearchParticipant()};
+		NLSAccessorSearchRequestor requestor= new NLSAccessorSearchRequestor(accessorClasses, requestors);
+		try {
+			new SearchEngine().search(pattern, participants, fScope, requestor, new SubProgressMonitor(monitor, 3 * count));
+			long searched= System.currentTimeMillis();
+
+			IProgressMonitor reportMonitor= new SubProgressMonitor(monitor, count);
+			reportMonitor.beginTask("", count); //$NON-NLS-1$
+			try {
+				for (int i= 0; i < count; i++) {
+					if (reportMonitor.isCanceled())
+						return Status.CANCEL_STATUS;
+					requestors[i].reportUnusedPropertyNames(new SubProgressMonitor(reportMonitor, 1));
+					reportFieldProblems(accessorClasses[i], requestors[i]);
+				}
+			} finally {
+				reportMonitor.done();
+			}
+
+			if (JavaPlugin.DEBUG_NLS_SEARCH) {
+				System.out.println("NLS search: " + count + " accessor classes, " + requestor.getMatchCount() + " references, " + fResult.getMatchCount() + " problems: " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+						+ (loaded - start) + "ms loading, " + (searched - loaded) + "ms searching, " + (System.currentTimeMillis() - searched) + "ms reporting"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+		} catch (CoreException e) {
+			return new Status(e.getStatus().getSeverity(), JavaPlugin.getPluginId(), IStatus.OK, NLSSearchMessages.NLSSearchQuery_error, e);
+		}
+		return Status.OK_STATUS;
+	}
+
+	/**
+	 * Loads the properties files of the given requestors in background jobs.
+	 *
+	 * @param requestors the requestors
+	 * @param monitor the progress monitor
+	 * @return <code>false</code> if loading was canceled
+	 */
+	private static boolean loadProperties(NLSSearchResultRequestor[] requestors, IProgressMonitor monitor) {
+		monitor.beginTask("", requestors.length); //$NON-NLS-1$
+		try {
+			LoadQueue queue= new LoadQueue(requestors);
+			for (int i= Math.min(LOADER_COUNT, requestors.length); i > 0; i--) {
+				new PropertiesLoader(queue).schedule();
+			}
+			try {
+				int done= 0;
+				while (done < requestors.length) {
+					if (monitor.isCanceled())
+						queue.cancel();
+					if (queue.isCanceled())
+						return false;
+					int loaded= queue.awaitLoaded(done, 100);
+					monitor.worked(loaded - done);
+					done= loaded;
+				}
+			} catch (InterruptedException e) {
+				queue.cancel();
+				Thread.currentThread().interrupt();
+				return false;
+			}
+			return true;
+		} finally {
+			monitor.done();
+		}
+	}
+
+	private void reportFieldProblems(IType wrapperClass, NLSSearchResultRequestor requestor) throws JavaModelException {
+		ICompilationUnit compilationUnit= wrapperClass.getCompilationUnit();
+		CompilationUnitEntry groupElement= new CompilationUnitEntry(NLSSearchMessages.NLSSearchResultCollector_unusedKeys, compilationUnit);
+
+		boolean hasUnusedPropertie= false;
+		IField[] fields= wrapperClass.getFields();
+		for (int j= 0; j < fields.length; j++) {
+			IField field= fields[j];
+			if (isNLSField(field)) {
+				ISourceRange sourceRange= field.getSourceRange();
+				if (sourceRange != null) {
+					String fieldName= field.getElementName();
+					if (!requestor.hasPropertyKey(fieldName)) {
+						fResult.addMatch(new Match(compilationUnit, sourceRange.getOffset(), sourceRange.getLength()));
+					}
+					if (!requestor.isUsedPropertyKey(fieldName)) {
+						hasUnusedPropertie= true;
+						fResult.addMatch(new Match(groupElement, sourceRange.getOffset(), sourceRange.getLength()));
+					}
+				}
+			}
+		}
+		if (hasUnusedPropertie)
+			fResult.addCompilationUnitGroup(groupElement);
+	}
+
 	private boolean isNLSField(IField field) throws JavaModelException {
 		int flags= field.getFlags();
 		if (!Flags.isPublic(flags))
@@ -10,23 +10,18 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.refactoring.nls.search;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 
 import org.eclipse.core.resources.IFile;
 
 import org.eclipse.core.filebuffers.FileBuffers;
-import org.eclipse.core.filebuffers.ITextFileBuffer;
 import org.eclipse.core.filebuffers.ITextFileBufferManager;
 import org.eclipse.core.filebuffers.LocationKind;
 
@@ -49,7 +44,7 @@ import org.eclipse.jdt.core.compiler.InvalidInputException;
 import org.eclipse.jdt.core.search.SearchMatch;
 import org.eclipse.jdt.core.search.SearchRequestor;
 
-import org.eclipse.jdt.internal.corext.refactoring.nls.PropertyFileDocumentModel;
+import org.eclipse.jdt.internal.corext.refactoring.nls.PropertyFileEntries;
 import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
@@ -73,7 +68,7 @@ class NLSSearchResultRequestor extends SearchRequestor {
 
 	private NLSSearchResult fResult;
 	private IFile fPropertiesFile;
-	private Properties fProperties;
+	private PropertyFileEntries fProperties;
 	private HashSet<String> fUsedPropertyNames;
 
 	public NLSSearchResultRequestor(IFile propertiesFile, NLSSearchResult result) {
@@ -86,7 +81,9 @@ class NLSSearchResultRequestor extends SearchRequestor {
 	 */
 	@Override
 	public void beginReporting() {
-		loadProperties();
+		if (fProperties == null)
+			loadProperties();
+		reportDuplicateKeys(fProperties.getDuplicateKeys());
 		fUsedPropertyNames= new HashSet<>(fProperties.size());
 	}
 
@@ -153,8 +150,8 @@ class NLSSearchResultRequestor extends SearchRequestor {
 		pm.setTaskName(NLSSearchMessages.NLSSearchResultRequestor_searching);
 		FileEntry groupElement= new FileEntry(fPropertiesFile, NLSSearchMessages.NLSSearchResultCollector_unusedKeys);
 
-		for (Enumeration<?> enumeration= fProperties.propertyNames(); enumeration.hasMoreElements();) {
-			String propertyName= (String) enumeration.nextElement();
+		for (Iterator<String> iter= fProperties.getKeys().iterator(); iter.hasNext();) {
+			String propertyName= iter.next();
 			if (!fUsedPropertyNames.contains(propertyName)) {
 				addMatch(groupElement, propertyName);
 				hasUnused= true;
@@ -169,25 +166,12 @@ class NLSSearchResultRequestor extends SearchRequestor {
 
 
 	private void addMatch(FileEntry groupElement, String propertyName) {
-		/*
-		 * TODO (bug 63794): Should read in .properties file with our own reader and not
-		 * with Properties.load(InputStream) . Then, we can remember start position and
-		 * original version (not interpreting escape characters) for each property.
-		 *
-		 * The current workaround is to escape the key again before searching in the
-		 * .properties file. However, this can fail if the key is escaped in a different
-		 * manner than what PropertyFileDocumentModel.unwindEscapeChars(.) produces.
-		 */
-		String escapedPropertyName= PropertyFileDocumentModel.escape(propertyName, false);
-		int start= findPropertyNameStartPosition(escapedPropertyName);
-		int length;
-		if (start == -1) { // not found -> report at beginning
-			start= 0;
-			length= 0;
+		PropertyFileEntries.Entry entry= fProperties.getEntry(propertyName);
+		if (entry == null) { // not found -> report at beginning
+			fResult.addMatch(new Match(groupElement, 0, 0));
 		} else {
-			length= escapedPropertyName.length();
+			fResult.addMatch(new Match(groupElement, entry.getOffset(), entry.getKeyLength()));
 		}
-		fResult.addMatch(new Match(groupElement, start, length));
 	}
 
 	/**
@@ -202,10 +186,7 @@ class NLSSearchResultRequestor extends SearchRequestor {
 			return false;
 
 		fUsedPropertyNames.add(key);
-		if (fProperties.getProperty(key) != null) {
-			return true;
-		}
-		return false;
+		return fProperties.containsKey(key);
 	}
 
 	public boolean hasPropertyKey(String key) {
@@ -317,121 +298,40 @@ class NLSSearchResultRequestor extends SearchRequestor {
 	}
 
 	/**
-	 * Finds the start position in the property file. We assume that
-	 * the key is the first match on a line.
-	 *
-	 * @param propertyName the property name
-	 * @return	the start position of the property name in the file, -1 if not found
+	 * Loads the properties file. Called by {@link #beginReporting()} if the file has not been
+	 * loaded before. The file can be loaded in advance, e.g. to load the files of several
+	 * requestors concurrently.
 	 */
-	private int findPropertyNameStartPosition(String propertyName) {
-		// Fix for http://dev.eclipse.org/bugs/show_bug.cgi?id=19319
-		InputStream stream= null;
-		LineReader lineReader= null;
-		String encoding;
-		try {
-			encoding= fPropertiesFile.getCharset();
-		} catch (CoreException e1) {
-			encoding= "ISO-8859-1";  //$NON-NLS-1$
-		}
-		try {
-			stream= createInputStream(fPropertiesFile);
-			lineReader= new LineReader(stream, encoding);
-		} catch (CoreException cex) {
-			// failed to get input stream
-			JavaPlugin.log(cex);
-			return -1;
-		} catch (IOException e) {
-			if (stream != null) {
-				try {
-					stream.close();
-				} catch (IOException ce) {
-					JavaPlugin.log(ce);
-				}
-			}
-			return -1;
-		}
-		int start= 0;
+	void loadProperties() {
+		String text;
 		try {
-			StringBuffer buf= new StringBuffer(80);
-			int eols= lineReader.readLine(buf);
-			int keyLength= propertyName.length();
-			while (eols > 0) {
-				String line= buf.toString();
-				int i= line.indexOf(propertyName);
-				int charPos= i + keyLength;
-				char terminatorChar= 0;
-				boolean hasNoValue= (charPos >= line.length());
-				if (i > -1 && !hasNoValue)
-					terminatorChar= line.charAt(charPos);
-				if (line.trim().startsWith(propertyName) &&
-						(hasNoValue || Character.isWhitespace(terminatorChar) || terminatorChar == '=')) {
-					start += line.indexOf(propertyName);
-					eols= -17; // found key
-				} else {
-					start += line.length() + eols;
-					buf.setLength(0);
-					eols= lineReader.readLine(buf);
-				}
-			}
-			if (eols != -17)
-				start= -1; //key not found in file. See bug 63794. This can happen if the key contains escaped characters.
-		} catch (IOException ex) {
+			text= getContents(fPropertiesFile);
+		} catch (CoreException ex) {
 			JavaPlugin.log(ex);
-			return -1;
-		} finally {
-			try {
-				lineReader.close();
-			} catch (IOException ex) {
-				JavaPlugin.log(ex);
-			}
+			text= ""; //$NON-NLS-1$
 		}
-		return start;
+		fProperties= new PropertyFileEntries(text);
 	}
 
-	private void loadProperties() {
-		Set<Object> duplicateKeys= new HashSet<>();
-		fProperties= new Properties(duplicateKeys);
-		InputStream stream;
-		try {
-			stream= new BufferedInputStream(createInputStream(fPropertiesFile));
-		} catch (CoreException ex) {
-			fProperties= new Properties();
-			return;
-		}
+	private static String getContents(IFile propertiesFile) throws CoreException {
+		ITextFileBufferManager manager= FileBuffers.getTextFileBufferManager();
+		IPath path= propertiesFile.getFullPath();
+		manager.connect(path, LocationKind.IFILE, null);
 		try {
-			fProperties.load(stream);
-		} catch (IOException ex) {
-			fProperties= new Properties();
-			return;
+			return manager.getTextFileBuffer(path, LocationKind.IFILE).getDocument().get();
 		} finally {
-			try {
-				stream.close();
-			} catch (IOException ex) {
-			}
-			reportDuplicateKeys(duplicateKeys);
+			manager.disconnect(path, LocationKind.IFILE, null);
 		}
 	}
 
-	private InputStream createInputStream(IFile propertiesFile) throws CoreException {
-		ITextFileBufferManager manager= FileBuffers.getTextFileBufferManager();
-		if (manager != null) {
-			ITextFileBuffer buffer= manager.getTextFileBuffer(propertiesFile.getFullPath(), LocationKind.IFILE);
-			if (buffer != null) {
-				return new ByteArrayInputStream(buffer.getDocument().get().getBytes());
-			}
-		}
-
-		return propertiesFile.getContents();
-	}
-
-	private void reportDuplicateKeys(Set<Object> duplicateKeys) {
+	private void reportDuplicateKeys(Set<String> duplicateKeys) {
 		if (duplicateKeys.size() == 0)
 			return;
 
 		FileEntry groupElement= new FileEntry(fPropertiesFile, NLSSearchMessages.NLSSearchResultCollector_duplicateKeys);
-		Iterator<Object> iter= duplicateKeys.iterator();
+		Iterator<String> iter= duplicateKeys.iterator();
 		while (iter.hasNext()) {
-			String propertyName= (String) iter.next();
+			String propertyName= iter.next();
 			addMatch(groupElement, propertyName);
 		}
 		fResult.addFileEntryGroup(groupElement);
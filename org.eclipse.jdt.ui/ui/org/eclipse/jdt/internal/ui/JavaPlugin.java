@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,9 +11,11 @@
 package org.eclipse.jdt.internal.ui;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
@@ -24,6 +26,7 @@ import org.osgi.service.prefs.BackingStoreException;
 
 import org.eclipse.osgi.service.debug.DebugOptions;
 import org.eclipse.osgi.service.debug.DebugOptionsListener;
+import org.eclipse.osgi.service.debug.DebugTrace;
 
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
@@ -92,23 +95,29 @@ import org.eclipse.jdt.internal.corext.template.java.SWTContextType;
 import org.eclipse.jdt.internal.corext.util.OpenTypeHistory;
 import org.eclipse.jdt.internal.corext.util.QualifiedTypeNameHistory;
 import org.eclipse.jdt.internal.corext.util.TypeFilter;
+import org.eclipse.jdt.internal.corext.util.TypeNameTable;
 
 import org.eclipse.jdt.ui.IContextMenuConstants;
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jdt.ui.PreferenceConstants;
 import org.eclipse.jdt.ui.text.JavaTextTools;
 
+import org.eclipse.jdt.internal.ui.compare.JavaStructurePrefetcher;
+import org.eclipse.jdt.internal.ui.filters.ElementFilterCache;
 import org.eclipse.jdt.internal.ui.javaeditor.ASTProvider;
 import org.eclipse.jdt.internal.ui.javaeditor.ClassFileDocumentProvider;
 import org.eclipse.jdt.internal.ui.javaeditor.CompilationUnitDocumentProvider;
 import org.eclipse.jdt.internal.ui.javaeditor.DocumentAdapter;
 import org.eclipse.jdt.internal.ui.javaeditor.ICompilationUnitDocumentProvider;
+import org.eclipse.jdt.internal.ui.javaeditor.JavaOutlineSnapshotProvider;
 import org.eclipse.jdt.internal.ui.javaeditor.WorkingCopyManager;
 import org.eclipse.jdt.internal.ui.javaeditor.saveparticipant.SaveParticipantRegistry;
 import org.eclipse.jdt.internal.ui.preferences.MembersOrderPreferenceCache;
 import org.eclipse.jdt.internal.ui.preferences.formatter.FormatterProfileStore;
 import org.eclipse.jdt.internal.ui.propertiesfileeditor.PropertiesFileDocumentProvider;
 import org.eclipse.jdt.internal.ui.text.PreferencesAdapter;
+import org.eclipse.jdt.internal.ui.text.ReconcileStatistics;
+import org.eclipse.jdt.internal.ui.text.correction.QuickFixResultCache;
 import org.eclipse.jdt.internal.ui.text.folding.JavaFoldingStructureProviderRegistry;
 import org.eclipse.jdt.internal.ui.text.java.ContentAssistHistory;
 import org.eclipse.jdt.internal.ui.text.java.hover.JavaEditorTextHoverDescriptor;
@@ -162,6 +171,27 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 
 	public static boolean DEBUG_RESULT_COLLECTOR;
 
+	public static boolean DEBUG_PROBLEM_MARKER_MANAGER;
+
+	public static boolean DEBUG_TYPE_NAME_TABLE;
+
+	public static boolean DEBUG_JAR_EXPORT;
+
+	public static boolean DEBUG_PACKAGE_EXPLORER_REFRESH;
+
+	public static boolean DEBUG_MULTI_FIX;
+
+	public static boolean DEBUG_NLS_SEARCH;
+
+	public static boolean DEBUG_RECONCILE_STATISTICS;
+
+	/**
+	 * The trace for the debug options, or <code>null</code> if the options have not been
+	 * reported yet.
+	 * @since 3.12
+	 */
+	private static volatile DebugTrace fgDebugTrace;
+
 	private static JavaPlugin fgJavaPlugin;
 
 	private static LinkedHashMap<String, Long> fgRepeatedMessages= new LinkedHashMap<String, Long>(20, 0.75f, true) {
@@ -231,6 +261,124 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 	 */
 	private ASTProvider fASTProvider;
 
+	/**
+	 * A service that is created on first use and disposed when the plug-in is stopped.
+	 *
+	 * @param <T> the type of the service
+	 * @since 3.12
+	 */
+	private abstract class LazyService<T> {
+
+		private T fService;
+
+		LazyService() {
+			fLazyServices.add(this);
+		}
+
+		synchronized T get() {
+			if (fService == null)
+				fService= create();
+			return fService;
+		}
+
+		synchronized void dispose() {
+			if (fService != null) {
+				dispose(fService);
+				fService= null;
+			}
+		}
+
+		protected abstract T create();
+
+		protected abstract void dispose(T service);
+	}
+
+	/**
+	 * The lazy services, in the order in which they are disposed.
+	 * @since 3.12
+	 */
+	private final List<LazyService<?>> fLazyServices= new ArrayList<>();
+
+	/**
+	 * The quick fix result cache.
+	 * @since 3.12
+	 */
+	private final LazyService<QuickFixResultCache> fQuickFixResultCache= new LazyService<QuickFixResultCache>() {
+		@Override
+		protected QuickFixResultCache create() {
+			return new QuickFixResultCache();
+		}
+
+		@Override
+		protected void dispose(QuickFixResultCache service) {
+			service.dispose();
+		}
+	};
+
+	/**
+	 * The prefetcher for the structures of compared Java files.
+	 * @since 3.12
+	 */
+	private final LazyService<JavaStructurePrefetcher> fJavaStructurePrefetcher= new LazyService<JavaStructurePrefetcher>() {
+		@Override
+		protected JavaStructurePrefetcher create() {
+			return new JavaStructurePrefetcher();
+		}
+
+		@Override
+		protected void dispose(JavaStructurePrefetcher service) {
+			service.dispose();
+		}
+	};
+
+	/**
+	 * The cache for the element properties tested by viewer filters.
+	 * @since 3.12
+	 */
+	private final LazyService<ElementFilterCache> fElementFilterCache= new LazyService<ElementFilterCache>() {
+		@Override
+		protected ElementFilterCache create() {
+			return new ElementFilterCache();
+		}
+
+		@Override
+		protected void dispose(ElementFilterCache service) {
+			service.dispose();
+		}
+	};
+
+	/**
+	 * The provider of the element trees shown in outlines and breadcrumbs.
+	 * @since 3.12
+	 */
+	private final LazyService<JavaOutlineSnapshotProvider> fJavaOutlineSnapshotProvider= new LazyService<JavaOutlineSnapshotProvider>() {
+		@Override
+		protected JavaOutlineSnapshotProvider create() {
+			return new JavaOutlineSnapshotProvider();
+		}
+
+		@Override
+		protected void dispose(JavaOutlineSnapshotProvider service) {
+			service.dispose();
+		}
+	};
+
+	/**
+	 * The recorder for the latencies of the Java reconciler.
+	 * @since 3.12
+	 */
+	private final LazyService<ReconcileStatistics> fReconcileStatistics= new LazyService<ReconcileStatistics>() {
+		@Override
+		protected ReconcileStatistics create() {
+			return new ReconcileStatistics();
+		}
+
+		@Override
+		protected void dispose(ReconcileStatistics service) {
+			service.dispose();
+		}
+	};
+
 	/**
 	 * The combined preference store.
 	 * @since 3.0
@@ -590,6 +738,10 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 				fASTProvider= null;
 			}
 
+			for (Iterator<LazyService<?>> iter= fLazyServices.iterator(); iter.hasNext();) {
+				iter.next().dispose();
+			}
+
 			if (fWorkingCopyManager != null) {
 				fWorkingCopyManager.shutdown();
 				fWorkingCopyManager= null;
@@ -659,6 +811,7 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 			// must add here to guarantee that it is the first in the listener list
 
 			OpenTypeHistory.shutdown();
+			TypeNameTable.shutdown();
 		} finally {
 			super.stop(context);
 		}
@@ -752,6 +905,56 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 		return fASTProvider;
 	}
 
+	/**
+	 * Returns the cache for quick fix results of compilation units.
+	 *
+	 * @return the quick fix result cache
+	 * @since 3.12
+	 */
+	public QuickFixResultCache getQuickFixResultCache() {
+		return fQuickFixResultCache.get();
+	}
+
+	/**
+	 * Returns the prefetcher for the structures of compared Java files.
+	 *
+	 * @return the Java structure prefetcher
+	 * @since 3.12
+	 */
+	public JavaStructurePrefetcher getJavaStructurePrefetcher() {
+		return fJavaStructurePrefetcher.get();
+	}
+
+	/**
+	 * Returns the cache for the element properties tested by viewer filters.
+	 *
+	 * @return the element filter cache
+	 * @since 3.12
+	 */
+	public ElementFilterCache getElementFilterCache() {
+		return fElementFilterCache.get();
+	}
+
+	/**
+	 * Returns the provider of the element trees shown in outlines and breadcrumbs.
+	 *
+	 * @return the Java outline snapshot provider
+	 * @since 3.12
+	 */
+	public JavaOutlineSnapshotProvider getJavaOutlineSnapshotProvider() {
+		return fJavaOutlineSnapshotProvider.get();
+	}
+
+	/**
+	 * Returns the recorder for the latencies of the Java reconciler.
+	 *
+	 * @return the reconcile statistics
+	 * @since 3.12
+	 */
+	public ReconcileStatistics getReconcileStatistics() {
+		return fReconcileStatistics.get();
+	}
+
 	public synchronized MembersOrderPreferenceCache getMemberOrderPreferenceCache() {
 		// initialized on startup
 		return fMembersOrderPreferenceCache;
@@ -1158,11 +1361,32 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 		return null;
 	}
 
+	/**
+	 * Writes a message to the trace of the given debug option if the option is enabled.
+	 *
+	 * @param option the debug option relative to the plug-in id, e.g. <code>"/debug/JarExport"</code>
+	 * @param message the message
+	 * @since 3.12
+	 */
+	public static void trace(String option, String message) {
+		DebugTrace trace= fgDebugTrace;
+		if (trace != null)
+			trace.trace(option, message);
+	}
+
 	@Override
 	public void optionsChanged(DebugOptions options) {
+		fgDebugTrace= options.newDebugTrace(getPluginId());
 		DEBUG_AST_PROVIDER= options.getBooleanOption("org.eclipse.jdt.ui/debug/ASTProvider", false); //$NON-NLS-1$
 		DEBUG_BREADCRUMB_ITEM_DROP_DOWN= options.getBooleanOption("org.eclipse.jdt.ui/debug/BreadcrumbItemDropDown", false); //$NON-NLS-1$
 		DEBUG_TYPE_CONSTRAINTS= options.getBooleanOption("org.eclipse.jdt.ui/debug/TypeConstraints", false); //$NON-NLS-1$
 		DEBUG_RESULT_COLLECTOR= options.getBooleanOption("org.eclipse.jdt.ui/debug/ResultCollector", false); //$NON-NLS-1$
+		DEBUG_PROBLEM_MARKER_MANAGER= options.getBooleanOption("org.eclipse.jdt.ui/debug/ProblemMarkerManager", false); //$NON-NLS-1$
+		DEBUG_TYPE_NAME_TABLE= options.getBooleanOption("org.eclipse.jdt.ui/debug/TypeNameTable", false); //$NON-NLS-1$
+		DEBUG_JAR_EXPORT= options.getBooleanOption("org.eclipse.jdt.ui/debug/JarExport", false); //$NON-NLS-1$
+		DEBUG_PACKAGE_EXPLORER_REFRESH= options.getBooleanOption("org.eclipse.jdt.ui/debug/PackageExplorerRefresh", false); //$NON-NLS-1$
+		DEBUG_MULTI_FIX= options.getBooleanOption("org.eclipse.jdt.ui/debug/MultiFix", false); //$NON-NLS-1$
+		DEBUG_NLS_SEARCH= options.getBooleanOption("org.eclipse.jdt.ui/debug/NLSSearch", false); //$NON-NLS-1$
+		DEBUG_RECONCILE_STATISTICS= options.getBooleanOption("org.eclipse.jdt.ui/debug/ReconcileStatistics", false); //$NON-NLS-1$
 	}
 }
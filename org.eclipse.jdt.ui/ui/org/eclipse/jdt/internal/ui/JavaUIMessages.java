@@ -101,6 +101,8 @@ public final class JavaUIMessages extends NLS {
 	public static String PackageSelectionDialog_nopackages_message;
 	public static String ProblemMarkerManager_problem_marker_update_job_description;
 
+	public static String DeferredLabelComputer_job_name;
+
 	public static String OverrideMethodDialog_groupMethodsByTypes;
 	public static String OverrideMethodDialog_dialog_title;
 	public static String OverrideMethodDialog_dialog_description;
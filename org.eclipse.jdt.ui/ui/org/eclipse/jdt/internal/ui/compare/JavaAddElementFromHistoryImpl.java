@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -158,6 +158,8 @@ class JavaAddElementFromHistoryImpl extends JavaHistoryActionImpl {
 			d.setAddMode(true);
 			d.setHelpContextId(IJavaHelpContextIds.ADD_ELEMENT_FROM_HISTORY_DIALOG);
 			ITypedElement selected= d.selectEdition(target, editions, parent);
+			// the editions are no longer compared
+			JavaPlugin.getDefault().getJavaStructurePrefetcher().clear();
 			if (selected == null)
 				return;	// user cancel
 
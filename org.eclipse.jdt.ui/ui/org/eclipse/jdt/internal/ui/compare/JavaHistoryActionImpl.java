@@ -114,6 +114,8 @@ abstract class JavaHistoryActionImpl /* extends Action implements IActionDelegat
 		if (states != null)
 			for (int i= 0; i < states.length; i++)
 				editions[i+1]= new HistoryItem(target, states[i]);
+		// parse the editions while the user chooses one
+		JavaPlugin.getDefault().getJavaStructurePrefetcher().prefetch(editions);
 		return editions;
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -86,6 +86,12 @@ import org.eclipse.jdt.internal.ui.text.PreferencesAdapter;
 
 public class JavaMergeViewer extends TextMergeViewer {
 
+	/**
+	 * Maximum number of characters of the texts whose tokens are cached.
+	 * @since 3.12
+	 */
+	private static final int MAX_CACHED_TOKEN_CHARS= 1024 * 1024;
+
 	private IPropertyChangeListener fPreferenceChangeListener;
 	private IPreferenceStore fPreferenceStore;
 	private Map <SourceViewer, JavaSourceViewerConfiguration> fSourceViewerConfiguration;
@@ -94,6 +100,8 @@ public class JavaMergeViewer extends TextMergeViewer {
 
 	private IWorkbenchPartSite fSite;
 
+	private final JavaTokenComparator.TokenCache fTokenCache= new JavaTokenComparator.TokenCache(MAX_CACHED_TOKEN_CHARS);
+
 
 	public JavaMergeViewer(Composite parent, int styles, CompareConfiguration mp) {
 		super(parent, styles | SWT.LEFT_TO_RIGHT, mp);
@@ -108,6 +116,7 @@ public class JavaMergeViewer extends TextMergeViewer {
 	@Override
 	protected void handleDispose(DisposeEvent event) {
 		setPreferenceStore(null);
+		fTokenCache.clear();
 		super.handleDispose(event);
 	}
 
@@ -149,6 +158,8 @@ public class JavaMergeViewer extends TextMergeViewer {
 				setPreferenceStore(createChainedPreferenceStore(project));
 			}
 		}
+    	if (input != getInput())
+    		fTokenCache.clear();
     	super.setInput(input);
     }
 
@@ -183,7 +194,7 @@ public class JavaMergeViewer extends TextMergeViewer {
 
 	@Override
 	public ITokenComparator createTokenComparator(String s) {
-		return new JavaTokenComparator(s);
+		return new JavaTokenComparator(s, fTokenCache);
 	}
 
 	@Override
@@ -243,21 +243,7 @@ public class JavaStructureCreator extends StructureCreator {
 
 	private IStructureComparator createStructureComparator(final Object input, char[] buffer, IDocument doc, ISharedDocumentAdapter adapter, IProgressMonitor monitor) {
 		String contents;
-		Map<String, String> compilerOptions= null;
-
-		if (input instanceof IResourceProvider) {
-			IResource resource= ((IResourceProvider) input).getResource();
-			if (resource != null) {
-				IJavaElement element= JavaCore.create(resource);
-				if (element != null) {
-					IJavaProject javaProject= element.getJavaProject();
-					if (javaProject != null)
-						compilerOptions= javaProject.getOptions(true);
-				}
-			}
-		}
-		if (compilerOptions == null)
-			compilerOptions= fDefaultCompilerOptions;
+		Map<String, String> compilerOptions= getCompilerOptions(input, fDefaultCompilerOptions);
 
 		if (doc != null) {
 			boolean isEditable= false;
@@ -267,19 +253,14 @@ public class JavaStructureCreator extends StructureCreator {
 			// we hook into the root node to intercept all node changes
 			JavaNode root= new RootJavaNode(doc, isEditable, input, adapter);
 
+			contents= doc.get();
 			if (buffer == null) {
-				contents= doc.get();
 				int n= contents.length();
 				buffer= new char[n];
 				contents.getChars(0, n, buffer, 0);
 			}
 
-			ASTParser parser= ASTParser.newParser(ASTProvider.SHARED_AST_LEVEL);
-			if (compilerOptions != null)
-				parser.setCompilerOptions(compilerOptions);
-			parser.setSource(buffer);
-			parser.setFocalPosition(0);
-			CompilationUnit cu= (CompilationUnit) parser.createAST(monitor);
+			CompilationUnit cu= JavaPlugin.getDefault().getJavaStructurePrefetcher().getAST(contents, buffer, compilerOptions, monitor);
 			cu.accept(new JavaParseTreeBuilder(root, buffer, true));
 
 			return root;
@@ -287,6 +268,47 @@ public class JavaStructureCreator extends StructureCreator {
 		return null;
 	}
 
+	/**
+	 * Returns the compiler options of the project of the given input.
+	 *
+	 * @param input the compare input
+	 * @param defaultOptions the options to use if the input has no project or <code>null</code>
+	 * @return the compiler options or <code>defaultOptions</code>
+	 * @since 3.12
+	 */
+	static Map<String, String> getCompilerOptions(Object input, Map<String, String> defaultOptions) {
+		if (input instanceof IResourceProvider) {
+			IResource resource= ((IResourceProvider) input).getResource();
+			if (resource != null) {
+				IJavaElement element= JavaCore.create(resource);
+				if (element != null) {
+					IJavaProject javaProject= element.getJavaProject();
+					if (javaProject != null)
+						return javaProject.getOptions(true);
+				}
+			}
+		}
+		return defaultOptions;
+	}
+
+	/**
+	 * Parses the given contents for building the structure. Method bodies are not parsed.
+	 *
+	 * @param buffer the contents
+	 * @param compilerOptions the compiler options or <code>null</code>
+	 * @param monitor the progress monitor or <code>null</code>
+	 * @return the AST
+	 * @since 3.12
+	 */
+	static CompilationUnit parse(char[] buffer, Map<String, String> compilerOptions, IProgressMonitor monitor) {
+		ASTParser parser= ASTParser.newParser(ASTProvider.SHARED_AST_LEVEL);
+		if (compilerOptions != null)
+			parser.setCompilerOptions(compilerOptions);
+		parser.setSource(buffer);
+		parser.setFocalPosition(0);
+		return (CompilationUnit) parser.createAST(monitor);
+	}
+
 	/**
 	 * Returns the contents of the given node as a string.
 	 * This string is used to test the content of a Java element
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -51,6 +51,8 @@ import org.eclipse.jdt.core.JavaCore;
 
 import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
 
 // XXX: StructuredDiffViewer should allow subclassing, see https://bugs.eclipse.org/bugs/show_bug.cgi?id=258907
 class JavaStructureDiffViewer extends StructureDiffViewer implements IElementChangedListener {
@@ -182,6 +184,7 @@ class JavaStructureDiffViewer extends StructureDiffViewer implements IElementCha
 	@Override
 	protected void handleDispose(DisposeEvent event) {
 		JavaCore.removeElementChangedListener(this);
+		JavaPlugin.getDefault().getJavaStructurePrefetcher().clear();
 		super.handleDispose(event);
 	}
 
@@ -356,8 +359,7 @@ class JavaStructureDiffViewer extends StructureDiffViewer implements IElementCha
 
 
 	/*
-	 * This is a copy of the internal JavaOutlinePage.ElementChangedListener#findElement method.
-	 * @see org.eclipse.jdt.internal.ui.javaeditor.JavaOutlinePage.ElementChangedListener#findElement(IJavaElement, IJavaElementDelta)
+	 * Returns the delta of the given unit if it may have changed its structure.
 	 * @since 3.5
 	 */
 	protected IJavaElementDelta findJavaElementDelta(IJavaElement unit, IJavaElementDelta delta) {
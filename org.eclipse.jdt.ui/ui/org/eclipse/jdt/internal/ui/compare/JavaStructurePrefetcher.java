@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.compare;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.compare.IStreamContentAccessor;
+import org.eclipse.compare.structuremergeviewer.ICompareInput;
+
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * Parses the contents of compare inputs for the {@link JavaStructureCreator} in background jobs
+ * and caches the ASTs by content.
+ * <p>
+ * Views that compare many Java files, e.g. the editions of a file in the local history, can
+ * {@link #prefetch(Object[]) prefetch} the structures of all inputs, so that they are parsed
+ * concurrently and are available when the structure of an input is requested. The ASTs are
+ * parsed without method bodies and must not be modified. The cache is cleared when the dialogs
+ * and viewers that compare Java structures are closed.
+ * </p>
+ *
+ * @since 3.12
+ */
+public class JavaStructurePrefetcher {
+
+	private static final int WORKER_COUNT= Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+	/**
+	 * Default maximum number of cached ASTs.
+	 */
+	private static final int MAX_CACHED_ASTS= 32;
+
+	/**
+	 * The contents of a compare input and the compiler options used for parsing it.
+	 */
+	private static final class ContentKey {
+		private final String fContents;
+		private final Map<String, String> fCompilerOptions;
+		private final int fHashCode;
+
+		ContentKey(String contents, Map<String, String> compilerOptions) {
+			fContents= contents;
+			fCompilerOptions= compilerOptions != null ? new HashMap<>(compilerOptions) : JavaCore.getOptions();
+			fHashCode= fContents.hashCode() * 31 + fCompilerOptions.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return fHashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ContentKey))
+				return false;
+			ContentKey other= (ContentKey) obj;
+			return fHashCode == other.fHashCode && fContents.equals(other.fContents) && fCompilerOptions.equals(other.fCompilerOptions);
+		}
+	}
+
+	private class Worker extends Job {
+
+		public Worker() {
+			super(CompareMessages.JavaStructurePrefetcher_job_name);
+			setSystem(true);
+			setPriority(Job.SHORT);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			Object input;
+			while ((input= nextPending()) != null) {
+				if (monitor.isCanceled())
+					return Status.CANCEL_STATUS;
+				try {
+					String contents= JavaCompareUtilities.readString((IStreamContentAccessor) input);
+					if (contents != null)
+						getAST(contents, contents.toCharArray(), JavaStructureCreator.getCompilerOptions(input, null), null);
+				} catch (CoreException e) {
+					// the structure creator reports the error when the input is compared
+				} catch (RuntimeException e) {
+					JavaPlugin.log(e);
+				}
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	/** contents -> AST, least recently used first */
+	private final LinkedHashMap<ContentKey, CompilationUnit> fCache= new LinkedHashMap<>(16, 0.75f, true);
+	private final int fMaxCachedASTs;
+	/** incremented when the cache is cleared */
+	private int fGeneration;
+
+	private final ArrayDeque<Object> fPending= new ArrayDeque<>();
+	private final Worker[] fWorkers;
+
+	public JavaStructurePrefetcher() {
+		this(MAX_CACHED_ASTS);
+	}
+
+	/**
+	 * Creates a prefetcher.
+	 *
+	 * @param maxCachedASTs the maximum number of cached ASTs
+	 */
+	public JavaStructurePrefetcher(int maxCachedASTs) {
+		fMaxCachedASTs= maxCachedASTs;
+		fWorkers= new Worker[WORKER_COUNT];
+		for (int i= 0; i < fWorkers.length; i++) {
+			fWorkers[i]= new Worker();
+		}
+	}
+
+	/**
+	 * Parses the contents of the given inputs in the background. Inputs that are not
+	 * {@link IStreamContentAccessor}s are ignored, the sides of {@link ICompareInput}s are
+	 * prefetched.
+	 *
+	 * @param inputs the compare inputs
+	 */
+	public void prefetch(Object[] inputs) {
+		synchronized (this) {
+			for (int i= 0; i < inputs.length; i++) {
+				Object input= inputs[i];
+				if (input instanceof ICompareInput) {
+					ICompareInput compareInput= (ICompareInput) input;
+					addPending(compareInput.getLeft());
+					addPending(compareInput.getRight());
+					addPending(compareInput.getAncestor());
+				} else {
+					addPending(input);
+				}
+			}
+			if (fPending.isEmpty())
+				return;
+		}
+		for (int i= 0; i < fWorkers.length; i++) {
+			fWorkers[i].schedule();
+		}
+	}
+
+	private void addPending(Object input) {
+		if (input instanceof IStreamContentAccessor)
+			fPending.add(input);
+	}
+
+	private synchronized Object nextPending() {
+		return fPending.poll();
+	}
+
+	/**
+	 * Returns the AST of the given contents, parsing it if it is not cached.
+	 *
+	 * @param contents the contents
+	 * @param buffer the contents as char array
+	 * @param compilerOptions the compiler options or <code>null</code> to use the workspace
+	 *            options
+	 * @param monitor the progress monitor or <code>null</code>
+	 * @return the shared AST, must not be modified
+	 */
+	public CompilationUnit getAST(String contents, char[] buffer, Map<String, String> compilerOptions, IProgressMonitor monitor) {
+		ContentKey key= new ContentKey(contents, compilerOptions);
+		int generation;
+		synchronized (this) {
+			CompilationUnit ast= fCache.get(key);
+			if (ast != null)
+				return ast;
+			generation= fGeneration;
+		}
+		CompilationUnit ast= JavaStructureCreator.parse(buffer, compilerOptions, monitor);
+		synchronized (this) {
+			if (generation != fGeneration)
+				return ast; // cleared while parsing
+			CompilationUnit existing= fCache.get(key);
+			if (existing != null)
+				return existing; // parsed concurrently
+			fCache.put(key, ast);
+			for (Iterator<ContentKey> iter= fCache.keySet().iterator(); fCache.size() > fMaxCachedASTs && iter.hasNext();) {
+				iter.next();
+				iter.remove();
+			}
+		}
+		return ast;
+	}
+
+	/**
+	 * Returns the number of cached ASTs.
+	 *
+	 * @return the number of cached ASTs
+	 */
+	public synchronized int size() {
+		return fCache.size();
+	}
+
+	/**
+	 * Discards all cached ASTs and pending inputs.
+	 */
+	public synchronized void clear() {
+		fPending.clear();
+		fCache.clear();
+		fGeneration++;
+	}
+
+	public void dispose() {
+		for (int i= 0; i < fWorkers.length; i++) {
+			fWorkers[i].cancel();
+		}
+		clear();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.compare;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
 import org.eclipse.core.runtime.Assert;
 
 import org.eclipse.compare.contentmergeviewer.ITokenComparator;
@@ -26,15 +30,116 @@ import org.eclipse.jdt.internal.corext.dom.TokenScanner;
 
 /**
  * A comparator for Java tokens.
+ * <p>
+ * Comparators created with a {@link TokenCache} share the tokens of recently compared texts, so
+ * that comparing the unchanged parts of two documents again after an edit does not scan them
+ * again. Each token also stores a hash code of its text, so that most unequal tokens are told
+ * apart without comparing their text.
+ * </p>
  */
 public class JavaTokenComparator implements ITokenComparator {
 
 	private static final boolean DEBUG= false;
 
+	/**
+	 * The tokens of a text. Immutable once created.
+	 * @since 3.12
+	 */
+	private static final class Tokens {
+		int fCount;
+		int[] fStarts;
+		int[] fLengths;
+		int[] fHashes;
+
+		Tokens(int capacity) {
+			fStarts= new int[capacity];
+			fLengths= new int[capacity];
+		}
+
+		void add(int start, int length) {
+			if (fCount == fStarts.length) {
+				int capacity= fCount * 2 + 16;
+				fStarts= Arrays.copyOf(fStarts, capacity);
+				fLengths= Arrays.copyOf(fLengths, capacity);
+			}
+			fStarts[fCount]= start;
+			fLengths[fCount]= length;
+			fCount++;
+		}
+
+		void computeHashes(String text) {
+			fHashes= new int[fCount];
+			for (int i= 0; i < fCount; i++) {
+				int hash= 0;
+				for (int j= fStarts[i], end= j + fLengths[i]; j < end; j++) {
+					hash= 31 * hash + text.charAt(j);
+				}
+				fHashes[i]= hash;
+			}
+		}
+	}
+
+	/**
+	 * The tokens of recently compared texts. A cache belongs to the viewer that creates the
+	 * comparators and is cleared when the viewer's input changes or the viewer is disposed.
+	 *
+	 * @since 3.12
+	 */
+	public static final class TokenCache {
+
+		/** text -> tokens, least recently used first */
+		private final LinkedHashMap<String, Tokens> fTokens= new LinkedHashMap<>(16, 0.75f, true);
+		private final int fMaxChars;
+		private int fCachedChars;
+
+		/**
+		 * Creates a token cache.
+		 *
+		 * @param maxChars the maximum number of characters of the texts whose tokens are cached
+		 */
+		public TokenCache(int maxChars) {
+			fMaxChars= maxChars;
+		}
+
+		synchronized Tokens get(String text) {
+			return fTokens.get(text);
+		}
+
+		synchronized void put(String text, Tokens tokens) {
+			int length= text.length();
+			if (length > fMaxChars)
+				return;
+			if (fTokens.put(text, tokens) == null)
+				fCachedChars+= length;
+			for (Iterator<String> iter= fTokens.keySet().iterator(); fCachedChars > fMaxChars && iter.hasNext();) {
+				fCachedChars-= iter.next().length();
+				iter.remove();
+			}
+		}
+
+		/**
+		 * Returns the number of texts whose tokens are cached.
+		 *
+		 * @return the number of cached texts
+		 */
+		public synchronized int size() {
+			return fTokens.size();
+		}
+
+		/**
+		 * Discards all cached tokens.
+		 */
+		public synchronized void clear() {
+			fTokens.clear();
+			fCachedChars= 0;
+		}
+	}
+
 	private final String fText;
-	private int fCount;
-	private int[] fStarts;
-	private int[] fLengths;
+	private final int fCount;
+	private final int[] fStarts;
+	private final int[] fLengths;
+	private final int[] fHashes;
 
 	/**
 	 * Creates a token comparator for the given string.
@@ -42,17 +147,48 @@ public class JavaTokenComparator implements ITokenComparator {
 	 * @param text the text to be tokenized
 	 */
 	public JavaTokenComparator(String text) {
+		this(text, null);
+	}
+
+	/**
+	 * Creates a token comparator for the given string.
+	 *
+	 * @param text the text to be tokenized
+	 * @param cache the cache to get the tokens from and to add them to, or <code>null</code>
+	 * @since 3.12
+	 */
+	public JavaTokenComparator(String text, TokenCache cache) {
 		Assert.isLegal(text != null);
 
 		fText= text;
 
-		int length= fText.length();
-		fStarts= new int[length];
-		fLengths= new int[length];
-		fCount= 0;
+		Tokens tokens= cache != null ? cache.get(text) : null;
+		if (tokens == null) {
+			// about one token per 4 characters, including white space
+			tokens= new Tokens(text.length() / 4 + 16);
+			scan(text, 0, tokens);
+			tokens.computeHashes(text);
+			if (cache != null)
+				cache.put(text, tokens);
+		}
+		fCount= tokens.fCount;
+		fStarts= tokens.fStarts;
+		fLengths= tokens.fLengths;
+		fHashes= tokens.fHashes;
+	}
 
+	/**
+	 * Scans the given text and records its tokens.
+	 *
+	 * @param text the text to scan
+	 * @param offset the offset of the text in the compared text
+	 * @param tokens the tokens to add to
+	 * @since 3.12
+	 */
+	private static void scan(String text, int offset, Tokens tokens) {
+		int length= text.length();
 		IScanner scanner= ToolFactory.createScanner(true, true, false, false); // returns comments & whitespace
-		scanner.setSource(fText.toCharArray());
+		scanner.setSource(text.toCharArray());
 		int endPos= 0;
 		try {
 			int tokenType;
@@ -65,10 +201,10 @@ public class JavaTokenComparator implements ITokenComparator {
 					boolean parseAsJava= tokenType == ITerminalSymbols.TokenNameCOMMENT_LINE;
 					int dl= parseAsJava ? getCommentStartTokenLength(tokenType) : 0;
 					if (dl > 0)
-						recordTokenRange(start, dl);
-					parseSubrange(start + dl, text.substring(start + dl, end), parseAsJava);
+						recordTokenRange(text, offset, tokens, start, dl);
+					parseSubrange(offset + start + dl, text.substring(start + dl, end), parseAsJava, tokens);
 				} else {
-					recordTokenRange(start, end - start);
+					recordTokenRange(text, offset, tokens, start, end - start);
 				}
 				endPos= end;
 			}
@@ -77,30 +213,35 @@ public class JavaTokenComparator implements ITokenComparator {
 		}
 		// Workaround for https://bugs.eclipse.org/bugs/show_bug.cgi?id=13907
 		if (endPos < length) {
-			recordTokenRange(endPos, length - endPos);
+			recordTokenRange(text, offset, tokens, endPos, length - endPos);
 		}
 	}
 
 	/**
 	 * Records the given token range.
 	 *
-	 * @param start of the token
+	 * @param text the scanned text
+	 * @param offset the offset of the scanned text in the compared text
+	 * @param tokens the tokens to add to
+	 * @param start of the token in the scanned text
 	 * @param length length of the token
 	 * @since 3.3
 	 */
-	private void recordTokenRange(int start, int length) {
-		fStarts[fCount]= start;
-		fLengths[fCount]= length;
+	private static void recordTokenRange(String text, int offset, Tokens tokens, int start, int length) {
 		if (DEBUG)
-			System.out.println(fCount + " (" + start + "-" + length + ")>" + fText.substring(start, start + length) + "<"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-		fCount++;
+			System.out.println(tokens.fCount + " (" + (offset + start) + "-" + length + ")>" + text.substring(start, start + length) + "<"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		tokens.add(offset + start, length);
 	}
 
-	private void parseSubrange(int start, String text, boolean javaCode) {
+	private static void parseSubrange(int start, String text, boolean javaCode, Tokens tokens) {
 		if (DEBUG)
 			System.out.println("parsingText>" + text + "<(" + start + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 
-		ITokenComparator subTokenizer= javaCode ? new JavaTokenComparator(text) : new TokenComparator(text);
+		if (javaCode) {
+			scan(text, start, tokens);
+			return;
+		}
+		ITokenComparator subTokenizer= new TokenComparator(text);
 		int count= subTokenizer.getRangeCount();
 		for (int i= 0; i < count; i++) {
 			int subStart= subTokenizer.getTokenStart(i);
@@ -108,7 +249,7 @@ public class JavaTokenComparator implements ITokenComparator {
 			if (DEBUG)
 				System.out.println("   " + i + " (" + subStart + "-" + subLength + ")"); //$NON-NLS-1$//$NON-NLS-2$//$NON-NLS-3$//$NON-NLS-4$
 
-			recordTokenRange(start + subStart, subLength);
+			tokens.add(start + subStart, subLength);
 		}
 	}
 
@@ -175,6 +316,8 @@ public class JavaTokenComparator implements ITokenComparator {
 	public boolean rangesEqual(int thisIndex, IRangeComparator other, int otherIndex) {
 		if (other != null && getClass() == other.getClass()) {
 			JavaTokenComparator tc= (JavaTokenComparator) other;	// safe cast
+			if (thisIndex >= 0 && thisIndex < fCount && otherIndex >= 0 && otherIndex < tc.fCount && fHashes[thisIndex] != tc.fHashes[otherIndex])
+				return false;
 			int thisLen= getTokenLength(thisIndex);
 			int otherLen= tc.getTokenLength(otherIndex);
 			if (thisLen == otherLen)
@@ -96,6 +96,7 @@ import org.eclipse.jdt.internal.corext.util.Strings;
 import org.eclipse.jdt.internal.corext.util.TypeFilter;
 import org.eclipse.jdt.internal.corext.util.TypeInfoFilter;
 import org.eclipse.jdt.internal.corext.util.TypeInfoRequestorAdapter;
+import org.eclipse.jdt.internal.corext.util.TypeNameTable;
 
 import org.eclipse.jdt.launching.IVMInstall;
 import org.eclipse.jdt.launching.IVMInstallType;
@@ -499,6 +500,9 @@ public class FilteredTypesSelectionDialog extends FilteredItemsSelectionDialog i
 	@Override
 	protected void fillContentProvider(AbstractContentProvider provider, ItemsFilter itemsFilter, IProgressMonitor progressMonitor) throws CoreException {
 		TypeItemsFilter typeSearchFilter= (TypeItemsFilter) itemsFilter;
+		if (typeSearchFilter.isWorkspaceScope() && fillContentProviderFromTable(provider, typeSearchFilter, progressMonitor))
+			return;
+
 		TypeSearchRequestor requestor= new TypeSearchRequestor(provider, typeSearchFilter);
 		SearchEngine engine= new SearchEngine((WorkingCopyOwner) null);
 		String packPattern= typeSearchFilter.getPackagePattern();
@@ -530,6 +534,25 @@ public class FilteredTypesSelectionDialog extends FilteredItemsSelectionDialog i
 		}
 	}
 
+	/**
+	 * Fills the content provider from the {@link TypeNameTable} instead of searching.
+	 *
+	 * @param provider the content provider to fill
+	 * @param typeSearchFilter the filter, used in normal mode since the table only pre-filters
+	 * @param progressMonitor the progress monitor
+	 * @return <code>false</code> if the table is not available yet
+	 */
+	private boolean fillContentProviderFromTable(final AbstractContentProvider provider, final TypeItemsFilter typeSearchFilter, IProgressMonitor progressMonitor) {
+		TypeNameTable.ICandidateRequestor requestor= new TypeNameTable.ICandidateRequestor() {
+			@Override
+			public void accept(TypeNameMatch match) {
+				if (!TypeFilter.isFiltered(match))
+					provider.add(match, typeSearchFilter);
+			}
+		};
+		return TypeNameTable.getInstance().findCandidates(typeSearchFilter.getNamePattern(), typeSearchFilter.getMatchRule(), requestor, progressMonitor);
+	}
+
 	@Override
 	protected Comparator getItemsComparator() {
 		return fTypeItemsComparator;
@@ -1039,6 +1062,10 @@ public class FilteredTypesSelectionDialog extends FilteredItemsSelectionDialog i
 			return fTypeInfoFilter.getSearchScope();
 		}
 
+		public boolean isWorkspaceScope() {
+			return fTypeInfoFilter.isWorkspaceScope();
+		}
+
 		public int getMyTypeFilterVersion() {
 			return fMyTypeFilterVersion;
 		}
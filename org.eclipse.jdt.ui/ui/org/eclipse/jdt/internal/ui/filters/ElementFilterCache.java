@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.filters;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * Caches properties of elements that filters compute by accessing the Java model or the
+ * workspace, e.g. whether a package has children. The properties do not depend on the viewer, so
+ * they are shared by all filters of all views.
+ * <p>
+ * The cached properties of a project are discarded when a Java element delta reports that
+ * elements or resources of the project were added, removed or changed in a way other than their
+ * content. Editing or saving a compilation unit doesn't invalidate anything.
+ * </p>
+ *
+ * @since 3.12
+ */
+public class ElementFilterCache {
+
+	// the cached properties
+	static final int HAS_CHILDREN= 1;
+	static final int HAS_SUBPACKAGES= 2;
+	static final int HAS_JAVA_NATURE= 3;
+	static final int CONTAINS_PACKAGE= 4;
+
+	private static final int CONTENT_FLAGS= IJavaElementDelta.F_CHILDREN | IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_FINE_GRAINED
+			| IJavaElementDelta.F_PRIMARY_RESOURCE | IJavaElementDelta.F_PRIMARY_WORKING_COPY | IJavaElementDelta.F_AST_AFFECTED;
+
+	private static final class Key {
+		private final Object fElement;
+		private final int fProperty;
+
+		Key(Object element, int property) {
+			fElement= element;
+			fProperty= property;
+		}
+
+		@Override
+		public int hashCode() {
+			return fElement.hashCode() * 31 + fProperty;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other= (Key) obj;
+			return fProperty == other.fProperty && fElement.equals(other.fElement);
+		}
+	}
+
+	/** project -> (element and property -> value) */
+	private final Map<IProject, Map<Key, Boolean>> fValues= new HashMap<>();
+
+	/** incremented when properties are discarded */
+	private int fStamp;
+
+	private final IElementChangedListener fListener;
+
+	public ElementFilterCache() {
+		fListener= new IElementChangedListener() {
+			@Override
+			public void elementChanged(ElementChangedEvent event) {
+				processDelta(event.getDelta());
+			}
+		};
+		JavaCore.addElementChangedListener(fListener, ElementChangedEvent.POST_CHANGE);
+	}
+
+	/**
+	 * Returns the cached property of an element.
+	 *
+	 * @param element the element, a Java element or a resource
+	 * @param property the property
+	 * @return the value or <code>null</code> if the property is not cached
+	 */
+	synchronized Boolean get(Object element, int property) {
+		Map<Key, Boolean> values= fValues.get(getProject(element));
+		return values != null ? values.get(new Key(element, property)) : null;
+	}
+
+	/**
+	 * Returns whether the given package has Java children, see {@link IPackageFragment#hasChildren()}.
+	 *
+	 * @param pkg the package
+	 * @return <code>true</code> if the package has Java children
+	 * @throws JavaModelException if the package does not exist or if an exception occurs while
+	 *             accessing its corresponding resource
+	 */
+	boolean hasChildren(IPackageFragment pkg) throws JavaModelException {
+		Boolean value= get(pkg, HAS_CHILDREN);
+		if (value == null) {
+			int stamp= getStamp();
+			value= Boolean.valueOf(pkg.hasChildren());
+			put(pkg, HAS_CHILDREN, value.booleanValue(), stamp);
+		}
+		return value.booleanValue();
+	}
+
+	/**
+	 * Returns whether the given package has subpackages, see
+	 * {@link IPackageFragment#hasSubpackages()}.
+	 *
+	 * @param pkg the package
+	 * @return <code>true</code> if the package has subpackages
+	 * @throws JavaModelException if the package does not exist or if an exception occurs while
+	 *             accessing its corresponding resource
+	 */
+	boolean hasSubpackages(IPackageFragment pkg) throws JavaModelException {
+		Boolean value= get(pkg, HAS_SUBPACKAGES);
+		if (value == null) {
+			int stamp= getStamp();
+			value= Boolean.valueOf(pkg.hasSubpackages());
+			put(pkg, HAS_SUBPACKAGES, value.booleanValue(), stamp);
+		}
+		return value.booleanValue();
+	}
+
+	/**
+	 * @return the stamp to pass to {@link #put(Object, int, boolean, int)}, must be taken before
+	 *         the property is computed
+	 */
+	synchronized int getStamp() {
+		return fStamp;
+	}
+
+	/**
+	 * Caches a property of an element. Properties of elements that are not contained in a project
+	 * are not cached, and neither are properties that may have changed while they were computed.
+	 *
+	 * @param element the element, a Java element or a resource
+	 * @param property the property
+	 * @param value the value
+	 * @param stamp the stamp taken before the value was computed
+	 */
+	synchronized void put(Object element, int property, boolean value, int stamp) {
+		IProject project= getProject(element);
+		if (project == null || stamp != fStamp)
+			return;
+		Map<Key, Boolean> values= fValues.get(project);
+		if (values == null) {
+			values= new HashMap<>();
+			fValues.put(project, values);
+		}
+		values.put(new Key(element, property), Boolean.valueOf(value));
+	}
+
+	/**
+	 * Discards all cached properties.
+	 */
+	public synchronized void clear() {
+		fValues.clear();
+		fStamp++;
+	}
+
+	public void dispose() {
+		JavaCore.removeElementChangedListener(fListener);
+		clear();
+	}
+
+	private static IProject getProject(Object element) {
+		if (element instanceof IJavaElement) {
+			IJavaProject project= ((IJavaElement) element).getJavaProject();
+			return project != null ? project.getProject() : null;
+		} else if (element instanceof IResource) {
+			return ((IResource) element).getProject();
+		}
+		return null;
+	}
+
+	private void processDelta(IJavaElementDelta delta) {
+		// non-Java projects are reported as resource deltas of the Java model
+		IResourceDelta[] resourceDeltas= delta.getResourceDeltas();
+		if (resourceDeltas != null) {
+			for (int i= 0; i < resourceDeltas.length; i++) {
+				IResource resource= resourceDeltas[i].getResource();
+				if (resource != null)
+					invalidate(resource.getProject());
+			}
+		}
+		IJavaElementDelta[] projectDeltas= delta.getAffectedChildren();
+		for (int i= 0; i < projectDeltas.length; i++) {
+			if (isStructuralChange(projectDeltas[i]))
+				invalidate(projectDeltas[i].getElement().getJavaProject().getProject());
+		}
+	}
+
+	private static boolean isStructuralChange(IJavaElementDelta delta) {
+		if (delta.getKind() != IJavaElementDelta.CHANGED)
+			return true;
+		int type= delta.getElement().getElementType();
+		if (type == IJavaElement.COMPILATION_UNIT || type == IJavaElement.CLASS_FILE)
+			return false; // changes inside a file don't change the structure of the container
+		if ((delta.getFlags() & ~CONTENT_FLAGS) != 0 || delta.getResourceDeltas() != null)
+			return true;
+		IJavaElementDelta[] children= delta.getAffectedChildren();
+		for (int i= 0; i < children.length; i++) {
+			if (isStructuralChange(children[i]))
+				return true;
+		}
+		return false;
+	}
+
+	private synchronized void invalidate(IProject project) {
+		if (project != null) {
+			fValues.remove(project);
+			fStamp++;
+		}
+	}
+}
@@ -17,6 +17,8 @@ import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.JavaModelException;
 
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
 
 /**
  * Filters empty non-leaf package fragments
@@ -31,9 +33,10 @@ public class EmptyInnerPackageFilter extends ViewerFilter {
 		if (element instanceof IPackageFragment) {
 			IPackageFragment pkg= (IPackageFragment)element;
 			try {
+				ElementFilterCache cache= JavaPlugin.getDefault().getElementFilterCache();
 				if (pkg.isDefaultPackage())
-					return pkg.hasChildren();
-				return !pkg.hasSubpackages() || pkg.hasChildren() || EmptyPackageFilter.hasUnfilteredResources(viewer, pkg);
+					return cache.hasChildren(pkg);
+				return !cache.hasSubpackages(pkg) || cache.hasChildren(pkg) || EmptyPackageFilter.hasUnfilteredResources(viewer, pkg);
 			} catch (JavaModelException e) {
 				return false;
 			}
@@ -17,6 +17,8 @@ import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.JavaModelException;
 
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
 
 /**
  * Filters out all empty package fragments.
@@ -31,7 +33,7 @@ public class EmptyPackageFilter extends ViewerFilter {
 		if (element instanceof IPackageFragment) {
 			IPackageFragment pkg= (IPackageFragment)element;
 			try {
-				return pkg.hasChildren() || hasUnfilteredResources(viewer, pkg);
+				return JavaPlugin.getDefault().getElementFilterCache().hasChildren(pkg) || hasUnfilteredResources(viewer, pkg);
 			} catch (JavaModelException e) {
 				return false;
 			}
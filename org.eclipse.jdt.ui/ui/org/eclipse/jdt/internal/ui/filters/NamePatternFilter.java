@@ -10,6 +10,11 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.filters;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.eclipse.core.runtime.IAdaptable;
 
 import org.eclipse.core.resources.IResource;
@@ -33,6 +38,11 @@ import org.eclipse.jdt.internal.ui.util.StringMatcher;
  *   ? => any character
  *   * => any string
  * </p>
+ * <p>
+ * The patterns are compiled when they are set: ASCII names and patterns that only have a
+ * leading and/or trailing '*' are matched with one hash lookup and a few string comparisons,
+ * only the remaining patterns are matched with a {@link StringMatcher} each.
+ * </p>
  *
  * @since 2.0
  */
@@ -40,6 +50,18 @@ public class NamePatternFilter extends ViewerFilter {
 	private String[] fPatterns;
 	private StringMatcher[] fMatchers;
 
+	/*
+	 * The compiled patterns, all ASCII and in lower case. fMatchers only contains the
+	 * matchers of the patterns that could not be compiled, names with non-ASCII characters
+	 * are matched with fAllMatchers.
+	 */
+	private StringMatcher[] fAllMatchers;
+	private boolean fMatchesAll;
+	private Set<String> fNames;
+	private String[] fPrefixes;
+	private String[] fSuffixes;
+	private String[] fInfixes;
+
 	/**
 	 * Return the currently configured StringMatchers.
 	 * @return returns the matchers
@@ -59,7 +81,7 @@ public class NamePatternFilter extends ViewerFilter {
 
 	@Override
 	public boolean select(Viewer viewer, Object parentElement, Object element) {
-		if (fMatchers.length == 0) {
+		if (fPatterns.length == 0) {
 			return true;
 		}
 		String matchName= null;
@@ -78,7 +100,10 @@ public class NamePatternFilter extends ViewerFilter {
 			}
 		}
 		if (matchName != null && matchName.length() > 0) {
-			StringMatcher[] testMatchers= getMatchers();
+			String lowerCaseName= toLowerCaseASCII(matchName);
+			if (lowerCaseName != null && matchesCompiled(lowerCaseName))
+				return false;
+			StringMatcher[] testMatchers= lowerCaseName != null ? getMatchers() : fAllMatchers;
 			for (int i = 0; i < testMatchers.length; i++) {
 				if (testMatchers[i].match(matchName))
 					return false;
@@ -99,10 +124,87 @@ public class NamePatternFilter extends ViewerFilter {
 	 */
 	public void setPatterns(String[] newPatterns) {
 		fPatterns = newPatterns;
-		fMatchers = new StringMatcher[newPatterns.length];
+		fMatchesAll= false;
+		fNames= new HashSet<>();
+		List<String> prefixes= new ArrayList<>();
+		List<String> suffixes= new ArrayList<>();
+		List<String> infixes= new ArrayList<>();
+		List<StringMatcher> matchers= new ArrayList<>();
+		fAllMatchers = new StringMatcher[newPatterns.length];
 		for (int i = 0; i < newPatterns.length; i++) {
+			String pattern= newPatterns[i];
 			//Reset the matchers to prevent constructor overhead
-			fMatchers[i]= new StringMatcher(newPatterns[i], true, false);
+			fAllMatchers[i]= new StringMatcher(pattern, true, false);
+			if (pattern.indexOf('?') != -1 || pattern.indexOf('\\') != -1 || toLowerCaseASCII(pattern) == null) {
+				matchers.add(fAllMatchers[i]);
+				continue;
+			}
+			int start= 0;
+			int end= pattern.length();
+			while (start < end && pattern.charAt(start) == '*')
+				start++;
+			while (end > start && pattern.charAt(end - 1) == '*')
+				end--;
+			String literal= pattern.substring(start, end);
+			boolean leadingStar= start > 0;
+			boolean trailingStar= end < pattern.length();
+			if (literal.indexOf('*') != -1) {
+				matchers.add(fAllMatchers[i]);
+			} else if (literal.length() == 0) {
+				fMatchesAll|= leadingStar; // the empty pattern matches no name
+			} else if (leadingStar && trailingStar) {
+				infixes.add(toLowerCaseASCII(literal));
+			} else if (leadingStar) {
+				suffixes.add(toLowerCaseASCII(literal));
+			} else if (trailingStar) {
+				prefixes.add(toLowerCaseASCII(literal));
+			} else {
+				fNames.add(toLowerCaseASCII(literal));
+			}
+		}
+		fPrefixes= prefixes.toArray(new String[prefixes.size()]);
+		fSuffixes= suffixes.toArray(new String[suffixes.size()]);
+		fInfixes= infixes.toArray(new String[infixes.size()]);
+		fMatchers= matchers.toArray(new StringMatcher[matchers.size()]);
+	}
+
+	private boolean matchesCompiled(String folded) {
+		if (fMatchesAll)
+			return true;
+		if (fNames.contains(folded))
+			return true;
+		for (int i= 0; i < fSuffixes.length; i++) {
+			if (folded.endsWith(fSuffixes[i]))
+				return true;
+		}
+		for (int i= 0; i < fPrefixes.length; i++) {
+			if (folded.startsWith(fPrefixes[i]))
+				return true;
+		}
+		for (int i= 0; i < fInfixes.length; i++) {
+			if (folded.indexOf(fInfixes[i]) != -1)
+				return true;
+		}
+		return false;
+	}
+
+	/*
+	 * Returns the string in lower case if it only contains ASCII characters, or null otherwise.
+	 * Other characters can match characters of a different case in ways that can't be expressed
+	 * by converting both strings to one case, see StringMatcher#regExpRegionMatches(..).
+	 */
+	private static String toLowerCaseASCII(String s) {
+		char[] chars= null;
+		for (int i= 0; i < s.length(); i++) {
+			char c= s.charAt(i);
+			if (c >= 128)
+				return null;
+			if (c >= 'A' && c <= 'Z') {
+				if (chars == null)
+					chars= s.toCharArray();
+				chars[i]= (char) (c + ('a' - 'A'));
+			}
 		}
+		return chars != null ? new String(chars) : s;
 	}
 }
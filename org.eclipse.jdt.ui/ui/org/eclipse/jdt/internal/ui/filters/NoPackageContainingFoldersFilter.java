@@ -22,6 +22,8 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.JavaCore;
 
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
 public class NoPackageContainingFoldersFilter extends ViewerFilter {
 
 	/*
@@ -30,11 +32,16 @@ public class NoPackageContainingFoldersFilter extends ViewerFilter {
 	@Override
 	public boolean select(Viewer viewer, Object parent, Object element) {
 		if (element instanceof IFolder) {
+			IFolder folder= (IFolder) element;
+			ElementFilterCache cache= JavaPlugin.getDefault().getElementFilterCache();
+			Boolean containsPackage= cache.get(folder, ElementFilterCache.CONTAINS_PACKAGE);
+			if (containsPackage != null)
+				return containsPackage.booleanValue();
 			try {
-				if (containsPackage((IFolder)element))
-					return true;
-				else
-					return false;
+				int stamp= cache.getStamp();
+				boolean result= containsPackage(folder);
+				cache.put(folder, ElementFilterCache.CONTAINS_PACKAGE, result, stamp);
+				return result;
 			} catch (CoreException e) {
 				return true;
 			}
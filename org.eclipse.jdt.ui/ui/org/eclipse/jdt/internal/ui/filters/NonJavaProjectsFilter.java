@@ -21,6 +21,8 @@ import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
 
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
 /**
  * Filters non-java projects
  */
@@ -36,8 +38,15 @@ public class NonJavaProjectsFilter extends ViewerFilter {
 
 		if (element instanceof IProject) {
 			IProject project= (IProject) element;
+			ElementFilterCache cache= JavaPlugin.getDefault().getElementFilterCache();
+			Boolean isJavaProject= cache.get(project, ElementFilterCache.HAS_JAVA_NATURE);
+			if (isJavaProject != null)
+				return isJavaProject.booleanValue();
 			try {
-				return project.hasNature(JavaCore.NATURE_ID);
+				int stamp= cache.getStamp();
+				boolean hasNature= project.hasNature(JavaCore.NATURE_ID);
+				cache.put(project, ElementFilterCache.HAS_JAVA_NATURE, hasNature, stamp);
+				return hasNature;
 			} catch (CoreException e) {
 				return true;
 			}
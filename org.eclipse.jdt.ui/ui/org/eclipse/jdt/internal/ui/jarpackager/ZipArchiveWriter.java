@@ -0,0 +1,887 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.jarpackager;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * Writes the ZIP archives of the JAR export. Unlike {@link java.util.zip.ZipOutputStream}, this
+ * writer
+ * <ul>
+ * <li>compresses small entries on a bounded pool of threads, while the entries are still written
+ * in the order in which they were added,</li>
+ * <li>computes the crc of stored entries while their content is read, keeping the content in
+ * memory or in a temporary file instead of reading it twice, and</li>
+ * <li>copies the compressed data of entries of other archives verbatim.</li>
+ * </ul>
+ * <p>
+ * The writer is not thread safe, all methods must be called from the same thread. The content
+ * streams passed to the writer are read completely and closed before the methods return.
+ * </p>
+ *
+ * @since 3.12
+ */
+public final class ZipArchiveWriter {
+
+	private static final int LOCAL_HEADER_SIGNATURE= 0x04034b50;
+	private static final int DATA_DESCRIPTOR_SIGNATURE= 0x08074b50;
+	private static final int CENTRAL_HEADER_SIGNATURE= 0x02014b50;
+	private static final int END_SIGNATURE= 0x06054b50;
+	private static final int ZIP64_END_SIGNATURE= 0x06064b50;
+	private static final int ZIP64_LOCATOR_SIGNATURE= 0x07064b50;
+
+	private static final int LOCAL_HEADER_SIZE= 30;
+	private static final int CENTRAL_HEADER_SIZE= 46;
+	private static final int END_SIZE= 22;
+
+	private static final long ZIP64_MAGIC= 0xFFFFFFFFL;
+	private static final int ZIP64_MAGIC_COUNT= 0xFFFF;
+	private static final int ZIP64_EXTRA_ID= 0x0001;
+	private static final int JAR_MAGIC_ID= 0xCAFE;
+
+	private static final int FLAG_ENCRYPTED= 0x01;
+	private static final int FLAG_DATA_DESCRIPTOR= 0x08;
+	private static final int FLAG_UTF8= 0x800;
+
+	private static final int VERSION_STORED= 10;
+	private static final int VERSION_DEFLATED= 20;
+	private static final int VERSION_ZIP64= 45;
+
+	private static final Charset UTF8= StandardCharsets.UTF_8;
+
+	/**
+	 * Entries up to this size are read into memory and compressed on the pool. Larger entries are
+	 * compressed while they are written.
+	 */
+	private static final int MAX_BUFFERED_SIZE= 1024 * 1024;
+
+	/**
+	 * The maximum number of content bytes of the entries that are waiting to be written.
+	 */
+	private static final long MAX_PENDING_SIZE= 32 * 1024 * 1024;
+
+	private static final int BUFFER_SIZE= 64 * 1024;
+
+	/**
+	 * An entry of the archive. The data of an entry that has not been written yet is its
+	 * compressed or stored content.
+	 */
+	private static final class Entry {
+		byte[] fName;
+		byte[] fExtra;
+		byte[] fComment;
+		int fMethod;
+		int fFlags;
+		long fDosTime;
+		long fCrc;
+		long fSize;
+		long fCompressedSize;
+		long fOffset;
+
+		byte[] fData;
+		/**
+		 * The size of the content of a pending entry.
+		 */
+		int fPendingSize;
+	}
+
+	/**
+	 * The central directory of an archive whose entries are copied verbatim, and the file to read
+	 * their data from.
+	 */
+	private static final class RawSource {
+
+		final File fFile;
+		final RandomAccessFile fInput;
+		/**
+		 * Maps the entry names to their local header offset, compressed size and crc.
+		 */
+		final Map<String, long[]> fEntries;
+
+		RawSource(File file) throws IOException {
+			fFile= file;
+			fInput= new RandomAccessFile(file, "r"); //$NON-NLS-1$
+			Map<String, long[]> entries;
+			try {
+				entries= readCentralDirectory(fInput);
+			} catch (IOException e) {
+				// not an archive whose entries can be located, its entries are decompressed instead
+				entries= Collections.emptyMap();
+			}
+			fEntries= entries;
+		}
+
+		/**
+		 * Returns the offset of the compressed data of the given entry.
+		 *
+		 * @param entry an entry of the archive, as read by {@link java.util.zip.ZipFile}
+		 * @return the offset of the data, or <code>-1</code> if the data cannot be located
+		 * @throws IOException if reading the archive fails
+		 */
+		long getDataOffset(ZipEntry entry) throws IOException {
+			long[] location= fEntries.get(entry.getName());
+			if (location == null || location[1] != entry.getCompressedSize() || location[2] != entry.getCrc())
+				return -1;
+			byte[] header= new byte[LOCAL_HEADER_SIZE];
+			fInput.seek(location[0]);
+			fInput.readFully(header);
+			if (getInt(header, 0) != LOCAL_HEADER_SIGNATURE)
+				return -1;
+			return location[0] + LOCAL_HEADER_SIZE + getShort(header, 26) + getShort(header, 28);
+		}
+
+		void close() {
+			try {
+				fInput.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+
+		private static Map<String, long[]> readCentralDirectory(RandomAccessFile input) throws IOException {
+			long length= input.length();
+			int tailLength= (int) Math.min(length, ZIP64_MAGIC_COUNT + END_SIZE);
+			byte[] tail= new byte[tailLength];
+			input.seek(length - tailLength);
+			input.readFully(tail);
+			int end= -1;
+			for (int i= tailLength - END_SIZE; i >= 0; i--) {
+				if (getInt(tail, i) == END_SIGNATURE) {
+					end= i;
+					break;
+				}
+			}
+			if (end == -1)
+				return Collections.emptyMap();
+			int count= getShort(tail, end + 10);
+			long size= getUnsignedInt(tail, end + 12);
+			long offset= getUnsignedInt(tail, end + 16);
+			if (count == ZIP64_MAGIC_COUNT || size == ZIP64_MAGIC || offset == ZIP64_MAGIC || offset + size > length)
+				return Collections.emptyMap(); // ZIP64 archives are decompressed
+
+			byte[] directory= new byte[(int) size];
+			input.seek(offset);
+			input.readFully(directory);
+			Map<String, long[]> entries= new HashMap<>(count * 2);
+			int position= 0;
+			for (int i= 0; i < count && position + CENTRAL_HEADER_SIZE <= directory.length; i++) {
+				if (getInt(directory, position) != CENTRAL_HEADER_SIGNATURE)
+					break;
+				int flags= getShort(directory, position + 8);
+				long crc= getUnsignedInt(directory, position + 16);
+				long compressedSize= getUnsignedInt(directory, position + 20);
+				int nameLength= getShort(directory, position + 28);
+				int extraLength= getShort(directory, position + 30);
+				int commentLength= getShort(directory, position + 32);
+				long localOffset= getUnsignedInt(directory, position + 42);
+				if (position + CENTRAL_HEADER_SIZE + nameLength > directory.length)
+					break;
+				if ((flags & FLAG_ENCRYPTED) == 0 && compressedSize != ZIP64_MAGIC && localOffset != ZIP64_MAGIC) {
+					String name= new String(directory, position + CENTRAL_HEADER_SIZE, nameLength, UTF8);
+					entries.put(name, new long[] { localOffset, compressedSize, crc });
+				}
+				position+= CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+			}
+			return entries;
+		}
+	}
+
+	private final OutputStream fOut;
+	private long fWritten;
+	private byte[] fComment;
+
+	private final List<Entry> fEntries= new ArrayList<>();
+	private final Set<String> fNames= new HashSet<>();
+
+	private final ThreadPoolExecutor fExecutor;
+	private final int fMaxPendingCount;
+	private final Deque<FutureTask<Entry>> fPending= new ArrayDeque<>();
+	private long fPendingSize;
+
+	private final byte[] fBuffer= new byte[BUFFER_SIZE];
+	private final byte[] fDeflateBuffer= new byte[BUFFER_SIZE];
+	private final Calendar fCalendar= new GregorianCalendar();
+	private final byte[] fHeader= new byte[8];
+	private RawSource fRawSource;
+
+	/**
+	 * The part of the content read by the last call of {@link #readContent(InputStream, CRC32)}
+	 * if the content did not fit into memory.
+	 */
+	private byte[] fContentBuffer;
+	private int fContentBufferLength;
+
+	private long fContentSize;
+	private int fCopiedCount;
+
+	/**
+	 * Creates a writer that compresses the entries on a pool with one thread per processor.
+	 *
+	 * @param out the stream to write the archive to, closed by {@link #close()}
+	 */
+	public ZipArchiveWriter(OutputStream out) {
+		this(out, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a writer.
+	 *
+	 * @param out the stream to write the archive to, closed by {@link #close()}
+	 * @param threads the number of threads that compress entries, <code>1</code> to compress them
+	 *            in the calling thread
+	 */
+	public ZipArchiveWriter(OutputStream out, int threads) {
+		fOut= out;
+		if (threads > 1) {
+			fExecutor= new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread= new Thread(runnable, "JAR Export Compressor"); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			fExecutor.allowCoreThreadTimeOut(true);
+		} else {
+			fExecutor= null;
+		}
+		fMaxPendingCount= 4 * Math.max(1, threads);
+	}
+
+	/**
+	 * Sets the comment of the archive.
+	 *
+	 * @param comment the comment, or <code>null</code> for none
+	 */
+	public void setComment(String comment) {
+		fComment= comment != null ? comment.getBytes(UTF8) : null;
+	}
+
+	/**
+	 * Adds an entry with the given content to the archive. Entries with method
+	 * {@link ZipEntry#STORED} are stored, all others are compressed. The crc and size of a stored
+	 * entry are computed if they are not set.
+	 *
+	 * @param zipEntry the entry
+	 * @param content the content of the entry, or <code>null</code> for an empty entry; the stream
+	 *            is closed by this method
+	 * @throws ZipException if an entry with the same name has been added already, or if the crc or
+	 *             size of a stored entry don't match its content
+	 * @throws IOException if reading the content or writing the archive fails
+	 */
+	public void putEntry(ZipEntry zipEntry, InputStream content) throws IOException {
+		try {
+			Entry entry= createEntry(zipEntry);
+			if (content == null) {
+				entry.fMethod= ZipEntry.STORED;
+				entry.fData= new byte[0];
+				enqueue(entry);
+			} else if (zipEntry.getMethod() == ZipEntry.STORED) {
+				if (zipEntry.getCrc() != -1 && zipEntry.getSize() != -1 && zipEntry.getSize() > MAX_BUFFERED_SIZE)
+					writeStoredStream(entry, zipEntry, content);
+				else
+					putStored(entry, zipEntry, content);
+			} else {
+				putDeflated(entry, content);
+			}
+		} finally {
+			if (content != null) {
+				try {
+					content.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds a compressed entry of another archive to this archive, copying its compressed data
+	 * verbatim.
+	 *
+	 * @param zipEntry the new entry; its name, time, extra data and comment are used
+	 * @param archive the archive that contains the entry to copy
+	 * @param archiveEntry the entry to copy, as read by {@link java.util.zip.ZipFile}
+	 * @return <code>true</code> if the entry has been copied, <code>false</code> if its data
+	 *         could not be located, in which case nothing has been written
+	 * @throws ZipException if an entry with the same name has been added already
+	 * @throws IOException if reading the archive or writing this archive fails
+	 */
+	public boolean putRawEntry(ZipEntry zipEntry, File archive, ZipEntry archiveEntry) throws IOException {
+		if (archiveEntry.getMethod() != ZipEntry.DEFLATED || archiveEntry.getCrc() == -1 || archiveEntry.getSize() == -1 || archiveEntry.getCompressedSize() == -1)
+			return false;
+		if (fRawSource == null || !fRawSource.fFile.equals(archive)) {
+			if (fRawSource != null) {
+				fRawSource.close();
+				fRawSource= null;
+			}
+			fRawSource= new RawSource(archive);
+		}
+		long dataOffset= fRawSource.getDataOffset(archiveEntry);
+		if (dataOffset == -1)
+			return false;
+
+		Entry entry= createEntry(zipEntry);
+		entry.fMethod= ZipEntry.DEFLATED;
+		entry.fCrc= archiveEntry.getCrc();
+		entry.fSize= archiveEntry.getSize();
+		entry.fCompressedSize= archiveEntry.getCompressedSize();
+		drain();
+		writeLocalHeader(entry, false);
+		RandomAccessFile input= fRawSource.fInput;
+		input.seek(dataOffset);
+		long remaining= entry.fCompressedSize;
+		while (remaining > 0) {
+			int count= input.read(fBuffer, 0, (int) Math.min(fBuffer.length, remaining));
+			if (count == -1)
+				throw new ZipException("unexpected end of " + archive); //$NON-NLS-1$
+			write(fBuffer, 0, count);
+			remaining-= count;
+		}
+		fEntries.add(entry);
+		fContentSize+= entry.fSize;
+		fCopiedCount++;
+		return true;
+	}
+
+	/**
+	 * Writes the pending entries and the central directory and closes the stream.
+	 *
+	 * @throws IOException if writing the archive fails
+	 */
+	public void close() throws IOException {
+		try {
+			drain();
+			writeCentralDirectory();
+			fOut.flush();
+		} finally {
+			if (fRawSource != null) {
+				fRawSource.close();
+				fRawSource= null;
+			}
+			if (fExecutor != null)
+				fExecutor.shutdown();
+			fOut.close();
+		}
+	}
+
+	/**
+	 * Returns the number of entries added so far.
+	 *
+	 * @return the number of entries
+	 */
+	public int getEntryCount() {
+		return fEntries.size() + fPending.size();
+	}
+
+	/**
+	 * Returns the number of entries that have been copied verbatim from other archives.
+	 *
+	 * @return the number of copied entries
+	 */
+	public int getCopiedEntryCount() {
+		return fCopiedCount;
+	}
+
+	/**
+	 * Returns the uncompressed size of the content of the entries written so far.
+	 *
+	 * @return the content size in bytes
+	 */
+	public long getContentSize() {
+		return fContentSize;
+	}
+
+	/**
+	 * Returns the number of bytes written to the archive so far.
+	 *
+	 * @return the archive size in bytes
+	 */
+	public long getArchiveSize() {
+		return fWritten;
+	}
+
+	private Entry createEntry(ZipEntry zipEntry) throws ZipException {
+		String name= zipEntry.getName();
+		if (!fNames.add(name))
+			throw new ZipException("duplicate entry: " + name); //$NON-NLS-1$
+		Entry entry= new Entry();
+		entry.fName= name.getBytes(UTF8);
+		entry.fExtra= zipEntry.getExtra();
+		if (fNames.size() == 1 && !hasJarMagic(entry.fExtra)) {
+			// like java.util.jar.JarOutputStream, mark the first entry as one of a JAR
+			byte[] extra= new byte[4 + (entry.fExtra != null ? entry.fExtra.length : 0)];
+			setShort(extra, 0, JAR_MAGIC_ID);
+			if (entry.fExtra != null)
+				System.arraycopy(entry.fExtra, 0, extra, 4, entry.fExtra.length);
+			entry.fExtra= extra;
+		}
+		if (zipEntry.getComment() != null)
+			entry.fComment= zipEntry.getComment().getBytes(UTF8);
+		long time= zipEntry.getTime();
+		entry.fDosTime= toDosTime(time != -1 ? time : System.currentTimeMillis());
+		entry.fMethod= zipEntry.getMethod() == ZipEntry.STORED ? ZipEntry.STORED : ZipEntry.DEFLATED;
+		return entry;
+	}
+
+	private static boolean hasJarMagic(byte[] extra) {
+		if (extra == null)
+			return false;
+		int position= 0;
+		while (position + 4 <= extra.length) {
+			if (getShort(extra, position) == JAR_MAGIC_ID)
+				return true;
+			position+= 4 + getShort(extra, position + 2);
+		}
+		return false;
+	}
+
+	private void putStored(final Entry entry, ZipEntry zipEntry, InputStream content) throws IOException {
+		CRC32 crc= new CRC32();
+		byte[] data= readContent(content, crc);
+		if (data != null) {
+			entry.fData= data;
+			entry.fCrc= crc.getValue();
+			entry.fSize= entry.fCompressedSize= data.length;
+			checkStored(zipEntry, entry.fSize, entry.fCrc);
+			enqueue(entry);
+			return;
+		}
+
+		// the content is too large to be kept in memory, it is copied to a temporary file while its crc is computed
+		File file= File.createTempFile("jarexport", null); //$NON-NLS-1$
+		try {
+			long size= fContentBufferLength;
+			OutputStream out= new FileOutputStream(file);
+			try {
+				out.write(fContentBuffer, 0, fContentBufferLength);
+				int count;
+				while ((count= content.read(fBuffer, 0, fBuffer.length)) != -1) {
+					crc.update(fBuffer, 0, count);
+					out.write(fBuffer, 0, count);
+					size+= count;
+				}
+			} finally {
+				out.close();
+			}
+			fContentBuffer= null;
+			entry.fCrc= crc.getValue();
+			entry.fSize= entry.fCompressedSize= size;
+			checkStored(zipEntry, size, entry.fCrc);
+
+			drain();
+			writeLocalHeader(entry, false);
+			InputStream in= new FileInputStream(file);
+			try {
+				int count;
+				while ((count= in.read(fBuffer, 0, fBuffer.length)) != -1)
+					write(fBuffer, 0, count);
+			} finally {
+				in.close();
+			}
+			fEntries.add(entry);
+			fContentSize+= size;
+		} finally {
+			file.delete();
+		}
+	}
+
+	private static void checkStored(ZipEntry zipEntry, long size, long crc) throws ZipException {
+		if (zipEntry.getSize() != -1 && zipEntry.getSize() != size)
+			throw new ZipException("invalid entry size (expected " + zipEntry.getSize() + " but got " + size + " bytes)"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		if (zipEntry.getCrc() != -1 && zipEntry.getCrc() != crc)
+			throw new ZipException("invalid entry crc-32 (expected 0x" + Long.toHexString(zipEntry.getCrc()) + " but got 0x" + Long.toHexString(crc) + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	/**
+	 * Writes a large stored entry whose crc and size are known, without buffering its content.
+	 *
+	 * @param entry the entry
+	 * @param zipEntry the entry as passed by the client
+	 * @param content the content
+	 * @throws IOException if reading the content or writing the archive fails
+	 */
+	private void writeStoredStream(Entry entry, ZipEntry zipEntry, InputStream content) throws IOException {
+		entry.fCrc= zipEntry.getCrc();
+		entry.fSize= entry.fCompressedSize= zipEntry.getSize();
+		drain();
+		writeLocalHeader(entry, false);
+		CRC32 crc= new CRC32();
+		long size= 0;
+		int count;
+		while ((count= content.read(fBuffer, 0, fBuffer.length)) != -1) {
+			crc.update(fBuffer, 0, count);
+			write(fBuffer, 0, count);
+			size+= count;
+		}
+		fEntries.add(entry);
+		fContentSize+= size;
+		checkStored(zipEntry, size, crc.getValue());
+	}
+
+	private void putDeflated(final Entry entry, InputStream content) throws IOException {
+		final byte[] data= readContent(content, null);
+		if (data != null) {
+			entry.fPendingSize= data.length;
+			FutureTask<Entry> task= new FutureTask<>(new Callable<Entry>() {
+				@Override
+				public Entry call() {
+					return deflate(entry, data);
+				}
+			});
+			if (fExecutor != null)
+				fExecutor.execute(task);
+			else
+				task.run();
+			enqueue(task, data.length);
+			return;
+		}
+
+		// the content is too large to be kept in memory, it is compressed while it is written
+		drain();
+		writeLocalHeader(entry, true);
+		long start= fWritten;
+		CRC32 crc= new CRC32();
+		Deflater deflater= new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			crc.update(fContentBuffer, 0, fContentBufferLength);
+			deflater.setInput(fContentBuffer, 0, fContentBufferLength);
+			while (!deflater.needsInput())
+				writeDeflated(deflater);
+			fContentBuffer= null;
+			int count;
+			while ((count= content.read(fBuffer, 0, fBuffer.length)) != -1) {
+				crc.update(fBuffer, 0, count);
+				deflater.setInput(fBuffer, 0, count);
+				while (!deflater.needsInput())
+					writeDeflated(deflater);
+			}
+			deflater.finish();
+			while (!deflater.finished())
+				writeDeflated(deflater);
+			entry.fSize= deflater.getBytesRead();
+		} finally {
+			deflater.end();
+		}
+		entry.fCrc= crc.getValue();
+		entry.fCompressedSize= fWritten - start;
+		writeInt(DATA_DESCRIPTOR_SIGNATURE);
+		writeInt(entry.fCrc);
+		if (entry.fSize >= ZIP64_MAGIC || entry.fCompressedSize >= ZIP64_MAGIC) {
+			writeLong(entry.fCompressedSize);
+			writeLong(entry.fSize);
+		} else {
+			writeInt(entry.fCompressedSize);
+			writeInt(entry.fSize);
+		}
+		fEntries.add(entry);
+		fContentSize+= entry.fSize;
+	}
+
+	private void writeDeflated(Deflater deflater) throws IOException {
+		int count= deflater.deflate(fDeflateBuffer, 0, fDeflateBuffer.length);
+		if (count > 0)
+			write(fDeflateBuffer, 0, count);
+	}
+
+	private static Entry deflate(Entry entry, byte[] data) {
+		CRC32 crc= new CRC32();
+		crc.update(data, 0, data.length);
+		Deflater deflater= new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			deflater.setInput(data, 0, data.length);
+			deflater.finish();
+			byte[] compressed= new byte[Math.max(64, data.length / 2)];
+			int length= 0;
+			while (!deflater.finished()) {
+				if (length == compressed.length)
+					compressed= Arrays.copyOf(compressed, 2 * compressed.length);
+				length+= deflater.deflate(compressed, length, compressed.length - length);
+			}
+			entry.fData= length == compressed.length ? compressed : Arrays.copyOf(compressed, length);
+		} finally {
+			deflater.end();
+		}
+		entry.fCrc= crc.getValue();
+		entry.fSize= data.length;
+		entry.fCompressedSize= entry.fData.length;
+		return entry;
+	}
+
+	/**
+	 * Reads the given content if it is smaller than {@link #MAX_BUFFERED_SIZE}. Otherwise, the part
+	 * that has been read is left in {@link #fContentBuffer}.
+	 *
+	 * @param content the content
+	 * @param crc the crc to update with the content, or <code>null</code>
+	 * @return the content, or <code>null</code> if the content is too large
+	 * @throws IOException if reading the content fails
+	 */
+	private byte[] readContent(InputStream content, CRC32 crc) throws IOException {
+		byte[] data= new byte[8192];
+		int length= 0;
+		while (true) {
+			if (length == data.length) {
+				if (length >= MAX_BUFFERED_SIZE) {
+					fContentBuffer= data;
+					fContentBufferLength= length;
+					return null;
+				}
+				data= Arrays.copyOf(data, 2 * length);
+			}
+			int count= content.read(data, length, data.length - length);
+			if (count == -1)
+				break;
+			if (crc != null)
+				crc.update(data, length, count);
+			length+= count;
+		}
+		return length == data.length ? data : Arrays.copyOf(data, length);
+	}
+
+	private void enqueue(final Entry entry) throws IOException {
+		FutureTask<Entry> task= new FutureTask<>(new Callable<Entry>() {
+			@Override
+			public Entry call() {
+				return entry;
+			}
+		});
+		task.run();
+		entry.fPendingSize= entry.fData.length;
+		enqueue(task, entry.fPendingSize);
+	}
+
+	private void enqueue(FutureTask<Entry> task, int size) throws IOException {
+		fPending.addLast(task);
+		fPendingSize+= size;
+		while (fPendingSize > MAX_PENDING_SIZE || fPending.size() > fMaxPendingCount)
+			writeFirstPending();
+	}
+
+	private void drain() throws IOException {
+		while (!fPending.isEmpty())
+			writeFirstPending();
+	}
+
+	private void writeFirstPending() throws IOException {
+		FutureTask<Entry> task= fPending.removeFirst();
+		Entry entry;
+		try {
+			entry= task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			throw new IOException(e.getCause());
+		}
+		fPendingSize-= entry.fPendingSize;
+		writeLocalHeader(entry, false);
+		write(entry.fData, 0, entry.fData.length);
+		entry.fData= null;
+		fEntries.add(entry);
+		fContentSize+= entry.fSize;
+	}
+
+	private void writeLocalHeader(Entry entry, boolean dataDescriptor) throws IOException {
+		entry.fOffset= fWritten;
+		entry.fFlags= FLAG_UTF8 | (dataDescriptor ? FLAG_DATA_DESCRIPTOR : 0);
+		boolean zip64= !dataDescriptor && (entry.fSize >= ZIP64_MAGIC || entry.fCompressedSize >= ZIP64_MAGIC);
+		int extraLength= (entry.fExtra != null ? entry.fExtra.length : 0) + (zip64 ? 20 : 0);
+		writeInt(LOCAL_HEADER_SIGNATURE);
+		writeShort(zip64 ? VERSION_ZIP64 : getVersion(entry));
+		writeShort(entry.fFlags);
+		writeShort(entry.fMethod);
+		writeInt(entry.fDosTime);
+		if (dataDescriptor) {
+			writeInt(0);
+			writeInt(0);
+			writeInt(0);
+		} else if (zip64) {
+			writeInt(entry.fCrc);
+			writeInt(ZIP64_MAGIC);
+			writeInt(ZIP64_MAGIC);
+		} else {
+			writeInt(entry.fCrc);
+			writeInt(entry.fCompressedSize);
+			writeInt(entry.fSize);
+		}
+		writeShort(entry.fName.length);
+		writeShort(extraLength);
+		write(entry.fName, 0, entry.fName.length);
+		if (zip64) {
+			writeShort(ZIP64_EXTRA_ID);
+			writeShort(16);
+			writeLong(entry.fSize);
+			writeLong(entry.fCompressedSize);
+		}
+		if (entry.fExtra != null)
+			write(entry.fExtra, 0, entry.fExtra.length);
+	}
+
+	private void writeCentralDirectory() throws IOException {
+		long offset= fWritten;
+		for (int i= 0; i < fEntries.size(); i++) {
+			Entry entry= fEntries.get(i);
+			int zip64Length= 0;
+			if (entry.fSize >= ZIP64_MAGIC)
+				zip64Length+= 8;
+			if (entry.fCompressedSize >= ZIP64_MAGIC)
+				zip64Length+= 8;
+			if (entry.fOffset >= ZIP64_MAGIC)
+				zip64Length+= 8;
+			int version= zip64Length > 0 ? VERSION_ZIP64 : getVersion(entry);
+			int extraLength= (entry.fExtra != null ? entry.fExtra.length : 0) + (zip64Length > 0 ? 4 + zip64Length : 0);
+			writeInt(CENTRAL_HEADER_SIGNATURE);
+			writeShort(version);
+			writeShort(version);
+			writeShort(entry.fFlags);
+			writeShort(entry.fMethod);
+			writeInt(entry.fDosTime);
+			writeInt(entry.fCrc);
+			writeInt(Math.min(entry.fCompressedSize, ZIP64_MAGIC));
+			writeInt(Math.min(entry.fSize, ZIP64_MAGIC));
+			writeShort(entry.fName.length);
+			writeShort(extraLength);
+			writeShort(entry.fComment != null ? entry.fComment.length : 0);
+			writeShort(0); // disk number
+			writeShort(0); // internal attributes
+			writeInt(0); // external attributes
+			writeInt(Math.min(entry.fOffset, ZIP64_MAGIC));
+			write(entry.fName, 0, entry.fName.length);
+			if (zip64Length > 0) {
+				writeShort(ZIP64_EXTRA_ID);
+				writeShort(zip64Length);
+				if (entry.fSize >= ZIP64_MAGIC)
+					writeLong(entry.fSize);
+				if (entry.fCompressedSize >= ZIP64_MAGIC)
+					writeLong(entry.fCompressedSize);
+				if (entry.fOffset >= ZIP64_MAGIC)
+					writeLong(entry.fOffset);
+			}
+			if (entry.fExtra != null)
+				write(entry.fExtra, 0, entry.fExtra.length);
+			if (entry.fComment != null)
+				write(entry.fComment, 0, entry.fComment.length);
+		}
+		long size= fWritten - offset;
+		int count= fEntries.size();
+		if (count >= ZIP64_MAGIC_COUNT || size >= ZIP64_MAGIC || offset >= ZIP64_MAGIC) {
+			long end64= fWritten;
+			writeInt(ZIP64_END_SIGNATURE);
+			writeLong(44); // size of the remaining record
+			writeShort(VERSION_ZIP64);
+			writeShort(VERSION_ZIP64);
+			writeInt(0); // number of this disk
+			writeInt(0); // disk of the central directory
+			writeLong(count);
+			writeLong(count);
+			writeLong(size);
+			writeLong(offset);
+			writeInt(ZIP64_LOCATOR_SIGNATURE);
+			writeInt(0); // disk of the ZIP64 end record
+			writeLong(end64);
+			writeInt(1); // number of disks
+		}
+		writeInt(END_SIGNATURE);
+		writeShort(0); // number of this disk
+		writeShort(0); // disk of the central directory
+		writeShort(Math.min(count, ZIP64_MAGIC_COUNT));
+		writeShort(Math.min(count, ZIP64_MAGIC_COUNT));
+		writeInt(Math.min(size, ZIP64_MAGIC));
+		writeInt(Math.min(offset, ZIP64_MAGIC));
+		writeShort(fComment != null ? fComment.length : 0);
+		if (fComment != null)
+			write(fComment, 0, fComment.length);
+	}
+
+	private static int getVersion(Entry entry) {
+		return entry.fMethod == ZipEntry.STORED ? VERSION_STORED : VERSION_DEFLATED;
+	}
+
+	private long toDosTime(long time) {
+		fCalendar.setTimeInMillis(time);
+		int year= fCalendar.get(Calendar.YEAR);
+		if (year < 1980)
+			return (1 << 21) | (1 << 16);
+		return (year - 1980) << 25 | (fCalendar.get(Calendar.MONTH) + 1) << 21 | fCalendar.get(Calendar.DAY_OF_MONTH) << 16
+				| fCalendar.get(Calendar.HOUR_OF_DAY) << 11 | fCalendar.get(Calendar.MINUTE) << 5 | fCalendar.get(Calendar.SECOND) >> 1;
+	}
+
+	private void write(byte[] bytes, int offset, int length) throws IOException {
+		fOut.write(bytes, offset, length);
+		fWritten+= length;
+	}
+
+	private void writeShort(int value) throws IOException {
+		setShort(fHeader, 0, value);
+		write(fHeader, 0, 2);
+	}
+
+	private void writeInt(long value) throws IOException {
+		setShort(fHeader, 0, (int) value);
+		setShort(fHeader, 2, (int) (value >>> 16));
+		write(fHeader, 0, 4);
+	}
+
+	private void writeLong(long value) throws IOException {
+		writeInt(value);
+		writeInt(value >>> 32);
+	}
+
+	private static void setShort(byte[] bytes, int offset, int value) {
+		bytes[offset]= (byte) value;
+		bytes[offset + 1]= (byte) (value >>> 8);
+	}
+
+	private static int getShort(byte[] bytes, int offset) {
+		return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+	}
+
+	private static int getInt(byte[] bytes, int offset) {
+		return getShort(bytes, offset) | getShort(bytes, offset + 2) << 16;
+	}
+
+	private static long getUnsignedInt(byte[] bytes, int offset) {
+		return getInt(bytes, offset) & ZIP64_MAGIC;
+	}
+}
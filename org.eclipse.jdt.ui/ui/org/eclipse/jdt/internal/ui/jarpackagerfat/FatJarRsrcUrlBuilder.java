@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2011 IBM Corporation and others.
+ * Copyright (c) 2008, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,13 +15,12 @@ package org.eclipse.jdt.internal.ui.jarpackagerfat;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
@@ -39,7 +38,6 @@ import org.eclipse.jdt.ui.jarpackager.IManifestProvider;
 import org.eclipse.jdt.ui.jarpackager.JarPackageData;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
-import org.eclipse.jdt.internal.ui.jarpackager.JarPackagerUtil;
 
 /**
  * A jar builder which copies the referenced libraries into the generated jar and adds a special
@@ -53,7 +51,6 @@ public class FatJarRsrcUrlBuilder extends FatJarBuilder {
 	public static final String JAR_RSRC_LOADER_ZIP= "jar-in-jar-loader.zip"; //$NON-NLS-1$
 	
 	private Set<String> jarNames;
-	private JarPackageData fJarPackage;
 
 	@Override
 	public String getId() {
@@ -91,7 +88,6 @@ public class FatJarRsrcUrlBuilder extends FatJarBuilder {
 	@Override
 	public void open(JarPackageData jarPackage, Shell displayShell, MultiStatus status) throws CoreException {
 		super.open(jarPackage, displayShell, status);
-		fJarPackage= jarPackage;
 		jarNames= new HashSet<>();
 		try {
 			writeRsrcUrlClasses();
@@ -108,13 +104,10 @@ public class FatJarRsrcUrlBuilder extends FatJarBuilder {
 			jarName= FatJarPackagerUtil.nextNumberedFileName(jarName);
 		}
 		jarNames.add(jarName);
-		JarEntry newEntry = new JarEntry(jarName);
-		newEntry.setMethod(ZipEntry.STORED);
-		byte[] readBuffer= new byte[4096];             
 		try {
-			if (!fJarPackage.isCompressed())
-				JarPackagerUtil.calculateCrcAndSize(newEntry, new FileInputStream(jarPathFile), readBuffer);
-			getJarWriter().addZipEntryStream(newEntry, new FileInputStream(jarPathFile), jarName);
+			// libraries are compressed already, always store them instead of deflating them again
+			getJarWriter().addStoredArchive(jarPathFile, jarName);
+			writeNestedJarIndex(jarPathFile, jarName);
 		} catch (FileNotFoundException e) {
 			throw new RuntimeException(e);
 		} catch (IOException e) {
@@ -122,6 +115,28 @@ public class FatJarRsrcUrlBuilder extends FatJarBuilder {
 		}
 	}
 
+	/**
+	 * Writes the entry index of a stored library, which allows the jar-in-jar loader to read
+	 * classes from the library in place.
+	 *
+	 * @param jarPathFile the library
+	 * @param jarName the name of the library inside the generated jar
+	 * @throws IOException if the library cannot be read
+	 */
+	private void writeNestedJarIndex(File jarPathFile, String jarName) throws IOException {
+		byte[] index= NestedJarIndexWriter.createIndex(jarPathFile);
+		if (index == null)
+			return;
+		String indexName= JIJConstants.NESTED_JAR_INDEX_PREFIX + jarName + JIJConstants.NESTED_JAR_INDEX_SUFFIX;
+		ZipEntry indexEntry= new ZipEntry(indexName);
+		indexEntry.setMethod(ZipEntry.STORED);
+		indexEntry.setSize(index.length);
+		CRC32 crc= new CRC32();
+		crc.update(index);
+		indexEntry.setCrc(crc.getValue());
+		getJarWriter().addZipEntryStream(indexEntry, new ByteArrayInputStream(index), indexName);
+	}
+
 	public void writeRsrcUrlClasses() throws IOException {
 		InputStream is= JavaPlugin.getDefault().getBundle().getEntry(JAR_RSRC_LOADER_ZIP).openStream();
 		ZipInputStream zis= new ZipInputStream(is);
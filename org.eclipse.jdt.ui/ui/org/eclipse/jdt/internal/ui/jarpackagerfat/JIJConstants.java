@@ -24,6 +24,9 @@ final class JIJConstants {
 	static final String REDIRECTED_CLASS_PATH_MANIFEST_NAME  = "Rsrc-Class-Path";  //$NON-NLS-1$
 	static final String REDIRECTED_MAIN_CLASS_MANIFEST_NAME  = "Rsrc-Main-Class";  //$NON-NLS-1$
 	static final String CURRENT_DIR                          = "./";  //$NON-NLS-1$
+	static final String NESTED_JAR_INDEX_PREFIX              = "META-INF/jarinjar/";  //$NON-NLS-1$
+	static final String NESTED_JAR_INDEX_SUFFIX              = ".idx";  //$NON-NLS-1$
+	static final int    NESTED_JAR_INDEX_VERSION             = 1;
 	
 	/**
 	 * This is <code>{@link org.eclipse.jdt.internal.jarinjarloader.JarRsrcLoader}.class.getName()</code>,
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2009 IBM Corporation and others.
+ * Copyright (c) 2007, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,6 +18,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Locale;
 import java.util.jar.JarEntry;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -43,6 +44,11 @@ import org.eclipse.jdt.internal.ui.viewsupport.BasicElementLabels;
  */
 public class JarWriter4 extends JarWriter3 {
 
+	/**
+	 * Extensions of files whose content is compressed already.
+	 */
+	private static final String[] COMPRESSED_EXTENSIONS= { ".jar", ".zip", ".war", ".ear", ".gz", ".png", ".gif", ".jpg", ".jpeg" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$
+
 	private final JarPackageData fJarPackage;
 
 	public JarWriter4(JarPackageData jarPackage, Shell parent) throws CoreException {
@@ -56,7 +62,7 @@ public class JarWriter4 extends JarWriter3 {
 
 		JarEntry newEntry= new JarEntry(path.replace(File.separatorChar, '/'));
 
-		if (fJarPackage.isCompressed())
+		if (fJarPackage.isCompressed() && !isStoredWithKnownCrc(zipEntry))
 			newEntry.setMethod(ZipEntry.DEFLATED);
 			// Entry is filled automatically.
 		else {
@@ -70,14 +76,15 @@ public class JarWriter4 extends JarWriter3 {
 		// Set modification time
 		newEntry.setTime(lastModified);
 
-		addEntry(newEntry, zipFile.getInputStream(zipEntry));
+		// compressed entries are copied without compressing them again
+		addEntry(newEntry, zipFile, zipEntry);
 	}
 
 	public void addZipEntryStream(ZipEntry zipEntry, InputStream is, String path) throws IOException {
 		if (fJarPackage.areDirectoryEntriesIncluded())
 			addDirectories(path);
 		JarEntry newEntry= new JarEntry(path.replace(File.separatorChar, '/'));
-		if (fJarPackage.isCompressed())
+		if (fJarPackage.isCompressed() && !isStoredWithKnownCrc(zipEntry))
 			newEntry.setMethod(ZipEntry.DEFLATED);
 		// Entry is filled automatically.
 		else {
@@ -91,6 +98,45 @@ public class JarWriter4 extends JarWriter3 {
 		addEntry(newEntry, is);
 	}
 
+	/**
+	 * Writes the given library as a stored entry. Archives are compressed already, so deflating
+	 * them again would cost time without making the archive smaller. The crc and size of the
+	 * entry are computed while the library is written.
+	 *
+	 * @param library the library archive
+	 * @param path the path of the library inside the archive
+	 * @throws IOException if reading the library or writing the archive fails
+	 */
+	public void addStoredArchive(File library, String path) throws IOException {
+		if (fJarPackage.areDirectoryEntriesIncluded())
+			addDirectories(path);
+		JarEntry newEntry= new JarEntry(path.replace(File.separatorChar, '/'));
+		newEntry.setMethod(ZipEntry.STORED);
+		newEntry.setTime(System.currentTimeMillis());
+		addEntry(newEntry, new FileInputStream(library));
+	}
+
+	/**
+	 * Tells whether the given entry of a library is stored uncompressed with a known crc and size
+	 * and its content is compressed already, i.e. it is a nested archive or an image. Such entries
+	 * are copied as stored entries even into compressed archives, since deflating them again would
+	 * cost time without making the archive smaller. Other stored entries are compressed as
+	 * requested.
+	 *
+	 * @param zipEntry the entry to copy
+	 * @return <code>true</code> if the entry can be copied without compressing it
+	 */
+	static boolean isStoredWithKnownCrc(ZipEntry zipEntry) {
+		if (zipEntry.getMethod() != ZipEntry.STORED || zipEntry.getCrc() == -1 || zipEntry.getSize() == -1)
+			return false;
+		String name= zipEntry.getName().toLowerCase(Locale.ENGLISH);
+		for (int i= 0; i < COMPRESSED_EXTENSIONS.length; i++) {
+			if (name.endsWith(COMPRESSED_EXTENSIONS[i]))
+				return true;
+		}
+		return false;
+	}
+
 	public void write(File file, IPath destinationPath) throws CoreException {
 		try {
 			addFile(file, destinationPath);
@@ -115,11 +161,9 @@ public class JarWriter4 extends JarWriter3 {
 
 		if (fJarPackage.isCompressed())
 			newEntry.setMethod(ZipEntry.DEFLATED);
-			// Entry is filled automatically.
-		else {
+		else
 			newEntry.setMethod(ZipEntry.STORED);
-			JarPackagerUtil.calculateCrcAndSize(newEntry, new FileInputStream(file), new byte[4096]);
-		}
+		// Entry is filled automatically.
 
 		newEntry.setTime(file.lastModified());
 		addEntry(newEntry, new FileInputStream(file));
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.jarpackagerfat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Creates the entry index of a library jar that is stored uncompressed inside a runnable jar.
+ * The jar-in-jar loader uses the index to read classes of the library in place instead of
+ * extracting the library.
+ * <p>
+ * The index format is duplicated in NestedJarIndex in the source for the jar in jar loader:
+ * {@link org.eclipse.jdt.internal.jarinjarloader}. It consists of the version, the number of
+ * entries and for each entry its name, compression method, the position of its data inside
+ * the library, its compressed size and its size.
+ * </p>
+ *
+ * @since 3.12
+ */
+final class NestedJarIndexWriter {
+
+	private static final int END_SIGNATURE= 0x06054b50;
+	private static final int CENTRAL_SIGNATURE= 0x02014b50;
+	private static final int LOCAL_SIGNATURE= 0x04034b50;
+	private static final int END_SIZE= 22;
+	private static final int CENTRAL_SIZE= 46;
+	private static final int LOCAL_SIZE= 30;
+	private static final int MAX_COMMENT_SIZE= 0xFFFF;
+
+	private static final int STORED= 0;
+	private static final int DEFLATED= 8;
+
+	private NestedJarIndexWriter() {
+	}
+
+	/**
+	 * Creates the index of the given jar.
+	 *
+	 * @param jarFile the library jar
+	 * @return the index or <code>null</code> if the jar cannot be indexed, e.g. because it is a
+	 *         zip64 archive or uses unsupported compression methods
+	 * @throws IOException if the jar cannot be read
+	 */
+	static byte[] createIndex(File jarFile) throws IOException {
+		try (RandomAccessFile file= new RandomAccessFile(jarFile, "r")) { //$NON-NLS-1$
+			long length= file.length();
+			int tailSize= (int) Math.min(length, END_SIZE + MAX_COMMENT_SIZE);
+			byte[] tail= read(file, length - tailSize, tailSize);
+			int end= -1;
+			for (int i= tailSize - END_SIZE; i >= 0; i--) {
+				if (getInt(tail, i) == END_SIGNATURE && i + END_SIZE + getShort(tail, i + 20) == tailSize) {
+					end= i;
+					break;
+				}
+			}
+			if (end == -1)
+				return null;
+			long centralSize= getInt(tail, end + 12);
+			long centralOffset= getInt(tail, end + 16);
+			if (centralOffset == 0xFFFFFFFFL || centralSize == 0xFFFFFFFFL)
+				return null;
+
+			byte[] central= read(file, centralOffset, (int) centralSize);
+			ByteArrayOutputStream entryBytes= new ByteArrayOutputStream();
+			DataOutputStream entries= new DataOutputStream(entryBytes);
+			int count= 0;
+			int pos= 0;
+			while (pos + CENTRAL_SIZE <= central.length && getInt(central, pos) == CENTRAL_SIGNATURE) {
+				int method= getShort(central, pos + 10);
+				long compressedSize= getInt(central, pos + 20);
+				long size= getInt(central, pos + 24);
+				int nameLength= getShort(central, pos + 28);
+				long localOffset= getInt(central, pos + 42);
+				String name= new String(central, pos + CENTRAL_SIZE, nameLength, StandardCharsets.UTF_8);
+				pos+= CENTRAL_SIZE + nameLength + getShort(central, pos + 30) + getShort(central, pos + 32);
+
+				if (name.endsWith("/")) //$NON-NLS-1$
+					continue; // directory
+				if (method != STORED && method != DEFLATED || compressedSize == 0xFFFFFFFFL || size == 0xFFFFFFFFL || localOffset == 0xFFFFFFFFL)
+					return null;
+				byte[] local= read(file, localOffset, LOCAL_SIZE);
+				if (getInt(local, 0) != LOCAL_SIGNATURE)
+					return null;
+				long dataOffset= localOffset + LOCAL_SIZE + getShort(local, 26) + getShort(local, 28);
+
+				entries.writeUTF(name);
+				entries.writeShort(method);
+				entries.writeLong(dataOffset);
+				entries.writeLong(compressedSize);
+				entries.writeLong(size);
+				count++;
+			}
+			entries.flush();
+
+			ByteArrayOutputStream result= new ByteArrayOutputStream(entryBytes.size() + 8);
+			DataOutputStream out= new DataOutputStream(result);
+			out.writeInt(JIJConstants.NESTED_JAR_INDEX_VERSION);
+			out.writeInt(count);
+			entryBytes.writeTo(out);
+			out.flush();
+			return result.toByteArray();
+		}
+	}
+
+	private static byte[] read(RandomAccessFile file, long position, int length) throws IOException {
+		byte[] result= new byte[length];
+		file.seek(position);
+		file.readFully(result);
+		return result;
+	}
+
+	private static int getShort(byte[] bytes, int offset) {
+		return (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8);
+	}
+
+	private static long getInt(byte[] bytes, int offset) {
+		return (getShort(bytes, offset) | ((long) getShort(bytes, offset + 2) << 16)) & 0xFFFFFFFFL;
+	}
+}
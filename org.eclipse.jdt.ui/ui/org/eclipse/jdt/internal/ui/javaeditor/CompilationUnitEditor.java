@@ -136,6 +136,7 @@ import org.eclipse.jdt.internal.ui.compare.LocalHistoryActionGroup;
 import org.eclipse.jdt.internal.ui.preferences.SaveParticipantPreferencePage;
 import org.eclipse.jdt.internal.ui.text.ContentAssistPreference;
 import org.eclipse.jdt.internal.ui.text.JavaHeuristicScanner;
+import org.eclipse.jdt.internal.ui.text.ReconcileStatistics;
 import org.eclipse.jdt.internal.ui.text.SmartBackspaceManager;
 import org.eclipse.jdt.internal.ui.text.Symbols;
 import org.eclipse.jdt.internal.ui.text.correction.CorrectionCommandInstaller;
@@ -1679,12 +1680,18 @@ public class CompilationUnitEditor extends JavaEditor implements IJavaReconcilin
 		if (javaPlugin == null)
 			return;
 
+		ReconcileStatistics statistics= javaPlugin.getReconcileStatistics();
+
 		// Always notify AST provider
+		long start= ReconcileStatistics.now();
 		javaPlugin.getASTProvider().reconciled(ast, getInputJavaElement(), progressMonitor);
+		statistics.record(ReconcileStatistics.STAGE_AST_PROVIDER, start);
 
 		// Notify listeners
 		for (IJavaReconcilingListener listener : fReconcilingListeners) {
+			start= ReconcileStatistics.now();
 			listener.reconciled(ast, forced, progressMonitor);
+			statistics.record(listener.getClass().getName(), start);
 		}
 
 		// Update Java Outline page selection
@@ -11,6 +11,7 @@
 package org.eclipse.jdt.internal.ui.javaeditor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.swt.SWT;
@@ -290,12 +291,42 @@ public class JavaEditorBreadcrumb extends EditorBreadcrumb {
 			} else if (inputElement instanceof IJavaModel) {
 				fElements= getAccessibleProjects((IJavaModel)inputElement);
 			} else {
-				fElements= fParent.getChildren(inputElement);
+				fElements= getSnapshotChildren(inputElement);
+				if (fElements == null)
+					fElements= fParent.getChildren(inputElement);
 			}
 
 			return fElements;
 		}
 
+		/**
+		 * Returns the children of an element of a compilation unit from the latest snapshot of the
+		 * compilation unit, so that the Java model doesn't have to be accessed.
+		 *
+		 * @param element the element
+		 * @return the children or <code>null</code> if no snapshot contains the element
+		 * @since 3.12
+		 */
+		private Object[] getSnapshotChildren(Object element) {
+			if (!(element instanceof IJavaElement))
+				return null;
+			ITypeRoot typeRoot= (ITypeRoot) ((IJavaElement) element).getAncestor(IJavaElement.COMPILATION_UNIT);
+			if (typeRoot == null)
+				return null;
+			JavaOutlineSnapshot snapshot= JavaPlugin.getDefault().getJavaOutlineSnapshotProvider().getSnapshot(typeRoot);
+			return snapshot != null ? snapshot.getChildren(element) : null;
+		}
+
+		/**
+		 * Forgets the cached children of the last input element.
+		 *
+		 * @since 3.12
+		 */
+		public void resetCache() {
+			fElements= null;
+			fLastInputElement= null;
+		}
+
 		/**
 		 * Returns all accessible projects of the given Java model.
 		 *
@@ -464,11 +495,7 @@ public class JavaEditorBreadcrumb extends EditorBreadcrumb {
 					if (fViewer == null)
 						return;
 
-					Object newInput= getCurrentInput();
-					if (newInput instanceof IJavaElement)
-						newInput= getInput((IJavaElement) newInput);
-
-					fViewer.setInput(newInput);
+					updateInput();
 					fRunnable= null;
 				}
 			};
@@ -489,6 +516,9 @@ public class JavaEditorBreadcrumb extends EditorBreadcrumb {
 			if (!isAncestor(element, input))
 				return null;
 
+			if (element.getElementType() > IJavaElement.CLASS_FILE && fConnectedInput != null && fConnectedInput.equals(element.getAncestor(IJavaElement.COMPILATION_UNIT)))
+				return null; // members of the editor input are updated from its snapshots
+
 			if (element instanceof ICompilationUnit) {
 				ICompilationUnit cu= (ICompilationUnit) element;
 				if (!cu.getPrimary().equals(cu))
@@ -542,10 +572,62 @@ public class JavaEditorBreadcrumb extends EditorBreadcrumb {
 	}
 
 
+	/**
+	 * Updates the breadcrumb when a new snapshot of the editor input has been computed. The
+	 * breadcrumb only needs to be rebuilt if the path to the shown element changed.
+	 *
+	 * @since 3.12
+	 */
+	private class SnapshotListener implements JavaOutlineSnapshotProvider.ISnapshotListener {
+
+		@Override
+		public void snapshotChanged(final JavaOutlineSnapshot oldSnapshot, final JavaOutlineSnapshot newSnapshot) {
+			if (fViewer == null || !newSnapshot.getInput().equals(fConnectedInput))
+				return;
+
+			final JavaOutlineSnapshot.Delta delta= oldSnapshot != null ? oldSnapshot.compare(newSnapshot) : null;
+			if (delta != null && delta.isEmpty())
+				return;
+
+			fViewer.getControl().getDisplay().asyncExec(new Runnable() {
+				@Override
+				public void run() {
+					if (fViewer == null)
+						return;
+
+					((JavaEditorBreadcrumbContentProvider) fViewer.getContentProvider()).resetCache();
+					if (delta == null || isPathChanged(fViewer.getInput(), newSnapshot, delta))
+						updateInput();
+				}
+			});
+		}
+
+		private boolean isPathChanged(Object input, JavaOutlineSnapshot snapshot, JavaOutlineSnapshot.Delta delta) {
+			if (!(input instanceof IJavaElement) || !snapshot.getInput().equals(((IJavaElement) input).getAncestor(IJavaElement.COMPILATION_UNIT)))
+				return false; // elements outside of the editor input are updated by the element change listener
+
+			List<Object> labelChanges= Arrays.asList(delta.getLabelChanges());
+			Object element= input;
+			while (element instanceof IJavaElement && !element.equals(snapshot.getInput())) {
+				if (!snapshot.contains(element) || labelChanges.contains(element))
+					return true;
+				element= ((IJavaElement) element).getParent();
+			}
+			return false;
+		}
+	}
+
+
 	private ActionGroup fBreadcrumbActionGroup;
 	private BreadcrumbViewer fViewer;
 	private ISelection fEditorSelection;
 	private ElementChangeListener fElementChangeListener;
+	/**
+	 * The compilation unit whose snapshots are computed for the breadcrumb.
+	 * @since 3.12
+	 */
+	private ITypeRoot fConnectedInput;
+	private SnapshotListener fSnapshotListener;
 
 
 	public JavaEditorBreadcrumb(JavaEditor javaEditor) {
@@ -600,6 +682,10 @@ public class JavaEditorBreadcrumb extends EditorBreadcrumb {
 		fElementChangeListener= new ElementChangeListener();
 		JavaCore.addElementChangedListener(fElementChangeListener);
 
+		fSnapshotListener= new SnapshotListener();
+		JavaPlugin.getDefault().getJavaOutlineSnapshotProvider().addListener(fSnapshotListener);
+		connect(SelectionConverter.getInput(getJavaEditor()));
+
 		JavaUIHelp.setHelp(fViewer, IJavaHelpContextIds.JAVA_EDITOR_BREADCRUMB);
 
 		return fViewer;
@@ -774,10 +860,45 @@ public class JavaEditorBreadcrumb extends EditorBreadcrumb {
 		if (fViewer != null) {
 			fBreadcrumbActionGroup.dispose();
 			JavaCore.removeElementChangedListener(fElementChangeListener);
+			JavaPlugin.getDefault().getJavaOutlineSnapshotProvider().removeListener(fSnapshotListener);
+			connect(null);
 			fViewer= null;
 		}
 	}
 
+	/**
+	 * Connects to the snapshots of the given editor input if it is a compilation unit.
+	 *
+	 * @param input the editor input or <code>null</code> to disconnect
+	 * @since 3.12
+	 */
+	private void connect(ITypeRoot input) {
+		if (!(input instanceof ICompilationUnit))
+			input= null;
+		if (input == null ? fConnectedInput == null : input.equals(fConnectedInput))
+			return;
+
+		JavaOutlineSnapshotProvider provider= JavaPlugin.getDefault().getJavaOutlineSnapshotProvider();
+		if (fConnectedInput != null)
+			provider.disconnect(fConnectedInput);
+		fConnectedInput= input;
+		if (fConnectedInput != null)
+			provider.connect(fConnectedInput);
+	}
+
+	/**
+	 * Sets the element at the caret position as input of the breadcrumb viewer.
+	 *
+	 * @since 3.12
+	 */
+	private void updateInput() {
+		Object newInput= getCurrentInput();
+		if (newInput instanceof IJavaElement)
+			newInput= getInput((IJavaElement) newInput);
+
+		fViewer.setInput(newInput);
+	}
+
 	/*
 	 * @see org.eclipse.jdt.internal.ui.javaeditor.breadcrumb.EditorBreadcrumb#createContextMenuActionGroup(org.eclipse.jface.viewers.ISelectionProvider)
 	 */
@@ -791,6 +912,9 @@ public class JavaEditorBreadcrumb extends EditorBreadcrumb {
 	 */
 	@Override
 	public void setInput(Object element) {
+		if (fViewer != null)
+			connect(SelectionConverter.getInput(getJavaEditor())); // the editor input may have changed
+
 		if (element == null) {
 			element= getCurrentInput();
 			if (element instanceof IType) {
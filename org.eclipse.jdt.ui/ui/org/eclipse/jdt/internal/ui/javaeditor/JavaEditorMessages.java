@@ -85,6 +85,7 @@ final class JavaEditorMessages extends NLS {
 	public static String JavaOutlinePage_GoIntoTopLevelType_tooltip;
 	public static String JavaOutlinePage_GoIntoTopLevelType_description;
 	public static String JavaOutlinePage_error_NoTopLevelType;
+	public static String JavaOutlineSnapshotProvider_job_name;
 	public static String ToggleComment_error_title;
 	public static String ToggleComment_error_message;
 	public static String ContentAssistProposal_label;
@@ -94,18 +94,14 @@ import org.eclipse.ui.texteditor.ITextEditorActionConstants;
 import org.eclipse.ui.texteditor.ITextEditorActionDefinitionIds;
 import org.eclipse.ui.texteditor.IUpdate;
 
-import org.eclipse.jdt.core.ElementChangedEvent;
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.ICompilationUnit;
-import org.eclipse.jdt.core.IElementChangedListener;
 import org.eclipse.jdt.core.IJavaElement;
-import org.eclipse.jdt.core.IJavaElementDelta;
 import org.eclipse.jdt.core.IParent;
 import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.ISourceReference;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.ITypeRoot;
-import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.formatter.CodeFormatter;
 
@@ -156,82 +152,33 @@ public class JavaOutlinePage extends Page implements IContentOutlinePage, IAdapt
 			static Object[] NO_CHILDREN= new Object[0];
 
 			/**
-			 * The element change listener of the java outline viewer.
-			 * @see IElementChangedListener
+			 * Updates the Java outline viewer when a new snapshot of its input has been computed.
+			 * The snapshots are compared in the background, so that only the changed elements are
+			 * refreshed in the UI thread.
+			 *
+			 * @see JavaOutlineSnapshotProvider
+			 * @since 3.12
 			 */
-			protected class ElementChangedListener implements IElementChangedListener {
+			protected class SnapshotListener implements JavaOutlineSnapshotProvider.ISnapshotListener {
 
 				@Override
-				public void elementChanged(final ElementChangedEvent e) {
+				public void snapshotChanged(final JavaOutlineSnapshot oldSnapshot, final JavaOutlineSnapshot newSnapshot) {
 
-					if (getControl() == null)
+					if (getControl() == null || !newSnapshot.getInput().equals(fInput))
 						return;
 
+					final JavaOutlineSnapshot.Delta delta= oldSnapshot != null ? oldSnapshot.compare(newSnapshot) : null;
 					Display d= getControl().getDisplay();
 					if (d != null) {
 						d.asyncExec(new Runnable() {
 							@Override
 							public void run() {
-								ICompilationUnit cu= (ICompilationUnit) fInput;
-								IJavaElement base= cu;
-								if (fTopLevelTypeOnly) {
-									base= cu.findPrimaryType();
-									if (base == null) {
-										if (fOutlineViewer != null)
-											fOutlineViewer.refresh(true);
-										return;
-									}
-								}
-								IJavaElementDelta delta= findElement(base, e.getDelta());
-								if (delta != null && fOutlineViewer != null) {
-									fOutlineViewer.reconcile(delta);
-								}
+								if (fOutlineViewer != null && newSnapshot.getInput().equals(fInput))
+									fOutlineViewer.reconcile(oldSnapshot, newSnapshot, delta);
 							}
 						});
 					}
 				}
-
-				private boolean isPossibleStructuralChange(IJavaElementDelta cuDelta) {
-					if (cuDelta.getKind() != IJavaElementDelta.CHANGED) {
-						return true; // add or remove
-					}
-					int flags= cuDelta.getFlags();
-					if ((flags & IJavaElementDelta.F_CHILDREN) != 0) {
-						return true;
-					}
-					return (flags & (IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_FINE_GRAINED)) == IJavaElementDelta.F_CONTENT;
-				}
-
-				protected IJavaElementDelta findElement(IJavaElement unit, IJavaElementDelta delta) {
-
-					if (delta == null || unit == null)
-						return null;
-
-					IJavaElement element= delta.getElement();
-
-					if (unit.equals(element)) {
-						if (isPossibleStructuralChange(delta)) {
-							return delta;
-						}
-						return null;
-					}
-
-
-					if (element.getElementType() > IJavaElement.CLASS_FILE)
-						return null;
-
-					IJavaElementDelta[] children= delta.getAffectedChildren();
-					if (children == null || children.length == 0)
-						return null;
-
-					for (int i= 0; i < children.length; i++) {
-						IJavaElementDelta d= findElement(unit, children[i]);
-						if (d != null)
-							return d;
-					}
-
-					return null;
-				}
 			}
 
 			static class NoClassElement extends WorkbenchAdapter implements IAdaptable {
@@ -260,7 +207,8 @@ public class JavaOutlinePage extends Page implements IContentOutlinePage, IAdapt
 			protected class ChildrenProvider implements ITreeContentProvider {
 
 				private Object[] NO_CLASS= new Object[] {new NoClassElement()};
-				private ElementChangedListener fListener;
+				private SnapshotListener fListener;
+				private ITypeRoot fConnectedInput;
 
 				protected boolean matches(IJavaElement element) {
 					if (element.getElementType() == IJavaElement.METHOD) {
@@ -296,6 +244,9 @@ public class JavaOutlinePage extends Page implements IContentOutlinePage, IAdapt
 
 				@Override
 				public Object[] getChildren(Object parent) {
+					IJavaElement[] snapshotChildren= fSnapshot != null ? fSnapshot.getChildren(parent) : null;
+					if (snapshotChildren != null)
+						return filter(snapshotChildren);
 					if (parent instanceof IParent) {
 						IParent c= (IParent) parent;
 						try {
@@ -318,7 +269,10 @@ public class JavaOutlinePage extends Page implements IContentOutlinePage, IAdapt
 						if (parent instanceof ITypeRoot) {
 							try {
 								IType type= ((ITypeRoot) parent).findPrimaryType();
-								return type != null ? type.getChildren() : NO_CLASS;
+								if (type == null)
+									return NO_CLASS;
+								IJavaElement[] snapshotChildren= fSnapshot != null ? fSnapshot.getChildren(type) : null;
+								return snapshotChildren != null ? snapshotChildren : type.getChildren();
 							} catch (JavaModelException e) {
 								JavaPlugin.log(e);
 							}
@@ -338,6 +292,9 @@ public class JavaOutlinePage extends Page implements IContentOutlinePage, IAdapt
 
 				@Override
 				public boolean hasChildren(Object parent) {
+					IJavaElement[] snapshotChildren= fSnapshot != null ? fSnapshot.getChildren(parent) : null;
+					if (snapshotChildren != null)
+						return filter(snapshotChildren).length > 0;
 					if (parent instanceof IParent) {
 						IParent c= (IParent) parent;
 						try {
@@ -357,26 +314,42 @@ public class JavaOutlinePage extends Page implements IContentOutlinePage, IAdapt
 
 				@Override
 				public void dispose() {
+					disconnect();
 					if (fListener != null) {
-						JavaCore.removeElementChangedListener(fListener);
+						JavaPlugin.getDefault().getJavaOutlineSnapshotProvider().removeListener(fListener);
 						fListener= null;
 					}
 				}
 
+				private void disconnect() {
+					if (fConnectedInput != null) {
+						JavaPlugin.getDefault().getJavaOutlineSnapshotProvider().disconnect(fConnectedInput);
+						fConnectedInput= null;
+					}
+					fSnapshot= null;
+				}
+
 				/*
 				 * @see IContentProvider#inputChanged(Viewer, Object, Object)
 				 */
 				@Override
 				public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
 					boolean isCU= (newInput instanceof ICompilationUnit);
+					JavaOutlineSnapshotProvider provider= JavaPlugin.getDefault().getJavaOutlineSnapshotProvider();
 
+					disconnect();
 					if (isCU && fListener == null) {
-						fListener= new ElementChangedListener();
-						JavaCore.addElementChangedListener(fListener);
+						fListener= new SnapshotListener();
+						provider.addListener(fListener);
 					} else if (!isCU && fListener != null) {
-						JavaCore.removeElementChangedListener(fListener);
+						provider.removeListener(fListener);
 						fListener= null;
 					}
+					if (isCU) {
+						fConnectedInput= (ICompilationUnit) newInput;
+						provider.connect(fConnectedInput);
+						fSnapshot= provider.getSnapshot(fConnectedInput);
+					}
 				}
 			}
 
@@ -394,13 +367,48 @@ public class JavaOutlinePage extends Page implements IContentOutlinePage, IAdapt
 				}
 
 				/**
-				 * Investigates the given element change event and if affected
-				 * incrementally updates the Java outline.
+				 * Updates the Java outline to show the given snapshot of its input. Only the
+				 * elements that changed since the snapshot that is currently shown are refreshed.
 				 *
-				 * @param delta the Java element delta used to reconcile the Java outline
+				 * @param oldSnapshot the snapshot the delta was computed from or <code>null</code>
+				 * @param newSnapshot the new snapshot
+				 * @param delta the differences between the snapshots or <code>null</code> if
+				 *            unknown
+				 * @since 3.12
 				 */
-				public void reconcile(IJavaElementDelta delta) {
-					refresh(true);
+				public void reconcile(JavaOutlineSnapshot oldSnapshot, JavaOutlineSnapshot newSnapshot, JavaOutlineSnapshot.Delta delta) {
+					boolean fullRefresh= delta == null || oldSnapshot == null || fSnapshot != oldSnapshot;
+					fSnapshot= newSnapshot;
+					if (fullRefresh) {
+						refresh(true);
+						return;
+					}
+
+					Object[] structureChanges= delta.getStructureChanges();
+					for (int i= 0; i < structureChanges.length; i++) {
+						if (isShownAsRoot(structureChanges[i])) {
+							refresh(false);
+							structureChanges= NO_CHILDREN;
+							break;
+						}
+					}
+					for (int i= 0; i < structureChanges.length; i++) {
+						refresh(structureChanges[i], false);
+					}
+					Object[] labelChanges= delta.getLabelChanges();
+					if (labelChanges.length > 0)
+						update(labelChanges, null);
+				}
+
+				/*
+				 * Whether the children of the element are shown at the root of the tree.
+				 */
+				private boolean isShownAsRoot(Object element) {
+					Object input= getInput();
+					if (element.equals(input))
+						return true;
+					// the top level type, and whether there is one, may have changed
+					return fTopLevelTypeOnly && element instanceof IType && input.equals(((IType) element).getParent());
 				}
 
 				/*
@@ -766,6 +774,12 @@ public class JavaOutlinePage extends Page implements IContentOutlinePage, IAdapt
 	private boolean fTopLevelTypeOnly;
 
 	private IJavaElement fInput;
+	/**
+	 * The snapshot of the input that is shown, or <code>null</code> if the outline shows the
+	 * Java model.
+	 * @since 3.12
+	 */
+	private JavaOutlineSnapshot fSnapshot;
 	private String fContextMenuID;
 	private Menu fMenu;
 	private JavaOutlineViewer fOutlineViewer;
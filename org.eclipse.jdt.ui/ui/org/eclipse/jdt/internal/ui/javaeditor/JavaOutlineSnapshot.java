@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.javaeditor;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import org.eclipse.jdt.core.IField;
+import org.eclipse.jdt.core.IImportDeclaration;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IParent;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * An immutable copy of the element tree of a type root, as shown by the outline and the
+ * breadcrumb of the Java editor. Snapshots are computed in the background by the
+ * {@link JavaOutlineSnapshotProvider}, so that the viewers don't have to access the Java model on
+ * the UI thread, and two snapshots can be {@link #compare(JavaOutlineSnapshot) compared} to only
+ * refresh the elements that changed.
+ *
+ * @since 3.12
+ */
+public final class JavaOutlineSnapshot {
+
+	/**
+	 * The differences between two snapshots.
+	 */
+	public static final class Delta {
+		private final Object[] fStructureChanges;
+		private final Object[] fLabelChanges;
+
+		Delta(Object[] structureChanges, Object[] labelChanges) {
+			fStructureChanges= structureChanges;
+			fLabelChanges= labelChanges;
+		}
+
+		/**
+		 * @return the elements of both snapshots whose children changed
+		 */
+		public Object[] getStructureChanges() {
+			return fStructureChanges;
+		}
+
+		/**
+		 * @return the elements of both snapshots whose label may have changed, including the
+		 *         descendants of types whose super types changed
+		 */
+		public Object[] getLabelChanges() {
+			return fLabelChanges;
+		}
+
+		/**
+		 * @return <code>true</code> if the snapshots are equal
+		 */
+		public boolean isEmpty() {
+			return fStructureChanges.length == 0 && fLabelChanges.length == 0;
+		}
+	}
+
+	private static final class Node {
+		final IJavaElement[] fChildren;
+		final String fLabelKey;
+		/** the super type signatures of a type, <code>null</code> for other elements */
+		final String fSuperTypesKey;
+
+		Node(IJavaElement[] children, String labelKey, String superTypesKey) {
+			fChildren= children;
+			fLabelKey= labelKey;
+			fSuperTypesKey= superTypesKey;
+		}
+	}
+
+	private static final IJavaElement[] NO_CHILDREN= new IJavaElement[0];
+
+	private final ITypeRoot fInput;
+
+	/** element -> node, contains the input and all its descendants */
+	private final Map<IJavaElement, Node> fNodes;
+
+	private JavaOutlineSnapshot(ITypeRoot input, Map<IJavaElement, Node> nodes) {
+		fInput= input;
+		fNodes= nodes;
+	}
+
+	/**
+	 * Reads the element tree of the given type root.
+	 *
+	 * @param input the type root
+	 * @param monitor the progress monitor, used for cancellation only, or <code>null</code>
+	 * @return the snapshot
+	 * @throws JavaModelException if an element does not exist or if an exception occurs while
+	 *             accessing its corresponding resource
+	 * @throws OperationCanceledException if the monitor was canceled
+	 */
+	public static JavaOutlineSnapshot create(ITypeRoot input, IProgressMonitor monitor) throws JavaModelException {
+		Map<IJavaElement, Node> nodes= new HashMap<>();
+		addNode(input, nodes, monitor);
+		return new JavaOutlineSnapshot(input, nodes);
+	}
+
+	private static void addNode(IJavaElement element, Map<IJavaElement, Node> nodes, IProgressMonitor monitor) throws JavaModelException {
+		if (monitor != null && monitor.isCanceled())
+			throw new OperationCanceledException();
+		IJavaElement[] children= element instanceof IParent ? ((IParent) element).getChildren() : NO_CHILDREN;
+		nodes.put(element, new Node(children, getLabelKey(element), getSuperTypesKey(element)));
+		for (int i= 0; i < children.length; i++) {
+			addNode(children[i], nodes, monitor);
+		}
+	}
+
+	/*
+	 * Returns a string containing all properties of the element that are rendered by the label
+	 * providers of the outline and the breadcrumb.
+	 */
+	private static String getLabelKey(IJavaElement element) throws JavaModelException {
+		StringBuffer buf= new StringBuffer();
+		buf.append(element.getElementName());
+		if (element instanceof IMember) {
+			IMember member= (IMember) element;
+			buf.append('|').append(member.getFlags());
+			String[] categories= member.getCategories();
+			for (int i= 0; i < categories.length; i++) {
+				buf.append('|').append(categories[i]);
+			}
+		}
+		switch (element.getElementType()) {
+			case IJavaElement.TYPE:
+				appendAll(buf, ((IType) element).getTypeParameterSignatures());
+				break;
+			case IJavaElement.METHOD:
+				IMethod method= (IMethod) element;
+				buf.append('|').append(method.getSignature());
+				appendAll(buf, method.getTypeParameterSignatures());
+				appendAll(buf, method.getParameterNames());
+				appendAll(buf, method.getExceptionTypes());
+				break;
+			case IJavaElement.FIELD:
+				buf.append('|').append(((IField) element).getTypeSignature());
+				break;
+			case IJavaElement.IMPORT_DECLARATION:
+				buf.append('|').append(((IImportDeclaration) element).getFlags());
+				break;
+			default:
+				break;
+		}
+		return buf.toString();
+	}
+
+	/*
+	 * The decorations of the members of a type, e.g. the override indicators, depend on its super
+	 * types.
+	 */
+	private static String getSuperTypesKey(IJavaElement element) throws JavaModelException {
+		if (element.getElementType() != IJavaElement.TYPE)
+			return null;
+		IType type= (IType) element;
+		StringBuffer buf= new StringBuffer();
+		buf.append(type.getSuperclassTypeSignature());
+		appendAll(buf, type.getSuperInterfaceTypeSignatures());
+		return buf.toString();
+	}
+
+	private static void appendAll(StringBuffer buf, String[] strings) {
+		buf.append('|');
+		for (int i= 0; i < strings.length; i++) {
+			buf.append(strings[i]).append(',');
+		}
+	}
+
+	/**
+	 * @return the type root of this snapshot
+	 */
+	public ITypeRoot getInput() {
+		return fInput;
+	}
+
+	/**
+	 * @param element the element
+	 * @return <code>true</code> if the element is the input or one of its descendants
+	 */
+	public boolean contains(Object element) {
+		return fNodes.containsKey(element);
+	}
+
+	/**
+	 * Returns the children of the given element.
+	 *
+	 * @param element the element
+	 * @return the children or <code>null</code> if the element is not contained in this snapshot.
+	 *         The array must not be modified.
+	 */
+	public IJavaElement[] getChildren(Object element) {
+		Node node= fNodes.get(element);
+		return node != null ? node.fChildren : null;
+	}
+
+	/**
+	 * Compares this snapshot with a newer snapshot of the same input. Elements that are only
+	 * contained in the newer snapshot are not reported, they are created with their parent. When
+	 * the super types of a type changed, the labels of the type and all its descendants may have
+	 * changed.
+	 *
+	 * @param newer the newer snapshot
+	 * @return the differences
+	 */
+	public Delta compare(JavaOutlineSnapshot newer) {
+		Set<Object> structureChanges= new LinkedHashSet<>();
+		Set<Object> labelChanges= new LinkedHashSet<>();
+		for (Iterator<Map.Entry<IJavaElement, Node>> iter= newer.fNodes.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<IJavaElement, Node> entry= iter.next();
+			Node oldNode= fNodes.get(entry.getKey());
+			if (oldNode == null)
+				continue;
+			Node newNode= entry.getValue();
+			if (!Arrays.equals(oldNode.fChildren, newNode.fChildren))
+				structureChanges.add(entry.getKey());
+			if (!oldNode.fLabelKey.equals(newNode.fLabelKey))
+				labelChanges.add(entry.getKey());
+			if (oldNode.fSuperTypesKey != null && !oldNode.fSuperTypesKey.equals(newNode.fSuperTypesKey))
+				addDescendants(newer, entry.getKey(), labelChanges);
+		}
+		return new Delta(structureChanges.toArray(), labelChanges.toArray());
+	}
+
+	/*
+	 * Adds the element and its descendants in the newer snapshot that are also contained in this
+	 * snapshot.
+	 */
+	private void addDescendants(JavaOutlineSnapshot newer, IJavaElement element, Set<Object> result) {
+		if (!fNodes.containsKey(element))
+			return;
+		result.add(element);
+		IJavaElement[] children= newer.fNodes.get(element).fChildren;
+		for (int i= 0; i < children.length; i++) {
+			addDescendants(newer, children[i], result);
+		}
+	}
+}
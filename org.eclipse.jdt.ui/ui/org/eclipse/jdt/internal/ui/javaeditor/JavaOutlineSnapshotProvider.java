@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.javaeditor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.ListenerList;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * Computes the {@link JavaOutlineSnapshot}s of the type roots shown in outlines and breadcrumbs.
+ * A new snapshot is computed in a background job whenever the structure of a connected type root
+ * may have changed, e.g. after each reconcile, and is shared by all viewers of the type root.
+ *
+ * @since 3.12
+ */
+public class JavaOutlineSnapshotProvider {
+
+	/**
+	 * Listener that is informed about new snapshots.
+	 */
+	public interface ISnapshotListener {
+
+		/**
+		 * Called in a background thread when a new snapshot has been computed.
+		 *
+		 * @param oldSnapshot the previous snapshot of the type root or <code>null</code> if none
+		 * @param newSnapshot the new snapshot
+		 */
+		void snapshotChanged(JavaOutlineSnapshot oldSnapshot, JavaOutlineSnapshot newSnapshot);
+	}
+
+	private class SnapshotJob extends Job {
+
+		private final ITypeRoot fInput;
+
+		public SnapshotJob(ITypeRoot input) {
+			super(JavaEditorMessages.JavaOutlineSnapshotProvider_job_name);
+			fInput= input;
+			setSystem(true);
+			setPriority(Job.SHORT);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			JavaOutlineSnapshot snapshot;
+			try {
+				snapshot= JavaOutlineSnapshot.create(fInput, monitor);
+			} catch (OperationCanceledException e) {
+				return Status.CANCEL_STATUS;
+			} catch (JavaModelException e) {
+				// the element may have been removed in the meantime
+				if (JavaPlugin.isDebug() || !e.isDoesNotExist())
+					JavaPlugin.log(e);
+				return Status.OK_STATUS;
+			}
+
+			JavaOutlineSnapshot oldSnapshot;
+			synchronized (JavaOutlineSnapshotProvider.this) {
+				Connection connection= fConnections.get(fInput);
+				if (connection == null || connection.fJob != this)
+					return Status.OK_STATUS; // disconnected
+				oldSnapshot= connection.fSnapshot;
+				connection.fSnapshot= snapshot;
+			}
+			for (ISnapshotListener listener : fListeners) {
+				listener.snapshotChanged(oldSnapshot, snapshot);
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	private static final class Connection {
+		int fCount;
+		SnapshotJob fJob;
+		JavaOutlineSnapshot fSnapshot;
+	}
+
+	private final Map<ITypeRoot, Connection> fConnections= new HashMap<>();
+
+	private final ListenerList<ISnapshotListener> fListeners= new ListenerList<>(ListenerList.IDENTITY);
+
+	private final IElementChangedListener fElementChangedListener= new IElementChangedListener() {
+		@Override
+		public void elementChanged(ElementChangedEvent event) {
+			processDelta(event.getDelta());
+		}
+	};
+
+	private boolean fListening;
+
+	/**
+	 * Starts computing the snapshots of the given type root. Each call must be balanced by a call
+	 * to {@link #disconnect(ITypeRoot)}.
+	 *
+	 * @param input the type root
+	 */
+	public synchronized void connect(ITypeRoot input) {
+		Connection connection= fConnections.get(input);
+		if (connection == null) {
+			connection= new Connection();
+			connection.fJob= new SnapshotJob(input);
+			fConnections.put(input, connection);
+			connection.fJob.schedule();
+			if (!fListening) {
+				JavaCore.addElementChangedListener(fElementChangedListener);
+				fListening= true;
+			}
+		}
+		connection.fCount++;
+	}
+
+	/**
+	 * Stops computing the snapshots of the given type root if no one else is connected to it.
+	 *
+	 * @param input the type root
+	 */
+	public synchronized void disconnect(ITypeRoot input) {
+		Connection connection= fConnections.get(input);
+		if (connection == null || --connection.fCount > 0)
+			return;
+		fConnections.remove(input);
+		connection.fJob.cancel();
+		if (fConnections.isEmpty() && fListening) {
+			JavaCore.removeElementChangedListener(fElementChangedListener);
+			fListening= false;
+		}
+	}
+
+	/**
+	 * Returns the latest snapshot of the given type root.
+	 *
+	 * @param input the type root
+	 * @return the snapshot or <code>null</code> if the type root is not connected or its first
+	 *         snapshot has not been computed yet
+	 */
+	public synchronized JavaOutlineSnapshot getSnapshot(ITypeRoot input) {
+		Connection connection= fConnections.get(input);
+		return connection != null ? connection.fSnapshot : null;
+	}
+
+	public void addListener(ISnapshotListener listener) {
+		fListeners.add(listener);
+	}
+
+	public void removeListener(ISnapshotListener listener) {
+		fListeners.remove(listener);
+	}
+
+	public synchronized void dispose() {
+		for (Connection connection : fConnections.values()) {
+			connection.fJob.cancel();
+		}
+		fConnections.clear();
+		if (fListening) {
+			JavaCore.removeElementChangedListener(fElementChangedListener);
+			fListening= false;
+		}
+		fListeners.clear();
+	}
+
+	private void processDelta(IJavaElementDelta delta) {
+		IJavaElement element= delta.getElement();
+		if (element instanceof ITypeRoot) {
+			if (isPossibleStructuralChange(delta)) {
+				synchronized (this) {
+					Connection connection= fConnections.get(element);
+					if (connection != null)
+						connection.fJob.schedule(); // runs again if it is running
+				}
+			}
+			return;
+		}
+		IJavaElementDelta[] children= delta.getAffectedChildren();
+		for (int i= 0; i < children.length; i++) {
+			processDelta(children[i]);
+		}
+	}
+
+	private static boolean isPossibleStructuralChange(IJavaElementDelta cuDelta) {
+		if (cuDelta.getKind() != IJavaElementDelta.CHANGED) {
+			return true; // add or remove
+		}
+		int flags= cuDelta.getFlags();
+		if ((flags & IJavaElementDelta.F_CHILDREN) != 0) {
+			return true;
+		}
+		return (flags & (IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_FINE_GRAINED)) == IJavaElementDelta.F_CONTENT;
+	}
+}
@@ -25,13 +25,9 @@ import org.eclipse.core.filebuffers.ITextFileBuffer;
 import org.eclipse.core.filebuffers.ITextFileBufferManager;
 import org.eclipse.core.filebuffers.LocationKind;
 
-import org.eclipse.jface.text.BadLocationException;
-import org.eclipse.jface.text.BadPartitioningException;
-import org.eclipse.jface.text.FindReplaceDocumentAdapter;
 import org.eclipse.jface.text.IDocument;
-import org.eclipse.jface.text.IDocumentExtension3;
 import org.eclipse.jface.text.IRegion;
-import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.hyperlink.IHyperlink;
 
 import org.eclipse.ui.IEditorInput;
@@ -47,12 +43,10 @@ import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.internal.corext.refactoring.nls.AccessorClassReference;
 import org.eclipse.jdt.internal.corext.refactoring.nls.NLSHintHelper;
 import org.eclipse.jdt.internal.corext.refactoring.nls.NLSRefactoring;
-import org.eclipse.jdt.internal.corext.refactoring.nls.PropertyFileDocumentModel;
+import org.eclipse.jdt.internal.corext.refactoring.nls.PropertyFileEntries;
 import org.eclipse.jdt.internal.corext.util.Messages;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
-import org.eclipse.jdt.internal.ui.propertiesfileeditor.IPropertiesFilePartitions;
-import org.eclipse.jdt.internal.ui.propertiesfileeditor.PropertyKeyHyperlinkDetector;
 import org.eclipse.jdt.internal.ui.viewsupport.BasicElementLabels;
 
 
@@ -158,46 +152,15 @@ public class NLSKeyHyperlink implements IHyperlink {
 			}
 		}
 
-		// Find key in document
+		// Find key in document, the last definition of a key wins
 		boolean found= false;
 		IRegion region= null;
 		if (document != null) {
-			FindReplaceDocumentAdapter finder= new FindReplaceDocumentAdapter(document);
-			PropertyKeyHyperlinkDetector detector= new PropertyKeyHyperlinkDetector();
-			detector.setContext(editor);
-			String key= PropertyFileDocumentModel.escape(keyName, false);
-			int offset= document.getLength() - 1;
-			try {
-				while (!found && offset >= 0) {
-					region= finder.find(offset, key, false, true, false, false);
-					if (region == null)
-						offset= -1;
-					else {
-						// test whether it's the key
-						IHyperlink[] hyperlinks= detector.detectHyperlinks(null, region, false);
-						if (hyperlinks != null) {
-							for (int i= 0; i < hyperlinks.length; i++) {
-								IRegion hyperlinkRegion= hyperlinks[i].getHyperlinkRegion();
-								found= key.equals(document.get(hyperlinkRegion.getOffset(), hyperlinkRegion.getLength()));
-							}
-						} else if (document instanceof IDocumentExtension3) {
-							// Fall back: test using properties file partitioning
-							ITypedRegion partition= null;
-							partition= ((IDocumentExtension3)document).getPartition(IPropertiesFilePartitions.PROPERTIES_FILE_PARTITIONING, region.getOffset(), false);
-							found= IDocument.DEFAULT_CONTENT_TYPE.equals(partition.getType())
-							&& key.equals(document.get(partition.getOffset(), partition.getLength()).trim());
-						}
-						// Prevent endless loop (panic code, shouldn't be needed)
-						if (offset == region.getOffset())
-							offset= -1;
-						else
-							offset= region.getOffset();
-					}
+			for (PropertyFileEntries.Entry entry : new PropertyFileEntries(document.get()).getEntries()) {
+				if (keyName.equals(entry.getKey())) {
+					region= new Region(entry.getOffset(), entry.getKeyLength());
+					found= true;
 				}
-			} catch (BadLocationException ex) {
-				found= false;
-			} catch (BadPartitioningException e1) {
-				found= false;
 			}
 		}
 		if (found)
@@ -166,7 +166,7 @@ class OverrideIndicatorManager implements IJavaReconcilingListener {
 	 * @param progressMonitor the progress monitor
 	 * @since 3.0
 	 */
-	protected void updateAnnotations(CompilationUnit ast, IProgressMonitor progressMonitor) {
+	protected void updateAnnotations(CompilationUnit ast, final IProgressMonitor progressMonitor) {
 
 		if (ast == null || progressMonitor.isCanceled())
 			return;
@@ -179,6 +179,8 @@ class OverrideIndicatorManager implements IJavaReconcilingListener {
 			 */
 			@Override
 			public boolean visit(MethodDeclaration node) {
+				if (progressMonitor.isCanceled())
+					return false; // the annotations are not updated anyway
 				IMethodBinding binding= node.resolveBinding();
 				if (binding != null) {
 					IMethodBinding definingMethod= Bindings.findOverriddenMethod(binding, true);
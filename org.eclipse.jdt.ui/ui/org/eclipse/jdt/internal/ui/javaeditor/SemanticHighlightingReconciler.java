@@ -73,6 +73,8 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		 */
 		@Override
 		protected boolean visitNode(ASTNode node) {
+			if (fJobProgressMonitor.isCanceled())
+				return false; // the positions are discarded anyway
 			if ((node.getFlags() & ASTNode.MALFORMED) == ASTNode.MALFORMED) {
 				retainPositions(node.getStartPosition(), node.getLength());
 				return false;
@@ -265,6 +267,11 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	private SemanticHighlighting[] fJobSemanticHighlightings;
 	/** Highlightings - cache for background thread, only valid during {@link #reconciled(CompilationUnit, boolean, IProgressMonitor)} */
 	private Highlighting[] fJobHighlightings;
+	/**
+	 * The progress monitor - cache for background thread, only valid during {@link #reconciled(CompilationUnit, boolean, IProgressMonitor)}
+	 * @since 3.12
+	 */
+	private IProgressMonitor fJobProgressMonitor;
 
 	/**
 	 * XXX Hack for performance reasons (should loop over fJobSemanticHighlightings can call consumes(*))
@@ -295,6 +302,7 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		fJobPresenter= fPresenter;
 		fJobSemanticHighlightings= fSemanticHighlightings;
 		fJobHighlightings= fHighlightings;
+		fJobProgressMonitor= progressMonitor;
 
 		try {
 			if (fJobPresenter == null || fJobSemanticHighlightings == null || fJobHighlightings == null)
@@ -311,7 +319,7 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 
 			startReconcilingPositions();
 
-			if (!fJobPresenter.isCanceled()) {
+			if (!isJobCanceled()) {
 				fJobDeprecatedMemberHighlighting= null;
 				for (int i= 0, n= fJobSemanticHighlightings.length; i < n; i++) {
 					SemanticHighlighting semanticHighlighting= fJobSemanticHighlightings[i];
@@ -324,10 +332,10 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 			}
 
 			TextPresentation textPresentation= null;
-			if (!fJobPresenter.isCanceled())
+			if (!isJobCanceled())
 				textPresentation= fJobPresenter.createPresentation(fAddedPositions, fRemovedPositions);
 
-			if (!fJobPresenter.isCanceled())
+			if (!isJobCanceled())
 				updatePresentation(textPresentation, fAddedPositions, fRemovedPositions);
 
 			stopReconcilingPositions();
@@ -336,12 +344,24 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 			fJobSemanticHighlightings= null;
 			fJobHighlightings= null;
 			fJobDeprecatedMemberHighlighting= null;
+			fJobProgressMonitor= null;
 			synchronized (fReconcileLock) {
 				fIsReconciling= false;
 			}
 		}
 	}
 
+	/**
+	 * Tells whether the current reconcile has been canceled, either by a document change or by
+	 * the reconciler, e.g. because a newer version of the document is waiting to be reconciled.
+	 *
+	 * @return <code>true</code> iff the current reconcile is canceled
+	 * @since 3.12
+	 */
+	private boolean isJobCanceled() {
+		return fJobPresenter.isCanceled() || fJobProgressMonitor.isCanceled();
+	}
+
 	/**
 	 * @param node Root node
 	 * @return Array of subtrees that may be affected by past document changes
@@ -77,6 +77,44 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	protected static final int GRANT_PARENT= 1 << 1;
 	protected static final int PROJECT= 1 << 2;
 
+	/**
+	 * Time in milliseconds the update job spends on refreshes before it lets the UI process
+	 * other events.
+	 */
+	private static final long REFRESH_TIME_SLICE= 50;
+
+	/**
+	 * A refresh posted by {@link PackageExplorerContentProvider#postRefresh(List, boolean, Collection)}.
+	 * Refreshes are not run one by one but handed to the {@link RefreshPlanner}.
+	 */
+	private final class RefreshRunnable implements Runnable {
+		private final List<Object> fToRefresh;
+		private final boolean fUpdateLabels;
+
+		public RefreshRunnable(List<Object> toRefresh, boolean updateLabels) {
+			fToRefresh= toRefresh;
+			fUpdateLabels= updateLabels;
+		}
+
+		void addTo(RefreshPlanner planner) {
+			Object[] elements= fToRefresh.toArray();
+			for (int i= 0; i < elements.length; i++) {
+				planner.add(elements[i], fUpdateLabels);
+			}
+		}
+
+		@Override
+		public void run() {
+			Object[] elements= fToRefresh.toArray();
+			for (int i= 0; i < elements.length; i++) {
+				Object element= elements[i];
+				if (element == null || fViewer.testFindItems(element).length > 0) {
+					fViewer.refresh(element, fUpdateLabels);
+				}
+			}
+		}
+	}
+
 	private TreeViewer fViewer;
 	private Object fInput;
 	private boolean fIsFlatLayout;
@@ -87,6 +125,8 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 
 	private UIJob fUpdateJob;
 
+	private RefreshPlanner fRefreshPlanner; // only accessed in the UI thread
+
 	/**
 	 * Creates a new content provider for Java elements.
 	 * @param provideMembers if set, members of compilation units and class files are shown
@@ -137,8 +177,9 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 				hasPendingUpdates= fPendingUpdates != null && !fPendingUpdates.isEmpty();
 			}
 			//Are we in the UIThread? If so spin it until we are done
-			if (!hasPendingUpdates && ctrl.getDisplay().getThread() == Thread.currentThread() && !fViewer.isBusy()) {
+			if (!hasPendingUpdates && ctrl.getDisplay().getThread() == Thread.currentThread() && !fViewer.isBusy() && !hasPlannedRefreshes()) {
 				runUpdates(runnables);
+				executePlannedRefreshes(0);
 			} else {
 				synchronized (this) {
 					if (fPendingUpdates == null) {
@@ -159,8 +200,8 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 					TreeViewer viewer= fViewer;
 					if (viewer != null && viewer.isBusy()) {
 						schedule(100); // reschedule when viewer is busy: bug 184991
-					} else {
-						runPendingUpdates();
+					} else if (!runPendingUpdates(REFRESH_TIME_SLICE)) {
+						schedule(); // let the UI process events before continuing with the remaining refreshes
 					}
 					return Status.OK_STATUS;
 				}
@@ -174,24 +215,69 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	 * Run all of the runnables that are the widget updates. Must be called in the display thread.
 	 */
 	public void runPendingUpdates() {
+		runPendingUpdates(0);
+	}
+
+	/**
+	 * Runs the pending updates. Refreshes are executed until the given time slice is used up.
+	 * Must be called in the display thread.
+	 *
+	 * @param timeSlice the time in milliseconds to spend on refreshes, or <code>0</code> to
+	 *            execute all refreshes
+	 * @return <code>true</code> if all updates have been run, <code>false</code> if refreshes
+	 *         are left
+	 */
+	private boolean runPendingUpdates(long timeSlice) {
 		Collection<Runnable> pendingUpdates;
 		synchronized (this) {
 			pendingUpdates= fPendingUpdates;
 			fPendingUpdates= null;
 		}
-		if (pendingUpdates != null && fViewer != null) {
+		if (fViewer != null) {
 			Control control = fViewer.getControl();
 			if (control != null && !control.isDisposed()) {
-				runUpdates(pendingUpdates);
+				if (pendingUpdates != null) {
+					runUpdates(pendingUpdates);
+				}
+				return executePlannedRefreshes(timeSlice);
 			}
 		}
+		return true;
 	}
 
+	/**
+	 * Runs the given updates. Refreshes are not executed but added to the refresh planner, they
+	 * are coalesced and executed after all other updates.
+	 *
+	 * @param runnables the updates
+	 */
 	private void runUpdates(Collection<Runnable> runnables) {
 		Iterator<Runnable> runnableIterator = runnables.iterator();
 		while (runnableIterator.hasNext()){
-			runnableIterator.next().run();
+			Runnable runnable= runnableIterator.next();
+			if (runnable instanceof RefreshRunnable) {
+				((RefreshRunnable) runnable).addTo(getRefreshPlanner());
+			} else {
+				runnable.run();
+			}
+		}
+	}
+
+	private RefreshPlanner getRefreshPlanner() {
+		if (fRefreshPlanner == null) {
+			fRefreshPlanner= new RefreshPlanner(fViewer, this);
 		}
+		return fRefreshPlanner;
+	}
+
+	private boolean hasPlannedRefreshes() {
+		return fRefreshPlanner != null && !fRefreshPlanner.isEmpty();
+	}
+
+	private boolean executePlannedRefreshes(long timeSlice) {
+		if (fRefreshPlanner == null)
+			return true;
+		return fRefreshPlanner.execute(timeSlice);
 	}
 
 
@@ -389,6 +475,10 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	@Override
 	public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
 		super.inputChanged(viewer, oldInput, newInput);
+		if (fRefreshPlanner != null) {
+			fRefreshPlanner.clear(); // the viewer refreshes everything
+			fRefreshPlanner= null;
+		}
 		fViewer= (TreeViewer)viewer;
 		if (oldInput == null && newInput != null) {
 			JavaCore.addElementChangedListener(this);
@@ -929,18 +1019,7 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	}
 
 	protected void postRefresh(final List<Object> toRefresh, final boolean updateLabels, Collection<Runnable> runnables) {
-		runnables.add(new Runnable() {
-			@Override
-			public void run() {
-				Object[] elements= toRefresh.toArray();
-				for (int i= 0; i < elements.length; i++) {
-					Object element= elements[i];
-					if (element == null || fViewer.testFindItems(element).length > 0) {
-						fViewer.refresh(element, updateLabels);
-					}
-				}
-			}
-		});
+		runnables.add(new RefreshRunnable(toRefresh, updateLabels));
 	}
 
 	protected void postAdd(final Object parent, final Object element, Collection<Runnable> runnables) {
@@ -0,0 +1,295 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.packageview;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.TreeItem;
+import org.eclipse.swt.widgets.Widget;
+
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.TreeViewer;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * Collects the refreshes requested by a content provider for a tree viewer and executes them
+ * as few and as cheap as possible:
+ * <ul>
+ * <li>refreshes of elements that are not shown in the viewer are dropped</li>
+ * <li>refreshes of elements below a collapsed item are replaced by a refresh of the collapsed
+ * item, which only has to dispose its stale children</li>
+ * <li>refreshes of elements whose ancestor is refreshed as well are dropped</li>
+ * <li>visible items are refreshed first, then expanded items, then the rest</li>
+ * </ul>
+ * Refreshes can be executed in time slices, so that the UI stays responsive when a large
+ * number of elements changed. Requests added while a plan is executed are merged with the
+ * refreshes not executed yet.
+ * <p>
+ * Must only be used in the UI thread.
+ * </p>
+ *
+ * @since 3.12
+ */
+public class RefreshPlanner {
+
+	private static final int VISIBLE= 0;
+	private static final int EXPANDED= 1;
+	private static final int OTHER= 2;
+
+	private static final class Refresh {
+		final Object fElement;
+		final boolean fUpdateLabels;
+		final int fPriority;
+
+		Refresh(Object element, boolean updateLabels, int priority) {
+			fElement= element;
+			fUpdateLabels= updateLabels;
+			fPriority= priority;
+		}
+	}
+
+	private static final Comparator<Refresh> PRIORITY_COMPARATOR= new Comparator<Refresh>() {
+		@Override
+		public int compare(Refresh r1, Refresh r2) {
+			return r1.fPriority - r2.fPriority;
+		}
+	};
+
+	private final TreeViewer fViewer;
+	private final ITreeContentProvider fContentProvider;
+
+	/** element -> update labels, in request order */
+	private final Map<Object, Boolean> fRequests;
+	private List<Refresh> fPlan;
+	private int fNextInPlan;
+
+	private int fPlannedCount;
+	private int fExecutedCount;
+	private int fSliceCount;
+	private long fStartTime;
+
+	/**
+	 * @param viewer the viewer to refresh
+	 * @param contentProvider the content provider of the viewer, used to find the parents of
+	 *            elements
+	 */
+	public RefreshPlanner(TreeViewer viewer, ITreeContentProvider contentProvider) {
+		fViewer= viewer;
+		fContentProvider= contentProvider;
+		fRequests= new LinkedHashMap<>();
+	}
+
+	/**
+	 * Adds a refresh request.
+	 *
+	 * @param element the element to refresh, or <code>null</code> to refresh the whole viewer
+	 * @param updateLabels <code>true</code> to update the labels of the element and its
+	 *            descendants
+	 */
+	public void add(Object element, boolean updateLabels) {
+		if (fRequests.isEmpty() && fPlan == null) {
+			fStartTime= System.currentTimeMillis();
+		}
+		fPlannedCount++;
+		Boolean existing= fRequests.get(element);
+		if (existing == null || !existing.booleanValue() && updateLabels) {
+			fRequests.put(element, Boolean.valueOf(updateLabels));
+		}
+		invalidatePlan();
+	}
+
+	/**
+	 * @return <code>true</code> if there are no refreshes left to execute
+	 */
+	public boolean isEmpty() {
+		return fRequests.isEmpty();
+	}
+
+	/**
+	 * Discards all requested refreshes, e.g. because the viewer got a new input.
+	 */
+	public void clear() {
+		fRequests.clear();
+		fPlan= null;
+		resetCounters();
+	}
+
+	/**
+	 * Executes the requested refreshes.
+	 *
+	 * @param timeSlice the time in milliseconds after which the execution stops, or <code>0</code>
+	 *            to execute all refreshes
+	 * @return <code>true</code> if all refreshes have been executed, <code>false</code> if
+	 *         refreshes are left for a later call
+	 */
+	public boolean execute(long timeSlice) {
+		if (fRequests.isEmpty())
+			return true;
+		Control control= fViewer.getControl();
+		if (control == null || control.isDisposed()) {
+			clear();
+			return true;
+		}
+		if (fPlan == null) {
+			fPlan= createPlan();
+			fNextInPlan= 0;
+		}
+		fSliceCount++;
+		long end= System.currentTimeMillis() + timeSlice;
+		while (fNextInPlan < fPlan.size()) {
+			Refresh refresh= fPlan.get(fNextInPlan++);
+			Object element= refresh.fElement;
+			if (element == null || fViewer.testFindItems(element).length > 0) {
+				fViewer.refresh(element, refresh.fUpdateLabels);
+				fExecutedCount++;
+			}
+			if (timeSlice > 0 && fNextInPlan < fPlan.size() && System.currentTimeMillis() >= end) {
+				// keep the remaining refreshes, they are planned again together with new requests
+				fRequests.clear();
+				for (int i= fNextInPlan; i < fPlan.size(); i++) {
+					Refresh remaining= fPlan.get(i);
+					fRequests.put(remaining.fElement, Boolean.valueOf(remaining.fUpdateLabels));
+				}
+				invalidatePlan();
+				return false;
+			}
+		}
+		fRequests.clear();
+		fPlan= null;
+		if (JavaPlugin.DEBUG_PACKAGE_EXPLORER_REFRESH) {
+			System.out.println("Package explorer refresh: " + fPlannedCount + " planned, " + fExecutedCount + " executed, " //$NON-NLS-1$ //$NON-NLS-2$
+					+ fSliceCount + " slice(s), " + (System.currentTimeMillis() - fStartTime) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		resetCounters();
+		return true;
+	}
+
+	/**
+	 * @return the number of refreshes requested since the last completed execution
+	 */
+	public int getPlannedCount() {
+		return fPlannedCount;
+	}
+
+	/**
+	 * @return the number of viewer refreshes executed since the last completed execution
+	 */
+	public int getExecutedCount() {
+		return fExecutedCount;
+	}
+
+	private void invalidatePlan() {
+		fPlan= null;
+	}
+
+	private void resetCounters() {
+		fPlannedCount= 0;
+		fExecutedCount= 0;
+		fSliceCount= 0;
+	}
+
+	private List<Refresh> createPlan() {
+		if (fRequests.containsKey(null)) {
+			// the whole viewer is refreshed
+			return Collections.singletonList(new Refresh(null, fRequests.containsValue(Boolean.TRUE), VISIBLE));
+		}
+		Rectangle clientArea= fViewer.getTree().getClientArea();
+
+		// replace elements below collapsed items by the topmost collapsed item
+		Map<Object, Boolean> merged= new LinkedHashMap<>();
+		Map<Object, Integer> priorities= new LinkedHashMap<>();
+		Set<Object> multipleItems= new HashSet<>();
+		for (Iterator<Map.Entry<Object, Boolean>> iter= fRequests.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<Object, Boolean> entry= iter.next();
+			Object element= entry.getKey();
+			boolean updateLabels= entry.getValue().booleanValue();
+			Widget[] items= fViewer.testFindItems(element);
+			if (items.length == 0)
+				continue; // not shown
+			int priority= VISIBLE; // the input or an element shown more than once
+			if (items.length > 1) {
+				multipleItems.add(element);
+			} else if (items[0] instanceof TreeItem && !items[0].isDisposed()) {
+				TreeItem item= (TreeItem) items[0];
+				TreeItem collapsed= getTopmostCollapsedAncestor(item);
+				if (collapsed != null && collapsed.getData() != null) {
+					element= collapsed.getData();
+					item= collapsed;
+					updateLabels= false; // children are disposed and get new labels when expanded
+				}
+				priority= getPriority(item, clientArea);
+			}
+			Boolean existing= merged.get(element);
+			if (existing == null || !existing.booleanValue() && updateLabels) {
+				merged.put(element, Boolean.valueOf(updateLabels));
+			}
+			Integer existingPriority= priorities.get(element);
+			if (existingPriority == null || existingPriority.intValue() > priority) {
+				priorities.put(element, Integer.valueOf(priority));
+			}
+		}
+
+		// drop elements whose ancestor is refreshed as well
+		List<Refresh> plan= new ArrayList<>(merged.size());
+		for (Iterator<Map.Entry<Object, Boolean>> iter= merged.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<Object, Boolean> entry= iter.next();
+			Object element= entry.getKey();
+			boolean updateLabels= entry.getValue().booleanValue();
+			if (!multipleItems.contains(element) && isCoveredByAncestor(element, updateLabels, merged))
+				continue;
+			plan.add(new Refresh(element, updateLabels, priorities.get(element).intValue()));
+		}
+		Collections.sort(plan, PRIORITY_COMPARATOR); // stable, keeps the request order per priority
+		return plan;
+	}
+
+	private boolean isCoveredByAncestor(Object element, boolean updateLabels, Map<Object, Boolean> refreshed) {
+		Set<Object> visited= new HashSet<>();
+		Object parent= fContentProvider.getParent(element);
+		while (parent != null && visited.add(parent)) {
+			Boolean parentUpdatesLabels= refreshed.get(parent);
+			if (parentUpdatesLabels != null && (parentUpdatesLabels.booleanValue() || !updateLabels))
+				return true;
+			parent= fContentProvider.getParent(parent);
+		}
+		return false;
+	}
+
+	private static TreeItem getTopmostCollapsedAncestor(TreeItem item) {
+		TreeItem result= null;
+		TreeItem parent= item.getParentItem();
+		while (parent != null) {
+			if (!parent.getExpanded())
+				result= parent;
+			parent= parent.getParentItem();
+		}
+		return result;
+	}
+
+	private static int getPriority(TreeItem item, Rectangle clientArea) {
+		if (clientArea.intersects(item.getBounds()))
+			return VISIBLE;
+		if (item.getExpanded())
+			return EXPANDED;
+		return OTHER;
+	}
+}
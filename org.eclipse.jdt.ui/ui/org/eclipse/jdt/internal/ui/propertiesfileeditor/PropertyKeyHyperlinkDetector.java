@@ -11,10 +11,7 @@
 
 package org.eclipse.jdt.internal.ui.propertiesfileeditor;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.text.StringCharacterIterator;
-import java.util.Properties;
 
 import org.eclipse.swt.widgets.Display;
 
@@ -26,6 +23,7 @@ import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.BadPartitioningException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentExtension3;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextViewer;
 import org.eclipse.jface.text.ITypedRegion;
@@ -45,6 +43,7 @@ import org.eclipse.jdt.core.IJarEntryResource;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaModelException;
 
+import org.eclipse.jdt.internal.corext.refactoring.nls.PropertyFileEntries;
 
 /**
  * Properties key hyperlink detector.
@@ -53,6 +52,15 @@ import org.eclipse.jdt.core.JavaModelException;
  */
 public class PropertyKeyHyperlinkDetector extends AbstractHyperlinkDetector {
 
+	/**
+	 * The parsed document the last hyperlink was detected in, reused until the document is
+	 * modified.
+	 * @since 3.12
+	 */
+	private IDocument fEntriesDocument;
+	private long fEntriesStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+	private PropertyFileEntries fEntries;
+
 	/*
 	 * @see org.eclipse.jface.text.hyperlink.IHyperlinkDetector#detectHyperlinks(org.eclipse.jface.text.ITextViewer, org.eclipse.jface.text.IRegion, boolean)
 	 */
@@ -95,9 +103,7 @@ public class PropertyKeyHyperlinkDetector extends AbstractHyperlinkDetector {
 
 			String unicodeKey= getUnicodeString(realKey);
 			// Check whether the key is valid
-			Properties properties= new Properties();
-			properties.load(new ByteArrayInputStream(document.get().getBytes()));
-			if (properties.getProperty(unicodeKey) == null) {
+			if (!getEntries(document).containsKey(unicodeKey)) {
 				return null;
 			}
 
@@ -107,14 +113,31 @@ public class PropertyKeyHyperlinkDetector extends AbstractHyperlinkDetector {
 			return null;
 		} catch (BadPartitioningException ex) {
 			return null;
-		} catch (IOException ex) {
-			return null;
 		} catch (IllegalArgumentException ex) {
 			showErrorInStatusLine(ex.getLocalizedMessage(), textEditor);
 			return null;
 		}
 	}
 
+	private synchronized PropertyFileEntries getEntries(IDocument document) {
+		long stamp= document instanceof IDocumentExtension4 ? ((IDocumentExtension4) document).getModificationStamp() : IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+		if (fEntries == null || fEntriesDocument != document || fEntriesStamp != stamp || stamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP) {
+			fEntries= new PropertyFileEntries(document.get());
+			fEntriesDocument= document;
+			fEntriesStamp= stamp;
+		}
+		return fEntries;
+	}
+
+	@Override
+	public void dispose() {
+		synchronized (this) {
+			fEntriesDocument= null;
+			fEntries= null;
+		}
+		super.dispose();
+	}
+
 	private String getUnicodeString(String key) {
 		StringCharacterIterator iter= new StringCharacterIterator(key);
 		StringBuffer result= new StringBuffer();
@@ -14,46 +14,62 @@ import org.eclipse.search.ui.text.Match;
 
 /**
  * A search match with additional java-specific info.
+ * <p>
+ * Search results can hold hundreds of thousands of matches, so the accuracy, the match rule
+ * and the access flags are packed into a single <code>int</code>.
+ * </p>
  */
 public class JavaElementMatch extends Match {
-	private final int fAccuracy;
-	private final int fMatchRule;
-	private final boolean fIsWriteAccess;
-	private final boolean fIsReadAccess;
-	private final boolean fIsJavadoc;
-	private final boolean fIsSuperInvocation;
+
+	private static final int IS_WRITE_ACCESS= 1 << 0;
+	private static final int IS_READ_ACCESS= 1 << 1;
+	private static final int IS_JAVADOC= 1 << 2;
+	private static final int IS_SUPER_INVOCATION= 1 << 3;
+	private static final int ACCURACY_SHIFT= 4;
+	private static final int ACCURACY_MASK= 0xF;
+	private static final int MATCH_RULE_SHIFT= 8;
+
+	/**
+	 * Access flags in bits 0-3, accuracy in bits 4-7, match rule in bits 8-31. The
+	 * <code>SearchPattern.R_*</code> match rule flags all fit into 24 bits.
+	 */
+	private final int fPackedInfo;
 
 	JavaElementMatch(Object element, int matchRule, int offset, int length, int accuracy, boolean isReadAccess, boolean isWriteAccess, boolean isJavadoc, boolean isSuperInvocation) {
 		super(element, offset, length);
-		fAccuracy= accuracy;
-		fMatchRule= matchRule;
-		fIsWriteAccess= isWriteAccess;
-		fIsReadAccess= isReadAccess;
-		fIsJavadoc= isJavadoc;
-		fIsSuperInvocation= isSuperInvocation;
+		int info= (matchRule << MATCH_RULE_SHIFT) | ((accuracy & ACCURACY_MASK) << ACCURACY_SHIFT);
+		if (isWriteAccess)
+			info|= IS_WRITE_ACCESS;
+		if (isReadAccess)
+			info|= IS_READ_ACCESS;
+		if (isJavadoc)
+			info|= IS_JAVADOC;
+		if (isSuperInvocation)
+			info|= IS_SUPER_INVOCATION;
+		fPackedInfo= info;
 	}
 
 	public int getAccuracy() {
-		return fAccuracy;
+		return (fPackedInfo >>> ACCURACY_SHIFT) & ACCURACY_MASK;
 	}
 
 	public boolean isWriteAccess() {
-		return fIsWriteAccess;
+		return (fPackedInfo & IS_WRITE_ACCESS) != 0;
 	}
 
 	public boolean isReadAccess() {
-		return fIsReadAccess;
+		return (fPackedInfo & IS_READ_ACCESS) != 0;
 	}
 
 	public boolean isJavadoc() {
-		return fIsJavadoc;
+		return (fPackedInfo & IS_JAVADOC) != 0;
 	}
 
 	public boolean isSuperInvocation() {
-		return fIsSuperInvocation;
+		return (fPackedInfo & IS_SUPER_INVOCATION) != 0;
 	}
 
 	public int getMatchRule() {
-		return fMatchRule;
+		return fPackedInfo >>> MATCH_RULE_SHIFT;
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,7 +10,9 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.search;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.swt.widgets.Table;
@@ -19,14 +21,26 @@ import org.eclipse.jface.viewers.TableViewer;
 
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
 
+/**
+ * Flat content provider for Java search results. The result page creates the table with
+ * <code>SWT.VIRTUAL</code>, so that table items and labels are only created for the rows that
+ * are revealed. Items of a virtual table can't be looked up before they are revealed, so the
+ * content provider keeps track of the elements that are in the table.
+ */
 public class JavaSearchTableContentProvider extends JavaSearchContentProvider {
+
+	/** the elements in the table */
+	private final Set<Object> fElements= new HashSet<>();
+
 	public JavaSearchTableContentProvider(JavaSearchResultPage page) {
 		super(page);
 	}
 	@Override
 	public Object[] getElements(Object inputElement) {
+		fElements.clear();
 		if (inputElement instanceof AbstractTextSearchResult) {
-			Set<Object> filteredElements= new HashSet<>();
+			// the elements of a search result are distinct
+			List<Object> filteredElements= new ArrayList<>();
 			Object[] rawElements= ((AbstractTextSearchResult)inputElement).getElements();
 			int limit= getPage().getElementLimit().intValue();
 			for (int i= 0; i < rawElements.length; i++) {
@@ -37,6 +51,7 @@ public class JavaSearchTableContentProvider extends JavaSearchContentProvider {
 					}
 				}
 			}
+			fElements.addAll(filteredElements);
 			return filteredElements.toArray();
 		}
 		return EMPTY_ARR;
@@ -55,7 +70,7 @@ public class JavaSearchTableContentProvider extends JavaSearchContentProvider {
 		Set<Object> removed= new HashSet<>();
 		for (int i= 0; i < updatedElements.length; i++) {
 			if (getPage().getDisplayedMatchCount(updatedElements[i]) > 0) {
-				if (viewer.testFindItem(updatedElements[i]) != null)
+				if (fElements.contains(updatedElements[i]))
 					updated.add(updatedElements[i]);
 				else {
 					if (addLimit > 0) {
@@ -63,10 +78,12 @@ public class JavaSearchTableContentProvider extends JavaSearchContentProvider {
 						addLimit--;
 					}
 				}
-			} else {
+			} else if (fElements.contains(updatedElements[i])) {
 				removed.add(updatedElements[i]);
 			}
 		}
+		fElements.addAll(added);
+		fElements.removeAll(removed);
 
 		viewer.add(added.toArray());
 		viewer.update(updated.toArray(), new String[] { SearchLabelProvider.PROPERTY_MATCH_COUNT });
@@ -86,6 +103,12 @@ public class JavaSearchTableContentProvider extends JavaSearchContentProvider {
 		return Integer.MAX_VALUE;
 	}
 
+	@Override
+	protected void initialize(AbstractTextSearchResult result) {
+		super.initialize(result);
+		fElements.clear();
+	}
+
 	@Override
 	public void clear() {
 		getPage().getViewer().refresh();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,9 +12,12 @@
 
 package org.eclipse.jdt.internal.ui.search;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -34,8 +37,26 @@ import org.eclipse.jdt.core.IType;
 
 import org.eclipse.jdt.ui.StandardJavaElementContentProvider;
 
+/**
+ * Tree content provider for Java search results, grouping the matched elements by type, file,
+ * package or project.
+ * <p>
+ * The tree is built lazily, when the viewer first asks for elements, and the children of a node
+ * are only materialized when the viewer asks for them. Until then, the node keeps a flat list of
+ * the matched elements below it. Collapsed subtrees of results with many thousands of elements
+ * thus cost no parent/children sets.
+ * </p>
+ */
 public class LevelTreeContentProvider extends JavaSearchContentProvider implements ITreeContentProvider {
+	/**
+	 * The children of the nodes whose children have been materialized, or <code>null</code> if
+	 * the tree has not been built yet.
+	 */
 	private Map<Object, Set<Object>> fChildrenMap;
+	/**
+	 * The matched elements below each node whose children have not been materialized yet.
+	 */
+	private Map<Object, List<Object>> fPendingMap;
 	private StandardJavaElementContentProvider fContentProvider;
 
 	public static final int LEVEL_TYPE= 1;
@@ -126,39 +147,144 @@ public class LevelTreeContentProvider extends JavaSearchContentProvider implemen
 	@Override
 	protected synchronized void initialize(AbstractTextSearchResult result) {
 		super.initialize(result);
-		fChildrenMap= new HashMap<>();
-		if (result != null) {
-			Object[] elements= result.getElements();
-			for (int i= 0; i < elements.length; i++) {
-				if (getPage().getDisplayedMatchCount(elements[i]) > 0) {
-					insert(null, null, elements[i]);
+		fChildrenMap= null;
+		fPendingMap= null;
+	}
+
+	private void ensureBuilt() {
+		if (fChildrenMap == null) {
+			fChildrenMap= new HashMap<>();
+			fPendingMap= new HashMap<>();
+			AbstractTextSearchResult result= getSearchResult();
+			if (result != null) {
+				Object[] elements= result.getElements();
+				List<Object> matched= new ArrayList<>();
+				for (int i= 0; i < elements.length; i++) {
+					if (getPage().getDisplayedMatchCount(elements[i]) > 0) {
+						matched.add(elements[i]);
+					}
 				}
+				if (!matched.isEmpty())
+					fPendingMap.put(result, matched);
 			}
 		}
 	}
 
-	protected void insert(Map<Object, Set<Object>> toAdd, Set<Object> toUpdate, Object child) {
-		Object parent= getParent(child);
-		while (parent != null) {
-			if (insertChild(parent, child)) {
-				if (toAdd != null)
-					insertInto(parent, child, toAdd);
-			} else {
-				if (toUpdate != null)
-					toUpdate.add(parent);
-				return;
+	/**
+	 * Materializes the children of the ancestors of the given node, so that the node itself is
+	 * known if it is in the tree.
+	 *
+	 * @param node the node
+	 */
+	private void materializeAncestors(Object node) {
+		ensureBuilt();
+		Object ancestor= getSearchResult();
+		if (node == ancestor)
+			return;
+		List<Object> path= getPath(node);
+		for (int i= 0; i < path.size(); i++) {
+			materialize(ancestor);
+			ancestor= path.get(i);
+		}
+	}
+
+	/**
+	 * Materializes the children of the given node from the node's pending elements, if this has
+	 * not been done yet.
+	 *
+	 * @param parent the node
+	 */
+	private void materialize(Object parent) {
+		List<Object> pending= fPendingMap.remove(parent);
+		if (pending != null) {
+			Set<Object> children= new HashSet<>();
+			fChildrenMap.put(parent, children);
+			for (Iterator<Object> iter= pending.iterator(); iter.hasNext();) {
+				Object element= iter.next();
+				Object child= getChildOnPath(parent, element);
+				if (child != null) {
+					children.add(child);
+					if (child != element)
+						addPending(child, element);
+				}
 			}
+		}
+	}
+
+	/**
+	 * Returns the child of the given node that is on the path from the node to the given element.
+	 *
+	 * @param ancestor a node of the tree or the search result
+	 * @param element a descendant of <code>ancestor</code>
+	 * @return the child of <code>ancestor</code> that is or contains <code>element</code>, or
+	 *         <code>null</code> if <code>element</code> is not below <code>ancestor</code>
+	 */
+	private Object getChildOnPath(Object ancestor, Object element) {
+		Object child= element;
+		Object parent= getParent(child);
+		while (parent != null && !parent.equals(ancestor)) {
 			child= parent;
 			parent= getParent(child);
 		}
-		if (insertChild(getSearchResult(), child)) {
-			if (toAdd != null)
-				insertInto(getSearchResult(), child, toAdd);
+		if (parent == null && ancestor != getSearchResult())
+			return null;
+		return child;
+	}
+
+	private void addPending(Object parent, Object element) {
+		List<Object> pending= fPendingMap.get(parent);
+		if (pending == null) {
+			pending= new ArrayList<>();
+			fPendingMap.put(parent, pending);
 		}
+		pending.add(element);
 	}
 
-	private boolean insertChild(Object parent, Object child) {
-		return insertInto(parent, child, fChildrenMap);
+	/**
+	 * Returns the nodes from the top level of the tree down to the given element.
+	 *
+	 * @param element the element
+	 * @return the path to the element, ending with the element itself
+	 */
+	private List<Object> getPath(Object element) {
+		List<Object> path= new ArrayList<>();
+		for (Object node= element; node != null; node= getParent(node)) {
+			path.add(0, node);
+		}
+		return path;
+	}
+
+	protected void insert(Map<Object, Set<Object>> toAdd, Set<Object> toUpdate, Object child) {
+		ensureBuilt();
+		List<Object> path= getPath(child);
+		Object parent= getSearchResult();
+		for (int i= 0; i < path.size(); i++) {
+			Object node= path.get(i);
+			List<Object> pending= fPendingMap.get(parent);
+			if (pending != null) {
+				// the children of the parent have not been materialized yet
+				pending.add(child);
+				if (toUpdate != null && parent != getSearchResult())
+					toUpdate.add(parent);
+				return;
+			}
+			Set<Object> children= fChildrenMap.get(parent);
+			if (children == null) {
+				children= new HashSet<>();
+				fChildrenMap.put(parent, children);
+			}
+			if (children.add(node)) {
+				if (toAdd != null)
+					insertInto(parent, node, toAdd);
+				if (node != child)
+					addPending(node, child);
+				return;
+			}
+			parent= node;
+		}
+		// the element was already in the tree, its label needs an update
+		if (toUpdate != null && path.size() > 1)
+			toUpdate.add(path.get(path.size() - 2));
 	}
 
 	private boolean insertInto(Object parent, Object child, Map<Object, Set<Object>> map) {
@@ -173,16 +299,42 @@ public class LevelTreeContentProvider extends JavaSearchContentProvider implemen
 	protected void remove(Set<Object> toRemove, Set<Object> toUpdate, Object element) {
 		// precondition here:  fResult.getMatchCount(child) <= 0
 
-		if (hasChildren(element)) {
+		ensureBuilt();
+		List<Object> path= getPath(element);
+		Object parent= getSearchResult();
+		for (int i= 0; i < path.size(); i++) {
+			Object node= path.get(i);
+			List<Object> pending= fPendingMap.get(parent);
+			if (pending != null) {
+				// the element is only known as a pending element of the parent
+				if (pending.removeAll(Collections.singleton(element))) {
+					if (pending.isEmpty())
+						fPendingMap.remove(parent);
+					if (parent != getSearchResult())
+						removeNode(toRemove, toUpdate, parent);
+				}
+				return;
+			}
+			Set<Object> children= fChildrenMap.get(parent);
+			if (children == null || !children.contains(node))
+				return;
+			parent= node;
+		}
+		removeNode(toRemove, toUpdate, element);
+	}
+
+	private void removeNode(Set<Object> toRemove, Set<Object> toUpdate, Object element) {
+		if (hasKnownChildren(element)) {
 			if (toUpdate != null)
 				toUpdate.add(element);
 		} else {
 			if (getPage().getDisplayedMatchCount(element) == 0) {
 				fChildrenMap.remove(element);
+				fPendingMap.remove(element);
 				Object parent= getParent(element);
 				if (parent != null) {
 					if (removeFromSiblings(element, parent)) {
-						remove(toRemove, toUpdate, parent);
+						removeNode(toRemove, toUpdate, parent);
 					}
 				} else {
 					if (removeFromSiblings(element, getSearchResult())) {
@@ -215,7 +367,9 @@ public class LevelTreeContentProvider extends JavaSearchContentProvider implemen
 	}
 
 	@Override
-	public Object[] getChildren(Object parentElement) {
+	public synchronized Object[] getChildren(Object parentElement) {
+		materializeAncestors(parentElement);
+		materialize(parentElement);
 		Set<Object> children= fChildrenMap.get(parentElement);
 		if (children == null)
 			return EMPTY_ARR;
@@ -233,15 +387,27 @@ public class LevelTreeContentProvider extends JavaSearchContentProvider implemen
 	}
 
 	@Override
-	public boolean hasChildren(Object element) {
+	public synchronized boolean hasChildren(Object element) {
+		materializeAncestors(element);
+		return hasKnownChildren(element);
+	}
+
+	private boolean hasKnownChildren(Object element) {
 		Set<Object> children= fChildrenMap.get(element);
-		return children != null && !children.isEmpty();
+		if (children != null && !children.isEmpty())
+			return true;
+		List<Object> pending= fPendingMap.get(element);
+		return pending != null && !pending.isEmpty();
 	}
 
 	@Override
 	public synchronized void elementsChanged(Object[] updatedElements) {
 		if (getSearchResult() == null)
 			return;
+		if (fChildrenMap == null) {
+			// nothing has been shown yet, the map will reflect the changes once it is built
+			return;
+		}
 
 		AbstractTreeViewer viewer= (AbstractTreeViewer) getPage().getViewer();
 
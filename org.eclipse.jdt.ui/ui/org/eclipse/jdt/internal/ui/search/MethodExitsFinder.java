@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -47,6 +47,7 @@ import org.eclipse.jdt.internal.corext.dom.Bindings;
 import org.eclipse.jdt.internal.corext.dom.LocalVariableIndex;
 import org.eclipse.jdt.internal.corext.refactoring.code.flow.FlowContext;
 import org.eclipse.jdt.internal.corext.refactoring.code.flow.FlowInfo;
+import org.eclipse.jdt.internal.corext.refactoring.code.flow.FlowInfoCache;
 import org.eclipse.jdt.internal.corext.refactoring.code.flow.InOutFlowAnalyzer;
 import org.eclipse.jdt.internal.corext.util.Messages;
 
@@ -137,7 +138,7 @@ public class MethodExitsFinder extends ASTVisitor implements IOccurrencesFinder
 				FlowContext flowContext= new FlowContext(0, maxVariableId + 1);
 				flowContext.setConsiderAccessMode(false);
 				flowContext.setComputeMode(FlowContext.ARGUMENTS);
-				InOutFlowAnalyzer flowAnalyzer= new InOutFlowAnalyzer(flowContext);
+				InOutFlowAnalyzer flowAnalyzer= new InOutFlowAnalyzer(flowContext, FlowInfoCache.getCache(fMethodDeclaration));
 				FlowInfo info= flowAnalyzer.perform(new ASTNode[] {last});
 				if (!info.isNoReturn() && !isVoid) {
 					if (!info.isPartialReturn())
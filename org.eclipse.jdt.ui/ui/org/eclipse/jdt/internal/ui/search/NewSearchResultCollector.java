@@ -10,9 +10,13 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.search;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.core.runtime.CoreException;
 
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
+import org.eclipse.search.ui.text.Match;
 
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.search.FieldDeclarationMatch;
@@ -25,13 +29,25 @@ import org.eclipse.jdt.core.search.SearchParticipant;
 import org.eclipse.jdt.core.search.SearchRequestor;
 
 public class NewSearchResultCollector extends SearchRequestor {
+
+	/**
+	 * Matches are added to the search result in batches, so that listeners (e.g. the result
+	 * page) are notified once per batch instead of once per match.
+	 */
+	private static final int BATCH_SIZE= 1000;
+	private static final long BATCH_DELAY= 200;
+
 	private AbstractTextSearchResult fSearch;
 	private boolean fIgnorePotentials;
+	private final List<Match> fPendingMatches;
+	private long fLastFlush;
 
 	public NewSearchResultCollector(AbstractTextSearchResult search, boolean ignorePotentials) {
 		super();
 		fSearch= search;
 		fIgnorePotentials= ignorePotentials;
+		fPendingMatches= new ArrayList<>();
+		fLastFlush= System.currentTimeMillis();
 	}
 
 	@Override
@@ -60,16 +76,28 @@ public class NewSearchResultCollector extends SearchRequestor {
 				MethodReferenceMatch methodRef= (MethodReferenceMatch) match;
 				isSuperInvocation= methodRef.isSuperInvocation();
 			}
-			fSearch.addMatch(new JavaElementMatch(enclosingElement, match.getRule(), match.getOffset(), match.getLength(), match.getAccuracy(), isReadAccess, isWriteAccess, match.isInsideDocComment(), isSuperInvocation));
+			fPendingMatches.add(new JavaElementMatch(enclosingElement, match.getRule(), match.getOffset(), match.getLength(), match.getAccuracy(), isReadAccess, isWriteAccess, match.isInsideDocComment(), isSuperInvocation));
+			if (fPendingMatches.size() >= BATCH_SIZE || System.currentTimeMillis() - fLastFlush >= BATCH_DELAY)
+				flushMatches();
+		}
+	}
+
+	private void flushMatches() {
+		if (!fPendingMatches.isEmpty()) {
+			fSearch.addMatches(fPendingMatches.toArray(new Match[fPendingMatches.size()]));
+			fPendingMatches.clear();
 		}
+		fLastFlush= System.currentTimeMillis();
 	}
 
 	@Override
 	public void beginReporting() {
+		fLastFlush= System.currentTimeMillis();
 	}
 
 	@Override
 	public void endReporting() {
+		flushMatches();
 	}
 
 	@Override
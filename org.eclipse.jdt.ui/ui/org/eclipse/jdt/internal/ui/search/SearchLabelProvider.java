@@ -71,6 +71,8 @@ public abstract class SearchLabelProvider extends AppearanceAwareLabelProvider {
 	public SearchLabelProvider(JavaSearchResultPage page) {
 		super(DEFAULT_SEARCH_TEXTFLAGS, DEFAULT_SEARCH_IMAGEFLAGS);
 		addLabelDecorator(new ProblemsLabelDecorator(null));
+		// search results can contain many thousand elements, don't resolve them in the UI thread
+		setDeferredLabelComputation(true);
 
 		fPage= page;
 		fLabelProviderMap= new HashMap<>(5);
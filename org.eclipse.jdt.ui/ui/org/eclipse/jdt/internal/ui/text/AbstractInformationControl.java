@@ -473,6 +473,8 @@ public abstract class AbstractInformationControl extends PopupDialog implements
 	private void gotoSelectedElement() {
 		Object selectedElement= getSelectedElement();
 		if (selectedElement != null) {
+			if (handleElementOpened(selectedElement))
+				return;
 			try {
 				dispose();
 				IEditorPart part= EditorUtility.openInEditor(selectedElement, true);
@@ -484,6 +486,18 @@ public abstract class AbstractInformationControl extends PopupDialog implements
 		}
 	}
 
+	/**
+	 * Called before the selected element is opened in an editor. Subclasses can handle
+	 * elements that do not have an editor, the control then stays open.
+	 *
+	 * @param element the selected element
+	 * @return <code>true</code> if the element has been handled
+	 * @since 3.12
+	 */
+	protected boolean handleElementOpened(Object element) {
+		return false;
+	}
+
 	/**
 	 * Selects the first element in the tree which
 	 * matches the current filter pattern.
@@ -18,6 +18,8 @@ import org.eclipse.jface.text.reconciler.DirtyRegion;
 import org.eclipse.jface.text.reconciler.IReconcilingStrategy;
 import org.eclipse.jface.text.reconciler.IReconcilingStrategyExtension;
 
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
 /**
  * A reconciling strategy consisting of a sequence of internal reconciling strategies.
  * By default, all requests are passed on to the contained strategies.
@@ -29,6 +31,12 @@ public class CompositeReconcilingStrategy  implements IReconcilingStrategy, IRec
 	/** The list of internal reconciling strategies. */
 	private IReconcilingStrategy[] fStrategies;
 
+	/**
+	 * The progress monitor passed to the strategies, may be <code>null</code>.
+	 * @since 3.12
+	 */
+	private IProgressMonitor fProgressMonitor;
+
 	/**
 	 * Creates a new, empty composite reconciling strategy.
 	 */
@@ -73,8 +81,12 @@ public class CompositeReconcilingStrategy  implements IReconcilingStrategy, IRec
 		if (fStrategies == null)
 			return;
 
-		for (int i= 0; i < fStrategies.length; i++)
+		ReconcileStatistics statistics= JavaPlugin.getDefault().getReconcileStatistics();
+		for (int i= 0; i < fStrategies.length && !isCanceled(); i++) {
+			long start= ReconcileStatistics.now();
 			fStrategies[i].reconcile(dirtyRegion, subRegion);
+			statistics.record(fStrategies[i].getClass().getName(), start);
+		}
 	}
 
 	/*
@@ -85,8 +97,12 @@ public class CompositeReconcilingStrategy  implements IReconcilingStrategy, IRec
 		if (fStrategies == null)
 			return;
 
-		for (int i= 0; i < fStrategies.length; i++)
+		ReconcileStatistics statistics= JavaPlugin.getDefault().getReconcileStatistics();
+		for (int i= 0; i < fStrategies.length && !isCanceled(); i++) {
+			long start= ReconcileStatistics.now();
 			fStrategies[i].reconcile(partition);
+			statistics.record(fStrategies[i].getClass().getName(), start);
+		}
 	}
 
 	/*
@@ -94,6 +110,7 @@ public class CompositeReconcilingStrategy  implements IReconcilingStrategy, IRec
 	 */
 	@Override
 	public void setProgressMonitor(IProgressMonitor monitor) {
+		fProgressMonitor= monitor;
 		if (fStrategies == null)
 			return;
 
@@ -113,11 +130,25 @@ public class CompositeReconcilingStrategy  implements IReconcilingStrategy, IRec
 		if (fStrategies == null)
 			return;
 
-		for (int i=0; i < fStrategies.length; i++) {
+		ReconcileStatistics statistics= JavaPlugin.getDefault().getReconcileStatistics();
+		for (int i=0; i < fStrategies.length && !isCanceled(); i++) {
 			if (fStrategies[i] instanceof IReconcilingStrategyExtension) {
 				IReconcilingStrategyExtension extension= (IReconcilingStrategyExtension) fStrategies[i];
+				long start= ReconcileStatistics.now();
 				extension.initialReconcile();
+				statistics.record(fStrategies[i].getClass().getName(), start);
 			}
 		}
 	}
+
+	/**
+	 * Tells whether the current reconcile has been canceled, in which case the remaining
+	 * strategies are not run.
+	 *
+	 * @return <code>true</code> if the progress monitor has been canceled
+	 * @since 3.12
+	 */
+	protected boolean isCanceled() {
+		return fProgressMonitor != null && fProgressMonitor.isCanceled();
+	}
 }
@@ -10,6 +10,11 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.text;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.ProgressMonitorWrapper;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.reconciler.DirtyRegion;
 import org.eclipse.jface.text.reconciler.IReconcilingStrategy;
@@ -33,9 +38,43 @@ import org.eclipse.jdt.internal.ui.text.spelling.JavaSpellingReconcileStrategy;
  */
 public class JavaCompositeReconcilingStrategy  extends CompositeReconcilingStrategy {
 
+	/**
+	 * Progress monitor that is also canceled when the document has been modified since the
+	 * current reconcile started, so that the strategies and the reconciling listeners stop working
+	 * on a stale document as soon as possible.
+	 *
+	 * @since 3.12
+	 */
+	private class StaleDocumentMonitor extends ProgressMonitorWrapper {
+
+		StaleDocumentMonitor(IProgressMonitor monitor) {
+			super(monitor);
+		}
+
+		@Override
+		public boolean isCanceled() {
+			if (super.isCanceled())
+				return true;
+			long stamp= fModificationStamp;
+			return stamp != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP && stamp != getModificationStamp();
+		}
+	}
+
 	private ITextEditor fEditor;
 	private JavaReconcilingStrategy fJavaStrategy;
 
+	/**
+	 * The reconciled document.
+	 * @since 3.12
+	 */
+	private IDocument fDocument;
+
+	/**
+	 * The modification stamp of the document when the current reconcile started.
+	 * @since 3.12
+	 */
+	private volatile long fModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+
 	/**
 	 * Creates a new Java reconciling strategy.
 	 *
@@ -52,6 +91,30 @@ public class JavaCompositeReconcilingStrategy  extends CompositeReconcilingStrat
 		});
 	}
 
+	/*
+	 * @see org.eclipse.jdt.internal.ui.text.CompositeReconcilingStrategy#setDocument(org.eclipse.jface.text.IDocument)
+	 */
+	@Override
+	public void setDocument(IDocument document) {
+		fDocument= document;
+		super.setDocument(document);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.internal.ui.text.CompositeReconcilingStrategy#setProgressMonitor(org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	@Override
+	public void setProgressMonitor(IProgressMonitor monitor) {
+		super.setProgressMonitor(monitor != null ? new StaleDocumentMonitor(monitor) : null);
+	}
+
+	private long getModificationStamp() {
+		IDocument document= fDocument;
+		if (document instanceof IDocumentExtension4)
+			return ((IDocumentExtension4) document).getModificationStamp();
+		return IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+	}
+
 	/**
 	 * Returns the problem requestor for the editor's input element.
 	 *
@@ -74,6 +137,9 @@ public class JavaCompositeReconcilingStrategy  extends CompositeReconcilingStrat
 	 */
 	@Override
 	public void reconcile(DirtyRegion dirtyRegion, IRegion subRegion) {
+		ReconcileStatistics statistics= JavaPlugin.getDefault().getReconcileStatistics();
+		long start= ReconcileStatistics.now();
+		fModificationStamp= getModificationStamp();
 		try {
 			IProblemRequestorExtension e= getProblemRequestorExtension();
 			if (e != null) {
@@ -87,7 +153,9 @@ public class JavaCompositeReconcilingStrategy  extends CompositeReconcilingStrat
 				super.reconcile(dirtyRegion, subRegion);
 			}
 		} finally {
-			reconciled();
+			reconciled(statistics);
+			statistics.record(ReconcileStatistics.STAGE_RECONCILE, start);
+			fModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 		}
 	}
 
@@ -96,6 +164,9 @@ public class JavaCompositeReconcilingStrategy  extends CompositeReconcilingStrat
 	 */
 	@Override
 	public void reconcile(IRegion partition) {
+		ReconcileStatistics statistics= JavaPlugin.getDefault().getReconcileStatistics();
+		long start= ReconcileStatistics.now();
+		fModificationStamp= getModificationStamp();
 		try {
 			IProblemRequestorExtension e= getProblemRequestorExtension();
 			if (e != null) {
@@ -109,7 +180,9 @@ public class JavaCompositeReconcilingStrategy  extends CompositeReconcilingStrat
 				super.reconcile(partition);
 			}
 		} finally {
-			reconciled();
+			reconciled(statistics);
+			statistics.record(ReconcileStatistics.STAGE_RECONCILE, start);
+			fModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 		}
 	}
 
@@ -128,6 +201,9 @@ public class JavaCompositeReconcilingStrategy  extends CompositeReconcilingStrat
 	 */
 	@Override
 	public void initialReconcile() {
+		ReconcileStatistics statistics= JavaPlugin.getDefault().getReconcileStatistics();
+		long start= ReconcileStatistics.now();
+		fModificationStamp= getModificationStamp();
 		try {
 			IProblemRequestorExtension e= getProblemRequestorExtension();
 			if (e != null) {
@@ -141,7 +217,9 @@ public class JavaCompositeReconcilingStrategy  extends CompositeReconcilingStrat
 				super.initialReconcile();
 			}
 		} finally {
-			reconciled();
+			reconciled(statistics);
+			statistics.record(ReconcileStatistics.STAGE_RECONCILE, start);
+			fModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 		}
 	}
 
@@ -158,9 +236,12 @@ public class JavaCompositeReconcilingStrategy  extends CompositeReconcilingStrat
 	/**
 	 * Called when reconcile has finished.
 	 *
+	 * @param statistics the statistics to record the notification of the listeners in
 	 * @since 3.4
 	 */
-	private void reconciled() {
+	private void reconciled(ReconcileStatistics statistics) {
+		long start= ReconcileStatistics.now();
 		fJavaStrategy.reconciled();
+		statistics.record(ReconcileStatistics.STAGE_NOTIFY_LISTENERS, start);
 	}
 }
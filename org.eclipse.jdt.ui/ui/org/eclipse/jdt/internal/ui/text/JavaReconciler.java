@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -33,6 +33,7 @@ import org.eclipse.jface.util.PropertyChangeEvent;
 
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.reconciler.DirtyRegion;
 import org.eclipse.jface.text.reconciler.MonoReconciler;
 
 import org.eclipse.ui.IEditorInput;
@@ -287,6 +288,26 @@ public class JavaReconciler extends MonoReconciler {
 	 */
 	private ITypeRoot fReconciledElement;
 
+	/**
+	 * The maximum delay in milliseconds when the delay is adapted to the reconcile cost.
+	 * @since 3.12
+	 */
+	private static final int MAX_DELAY= 2000;
+
+	/**
+	 * The delay set by the client, in milliseconds. The initial value is the default delay of
+	 * {@link org.eclipse.jface.text.reconciler.AbstractReconciler}.
+	 * @since 3.12
+	 */
+	private int fBaseDelay= 500;
+
+	/**
+	 * The moving average of the duration of the completed reconciles in milliseconds, or
+	 * <code>-1</code> if no reconcile has completed yet.
+	 * @since 3.12
+	 */
+	private long fAverageCost= -1;
+
 	/**
 	 * Creates a new reconciler.
 	 *
@@ -411,6 +432,63 @@ public class JavaReconciler extends MonoReconciler {
 		strategy.notifyListeners(true);
 	}
 
+	/*
+	 * @see org.eclipse.jface.text.reconciler.AbstractReconciler#setDelay(int)
+	 * @since 3.12
+	 */
+	@Override
+	public synchronized void setDelay(int delay) {
+		fBaseDelay= delay;
+		super.setDelay(delay);
+	}
+
+	/*
+	 * @see org.eclipse.jface.text.reconciler.MonoReconciler#reconcilerDocumentChanged(org.eclipse.jface.text.IDocument)
+	 * @since 3.12
+	 */
+	@Override
+	protected void reconcilerDocumentChanged(IDocument document) {
+		// the cost of reconciling the previous input says nothing about the new one
+		resetDelay();
+		super.reconcilerDocumentChanged(document);
+	}
+
+	/*
+	 * @see org.eclipse.jface.text.reconciler.MonoReconciler#process(org.eclipse.jface.text.reconciler.DirtyRegion)
+	 * @since 3.12
+	 */
+	@Override
+	protected void process(DirtyRegion dirtyRegion) {
+		long start= System.currentTimeMillis();
+		super.process(dirtyRegion);
+		if (!getProgressMonitor().isCanceled())
+			adaptDelay(System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Adapts the delay after the last change of the document to the cost of reconciling it. If
+	 * reconciling the current file is expensive, the reconciler waits for a longer pause in typing,
+	 * so that fewer reconciles are started that are canceled by the next change.
+	 *
+	 * @param cost the duration of the last completed reconcile in milliseconds
+	 * @since 3.12
+	 */
+	private synchronized void adaptDelay(long cost) {
+		fAverageCost= fAverageCost < 0 ? cost : (3 * fAverageCost + cost) / 4;
+		int delay= (int) Math.min(MAX_DELAY, Math.max(fBaseDelay, 2 * fAverageCost));
+		super.setDelay(delay);
+	}
+
+	/**
+	 * Forgets the cost of the previous reconciles and restores the delay set by the client.
+	 *
+	 * @since 3.12
+	 */
+	private synchronized void resetDelay() {
+		fAverageCost= -1;
+		super.setDelay(fBaseDelay);
+	}
+
 	/*
 	 * @see org.eclipse.jface.text.reconciler.MonoReconciler#initialProcess()
 	 */
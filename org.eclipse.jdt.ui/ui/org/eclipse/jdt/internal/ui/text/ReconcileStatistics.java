@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * Records the latencies of the stages of the Java reconciler: the reconciling strategies, the
+ * notification of the {@link org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingListener}s and
+ * each single listener. The latest samples of each stage are kept in a ring buffer, so that
+ * recording is cheap and the memory is bounded.
+ * <p>
+ * Samples are only recorded while the <code>org.eclipse.jdt.ui/debug/ReconcileStatistics</code>
+ * option is enabled, otherwise {@link #record(String, long)} returns without taking the lock. The
+ * option is checked on each call, so it can be switched on and off while the workbench runs. In
+ * debug mode, the percentiles of each stage can be queried with
+ * {@link #getPercentile(String, double)}, a summary is printed periodically and the samples are
+ * written to <code>reconcile-trace.csv</code> in the state location of the plug-in when it is
+ * stopped.
+ * </p>
+ *
+ * @since 3.12
+ */
+public class ReconcileStatistics {
+
+	/**
+	 * The stage containing a whole reconcile, including the notification of the listeners.
+	 */
+	public static final String STAGE_RECONCILE= "Reconcile"; //$NON-NLS-1$
+
+	/**
+	 * The stage containing the notification of all reconciling listeners.
+	 */
+	public static final String STAGE_NOTIFY_LISTENERS= "NotifyListeners"; //$NON-NLS-1$
+
+	/**
+	 * The stage containing the notification of the AST provider.
+	 */
+	public static final String STAGE_AST_PROVIDER= "ASTProvider"; //$NON-NLS-1$
+
+	private static final String TRACE_FILE_NAME= "reconcile-trace.csv"; //$NON-NLS-1$
+
+	/** Number of samples kept per stage */
+	private static final int CAPACITY= 512;
+
+	/** Number of reconciles between two summaries printed in debug mode */
+	private static final int SUMMARY_INTERVAL= 100;
+
+	private static final class Stage {
+		final String fName;
+		final long[] fStarts= new long[CAPACITY];
+		final long[] fDurations= new long[CAPACITY];
+		/** total number of samples, the next sample is stored at <code>fCount % CAPACITY</code> */
+		long fCount;
+		long fMax;
+
+		Stage(String name) {
+			fName= name;
+		}
+
+		int size() {
+			return (int) Math.min(fCount, CAPACITY);
+		}
+	}
+
+	/** name -> stage, in the order of the first sample */
+	private final Map<String, Stage> fStages= new LinkedHashMap<>();
+
+	/** <code>null</code> to follow the debug option */
+	private final Boolean fEnabled;
+
+	/**
+	 * Creates statistics that record samples while the debug option is enabled.
+	 */
+	public ReconcileStatistics() {
+		fEnabled= null;
+	}
+
+	/**
+	 * Creates statistics that ignore the debug option.
+	 *
+	 * @param enabled <code>true</code> to record samples
+	 */
+	public ReconcileStatistics(boolean enabled) {
+		fEnabled= Boolean.valueOf(enabled);
+	}
+
+	private boolean isEnabled() {
+		return fEnabled != null ? fEnabled.booleanValue() : JavaPlugin.DEBUG_RECONCILE_STATISTICS;
+	}
+
+	/**
+	 * Returns the current time to pass as start time to {@link #record(String, long)}.
+	 *
+	 * @return the current time in nanoseconds
+	 */
+	public static long now() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Records a sample of a stage that ends now. Does nothing if recording is disabled.
+	 *
+	 * @param stage the name of the stage, e.g. one of the <code>STAGE_*</code> constants or the
+	 *            class name of a reconciling strategy or listener
+	 * @param start the start time of the stage, as returned by {@link #now()}
+	 */
+	public void record(String stage, long start) {
+		if (!isEnabled())
+			return;
+		long duration= System.nanoTime() - start;
+		boolean printSummary;
+		synchronized (this) {
+			Stage s= fStages.get(stage);
+			if (s == null) {
+				s= new Stage(stage);
+				fStages.put(stage, s);
+			}
+			int index= (int) (s.fCount % CAPACITY);
+			s.fStarts[index]= start;
+			s.fDurations[index]= duration;
+			s.fCount++;
+			if (duration > s.fMax)
+				s.fMax= duration;
+			printSummary= JavaPlugin.DEBUG_RECONCILE_STATISTICS && STAGE_RECONCILE.equals(stage) && s.fCount % SUMMARY_INTERVAL == 0;
+		}
+		if (printSummary)
+			System.out.println(getSummary());
+	}
+
+	/**
+	 * @return the names of the stages that have been recorded
+	 */
+	public synchronized String[] getStages() {
+		return fStages.keySet().toArray(new String[fStages.size()]);
+	}
+
+	/**
+	 * Returns the total number of samples recorded for a stage, including the ones that are no
+	 * longer kept.
+	 *
+	 * @param stage the name of the stage
+	 * @return the number of samples
+	 */
+	public synchronized long getCount(String stage) {
+		Stage s= fStages.get(stage);
+		return s != null ? s.fCount : 0;
+	}
+
+	/**
+	 * Returns the latency of a stage that is not exceeded by the given percentage of the kept
+	 * samples.
+	 *
+	 * @param stage the name of the stage
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the latency in nanoseconds or <code>-1</code> if the stage has no samples
+	 */
+	public synchronized long getPercentile(String stage, double percentile) {
+		Stage s= fStages.get(stage);
+		if (s == null || s.fCount == 0)
+			return -1;
+		long[] durations= Arrays.copyOf(s.fDurations, s.size());
+		Arrays.sort(durations);
+		return getPercentile(durations, percentile);
+	}
+
+	private static long getPercentile(long[] sortedDurations, double percentile) {
+		int index= (int) Math.ceil(percentile / 100 * sortedDurations.length) - 1;
+		return sortedDurations[Math.max(0, Math.min(index, sortedDurations.length - 1))];
+	}
+
+	/**
+	 * Returns a table with the number of samples, the 50th, 90th and 99th percentile and the
+	 * maximum latency of each stage, in milliseconds.
+	 *
+	 * @return the summary
+	 */
+	public synchronized String getSummary() {
+		StringWriter stringWriter= new StringWriter();
+		PrintWriter writer= new PrintWriter(stringWriter);
+		writer.println("Reconcile statistics (ms):"); //$NON-NLS-1$
+		writer.println(String.format("%-60s %8s %8s %8s %8s %8s", "stage", "count", "p50", "p90", "p99", "max")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+		for (Stage s : fStages.values()) {
+			long[] durations= Arrays.copyOf(s.fDurations, s.size());
+			Arrays.sort(durations);
+			writer.println(String.format("%-60s %8d %8.2f %8.2f %8.2f %8.2f", s.fName, Long.valueOf(s.fCount), //$NON-NLS-1$
+					toMillis(getPercentile(durations, 50)), toMillis(getPercentile(durations, 90)), toMillis(getPercentile(durations, 99)), toMillis(s.fMax)));
+		}
+		writer.flush();
+		return stringWriter.toString();
+	}
+
+	private static Double toMillis(long nanos) {
+		return Double.valueOf(nanos / 1000000d);
+	}
+
+	/**
+	 * Writes the kept samples of all stages as comma separated values, ordered by start time. Each
+	 * line contains the start time and the duration in nanoseconds and the name of the stage.
+	 *
+	 * @param writer the writer, not closed by this method
+	 * @throws IOException if writing fails
+	 */
+	public void writeTrace(Writer writer) throws IOException {
+		List<long[]> samples= new ArrayList<>();
+		List<String> names= new ArrayList<>();
+		synchronized (this) {
+			int stageIndex= 0;
+			for (Stage s : fStages.values()) {
+				names.add(s.fName);
+				for (int i= 0; i < s.size(); i++) {
+					samples.add(new long[] { s.fStarts[i], s.fDurations[i], stageIndex });
+				}
+				stageIndex++;
+			}
+		}
+		Collections.sort(samples, new Comparator<long[]>() {
+			@Override
+			public int compare(long[] o1, long[] o2) {
+				return Long.compare(o1[0], o2[0]);
+			}
+		});
+		writer.write("start,duration,stage\n"); //$NON-NLS-1$
+		for (long[] sample : samples) {
+			writer.write(sample[0] + "," + sample[1] + "," + names.get((int) sample[2]) + '\n'); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * Discards all samples.
+	 */
+	public synchronized void clear() {
+		fStages.clear();
+	}
+
+	public void dispose() {
+		if (JavaPlugin.DEBUG_RECONCILE_STATISTICS) {
+			File file= JavaPlugin.getDefault().getStateLocation().append(TRACE_FILE_NAME).toFile();
+			try (Writer writer= new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"))) { //$NON-NLS-1$
+				writeTrace(writer);
+				System.out.println("Reconcile trace written to " + file); //$NON-NLS-1$
+			} catch (IOException e) {
+				JavaPlugin.log(e);
+			}
+		}
+		clear();
+	}
+}
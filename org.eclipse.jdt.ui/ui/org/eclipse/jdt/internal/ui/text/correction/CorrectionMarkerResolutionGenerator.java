@@ -12,6 +12,7 @@ package org.eclipse.jdt.internal.ui.text.correction;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
@@ -48,13 +49,13 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaModelMarker;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.compiler.IProblem;
+import org.eclipse.jdt.core.dom.CompilationUnit;
 
 import org.eclipse.jdt.internal.corext.fix.CleanUpRefactoring.MultiFixTarget;
 
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jdt.ui.cleanup.ICleanUp;
 import org.eclipse.jdt.ui.text.java.CompletionProposalComparator;
-import org.eclipse.jdt.ui.text.java.IInvocationContext;
 import org.eclipse.jdt.ui.text.java.IJavaCompletionProposal;
 import org.eclipse.jdt.ui.text.java.IProblemLocation;
 
@@ -133,7 +134,12 @@ public class CorrectionMarkerResolutionGenerator implements IMarkerResolutionGen
 				monitor= new NullProgressMonitor();
 
 			try {
+				long start= System.currentTimeMillis();
 				MultiFixTarget[] problems= getCleanUpTargets(markers);
+				if (JavaPlugin.DEBUG_MULTI_FIX) {
+					System.out.println("Multi fix: collected " + markers.length + " markers in " + problems.length + " compilation units: " //$NON-NLS-1$ //$NON-NLS-2$
+							+ (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$
+				}
 
 				((FixCorrectionProposal)fProposal).resolve(problems, monitor);
 
@@ -150,36 +156,22 @@ public class CorrectionMarkerResolutionGenerator implements IMarkerResolutionGen
 		}
 
 		private MultiFixTarget[] getCleanUpTargets(IMarker[] markers) {
-			Hashtable<ICompilationUnit, List<IProblemLocation>> problemLocations= new Hashtable<>();
-			for (int i= 0; i < markers.length; i++) {
-				IMarker marker= markers[i];
-				ICompilationUnit cu= getCompilationUnit(marker);
-
-				if (cu != null) {
-					IEditorInput input= EditorUtility.getEditorInput(cu);
-					IProblemLocation location= findProblemLocation(input, marker);
-					if (location != null) {
-						List<IProblemLocation> l= problemLocations.get(cu.getPrimary());
-						if (l == null) {
-							l= new ArrayList<>();
-							problemLocations.put(cu.getPrimary(), l);
-						}
-						l.add(location);
+			// group by file, so that each compilation unit and editor input is looked up only once
+			Hashtable<IFile, List<IMarker>> fileMarkers= getMarkersForFiles(markers, true);
+
+			List<MultiFixTarget> result= new ArrayList<>(fileMarkers.size());
+			for (Iterator<Entry<IFile, List<IMarker>>> iterator= fileMarkers.entrySet().iterator(); iterator.hasNext();) {
+				Entry<IFile, List<IMarker>> entry= iterator.next();
+				IJavaElement element= JavaCore.create(entry.getKey());
+				if (element instanceof ICompilationUnit) {
+					ICompilationUnit cu= (ICompilationUnit) element;
+					List<IProblemLocation> locations= findProblemLocations(EditorUtility.getEditorInput(cu), cu, entry.getValue());
+					if (!locations.isEmpty()) {
+						result.add(new MultiFixTarget(cu.getPrimary(), locations.toArray(new IProblemLocation[locations.size()])));
 					}
 				}
 			}
-
-			MultiFixTarget[] result= new MultiFixTarget[problemLocations.size()];
-			int i= 0;
-			for (Iterator<Map.Entry<ICompilationUnit, List<IProblemLocation>>> iterator= problemLocations.entrySet().iterator(); iterator.hasNext();) {
-				Map.Entry<ICompilationUnit, List<IProblemLocation>> entry= iterator.next();
-				ICompilationUnit cu= entry.getKey();
-				List<IProblemLocation> locations= entry.getValue();
-				result[i]= new MultiFixTarget(cu, locations.toArray(new IProblemLocation[locations.size()]));
-				i++;
-			}
-
-			return result;
+			return result.toArray(new MultiFixTarget[result.size()]);
 		}
 
 		@Override
@@ -204,7 +196,7 @@ public class CorrectionMarkerResolutionGenerator implements IMarkerResolutionGen
 
 			IMultiFix multiFix= (IMultiFix) cleanUp;
 
-			final Hashtable<IFile, List<IMarker>> fileMarkerTable= getMarkersForFiles(markers);
+			final Hashtable<IFile, List<IMarker>> fileMarkerTable= getMarkersForFiles(markers, false);
 			if (fileMarkerTable.isEmpty())
 				return NO_MARKERS;
 
@@ -238,9 +230,10 @@ public class CorrectionMarkerResolutionGenerator implements IMarkerResolutionGen
 		/**
 		 * Returns the markers with the same type as fMarker.getType for each IFile.
 		 * @param markers the markers
+		 * @param includeMarker whether fMarker itself is included in the result
 		 * @return mapping files to markers
 		 */
-		private Hashtable<IFile, List<IMarker>> getMarkersForFiles(IMarker[] markers) {
+		private Hashtable<IFile, List<IMarker>> getMarkersForFiles(IMarker[] markers, boolean includeMarker) {
 			final Hashtable<IFile, List<IMarker>> result= new Hashtable<>();
 
 			String markerType;
@@ -253,7 +246,7 @@ public class CorrectionMarkerResolutionGenerator implements IMarkerResolutionGen
 
 			for (int i= 0; i < markers.length; i++) {
 				IMarker marker= markers[i];
-				if (!marker.equals(fMarker)) {
+				if (includeMarker || !marker.equals(fMarker)) {
 					String currMarkerType= null;
 					try {
 						currMarkerType= marker.getType();
@@ -301,7 +294,7 @@ public class CorrectionMarkerResolutionGenerator implements IMarkerResolutionGen
 	private static boolean internalHasResolutions(IMarker marker) {
 		int id= marker.getAttribute(IJavaModelMarker.ID, -1);
 		ICompilationUnit cu= getCompilationUnit(marker);
-		return cu != null && JavaCorrectionProcessor.hasCorrections(cu, id, MarkerUtilities.getMarkerType(marker));
+		return cu != null && JavaPlugin.getDefault().getQuickFixResultCache().hasCorrections(cu, id, MarkerUtilities.getMarkerType(marker));
 	}
 
 	private static IMarkerResolution[] internalGetResolutions(IMarker marker) {
@@ -316,18 +309,31 @@ public class CorrectionMarkerResolutionGenerator implements IMarkerResolutionGen
 				IProblemLocation location= findProblemLocation(input, marker);
 				if (location != null) {
 
-					IInvocationContext context= new AssistContext(cu,  location.getOffset(), location.getLength());
+					AssistContext context= new AssistContext(cu,  location.getOffset(), location.getLength());
+					// share the AST between the markers of compilation units that are not open in an editor
+					QuickFixResultCache cache= JavaPlugin.getDefault().getQuickFixResultCache();
+					CompilationUnit astRoot= cache.getAST(cu, null);
+					if (astRoot != null)
+						context.setASTRoot(astRoot);
 					if (!hasProblem (context.getASTRoot().getProblems(), location))
 						return NO_RESOLUTIONS;
 
-					ArrayList<IJavaCompletionProposal> proposals= new ArrayList<>();
-					JavaCorrectionProcessor.collectCorrections(context, new IProblemLocation[] { location }, proposals);
-					Collections.sort(proposals, new CompletionProposalComparator());
+					IJavaCompletionProposal[] proposals= null;
+					if (astRoot != null)
+						proposals= cache.getProposals(astRoot, location.getOffset(), location.getLength(), location.getProblemId());
+					if (proposals == null) {
+						ArrayList<IJavaCompletionProposal> collected= new ArrayList<>();
+						JavaCorrectionProcessor.collectCorrections(context, new IProblemLocation[] { location }, collected);
+						Collections.sort(collected, new CompletionProposalComparator());
+						proposals= collected.toArray(new IJavaCompletionProposal[collected.size()]);
+						if (astRoot != null)
+							cache.putProposals(astRoot, location.getOffset(), location.getLength(), location.getProblemId(), proposals);
+					}
 
-					int nProposals= proposals.size();
+					int nProposals= proposals.length;
 					IMarkerResolution[] resolutions= new IMarkerResolution[nProposals];
 					for (int i= 0; i < nProposals; i++) {
-						resolutions[i]= new CorrectionMarkerResolution(context.getCompilationUnit(), location.getOffset(), location.getLength(), proposals.get(i), marker);
+						resolutions[i]= new CorrectionMarkerResolution(context.getCompilationUnit(), location.getOffset(), location.getLength(), proposals[i], marker);
 					}
 					return resolutions;
 				}
@@ -378,6 +384,37 @@ public class CorrectionMarkerResolutionGenerator implements IMarkerResolutionGen
 		return null;
 	}
 
+	private static List<IProblemLocation> findProblemLocations(IEditorInput input, ICompilationUnit cu, List<IMarker> markers) {
+		List<IProblemLocation> result= new ArrayList<>(markers.size());
+		IAnnotationModel model= input != null ? JavaPlugin.getDefault().getCompilationUnitDocumentProvider().getAnnotationModel(input) : null;
+		if (model != null) { // open in editor
+			Map<IMarker, IProblemLocation> locations= new HashMap<>();
+			Iterator<Annotation> iter= model.getAnnotationIterator();
+			while (iter.hasNext()) {
+				Annotation curr= iter.next();
+				if (curr instanceof JavaMarkerAnnotation) {
+					JavaMarkerAnnotation annot= (JavaMarkerAnnotation) curr;
+					Position pos= model.getPosition(annot);
+					if (pos != null) {
+						locations.put(annot.getMarker(), new ProblemLocation(pos.getOffset(), pos.getLength(), annot));
+					}
+				}
+			}
+			for (int i= 0, size= markers.size(); i < size; i++) {
+				IProblemLocation location= locations.get(markers.get(i));
+				if (location != null)
+					result.add(location);
+			}
+		} else { // not open in editor
+			for (int i= 0, size= markers.size(); i < size; i++) {
+				IProblemLocation location= createFromMarker(markers.get(i), cu);
+				if (location != null)
+					result.add(location);
+			}
+		}
+		return result;
+	}
+
 	private static IProblemLocation createFromMarker(IMarker marker, ICompilationUnit cu) {
 		try {
 			int id= marker.getAttribute(IJavaModelMarker.ID, -1);
@@ -128,7 +128,7 @@ public class JavaCorrectionProcessor implements org.eclipse.jface.text.quickassi
 			if (problemId != -1) {
 				ICompilationUnit cu= javaAnnotation.getCompilationUnit();
 				if (cu != null) {
-					return hasCorrections(cu, problemId, javaAnnotation.getMarkerType());
+					return JavaPlugin.getDefault().getQuickFixResultCache().hasCorrections(cu, problemId, javaAnnotation.getMarkerType());
 				}
 			}
 		}
@@ -0,0 +1,320 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.correction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarkerDelta;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaModelMarker;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import org.eclipse.jdt.ui.text.java.IJavaCompletionProposal;
+
+/**
+ * Caches quick fix results for problems of compilation units:
+ * <ul>
+ * <li>whether fixes are available for a problem id and marker type, computed in the background
+ * for Java problem markers as they are created</li>
+ * <li>the ASTs used to compute fixes for compilation units that are not open in an editor, so
+ * that the fixes for many markers of a compilation unit are computed on one AST</li>
+ * <li>the fixes computed for a problem location on such an AST</li>
+ * </ul>
+ * Results of a compilation unit are discarded when its content changes. ASTs and fixes are
+ * discarded on any change, as bindings may depend on other compilation units. Compilation
+ * units that are open in an editor use the shared AST of the editor instead.
+ *
+ * @since 3.12
+ */
+public class QuickFixResultCache implements IElementChangedListener, IResourceChangeListener {
+
+	private static final int MAX_ASTS= 5;
+
+	private static final long UPDATE_DELAY= 500;
+
+	private static final class ASTEntry {
+		final CompilationUnit fAST;
+		/** problem location key -> proposals */
+		final Map<String, IJavaCompletionProposal[]> fProposals= new HashMap<>();
+
+		ASTEntry(CompilationUnit ast) {
+			fAST= ast;
+		}
+	}
+
+	private static final class PendingProblem {
+		final IFile fFile;
+		final int fProblemId;
+		final String fMarkerType;
+
+		PendingProblem(IFile file, int problemId, String markerType) {
+			fFile= file;
+			fProblemId= problemId;
+			fMarkerType= markerType;
+		}
+	}
+
+	/** compilation unit -> (marker type and problem id -> has corrections) */
+	private final Map<ICompilationUnit, Map<String, Boolean>> fAvailability= new HashMap<>();
+
+	/** least recently used ASTs, last is most recent */
+	private final LinkedHashMap<ICompilationUnit, ASTEntry> fASTs= new LinkedHashMap<>(MAX_ASTS + 1, 0.75f, true);
+
+	private final List<PendingProblem> fPendingProblems= new ArrayList<>();
+
+	private final Job fUpdateJob;
+
+	public QuickFixResultCache() {
+		fUpdateJob= new Job(CorrectionMessages.QuickFixResultCache_job_name) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				return updateAvailability(monitor);
+			}
+		};
+		fUpdateJob.setSystem(true);
+		fUpdateJob.setPriority(Job.DECORATE);
+
+		JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE);
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+	}
+
+	public void dispose() {
+		JavaCore.removeElementChangedListener(this);
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+		fUpdateJob.cancel();
+		synchronized (this) {
+			fPendingProblems.clear();
+		}
+		clear();
+	}
+
+	/**
+	 * Returns whether corrections are available for the given problem.
+	 *
+	 * @param cu the compilation unit
+	 * @param problemId the id of the problem
+	 * @param markerType the marker type of the problem
+	 * @return <code>true</code> if corrections are available
+	 * @see JavaCorrectionProcessor#hasCorrections(ICompilationUnit, int, String)
+	 */
+	public boolean hasCorrections(ICompilationUnit cu, int problemId, String markerType) {
+		ICompilationUnit primary= cu.getPrimary();
+		String key= markerType + ':' + problemId;
+		synchronized (this) {
+			Map<String, Boolean> available= fAvailability.get(primary);
+			if (available != null) {
+				Boolean result= available.get(key);
+				if (result != null)
+					return result.booleanValue();
+			}
+		}
+		boolean result= JavaCorrectionProcessor.hasCorrections(primary, problemId, markerType);
+		synchronized (this) {
+			Map<String, Boolean> available= fAvailability.get(primary);
+			if (available == null) {
+				available= new HashMap<>();
+				fAvailability.put(primary, available);
+			}
+			available.put(key, Boolean.valueOf(result));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns an AST with bindings to compute corrections on. The AST is shared and must not be
+	 * modified.
+	 *
+	 * @param cu the compilation unit
+	 * @param monitor the progress monitor or <code>null</code>
+	 * @return the AST, or <code>null</code> if the compilation unit is open in an editor and the
+	 *         AST of the editor should be used
+	 */
+	public CompilationUnit getAST(ICompilationUnit cu, IProgressMonitor monitor) {
+		if (cu.isWorkingCopy())
+			return null;
+		synchronized (this) {
+			ASTEntry entry= fASTs.get(cu);
+			if (entry != null)
+				return entry.fAST;
+		}
+		CompilationUnit ast= ASTResolving.createQuickFixAST(cu, monitor);
+		synchronized (this) {
+			ASTEntry entry= fASTs.get(cu);
+			if (entry != null)
+				return entry.fAST; // created concurrently
+			fASTs.put(cu, new ASTEntry(ast));
+			if (fASTs.size() > MAX_ASTS) {
+				fASTs.remove(fASTs.keySet().iterator().next());
+			}
+		}
+		return ast;
+	}
+
+	/**
+	 * Returns the proposals computed on the given AST for a problem location.
+	 *
+	 * @param ast the AST returned by {@link #getAST(ICompilationUnit, IProgressMonitor)}
+	 * @param offset the offset of the problem
+	 * @param length the length of the problem
+	 * @param problemId the id of the problem
+	 * @return the proposals or <code>null</code> if no proposals are cached
+	 */
+	public synchronized IJavaCompletionProposal[] getProposals(CompilationUnit ast, int offset, int length, int problemId) {
+		ASTEntry entry= findEntry(ast);
+		if (entry == null)
+			return null;
+		return entry.fProposals.get(getLocationKey(offset, length, problemId));
+	}
+
+	/**
+	 * Remembers the proposals computed on the given AST for a problem location. Nothing is
+	 * remembered if the AST is not cached anymore.
+	 *
+	 * @param ast the AST returned by {@link #getAST(ICompilationUnit, IProgressMonitor)}
+	 * @param offset the offset of the problem
+	 * @param length the length of the problem
+	 * @param problemId the id of the problem
+	 * @param proposals the computed proposals
+	 */
+	public synchronized void putProposals(CompilationUnit ast, int offset, int length, int problemId, IJavaCompletionProposal[] proposals) {
+		ASTEntry entry= findEntry(ast);
+		if (entry != null) {
+			entry.fProposals.put(getLocationKey(offset, length, problemId), proposals);
+		}
+	}
+
+	private ASTEntry findEntry(CompilationUnit ast) {
+		for (ASTEntry entry : fASTs.values()) {
+			if (entry.fAST == ast)
+				return entry;
+		}
+		return null;
+	}
+
+	private static String getLocationKey(int offset, int length, int problemId) {
+		return String.valueOf(offset) + ':' + length + ':' + problemId;
+	}
+
+	/**
+	 * Discards all cached results.
+	 */
+	public synchronized void clear() {
+		fAvailability.clear();
+		fASTs.clear();
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		List<ICompilationUnit> changed= new ArrayList<>();
+		if (processDelta(event.getDelta(), changed)) {
+			clear();
+		} else if (!changed.isEmpty()) {
+			synchronized (this) {
+				for (ICompilationUnit cu : changed) {
+					fAvailability.remove(cu);
+				}
+				fASTs.clear();
+			}
+		}
+	}
+
+	/*
+	 * Collects the compilation units with changed content, returns true if all results are stale.
+	 */
+	private boolean processDelta(IJavaElementDelta delta, List<ICompilationUnit> changed) {
+		IJavaElement element= delta.getElement();
+		int kind= delta.getKind();
+		int flags= delta.getFlags();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				break;
+			case IJavaElement.JAVA_PROJECT:
+				if (kind != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_CLOSED)) != 0)
+					return true;
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+				if (kind != IJavaElementDelta.CHANGED || (flags & IJavaElementDelta.F_CONTENT) != 0) {
+					changed.add((ICompilationUnit) element);
+				}
+				return false;
+			default:
+				if (kind != IJavaElementDelta.CHANGED)
+					return true;
+				break;
+		}
+		IJavaElementDelta[] children= delta.getAffectedChildren();
+		for (int i= 0; i < children.length; i++) {
+			if (processDelta(children[i], changed))
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		IMarkerDelta[] markerDeltas= event.findMarkerDeltas(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, true);
+		boolean added= false;
+		for (int i= 0; i < markerDeltas.length; i++) {
+			IMarkerDelta markerDelta= markerDeltas[i];
+			IResource resource= markerDelta.getResource();
+			int problemId= markerDelta.getAttribute(IJavaModelMarker.ID, -1);
+			if (markerDelta.getKind() != IResourceDelta.REMOVED && problemId != -1 && resource instanceof IFile) {
+				synchronized (this) {
+					fPendingProblems.add(new PendingProblem((IFile) resource, problemId, markerDelta.getType()));
+				}
+				added= true;
+			}
+		}
+		if (added) {
+			fUpdateJob.schedule(UPDATE_DELAY);
+		}
+	}
+
+	private IStatus updateAvailability(IProgressMonitor monitor) {
+		List<PendingProblem> problems;
+		synchronized (this) {
+			problems= new ArrayList<>(fPendingProblems);
+			fPendingProblems.clear();
+		}
+		for (PendingProblem problem : problems) {
+			if (monitor.isCanceled())
+				return Status.CANCEL_STATUS;
+			if (!problem.fFile.isAccessible())
+				continue;
+			IJavaElement element= JavaCore.create(problem.fFile);
+			if (element instanceof ICompilationUnit) {
+				hasCorrections((ICompilationUnit) element, problem.fProblemId, problem.fMarkerType);
+			}
+		}
+		return Status.OK_STATUS;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -54,6 +54,7 @@ import org.eclipse.jdt.internal.corext.dom.Selection;
 import org.eclipse.jdt.internal.corext.dom.VariableDeclarationRewrite;
 import org.eclipse.jdt.internal.corext.refactoring.code.flow.FlowContext;
 import org.eclipse.jdt.internal.corext.refactoring.code.flow.FlowInfo;
+import org.eclipse.jdt.internal.corext.refactoring.code.flow.FlowInfoCache;
 import org.eclipse.jdt.internal.corext.refactoring.code.flow.InOutFlowAnalyzer;
 import org.eclipse.jdt.internal.corext.refactoring.surround.SurroundWithAnalyzer;
 
@@ -344,7 +345,7 @@ public abstract class SurroundWith {
 		FlowContext flowContext= new FlowContext(0, maxVariableId);
 		flowContext.setConsiderAccessMode(true);
 		flowContext.setComputeMode(FlowContext.ARGUMENTS);
-		FlowInfo argInfo= new InOutFlowAnalyzer(flowContext).perform(region);
+		FlowInfo argInfo= new InOutFlowAnalyzer(flowContext, FlowInfoCache.getCache(getRootNode())).perform(region);
 		IVariableBinding[] reads= argInfo.get(flowContext, FlowInfo.READ | FlowInfo.READ_POTENTIAL | FlowInfo.UNKNOWN);
 		return reads;
 	}
@@ -358,7 +359,7 @@ public abstract class SurroundWith {
 		FlowContext flowContext= new FlowContext(0, maxVariableId);
 		flowContext.setConsiderAccessMode(true);
 		flowContext.setComputeMode(FlowContext.ARGUMENTS);
-		FlowInfo argInfo= new InOutFlowAnalyzer(flowContext).perform(region);
+		FlowInfo argInfo= new InOutFlowAnalyzer(flowContext, FlowInfoCache.getCache(getRootNode())).perform(region);
 		IVariableBinding[] varsAccessedAfter= argInfo.get(flowContext, FlowInfo.READ | FlowInfo.READ_POTENTIAL  | FlowInfo.WRITE | FlowInfo.WRITE_POTENTIAL | FlowInfo.UNKNOWN);
 		return varsAccessedAfter;
 	}
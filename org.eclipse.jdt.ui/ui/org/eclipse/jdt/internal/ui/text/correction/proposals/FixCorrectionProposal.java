@@ -21,6 +21,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 
 import org.eclipse.jface.operation.IRunnableContext;
@@ -35,6 +36,7 @@ import org.eclipse.jface.text.contentassist.ICompletionProposalExtension2;
 import org.eclipse.ui.PlatformUI;
 
 import org.eclipse.ltk.core.refactoring.RefactoringCore;
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
 import org.eclipse.ltk.core.refactoring.TextChange;
 import org.eclipse.ltk.core.refactoring.TextFileChange;
 
@@ -194,7 +196,21 @@ public class FixCorrectionProposal extends LinkedCorrectionProposal implements I
 			changeName= CorrectionMessages.FixCorrectionProposal_MultiFixChange_label;
 		}
 
-		final CleanUpRefactoring refactoring= new CleanUpRefactoring(changeName);
+		final String name= changeName;
+		final int unitCount= targets.length;
+		final CleanUpRefactoring refactoring= new CleanUpRefactoring(changeName) {
+			@Override
+			public RefactoringStatus checkFinalConditions(IProgressMonitor pm) throws CoreException, OperationCanceledException {
+				// only the computation of the fixes, not the time spent in dialogs
+				long start= System.currentTimeMillis();
+				RefactoringStatus status= super.checkFinalConditions(pm);
+				if (JavaPlugin.DEBUG_MULTI_FIX) {
+					System.out.println("Multi fix '" + name + "': fixes for " + unitCount + " compilation units computed in " //$NON-NLS-1$ //$NON-NLS-2$
+							+ (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$
+				}
+				return status;
+			}
+		};
 		for (int i= 0; i < targets.length; i++) {
 			refactoring.addCleanUpTarget(targets[i]);
 		}
@@ -81,6 +81,10 @@ public abstract class AbstractHierarchyViewerSorter extends ViewerComparator {
 
 	@Override
 	public int compare(Viewer viewer, Object e1, Object e2) {
+		if (e1 instanceof MoreTypesNode || e2 instanceof MoreTypesNode) {
+			// always last
+			return (e1 instanceof MoreTypesNode ? 1 : 0) - (e2 instanceof MoreTypesNode ? 1 : 0);
+		}
 		if (!isSortAlphabetically() && !isSortByDefiningType()) {
 			return fSourcePositonSorter.compare(viewer, e1, e2);
 		}
@@ -130,7 +130,7 @@ public class HierarchyInformationControl extends AbstractInformationControl {
 		treeViewer.addFilter(new ViewerFilter() {
 			@Override
 			public boolean select(Viewer viewer, Object parentElement, Object element) {
-				return element instanceof IType;
+				return element instanceof IType || element instanceof MoreTypesNode;
 			}
 		});
 
@@ -140,6 +140,7 @@ public class HierarchyInformationControl extends AbstractInformationControl {
 		treeViewer.setAutoExpandLevel(AbstractTreeViewer.ALL_LEVELS);
 
 		fLabelProvider= new HierarchyLabelProvider(fLifeCycle);
+		fLabelProvider.setMoreTypesHint(TypeHierarchyMessages.MoreTypesNode_clickHint);
 		fLabelProvider.setFilter(new ViewerFilter() {
 			@Override
 			public boolean select(Viewer viewer, Object parentElement, Object element) {
@@ -374,6 +375,16 @@ public class HierarchyInformationControl extends AbstractInformationControl {
 		return "org.eclipse.jdt.internal.ui.typehierarchy.QuickHierarchy"; //$NON-NLS-1$
 	}
 
+	@Override
+	protected boolean handleElementOpened(Object element) {
+		if (element instanceof MoreTypesNode) {
+			TypeHierarchyContentProvider contentProvider= (TypeHierarchyContentProvider) getTreeViewer().getContentProvider();
+			contentProvider.showMoreTypes((MoreTypesNode) element);
+			return true;
+		}
+		return false;
+	}
+
 	@Override
 	protected Object getSelectedElement() {
 		Object selectedElement= super.getSelectedElement();
@@ -20,6 +20,7 @@ import org.eclipse.swt.widgets.Display;
 import org.eclipse.jface.preference.JFacePreferences;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.jface.viewers.StyledString;
 import org.eclipse.jface.viewers.ViewerFilter;
 
 import org.eclipse.jdt.core.Flags;
@@ -29,6 +30,8 @@ import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.JavaModelException;
 
+import org.eclipse.jdt.internal.corext.util.Messages;
+
 import org.eclipse.jdt.ui.JavaElementImageDescriptor;
 import org.eclipse.jdt.ui.JavaElementLabels;
 
@@ -50,11 +53,25 @@ public class HierarchyLabelProvider extends AppearanceAwareLabelProvider {
 
 	private TypeHierarchyLifeCycle fHierarchy;
 
+	private String fMoreTypesHint;
+
 	public HierarchyLabelProvider(TypeHierarchyLifeCycle lifeCycle) {
 		super(DEFAULT_TEXTFLAGS | JavaElementLabels.USE_RESOLVED | JavaElementLabels.P_COMPRESSED, DEFAULT_IMAGEFLAGS);
 
 		fHierarchy= lifeCycle;
 		fFilter= null;
+		fMoreTypesHint= TypeHierarchyMessages.MoreTypesNode_doubleClickHint;
+	}
+
+	/**
+	 * Sets the hint appended to the label of {@link MoreTypesNode}s, telling how to show the
+	 * hidden types.
+	 *
+	 * @param hint the hint
+	 * @since 3.12
+	 */
+	public void setMoreTypesHint(String hint) {
+		fMoreTypesHint= hint;
 	}
 
 	/**
@@ -94,8 +111,31 @@ public class HierarchyLabelProvider extends AppearanceAwareLabelProvider {
 		return true;
 	}
 
+	@Override
+	public String getText(Object element) {
+		if (element instanceof MoreTypesNode) {
+			return getMoreTypesLabel((MoreTypesNode) element);
+		}
+		return super.getText(element);
+	}
+
+	@Override
+	public StyledString getStyledText(Object element) {
+		if (element instanceof MoreTypesNode) {
+			return new StyledString(getMoreTypesLabel((MoreTypesNode) element), StyledString.QUALIFIER_STYLER);
+		}
+		return super.getStyledText(element);
+	}
+
+	private String getMoreTypesLabel(MoreTypesNode node) {
+		return Messages.format(TypeHierarchyMessages.MoreTypesNode_label, new Object[] { Integer.valueOf(node.getHiddenCount()), fMoreTypesHint });
+	}
+
 	@Override
 	public Image getImage(Object element) {
+		if (element instanceof MoreTypesNode) {
+			return null;
+		}
 		Image result= null;
 		if (element instanceof IType) {
 			ImageDescriptor desc= getTypeImageDescriptor((IType) element);
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.typehierarchy;
+
+import org.eclipse.jdt.core.IType;
+
+/**
+ * Placeholder shown in the hierarchy viewers after the last type of a page when a type has
+ * more subtypes than {@link TypeHierarchyContentProvider#PAGE_SIZE}. Opening the node shows
+ * the next page.
+ *
+ * @since 3.12
+ */
+public final class MoreTypesNode {
+
+	private final IType fParent;
+	private final int fHiddenCount;
+
+	MoreTypesNode(IType parent, int hiddenCount) {
+		fParent= parent;
+		fHiddenCount= hiddenCount;
+	}
+
+	/**
+	 * @return the type whose children are paged
+	 */
+	public IType getParent() {
+		return fParent;
+	}
+
+	/**
+	 * @return the number of types not shown yet
+	 */
+	public int getHiddenCount() {
+		return fHiddenCount;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof MoreTypesNode))
+			return false;
+		MoreTypesNode other= (MoreTypesNode) obj;
+		return fParent.equals(other.fParent) && fHiddenCount == other.fHiddenCount; // new label when the count changes
+	}
+
+	@Override
+	public int hashCode() {
+		return fParent.hashCode() + fHiddenCount;
+	}
+}
@@ -11,13 +11,21 @@
 package org.eclipse.jdt.internal.ui.typehierarchy;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
 
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerComparator;
 import org.eclipse.jface.viewers.ViewerFilter;
 
 import org.eclipse.jdt.core.Flags;
@@ -41,6 +49,14 @@ import org.eclipse.jdt.ui.IWorkingCopyProvider;
 public abstract class TypeHierarchyContentProvider implements ITreeContentProvider, IWorkingCopyProvider {
 	protected static final Object[] NO_ELEMENTS= new Object[0];
 
+	/**
+	 * The number of type children shown per page. The remaining children of a type are
+	 * represented by a {@link MoreTypesNode}.
+	 *
+	 * @since 3.12
+	 */
+	public static final int PAGE_SIZE= 500;
+
 	protected TypeHierarchyLifeCycle fTypeHierarchy;
 	protected IMember[] fMemberFilter;
 
@@ -50,12 +66,19 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 	private MethodOverrideTester fMethodOverrideTester;
 	private ITypeHierarchyLifeCycleListener fTypeHierarchyLifeCycleListener;
 
+	/** type -> number of type children shown, for types showing more than one page */
+	private final Map<IType, Integer> fShownTypeCounts;
+	/** types shown even if they are not in the shown pages of their parents, e.g. the selection */
+	private final Set<IType> fPinnedTypes;
+
 
 	public TypeHierarchyContentProvider(TypeHierarchyLifeCycle lifecycle) {
 		fTypeHierarchy= lifecycle;
 		fMemberFilter= null;
 		fWorkingSetFilter= null;
 		fMethodOverrideTester= null;
+		fShownTypeCounts= Collections.synchronizedMap(new HashMap<IType, Integer>());
+		fPinnedTypes= Collections.synchronizedSet(new HashSet<IType>());
 		fTypeHierarchyLifeCycleListener= new ITypeHierarchyLifeCycleListener() {
 			@Override
 			public void typeHierarchyChanged(TypeHierarchyLifeCycle typeHierarchyProvider, IType[] changedTypes) {
@@ -63,6 +86,7 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 					synchronized (this) {
 						fMethodOverrideTester= null;
 					}
+					resetPages();
 				}
 			}
 		};
@@ -93,7 +117,7 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 		return filterOverrides;
 	}
 
-	private void addCompatibleMethods(IMethod filterMethod, IType typeToFindIn, List<IMember> children) throws JavaModelException {
+	private void addCompatibleMethods(IMethod filterMethod, IType typeToFindIn, List<Object> children) throws JavaModelException {
 		int flags= filterMethod.getFlags();
 		if (Flags.isPrivate(flags) || Flags.isStatic(flags) || filterMethod.isConstructor())
 			return;
@@ -251,7 +275,7 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 			try {
 				IType type= (IType)element;
 
-				List<IMember> children= new ArrayList<>();
+				List<Object> children= new ArrayList<>();
 				if (fMemberFilter != null) {
 					addFilteredMemberChildren(type, children);
 				}
@@ -282,7 +306,7 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 		return false;
 	}
 
-	private void addFilteredMemberChildren(IType parent, List<IMember> children) throws JavaModelException {
+	private void addFilteredMemberChildren(IType parent, List<Object> children) throws JavaModelException {
 		for (int i= 0; i < fMemberFilter.length; i++) {
 			IMember member= fMemberFilter[i];
 			if (parent.equals(member.getDeclaringType())) {
@@ -295,18 +319,110 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 		}
 	}
 
-	private void addTypeChildren(IType type, List<IMember> children) throws JavaModelException {
+	private void addTypeChildren(IType type, List<Object> children) throws JavaModelException {
 		ArrayList<IType> types= new ArrayList<>();
 		getTypesInHierarchy(type, types);
+		ArrayList<IType> typeChildren= new ArrayList<>(types.size());
 		int len= types.size();
 		for (int i= 0; i < len; i++) {
 			IType curr= types.get(i);
 			if (isInTree(curr)) {
-				children.add(curr);
+				typeChildren.add(curr);
+			}
+		}
+		Integer shownCount= fShownTypeCounts.get(type);
+		int limit= shownCount != null ? shownCount.intValue() : PAGE_SIZE;
+		if (typeChildren.size() <= limit) {
+			children.addAll(typeChildren);
+		} else {
+			int oldSize= children.size();
+			addFirstTypes(typeChildren, limit, children);
+			children.add(new MoreTypesNode(type, typeChildren.size() - (children.size() - oldSize)));
+		}
+	}
+
+	/*
+	 * Adds the given number of types that come first in the viewer's order, and all pinned
+	 * types. Only the added types are sorted.
+	 */
+	private void addFirstTypes(List<IType> types, int count, List<Object> result) {
+		final ViewerComparator comparator= fViewer != null ? fViewer.getComparator() : null;
+		if (comparator == null) {
+			result.addAll(types.subList(0, count));
+		} else {
+			// keep the 'count' smallest types, the queue's head is the largest of them
+			PriorityQueue<IType> first= new PriorityQueue<>(count + 1, new Comparator<IType>() {
+				@Override
+				public int compare(IType t1, IType t2) {
+					return comparator.compare(fViewer, t2, t1);
+				}
+			});
+			for (int i= 0; i < types.size(); i++) {
+				first.add(types.get(i));
+				if (first.size() > count) {
+					first.poll();
+				}
+			}
+			result.addAll(first);
+		}
+		if (!fPinnedTypes.isEmpty()) {
+			for (int i= 0; i < types.size(); i++) {
+				IType curr= types.get(i);
+				if (fPinnedTypes.contains(curr) && !result.contains(curr)) {
+					result.add(curr);
+				}
 			}
 		}
 	}
 
+	/**
+	 * Shows the next page of types for the given node.
+	 *
+	 * @param node the node representing the types not shown yet
+	 * @since 3.12
+	 */
+	public void showMoreTypes(MoreTypesNode node) {
+		IType parent= node.getParent();
+		Integer shownCount= fShownTypeCounts.get(parent);
+		int limit= shownCount != null ? shownCount.intValue() : PAGE_SIZE;
+		fShownTypeCounts.put(parent, Integer.valueOf(limit + PAGE_SIZE));
+		if (fViewer != null) {
+			fViewer.refresh(parent);
+		}
+	}
+
+	/**
+	 * Makes sure that the given element is shown by the viewer even if it belongs to a page
+	 * that is not shown yet.
+	 *
+	 * @param element the element to show
+	 * @since 3.12
+	 */
+	public void showElement(Object element) {
+		if (fViewer == null)
+			return;
+		List<Object> path= new ArrayList<>();
+		for (Object curr= element; curr != null; curr= getParent(curr)) {
+			path.add(0, curr);
+			if (curr instanceof IType) {
+				fPinnedTypes.add((IType) curr);
+			}
+		}
+		for (int i= 1; i < path.size(); i++) {
+			if (fViewer.testFindItem(path.get(i)) == null) {
+				if (fViewer.testFindItem(path.get(i - 1)) != null) {
+					fViewer.refresh(path.get(i - 1)); // the page with the element was not shown
+				}
+				return;
+			}
+		}
+	}
+
+	private void resetPages() {
+		fShownTypeCounts.clear();
+		fPinnedTypes.clear();
+	}
+
 	protected final boolean isInTree(IType type) throws JavaModelException {
 		if (isInHierarchyOfInputElements(type)) {
 			if (fMemberFilter != null) {
@@ -352,6 +468,7 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 	public void inputChanged(Viewer part, Object oldInput, Object newInput) {
 		Assert.isTrue(part instanceof TreeViewer);
 		fViewer= (TreeViewer)part;
+		resetPages();
 	}
 
 	/*
@@ -374,6 +491,8 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 				return getParentType((IType)member);
 			}
 			return member.getDeclaringType();
+		} else if (element instanceof MoreTypesNode) {
+			return ((MoreTypesNode) element).getParent();
 		}
 		return null;
 	}
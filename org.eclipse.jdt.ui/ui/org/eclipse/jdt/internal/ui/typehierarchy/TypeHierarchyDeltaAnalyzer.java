@@ -0,0 +1,459 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.typehierarchy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.IClassFile;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaModel;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IParent;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaModelException;
+
+import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * Decides whether a Java element delta changes the shape of a type hierarchy, i.e. adds or
+ * removes types or changes the supertypes of types in the hierarchy.
+ * <p>
+ * A type hierarchy reports every change that might affect it. For example, saving a
+ * compilation unit that declares a type of the hierarchy is reported, as the delta does not
+ * tell what changed in the file. The analyzer compares the supertypes declared by the changed
+ * types with the supertypes recorded in the hierarchy, so that such changes do not require
+ * recomputing the hierarchy. Changes of the modifiers of types in the hierarchy, changes to the
+ * class path or containers of projects that contain or require types of the hierarchy, and
+ * changes to more than {@link #MAX_CHANGED_TYPES} types are always considered structural.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @since 3.12
+ */
+final class TypeHierarchyDeltaAnalyzer {
+
+	/**
+	 * The maximum number of changed types compared with the hierarchy per delta. Above, the
+	 * hierarchy is recomputed as comparing would take as long.
+	 */
+	static final int MAX_CHANGED_TYPES= 20;
+
+	private static final int MODIFIER_FLAGS= Flags.AccPublic | Flags.AccPrivate | Flags.AccProtected | Flags.AccStatic | Flags.AccFinal
+			| Flags.AccAbstract | Flags.AccInterface | Flags.AccEnum | Flags.AccAnnotation;
+
+	private static final int IRRELEVANT_CONTAINER_FLAGS= IJavaElementDelta.F_CHILDREN | IJavaElementDelta.F_CONTENT;
+
+	private static final String JAVA_LANG_OBJECT= "java.lang.Object"; //$NON-NLS-1$
+	private static final String JAVA_LANG_ENUM= "java.lang.Enum"; //$NON-NLS-1$
+	private static final String JAVA_LANG_ANNOTATION= "java.lang.annotation.Annotation"; //$NON-NLS-1$
+	private static final String OBJECT= "Object"; //$NON-NLS-1$
+	private static final String ENUM= "Enum"; //$NON-NLS-1$
+	private static final String ANNOTATION= "Annotation"; //$NON-NLS-1$
+
+	private static final class StructuralChangeException extends Exception {
+		private static final long serialVersionUID= 1L;
+	}
+
+	private final ITypeHierarchy fHierarchy;
+	private final IJavaElement[] fInputElements;
+	private final boolean fIsSuperTypesOnly;
+
+	/** openable -> types of the hierarchy declared in it, computed on first use */
+	private Map<IJavaElement, List<IType>> fTypesByOpenable;
+	/** simple names of the types of the hierarchy, computed on first use */
+	private Set<String> fSimpleNames;
+	/** names of the projects containing the types and input elements of the hierarchy, computed on first use */
+	private Set<String> fProjectNames;
+
+	/**
+	 * @param hierarchy the hierarchy
+	 * @param inputElements the elements the hierarchy was computed for
+	 * @param isSuperTypesOnly <code>true</code> if the hierarchy only contains supertypes
+	 */
+	TypeHierarchyDeltaAnalyzer(ITypeHierarchy hierarchy, IJavaElement[] inputElements, boolean isSuperTypesOnly) {
+		fHierarchy= hierarchy;
+		fInputElements= inputElements;
+		fIsSuperTypesOnly= isSuperTypesOnly;
+	}
+
+	/**
+	 * Returns whether the delta changes the shape of the hierarchy.
+	 *
+	 * @param delta the delta
+	 * @return <code>true</code> if the hierarchy has to be recomputed, <code>false</code> if it
+	 *         is still valid
+	 */
+	synchronized boolean isStructuralChange(IJavaElementDelta delta) {
+		Set<IType> changedTypes= new LinkedHashSet<>();
+		try {
+			collectChangedTypes(delta, changedTypes);
+			for (IType type : changedTypes) {
+				checkType(type);
+			}
+			return false;
+		} catch (StructuralChangeException e) {
+			return true;
+		} catch (JavaModelException e) {
+			JavaPlugin.log(e);
+			return true;
+		}
+	}
+
+	private void collectChangedTypes(IJavaElementDelta delta, Set<IType> changedTypes) throws StructuralChangeException, JavaModelException {
+		IJavaElement element= delta.getElement();
+		int kind= delta.getKind();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				if ((delta.getFlags() & ~IRRELEVANT_CONTAINER_FLAGS) != 0 && delta.getAffectedChildren().length == 0)
+					throw new StructuralChangeException();
+				collectChildren(delta, changedTypes);
+				break;
+			case IJavaElement.JAVA_PROJECT:
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (kind != IJavaElementDelta.CHANGED || (delta.getFlags() & ~IRRELEVANT_CONTAINER_FLAGS) != 0) {
+					// class path or container change
+					if (affectsHierarchy(element.getJavaProject()))
+						throw new StructuralChangeException();
+					return;
+				}
+				collectChildren(delta, changedTypes);
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+				ICompilationUnit cu= (ICompilationUnit) element;
+				if (!JavaModelUtil.isPrimary(cu))
+					return;
+				checkDeclaredTypes(cu, kind, changedTypes);
+				if (kind == IJavaElementDelta.CHANGED && (delta.getFlags() & IJavaElementDelta.F_FINE_GRAINED) != 0) {
+					collectChildren(delta, changedTypes);
+				} else if (kind != IJavaElementDelta.REMOVED) {
+					addAllTypes(cu, changedTypes);
+				}
+				break;
+			case IJavaElement.CLASS_FILE:
+				checkDeclaredTypes(element, kind, changedTypes);
+				if (kind != IJavaElementDelta.REMOVED) {
+					addType(((IClassFile) element).getType(), changedTypes);
+				}
+				break;
+			case IJavaElement.TYPE:
+				if (kind == IJavaElementDelta.REMOVED) {
+					if (fHierarchy.contains((IType) element))
+						throw new StructuralChangeException();
+				} else if ((delta.getFlags() & IJavaElementDelta.F_MODIFIERS) != 0 && fHierarchy.contains((IType) element)) {
+					throw new StructuralChangeException();
+				} else if (kind == IJavaElementDelta.ADDED || (delta.getFlags() & (IJavaElementDelta.F_SUPER_TYPES | IJavaElementDelta.F_MODIFIERS)) != 0) {
+					addType((IType) element, changedTypes);
+				}
+				collectChildren(delta, changedTypes); // member and local types
+				break;
+			case IJavaElement.PACKAGE_DECLARATION:
+			case IJavaElement.IMPORT_CONTAINER:
+			case IJavaElement.IMPORT_DECLARATION:
+				// supertype names of all types might resolve differently now
+				addAllTypes((ICompilationUnit) element.getAncestor(IJavaElement.COMPILATION_UNIT), changedTypes);
+				break;
+			default:
+				collectChildren(delta, changedTypes); // local types
+				break;
+		}
+	}
+
+	private void collectChildren(IJavaElementDelta delta, Set<IType> changedTypes) throws StructuralChangeException, JavaModelException {
+		IJavaElementDelta[] children= delta.getAffectedChildren();
+		for (int i= 0; i < children.length; i++) {
+			collectChangedTypes(children[i], changedTypes);
+		}
+	}
+
+	/*
+	 * Types of the hierarchy that are no longer declared by the openable are removed.
+	 */
+	private void checkDeclaredTypes(IJavaElement openable, int kind, Set<IType> changedTypes) throws StructuralChangeException {
+		List<IType> types= getTypesByOpenable().get(openable);
+		if (types == null)
+			return;
+		if (kind == IJavaElementDelta.REMOVED)
+			throw new StructuralChangeException();
+		for (int i= 0; i < types.size(); i++) {
+			IType type= types.get(i);
+			if (!type.exists())
+				throw new StructuralChangeException();
+			addType(type, changedTypes);
+		}
+	}
+
+	private void addAllTypes(IParent parent, Set<IType> changedTypes) throws StructuralChangeException, JavaModelException {
+		if (!((IJavaElement) parent).exists())
+			return;
+		IJavaElement[] children= parent.getChildren();
+		for (int i= 0; i < children.length; i++) {
+			IJavaElement child= children[i];
+			if (child instanceof IType) {
+				addType((IType) child, changedTypes);
+			}
+			if (child instanceof IParent) {
+				addAllTypes((IParent) child, changedTypes); // member and local types
+			}
+		}
+	}
+
+	private void addType(IType type, Set<IType> changedTypes) throws StructuralChangeException {
+		if (changedTypes.add(type) && changedTypes.size() > MAX_CHANGED_TYPES)
+			throw new StructuralChangeException();
+	}
+
+	private void checkType(IType type) throws StructuralChangeException, JavaModelException {
+		boolean contained= fHierarchy.contains(type);
+		if (!type.exists()) {
+			if (contained)
+				throw new StructuralChangeException();
+			return;
+		}
+		if (contained) {
+			if (((fHierarchy.getCachedFlags(type) ^ type.getFlags()) & MODIFIER_FLAGS) != 0)
+				throw new StructuralChangeException(); // e.g. a class became abstract or an interface
+			if (!getDeclaredSupertypes(type).equals(getRecordedSupertypes(type)))
+				throw new StructuralChangeException();
+		} else if (isCandidate(type)) {
+			throw new StructuralChangeException();
+		}
+	}
+
+	/*
+	 * Returns whether a type that is not part of the hierarchy might belong to it.
+	 */
+	private boolean isCandidate(IType type) throws JavaModelException {
+		if (fIsSuperTypesOnly)
+			return false; // only supertypes of the focus, which is part of the hierarchy
+		if (!isTypeHierarchy()) {
+			// region based hierarchies contain all types of the region
+			for (int i= 0; i < fInputElements.length; i++) {
+				if (isAncestor(fInputElements[i], type))
+					return true;
+			}
+			return false;
+		}
+		// a new subtype of a type of the hierarchy
+		Set<String> simpleNames= getSimpleNames();
+		String superclassName= type.getSuperclassName();
+		if (superclassName != null && simpleNames.contains(getSimpleName(superclassName)))
+			return true;
+		String[] interfaceNames= type.getSuperInterfaceNames();
+		for (int i= 0; i < interfaceNames.length; i++) {
+			if (simpleNames.contains(getSimpleName(interfaceNames[i])))
+				return true;
+		}
+		String implicitSupertype= getImplicitSupertype(type, superclassName, interfaceNames);
+		return implicitSupertype != null && simpleNames.contains(implicitSupertype);
+	}
+
+	/*
+	 * Returns the simple name of the implicit supertype of a type that declares no superclass:
+	 * classes extend Object, enums Enum and annotations Annotation. Interfaces without
+	 * super-interfaces are subtypes of Object in a type hierarchy.
+	 */
+	private static String getImplicitSupertype(IType type, String superclassName, String[] interfaceNames) throws JavaModelException {
+		if (superclassName != null)
+			return null;
+		if (type.isEnum())
+			return ENUM;
+		if (type.isAnnotation())
+			return ANNOTATION;
+		if (type.isInterface())
+			return interfaceNames.length == 0 ? OBJECT : null;
+		return OBJECT;
+	}
+
+	/*
+	 * Returns whether a class path or container change of the given project might change the
+	 * hierarchy, i.e. the project contains types or input elements of the hierarchy, or it
+	 * requires such a project and might contribute subtypes.
+	 */
+	private boolean affectsHierarchy(IJavaProject project) {
+		if (project == null)
+			return true;
+		for (int i= 0; i < fInputElements.length; i++) {
+			if (fInputElements[i].getElementType() == IJavaElement.JAVA_MODEL)
+				return true;
+		}
+		Set<String> projectNames= getProjectNames();
+		if (projectNames.contains(project.getElementName()))
+			return true;
+		if (fIsSuperTypesOnly || !project.exists())
+			return false; // supertypes don't depend on other projects, removed projects had no types of the hierarchy
+		try {
+			Set<String> visited= new HashSet<>();
+			List<IJavaProject> pending= new ArrayList<>();
+			pending.add(project);
+			IJavaModel model= project.getJavaModel();
+			while (!pending.isEmpty()) {
+				IJavaProject curr= pending.remove(pending.size() - 1);
+				if (!visited.add(curr.getElementName()) || !curr.exists())
+					continue;
+				String[] required= curr.getRequiredProjectNames();
+				for (int i= 0; i < required.length; i++) {
+					if (projectNames.contains(required[i]))
+						return true;
+					pending.add(model.getJavaProject(required[i]));
+				}
+			}
+			return false;
+		} catch (JavaModelException e) {
+			return true;
+		}
+	}
+
+	private Set<String> getDeclaredSupertypes(IType type) throws StructuralChangeException, JavaModelException {
+		Set<String> result= new HashSet<>();
+		String superclassName= type.getSuperclassName();
+		if (superclassName != null) {
+			result.add(resolve(type, superclassName));
+		}
+		String[] interfaceNames= type.getSuperInterfaceNames();
+		for (int i= 0; i < interfaceNames.length; i++) {
+			result.add(resolve(type, interfaceNames[i]));
+		}
+		removeImplicitSupertypes(result);
+		return result;
+	}
+
+	private Set<String> getRecordedSupertypes(IType type) {
+		Set<String> result= new HashSet<>();
+		IType[] supertypes= fHierarchy.getSupertypes(type);
+		for (int i= 0; i < supertypes.length; i++) {
+			result.add(normalize(supertypes[i].getFullyQualifiedName('.')));
+		}
+		removeImplicitSupertypes(result);
+		return result;
+	}
+
+	private static void removeImplicitSupertypes(Set<String> supertypes) {
+		supertypes.remove(JAVA_LANG_OBJECT);
+		supertypes.remove(JAVA_LANG_ENUM);
+		supertypes.remove(JAVA_LANG_ANNOTATION);
+	}
+
+	private static String resolve(IType type, String name) throws StructuralChangeException, JavaModelException {
+		String erasure= eraseTypeArguments(name);
+		if (type.isBinary())
+			return normalize(erasure); // binary types know the qualified name
+		String[][] resolved= type.resolveType(erasure);
+		if (resolved == null || resolved.length != 1)
+			throw new StructuralChangeException(); // unresolved or ambiguous, let the hierarchy decide
+		String packageName= resolved[0][0];
+		String typeName= resolved[0][1];
+		return packageName.length() == 0 ? typeName : packageName + '.' + typeName;
+	}
+
+	private static String eraseTypeArguments(String name) {
+		if (name.indexOf('<') == -1)
+			return name;
+		StringBuffer buf= new StringBuffer(name.length());
+		int depth= 0;
+		for (int i= 0; i < name.length(); i++) {
+			char ch= name.charAt(i);
+			if (ch == '<') {
+				depth++;
+			} else if (ch == '>') {
+				depth--;
+			} else if (depth == 0) {
+				buf.append(ch);
+			}
+		}
+		return buf.toString();
+	}
+
+	private static String normalize(String qualifiedName) {
+		return qualifiedName.replace('$', '.');
+	}
+
+	private static String getSimpleName(String name) {
+		String erasure= normalize(eraseTypeArguments(name));
+		return erasure.substring(erasure.lastIndexOf('.') + 1);
+	}
+
+	private boolean isTypeHierarchy() {
+		return fInputElements.length == 1 && fInputElements[0].getElementType() == IJavaElement.TYPE;
+	}
+
+	private static boolean isAncestor(IJavaElement ancestor, IJavaElement element) {
+		IJavaElement curr= element;
+		while (curr != null) {
+			if (curr.equals(ancestor))
+				return true;
+			curr= curr.getParent();
+		}
+		return false;
+	}
+
+	private Map<IJavaElement, List<IType>> getTypesByOpenable() {
+		if (fTypesByOpenable == null) {
+			initializeTypeIndex();
+		}
+		return fTypesByOpenable;
+	}
+
+	private Set<String> getSimpleNames() {
+		if (fSimpleNames == null) {
+			initializeTypeIndex();
+		}
+		return fSimpleNames;
+	}
+
+	private Set<String> getProjectNames() {
+		if (fProjectNames == null) {
+			initializeTypeIndex();
+		}
+		return fProjectNames;
+	}
+
+	private void initializeTypeIndex() {
+		IType[] types= fHierarchy.getAllTypes();
+		Map<IJavaElement, List<IType>> typesByOpenable= new HashMap<>();
+		Set<String> simpleNames= new HashSet<>();
+		Set<String> projectNames= new HashSet<>();
+		for (int i= 0; i < fInputElements.length; i++) {
+			IJavaProject project= fInputElements[i].getJavaProject();
+			if (project != null)
+				projectNames.add(project.getElementName());
+		}
+		for (int i= 0; i < types.length; i++) {
+			IType type= types[i];
+			simpleNames.add(type.getElementName());
+			projectNames.add(type.getJavaProject().getElementName());
+			IJavaElement openable= (IJavaElement) type.getOpenable();
+			List<IType> list= typesByOpenable.get(openable);
+			if (list == null) {
+				list= new ArrayList<>(1);
+				typesByOpenable.put(openable, list);
+			}
+			list.add(type);
+		}
+		fTypesByOpenable= typesByOpenable;
+		fSimpleNames= simpleNames;
+		fProjectNames= projectNames;
+	}
+}
@@ -54,6 +54,28 @@ import org.eclipse.jdt.internal.ui.JavaPlugin;
 public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IElementChangedListener {
 
 	private boolean fHierarchyRefreshNeeded;
+	/**
+	 * Set when the type hierarchy reported a change, cleared when the delta of the change has
+	 * been analyzed.
+	 *
+	 * @since 3.12
+	 */
+	private volatile boolean fHierarchyChangeReported;
+	/**
+	 * Set when the type hierarchy reported a change that turned out not to affect the shape of
+	 * the hierarchy. The type hierarchy does not report further changes until it is refreshed,
+	 * so they are analyzed by {@link #elementChanged(ElementChangedEvent)} instead.
+	 *
+	 * @since 3.12
+	 */
+	private boolean fHierarchyChangeDetectionSuspended;
+	/**
+	 * Analyzes deltas for the current hierarchy, or <code>null</code> if not created yet. Set in
+	 * the thread that reports element changes and reset when the hierarchy is refreshed.
+	 *
+	 * @since 3.12
+	 */
+	private volatile TypeHierarchyDeltaAnalyzer fDeltaAnalyzer;
 	private ITypeHierarchy fHierarchy;
 	private IJavaElement[] fInputElements;
 	private boolean fIsSuperTypesOnly;
@@ -120,6 +142,8 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 			JavaCore.removeElementChangedListener(this);
 			fHierarchy= null;
 			fInputElements= null;
+			fDeltaAnalyzer= null;
+			fHierarchyChangeDetectionSuspended= false;
 		}
 		synchronized (this) {
 			if (fRefreshHierarchyJob != null) {
@@ -339,18 +363,33 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 			if (pm != null && pm.isCanceled())
 				throw new OperationCanceledException();
 		}
+		fDeltaAnalyzer= null;
+		fHierarchyChangeDetectionSuspended= false;
+		fHierarchyChangeReported= false;
 		fHierarchy.addTypeHierarchyChangedListener(this);
 		JavaCore.addElementChangedListener(this);
 		fHierarchyRefreshNeeded= false;
 	}
 
+	/**
+	 * Marks the hierarchy as outdated, e.g. because the user requested a refresh, and notifies
+	 * the listeners.
+	 *
+	 * @since 3.12
+	 */
+	public void invalidateHierarchy() {
+		fHierarchyRefreshNeeded= true;
+		fireChange(null);
+	}
+
 	/*
 	 * @see ITypeHierarchyChangedListener#typeHierarchyChanged
 	 */
 	@Override
 	public void typeHierarchyChanged(ITypeHierarchy typeHierarchy) {
-	 	fHierarchyRefreshNeeded= true;
- 		fireChange(null);
+		// The type hierarchy is notified before this life cycle's element changed listener (see
+		// doHierarchyRefresh). Whether the change really affects the hierarchy is decided there.
+		fHierarchyChangeReported= true;
 	}
 
 	/*
@@ -358,13 +397,25 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 	 */
 	@Override
 	public void elementChanged(ElementChangedEvent event) {
+		boolean changeReported= fHierarchyChangeReported;
+		fHierarchyChangeReported= false;
 		if (fChangeListeners.isEmpty()) {
+			if (changeReported) {
+				fHierarchyRefreshNeeded= true;
+			}
 			return;
 		}
 
 		if (fHierarchyRefreshNeeded) {
 			return;
 		} else {
+			if (changeReported || fHierarchyChangeDetectionSuspended) {
+				if (isStructuralChange(event.getDelta())) {
+					invalidateHierarchy();
+					return;
+				}
+				fHierarchyChangeDetectionSuspended= true;
+			}
 			ArrayList<IType> changedTypes= new ArrayList<>();
 			processDelta(event.getDelta(), changedTypes);
 			if (changedTypes.size() > 0) {
@@ -373,6 +424,19 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 		}
 	}
 
+	private boolean isStructuralChange(IJavaElementDelta delta) {
+		ITypeHierarchy hierarchy= fHierarchy;
+		IJavaElement[] inputElements= fInputElements;
+		if (hierarchy == null || inputElements == null)
+			return true;
+		TypeHierarchyDeltaAnalyzer analyzer= fDeltaAnalyzer;
+		if (analyzer == null) {
+			analyzer= new TypeHierarchyDeltaAnalyzer(hierarchy, inputElements, fIsSuperTypesOnly);
+			fDeltaAnalyzer= analyzer;
+		}
+		return analyzer.isStructuralChange(delta);
+	}
+
 	/*
 	 * Assume that the hierarchy is intact (no refresh needed)
 	 */
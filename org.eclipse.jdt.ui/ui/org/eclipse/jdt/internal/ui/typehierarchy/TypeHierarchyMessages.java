@@ -95,6 +95,9 @@ public final class TypeHierarchyMessages extends NLS {
 	public static String HierarchyInformationControl_hierarchy_label;
 	public static String HierarchyInformationControl_toggle_traditionalhierarchy_label;
 	public static String HierarchyInformationControl_toggle_superhierarchy_label;
+	public static String MoreTypesNode_label;
+	public static String MoreTypesNode_doubleClickHint;
+	public static String MoreTypesNode_clickHint;
 
 	static {
 		NLS.initializeMessages(BUNDLE_NAME, TypeHierarchyMessages.class);
@@ -798,7 +798,7 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 					if (event.keyCode == SWT.F5) {
 						ITypeHierarchy hierarchy= fHierarchyLifeCycle.getHierarchy();
 						if (hierarchy != null) {
-							fHierarchyLifeCycle.typeHierarchyChanged(hierarchy);
+							fHierarchyLifeCycle.invalidateHierarchy();
 							doTypeHierarchyChangedOnViewers(null);
 						}
 						updateHierarchyViewer(false);
@@ -1231,6 +1231,9 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 	private void internalSelectType(IMember elem, boolean reveal) {
 		TypeHierarchyViewer viewer= getCurrentViewer();
 		viewer.removePostSelectionChangedListener(fSelectionChangedListener);
+		if (elem != null) {
+			viewer.showElement(elem);
+		}
 		viewer.setSelection(elem != null ? new StructuredSelection(elem) : StructuredSelection.EMPTY, reveal);
 		viewer.addPostSelectionChangedListener(fSelectionChangedListener);
 	}
@@ -1482,6 +1485,8 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 				protected void activate(ISelection selection) {
 					try {
 						final Object selectedElement= SelectionUtil.getSingleElement(selection);
+						if (selectedElement instanceof MoreTypesNode)
+							return;
 						if (EditorUtility.isOpenInEditor(selectedElement) != null)
 							EditorUtility.openInEditor(selectedElement, true);
 					} catch (PartInitException ex) {
@@ -1496,6 +1501,12 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 
 				@Override
 				protected void open(ISelection selection, boolean activate) {
+					Object selectedElement= SelectionUtil.getSingleElement(selection);
+					if (selectedElement instanceof MoreTypesNode) {
+						// not a Java element, shows the next page of types instead
+						getCurrentViewer().showMoreTypes((MoreTypesNode) selectedElement);
+						return;
+					}
 					if (selection instanceof IStructuredSelection)
 						fOpenAction.run((IStructuredSelection)selection);
 				}
@@ -1677,9 +1688,9 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 		int position= bar != null ? bar.getSelection() : 0;
 		memento.putInteger(TAG_VERTICAL_SCROLL, position);
 
-		IJavaElement selection= (IJavaElement)((IStructuredSelection) getCurrentViewer().getSelection()).getFirstElement();
-		if (selection != null) {
-			memento.putString(TAG_SELECTION, selection.getHandleIdentifier());
+		Object selection= ((IStructuredSelection) getCurrentViewer().getSelection()).getFirstElement();
+		if (selection instanceof IJavaElement) {
+			memento.putString(TAG_SELECTION, ((IJavaElement) selection).getHandleIdentifier());
 		}
 
 		fWorkingSetActionGroup.saveState(memento);
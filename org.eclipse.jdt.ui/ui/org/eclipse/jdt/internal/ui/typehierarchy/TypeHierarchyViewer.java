@@ -159,6 +159,29 @@ public abstract class TypeHierarchyViewer extends ProblemTreeViewer {
 		return findItem(element) != null;
 	}
 
+	/**
+	 * Shows the next page of the types hidden behind the given node.
+	 * @param node the node to expand
+	 */
+	public void showMoreTypes(MoreTypesNode node) {
+		TypeHierarchyContentProvider contentProvider= getHierarchyContentProvider();
+		if (contentProvider != null) {
+			contentProvider.showMoreTypes(node);
+		}
+	}
+
+	/**
+	 * Makes sure the given element is created in the tree, even if it is on a page of types
+	 * that is not shown yet.
+	 * @param element the element to show
+	 */
+	public void showElement(Object element) {
+		TypeHierarchyContentProvider contentProvider= getHierarchyContentProvider();
+		if (contentProvider != null) {
+			contentProvider.showElement(element);
+		}
+	}
+
 	/**
 	 * Updates the content of this viewer: refresh and expanding the tree in the way wanted.
 	 * @param doExpand if set, update should expand
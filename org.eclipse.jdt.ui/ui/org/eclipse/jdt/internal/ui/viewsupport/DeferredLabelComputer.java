@@ -0,0 +1,385 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.viewsupport;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jface.viewers.LabelProviderChangedEvent;
+import org.eclipse.jface.viewers.StyledString;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.JavaCore;
+
+import org.eclipse.jdt.internal.corext.util.LRUMap;
+
+import org.eclipse.jdt.ui.JavaElementImageDescriptor;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.JavaPluginImages;
+import org.eclipse.jdt.internal.ui.JavaUIMessages;
+
+/**
+ * Computes the styled labels and image descriptors of Java elements for a
+ * {@link JavaUILabelProvider} in background jobs.
+ * <p>
+ * Labels are cached by element handle. While the label of an element is not yet available,
+ * a placeholder consisting of the element name is returned and the element is queued. Elements
+ * requested last are computed first, as they are most likely the ones currently visible. When
+ * labels become available, a {@link LabelProviderChangedEvent} for the affected elements is sent
+ * to the listeners of the label provider. Cached labels are discarded when the corresponding
+ * elements change, labels that are being computed at that time are computed again, and a
+ * {@link LabelProviderChangedEvent} is sent for the affected elements. Changes of working copies
+ * that are only reported by reconcile deltas don't invalidate any labels.
+ * </p>
+ *
+ * @since 3.12
+ */
+public class DeferredLabelComputer {
+
+	private static final int CACHE_SIZE= 5000;
+
+	private static final int WORKER_COUNT= Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+	private static final class Label {
+		final StyledString fText;
+		final ImageDescriptor fImage;
+
+		Label(StyledString text, ImageDescriptor image) {
+			fText= text;
+			fImage= image;
+		}
+	}
+
+	/**
+	 * An element taken from the queue and the generation of the invalidations it was queued in.
+	 */
+	private static final class Request {
+		final Object fElement;
+		final int fGeneration;
+
+		Request(Object element, int generation) {
+			fElement= element;
+			fGeneration= generation;
+		}
+	}
+
+	private class Worker extends Job {
+
+		public Worker() {
+			super(JavaUIMessages.DeferredLabelComputer_job_name);
+			setSystem(true);
+			setPriority(Job.SHORT);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			Request request;
+			while ((request= nextPending()) != null) {
+				if (monitor.isCanceled())
+					return Status.CANCEL_STATUS;
+				Object element= request.fElement;
+				Label label;
+				try {
+					label= new Label(fLabelProvider.computeStyledText(element), fLabelProvider.computeImageDescriptor(element));
+				} catch (RuntimeException e) {
+					JavaPlugin.log(e);
+					label= new Label(new StyledString(getPlaceholderText(element)), null);
+				}
+				labelComputed(request, label);
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	private class DeltaListener implements IElementChangedListener {
+
+		@Override
+		public void elementChanged(ElementChangedEvent event) {
+			Set<IJavaElement> changed= new HashSet<>();
+			collectChangedElements(event.getDelta(), changed);
+			if (!changed.isEmpty())
+				invalidate(changed);
+		}
+
+		private void collectChangedElements(IJavaElementDelta delta, Set<IJavaElement> changed) {
+			if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & ~IJavaElementDelta.F_CHILDREN) != 0) {
+				// the element itself changed, all labels below are affected
+				changed.add(delta.getElement());
+				return;
+			}
+			IJavaElementDelta[] children= delta.getAffectedChildren();
+			for (int i= 0; i < children.length; i++) {
+				collectChangedElements(children[i], changed);
+			}
+		}
+	}
+
+	private final JavaUILabelProvider fLabelProvider;
+	private final Display fDisplay;
+
+	private final Map<Object, Label> fCache;
+	private final ArrayDeque<Object> fPending;
+	/** element -> generation in which the element was queued, until its label is cached */
+	private final Map<Object, Integer> fQueued;
+	/** incremented when labels are invalidated */
+	private int fGeneration;
+	/** elements whose label has been computed or invalidated since the last notification */
+	private final List<Object> fChanged;
+	private boolean fNotificationPosted;
+	private boolean fDisposed;
+
+	private final Worker[] fWorkers;
+	private final IElementChangedListener fDeltaListener;
+
+	/**
+	 * Creates a new computer. Must be called in the UI thread.
+	 *
+	 * @param labelProvider the label provider to compute the labels and to send the
+	 *            notifications
+	 */
+	public DeferredLabelComputer(JavaUILabelProvider labelProvider) {
+		fLabelProvider= labelProvider;
+		fDisplay= Display.getCurrent();
+		fCache= new LRUMap<>(CACHE_SIZE);
+		fPending= new ArrayDeque<>();
+		fQueued= new HashMap<>();
+		fChanged= new ArrayList<>();
+		fWorkers= new Worker[WORKER_COUNT];
+		for (int i= 0; i < fWorkers.length; i++) {
+			fWorkers[i]= new Worker();
+		}
+		fDeltaListener= new DeltaListener();
+		// reconcile deltas would invalidate the labels of a unit on every keystroke
+		JavaCore.addElementChangedListener(fDeltaListener, ElementChangedEvent.POST_CHANGE);
+	}
+
+	/**
+	 * Returns the styled label of the given element, or a placeholder if the label is not
+	 * computed yet.
+	 *
+	 * @param element the element
+	 * @return the styled label, a copy that the caller may modify
+	 */
+	public StyledString getStyledText(IJavaElement element) {
+		Label label= getLabel(element);
+		StyledString result= new StyledString();
+		if (label != null) {
+			result.append(label.fText);
+		} else {
+			result.append(getPlaceholderText(element));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the image descriptor of the given element, or a placeholder if the image is not
+	 * computed yet.
+	 *
+	 * @param element the element
+	 * @param flags the image flags as defined by {@link JavaElementImageProvider}
+	 * @return the image descriptor or <code>null</code>
+	 */
+	public ImageDescriptor getImageDescriptor(IJavaElement element, int flags) {
+		Label label= getLabel(element);
+		if (label != null)
+			return label.fImage;
+		boolean useSmallSize= (flags & JavaElementImageProvider.SMALL_ICONS) != 0;
+		return new JavaElementImageDescriptor(JavaPluginImages.DESC_OBJS_GHOST, 0, useSmallSize ? JavaElementImageProvider.SMALL_SIZE : JavaElementImageProvider.BIG_SIZE);
+	}
+
+	/**
+	 * Discards all cached labels, e.g. because the label flags have changed. Labels that are
+	 * being computed are computed again.
+	 */
+	public void clear() {
+		boolean requeued;
+		synchronized (this) {
+			fCache.clear();
+			fGeneration++;
+			requeued= requeue(new ArrayList<>(fQueued.keySet()));
+		}
+		if (requeued)
+			scheduleWorkers();
+	}
+
+	public void dispose() {
+		JavaCore.removeElementChangedListener(fDeltaListener);
+		synchronized (this) {
+			fDisposed= true;
+			fPending.clear();
+			fQueued.clear();
+			fChanged.clear();
+			fCache.clear();
+		}
+		for (int i= 0; i < fWorkers.length; i++) {
+			fWorkers[i].cancel();
+		}
+	}
+
+	private Label getLabel(Object element) {
+		synchronized (this) {
+			Label label= fCache.get(element);
+			if (label != null || fDisposed)
+				return label;
+			if (!fQueued.containsKey(element)) {
+				fQueued.put(element, Integer.valueOf(fGeneration));
+				fPending.addFirst(element);
+			}
+		}
+		scheduleWorkers();
+		return null;
+	}
+
+	private void scheduleWorkers() {
+		for (int i= 0; i < fWorkers.length; i++) {
+			fWorkers[i].schedule();
+		}
+	}
+
+	private synchronized Request nextPending() {
+		Object element= fPending.pollFirst();
+		if (element == null)
+			return null;
+		return new Request(element, fQueued.get(element).intValue());
+	}
+
+	private void labelComputed(Request request, Label label) {
+		Object element= request.fElement;
+		synchronized (this) {
+			if (fDisposed)
+				return;
+			Integer generation= fQueued.get(element);
+			if (generation == null || generation.intValue() != request.fGeneration)
+				return; // invalidated in between and queued again, or the cache has been disposed
+			fQueued.remove(element);
+			fCache.put(element, label);
+			fChanged.add(element);
+			if (fNotificationPosted)
+				return;
+			fNotificationPosted= true;
+		}
+		postNotification();
+	}
+
+	private void postNotification() {
+		if (fDisplay != null && !fDisplay.isDisposed()) {
+			fDisplay.asyncExec(new Runnable() {
+				@Override
+				public void run() {
+					sendNotification();
+				}
+			});
+		}
+	}
+
+	private void sendNotification() {
+		Object[] elements;
+		synchronized (this) {
+			fNotificationPosted= false;
+			if (fDisposed || fChanged.isEmpty())
+				return;
+			elements= fChanged.toArray();
+			fChanged.clear();
+		}
+		fLabelProvider.fireLabelProviderChanged(new LabelProviderChangedEvent(fLabelProvider, elements));
+	}
+
+	private void invalidate(Set<IJavaElement> changed) {
+		boolean requeued;
+		boolean notify;
+		synchronized (this) {
+			if (fDisposed)
+				return;
+			List<Object> invalidated= new ArrayList<>();
+			for (Iterator<Object> iter= fCache.keySet().iterator(); iter.hasNext();) {
+				Object curr= iter.next();
+				if (curr instanceof IJavaElement && isAffected((IJavaElement) curr, changed)) {
+					iter.remove();
+					invalidated.add(curr);
+				}
+			}
+			List<Object> inProgress= new ArrayList<>();
+			for (Iterator<Object> iter= fQueued.keySet().iterator(); iter.hasNext();) {
+				Object curr= iter.next();
+				if (curr instanceof IJavaElement && isAffected((IJavaElement) curr, changed))
+					inProgress.add(curr);
+			}
+			fGeneration++;
+			// computations in progress are outdated, their results are discarded
+			requeued= requeue(inProgress);
+
+			// viewers request the labels of the invalidated elements again
+			fChanged.addAll(invalidated);
+			notify= !invalidated.isEmpty() && !fNotificationPosted;
+			if (notify)
+				fNotificationPosted= true;
+		}
+		if (requeued)
+			scheduleWorkers();
+		if (notify)
+			postNotification();
+	}
+
+	/**
+	 * Assigns the current generation to the given queued elements, and queues the elements that
+	 * are being computed again.
+	 *
+	 * @param elements the queued elements
+	 * @return <code>true</code> if elements have been added to the pending queue
+	 */
+	private boolean requeue(List<Object> elements) {
+		if (elements.isEmpty())
+			return false;
+		Set<Object> pending= new HashSet<>(fPending);
+		boolean added= false;
+		Integer generation= Integer.valueOf(fGeneration);
+		for (Iterator<Object> iter= elements.iterator(); iter.hasNext();) {
+			Object curr= iter.next();
+			fQueued.put(curr, generation);
+			if (!pending.contains(curr)) {
+				fPending.addFirst(curr);
+				added= true;
+			}
+		}
+		return added;
+	}
+
+	private static boolean isAffected(IJavaElement element, Set<IJavaElement> changed) {
+		while (element != null) {
+			if (changed.contains(element))
+				return true;
+			element= element.getParent();
+		}
+		return false;
+	}
+
+	private static String getPlaceholderText(Object element) {
+		return element instanceof IJavaElement ? ((IJavaElement) element).getElementName() : ""; //$NON-NLS-1$
+	}
+}
@@ -98,7 +98,13 @@ public class JavaElementImageProvider {
 		return getImageLabel(computeDescriptor(element, flags));
 	}
 
-	private Image getImageLabel(ImageDescriptor descriptor){
+	/**
+	 * Returns the image for the given descriptor from the image registry.
+	 *
+	 * @param descriptor the image descriptor or <code>null</code>
+	 * @return the image or <code>null</code>
+	 */
+	public Image getImageLabel(ImageDescriptor descriptor){
 		if (descriptor == null)
 			return null;
 		return getRegistry().get(descriptor);
@@ -20,6 +20,7 @@ import org.eclipse.core.runtime.SafeRunner;
 
 import org.eclipse.core.resources.IStorage;
 
+import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.util.SafeRunnable;
 import org.eclipse.jface.viewers.DelegatingStyledCellLabelProvider.IStyledLabelProvider;
 import org.eclipse.jface.viewers.IColorProvider;
@@ -30,6 +31,8 @@ import org.eclipse.jface.viewers.LabelProviderChangedEvent;
 import org.eclipse.jface.viewers.StyledCellLabelProvider;
 import org.eclipse.jface.viewers.StyledString;
 
+import org.eclipse.jdt.core.IJavaElement;
+
 import org.eclipse.jdt.ui.JavaElementLabels;
 
 public class JavaUILabelProvider implements ILabelProvider, IColorProvider, IStyledLabelProvider {
@@ -44,6 +47,8 @@ public class JavaUILabelProvider implements ILabelProvider, IColorProvider, ISty
 	private int fImageFlags;
 	private long fTextFlags;
 
+	private DeferredLabelComputer fDeferredLabelComputer;
+
 	/**
 	 * Creates a new label provider with default flags.
 	 */
@@ -81,6 +86,8 @@ public class JavaUILabelProvider implements ILabelProvider, IColorProvider, ISty
 	 */
 	public final void setTextFlags(long textFlags) {
 		fTextFlags= textFlags;
+		if (fDeferredLabelComputer != null)
+			fDeferredLabelComputer.clear();
 	}
 
 	/**
@@ -89,6 +96,27 @@ public class JavaUILabelProvider implements ILabelProvider, IColorProvider, ISty
 	 */
 	public final void setImageFlags(int imageFlags) {
 		fImageFlags= imageFlags;
+		if (fDeferredLabelComputer != null)
+			fDeferredLabelComputer.clear();
+	}
+
+	/**
+	 * Enables or disables the computation of styled labels and images of Java elements in the
+	 * background. When enabled, {@link #getStyledText(Object)} and {@link #getImage(Object)} return
+	 * a placeholder for elements whose label is not yet available and send a label provider
+	 * changed event once it is. {@link #getText(Object)} always computes the label, as it is also
+	 * used for sorting. Must be called in the UI thread.
+	 *
+	 * @param enable <code>true</code> to compute the labels in the background
+	 * @since 3.12
+	 */
+	public void setDeferredLabelComputation(boolean enable) {
+		if (enable && fDeferredLabelComputer == null) {
+			fDeferredLabelComputer= new DeferredLabelComputer(this);
+		} else if (!enable && fDeferredLabelComputer != null) {
+			fDeferredLabelComputer.dispose();
+			fDeferredLabelComputer= null;
+		}
 	}
 
 	/**
@@ -139,6 +167,10 @@ public class JavaUILabelProvider implements ILabelProvider, IColorProvider, ISty
 
 	@Override
 	public Image getImage(Object element) {
+		if (fDeferredLabelComputer != null && element instanceof IJavaElement) {
+			ImageDescriptor descriptor= fDeferredLabelComputer.getImageDescriptor((IJavaElement) element, evaluateImageFlags(element));
+			return decorateImage(fImageLabelProvider.getImageLabel(descriptor), element);
+		}
 		Image result= fImageLabelProvider.getImageLabel(element, evaluateImageFlags(element));
 		if (result == null && (element instanceof IStorage)) {
 			result= fStorageLabelProvider.getImage(element);
@@ -172,7 +204,12 @@ public class JavaUILabelProvider implements ILabelProvider, IColorProvider, ISty
 
 	@Override
 	public StyledString getStyledText(Object element) {
-		StyledString string= JavaElementLabels.getStyledTextLabel(element, (evaluateTextFlags(element) | JavaElementLabels.COLORIZE));
+		StyledString string;
+		if (fDeferredLabelComputer != null && element instanceof IJavaElement) {
+			string= fDeferredLabelComputer.getStyledText((IJavaElement) element);
+		} else {
+			string= computeStyledText(element);
+		}
 		if (string.length() == 0 && (element instanceof IStorage)) {
 			string= new StyledString(fStorageLabelProvider.getText(element));
 		}
@@ -183,6 +220,27 @@ public class JavaUILabelProvider implements ILabelProvider, IColorProvider, ISty
 		return string;
 	}
 
+	/**
+	 * Computes the undecorated styled label of the given element. May be called in any thread.
+	 *
+	 * @param element the element
+	 * @return the styled label
+	 */
+	StyledString computeStyledText(Object element) {
+		return JavaElementLabels.getStyledTextLabel(element, (evaluateTextFlags(element) | JavaElementLabels.COLORIZE));
+	}
+
+	/**
+	 * Computes the undecorated image descriptor of the given Java element. May be called in any
+	 * thread.
+	 *
+	 * @param element the element
+	 * @return the image descriptor
+	 */
+	ImageDescriptor computeImageDescriptor(Object element) {
+		return fImageLabelProvider.getJavaImageDescriptor((IJavaElement) element, evaluateImageFlags(element));
+	}
+
 	@Override
 	public void dispose() {
 		if (fLabelDecorators != null) {
@@ -192,6 +250,10 @@ public class JavaUILabelProvider implements ILabelProvider, IColorProvider, ISty
 			}
 			fLabelDecorators= null;
 		}
+		if (fDeferredLabelComputer != null) {
+			fDeferredLabelComputer.dispose();
+			fDeferredLabelComputer= null;
+		}
 		fStorageLabelProvider.dispose();
 		fImageLabelProvider.dispose();
 	}
@@ -21,6 +21,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.ListenerList;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IMarkerDelta;
@@ -47,6 +48,11 @@ import org.eclipse.jdt.internal.ui.javaeditor.CompilationUnitAnnotationModelEven
  * Listens to resource deltas and filters for marker changes of type IMarker.PROBLEM
  * Viewers showing error ticks should register as listener to
  * this type.
+ * <p>
+ * Marker changes are collected for a short time and then applied to a {@link ProblemSeverityIndex}
+ * in the background. Listeners are only notified about resources with changed markers and the
+ * ancestors whose rolled-up severity has changed.
+ * </p>
  */
 public class ProblemMarkerManager implements IResourceChangeListener, IAnnotationModelListener , IAnnotationModelListenerExtension {
 
@@ -55,10 +61,12 @@ public class ProblemMarkerManager implements IResourceChangeListener, IAnnotatio
 	 */
 	private static class ProjectErrorVisitor implements IResourceDeltaVisitor {
 
-		private HashSet<IResource> fChangedElements;
+		private Set<IResource> fChangedElements;
+		private int fMarkerChanges;
 
-		public ProjectErrorVisitor(HashSet<IResource> changedElements) {
+		public ProjectErrorVisitor(Set<IResource> changedElements) {
 			fChangedElements= changedElements;
+			fMarkerChanges= 0;
 		}
 
 		@Override
@@ -66,6 +74,9 @@ public class ProblemMarkerManager implements IResourceChangeListener, IAnnotatio
 			IResource res= delta.getResource();
 			if (res instanceof IProject && delta.getKind() == IResourceDelta.CHANGED) {
 				IProject project= (IProject) res;
+				boolean isOpenStateChange= (delta.getFlags() & IResourceDelta.OPEN) != 0;
+				if (isOpenStateChange)
+					fChangedElements.add(project);
 				if (!project.isAccessible()) {
 					// only track open Java projects
 					return false;
@@ -78,32 +89,47 @@ public class ProblemMarkerManager implements IResourceChangeListener, IAnnotatio
 		private void checkInvalidate(IResourceDelta delta, IResource resource) {
 			int kind= delta.getKind();
 			if (kind == IResourceDelta.REMOVED || kind == IResourceDelta.ADDED || (kind == IResourceDelta.CHANGED && isErrorDelta(delta))) {
-				// invalidate the resource and all parents
-				while (resource.getType() != IResource.ROOT && fChangedElements.add(resource)) {
-					resource= resource.getParent();
-				}
+				// only the resource itself, ancestors are invalidated when their severity changes
+				if (resource.getType() != IResource.ROOT)
+					fChangedElements.add(resource);
 			}
 		}
 
 		private boolean isErrorDelta(IResourceDelta delta) {
+			boolean isErrorDelta= false;
 			if ((delta.getFlags() & IResourceDelta.MARKERS) != 0) {
 				IMarkerDelta[] markerDeltas= delta.getMarkerDeltas();
 				for (int i= 0; i < markerDeltas.length; i++) {
 					if (markerDeltas[i].isSubtypeOf(IMarker.PROBLEM)) {
 						int kind= markerDeltas[i].getKind();
-						if (kind == IResourceDelta.ADDED || kind == IResourceDelta.REMOVED)
-							return true;
+						if (kind == IResourceDelta.ADDED || kind == IResourceDelta.REMOVED) {
+							fMarkerChanges++;
+							isErrorDelta= true;
+							continue;
+						}
 						int severity= markerDeltas[i].getAttribute(IMarker.SEVERITY, -1);
 						int newSeverity= markerDeltas[i].getMarker().getAttribute(IMarker.SEVERITY, -1);
-						if (newSeverity != severity)
-							return true;
+						if (newSeverity != severity) {
+							fMarkerChanges++;
+							isErrorDelta= true;
+						}
 					}
 				}
 			}
-			return false;
+			return isErrorDelta;
+		}
+
+		public int getMarkerChanges() {
+			return fMarkerChanges;
 		}
 	}
 
+	/**
+	 * Time in milliseconds during which incoming marker changes are collected before the
+	 * severities are recomputed and the listeners are notified.
+	 */
+	private static final int COALESCE_DELAY= 150;
+
 	private ListenerList<IProblemChangedListener> fListeners;
 
 	private Set<IResource> fResourcesWithMarkerChanges;
@@ -111,10 +137,24 @@ public class ProblemMarkerManager implements IResourceChangeListener, IAnnotatio
 
 	private UIJob fNotifierJob;
 
+	/**
+	 * Resources with marker changes that have not yet been applied to {@link #fSeverityIndex}.
+	 */
+	private Set<IResource> fPendingMarkerChanges;
+	private int fPendingMarkerChangeCount;
+	private Job fSeverityUpdateJob;
+	private final ProblemSeverityIndex fSeverityIndex;
+
+	private long fMarkerChangesIn;
+	private long fResourceChangesIn;
+	private long fResourceChangesOut;
+
 	public ProblemMarkerManager() {
 		fListeners= new ListenerList<>();
 		fResourcesWithMarkerChanges= new HashSet<>();
 		fResourcesWithAnnotationChanges= new HashSet<>();
+		fPendingMarkerChanges= new HashSet<>();
+		fSeverityIndex= new ProblemSeverityIndex();
 	}
 
 	/*
@@ -123,15 +163,101 @@ public class ProblemMarkerManager implements IResourceChangeListener, IAnnotatio
 	@Override
 	public void resourceChanged(IResourceChangeEvent event) {
 		HashSet<IResource> changedElements= new HashSet<>();
-
+		ProjectErrorVisitor visitor= new ProjectErrorVisitor(changedElements);
 		try {
 			IResourceDelta delta= event.getDelta();
 			if (delta != null)
-				delta.accept(new ProjectErrorVisitor(changedElements));
+				delta.accept(visitor);
 		} catch (CoreException e) {
 			JavaPlugin.log(e.getStatus());
 		}
 
+		if (!changedElements.isEmpty()) {
+			synchronized (this) {
+				if (fPendingMarkerChanges.isEmpty()) {
+					fPendingMarkerChanges= changedElements;
+				} else {
+					fPendingMarkerChanges.addAll(changedElements);
+				}
+				fPendingMarkerChangeCount+= visitor.getMarkerChanges();
+			}
+			postSeverityUpdate();
+		}
+	}
+
+	private synchronized void postSeverityUpdate() {
+		if (fSeverityUpdateJob == null) {
+			fSeverityUpdateJob= new Job(JavaUIMessages.ProblemMarkerManager_problem_marker_update_job_description) {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					runSeverityUpdate();
+					return Status.OK_STATUS;
+				}
+			};
+			fSeverityUpdateJob.setSystem(true);
+			fSeverityUpdateJob.setPriority(Job.DECORATE);
+		}
+		// no effect while the job is waiting, so changes are coalesced until it runs
+		fSeverityUpdateJob.schedule(COALESCE_DELAY);
+	}
+
+	/**
+	 * Applies the pending marker changes to the severity index and forwards the resources whose
+	 * problem state effectively changed to the listeners. Resources with marker changes are always
+	 * reported, their ancestors only if their rolled-up severity has changed.
+	 */
+	private void runSeverityUpdate() {
+		IResource[] pending;
+		int markerChanges;
+		synchronized (this) {
+			if (fPendingMarkerChanges.isEmpty() && fSeverityIndex.isInitialized())
+				return;
+			pending= fPendingMarkerChanges.toArray(new IResource[fPendingMarkerChanges.size()]);
+			markerChanges= fPendingMarkerChangeCount;
+			fPendingMarkerChanges.clear();
+			fPendingMarkerChangeCount= 0;
+		}
+		long start= System.currentTimeMillis();
+
+		HashSet<IResource> changedElements= new HashSet<>();
+		if (!fSeverityIndex.isInitialized()) {
+			// no previous state to compare with: report the resources and all their parents
+			try {
+				fSeverityIndex.initialize(JavaPlugin.getWorkspace().getRoot().findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE));
+			} catch (CoreException e) {
+				JavaPlugin.log(e.getStatus());
+				fSeverityIndex.reset();
+			}
+			for (int i= 0; i < pending.length; i++) {
+				IResource resource= pending[i];
+				while (resource.getType() != IResource.ROOT && changedElements.add(resource)) {
+					resource= resource.getParent();
+				}
+			}
+		} else {
+			for (int i= 0; i < pending.length; i++) {
+				IResource resource= pending[i];
+				changedElements.add(resource);
+				if (resource.isAccessible()) {
+					fSeverityIndex.update(resource, findOwnSeverity(resource), changedElements);
+				} else {
+					fSeverityIndex.remove(resource, changedElements);
+				}
+			}
+			changedElements.remove(JavaPlugin.getWorkspace().getRoot());
+		}
+
+		synchronized (this) {
+			fMarkerChangesIn+= markerChanges;
+			fResourceChangesIn+= pending.length;
+			fResourceChangesOut+= changedElements.size();
+			if (JavaPlugin.DEBUG_PROBLEM_MARKER_MANAGER) {
+				System.out.println("ProblemMarkerManager: " + markerChanges + " marker changes on " + pending.length + " resources -> " //$NON-NLS-1$ //$NON-NLS-2$
+						+ changedElements.size() + " resources notified in " + (System.currentTimeMillis() - start) + "ms (total: " //$NON-NLS-1$ //$NON-NLS-2$
+						+ fMarkerChangesIn + " / " + fResourceChangesIn + " -> " + fResourceChangesOut + ", indexed: " + fSeverityIndex.size() + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			}
+		}
+
 		if (!changedElements.isEmpty()) {
 			boolean hasChanges= false;
 			synchronized (this) {
@@ -148,6 +274,37 @@ public class ProblemMarkerManager implements IResourceChangeListener, IAnnotatio
 		}
 	}
 
+	private static int findOwnSeverity(IResource resource) {
+		try {
+			return resource.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_ZERO);
+		} catch (CoreException e) {
+			// resource got removed concurrently
+			return ProblemSeverityIndex.NONE;
+		}
+	}
+
+	/**
+	 * Returns the index of the rolled-up problem severities of the workspace resources. The
+	 * index is only maintained while listeners are registered, see
+	 * {@link ProblemSeverityIndex#isInitialized()}.
+	 *
+	 * @return the severity index
+	 */
+	public ProblemSeverityIndex getSeverityIndex() {
+		return fSeverityIndex;
+	}
+
+	/**
+	 * Returns the number of problem marker changes received and the number of resource change
+	 * notifications received and sent to the listeners since this manager has been created.
+	 *
+	 * @return an array with the marker changes in, the resource changes in and the resource changes
+	 *         out
+	 */
+	public synchronized long[] getStatistics() {
+		return new long[] { fMarkerChangesIn, fResourceChangesIn, fResourceChangesOut };
+	}
+
 	@Override
 	public void modelChanged(IAnnotationModel model) {
 		// no action
@@ -179,6 +336,8 @@ public class ProblemMarkerManager implements IResourceChangeListener, IAnnotatio
 		if (fListeners.isEmpty()) {
 			JavaPlugin.getWorkspace().addResourceChangeListener(this);
 			JavaPlugin.getDefault().getCompilationUnitDocumentProvider().addGlobalAnnotationModelListener(this);
+			// build the severity index in the background
+			postSeverityUpdate();
 		}
 		fListeners.add(listener);
 	}
@@ -192,6 +351,8 @@ public class ProblemMarkerManager implements IResourceChangeListener, IAnnotatio
 		if (fListeners.isEmpty()) {
 			JavaPlugin.getWorkspace().removeResourceChangeListener(this);
 			JavaPlugin.getDefault().getCompilationUnitDocumentProvider().removeGlobalAnnotationModelListener(this);
+			// the index would get stale without resource change notifications
+			fSeverityIndex.reset();
 		}
 	}
 
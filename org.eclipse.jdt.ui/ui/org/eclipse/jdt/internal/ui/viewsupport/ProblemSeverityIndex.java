@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.viewsupport;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IPath;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+
+/**
+ * Maintains the maximum problem marker severity of resources, rolled up to all ancestor
+ * containers.
+ * <p>
+ * For every resource, the index stores the severity of the problem markers directly attached
+ * to it and, for containers, the number of children per rolled-up severity. Updating the
+ * severity of a single resource therefore only touches the resource and those ancestors whose
+ * rolled-up severity actually changes. Resources without problems in their subtree are not
+ * stored.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @since 3.12
+ */
+public class ProblemSeverityIndex {
+
+	/**
+	 * Severity value used for resources without problem markers.
+	 */
+	public static final int NONE= -1;
+
+	private static final class Entry {
+
+		int fOwnSeverity= NONE;
+
+		int fSeverity= NONE;
+
+		/**
+		 * Number of children with the rolled-up severity {@link IMarker#SEVERITY_INFO},
+		 * {@link IMarker#SEVERITY_WARNING} and {@link IMarker#SEVERITY_ERROR}.
+		 */
+		final int[] fChildCounts= new int[3];
+
+		int computeSeverity() {
+			for (int i= IMarker.SEVERITY_ERROR; i > fOwnSeverity; i--) {
+				if (fChildCounts[i] > 0)
+					return i;
+			}
+			return fOwnSeverity;
+		}
+
+		boolean hasChildren() {
+			return fChildCounts[0] != 0 || fChildCounts[1] != 0 || fChildCounts[2] != 0;
+		}
+
+		boolean isEmpty() {
+			return fOwnSeverity == NONE && !hasChildren();
+		}
+	}
+
+	private final Map<IResource, Entry> fEntries;
+
+	private boolean fInitialized;
+
+	public ProblemSeverityIndex() {
+		fEntries= new HashMap<>();
+		fInitialized= false;
+	}
+
+	/**
+	 * Returns whether the index has been initialized with the problem markers of the workspace.
+	 * An index that is not initialized does not know any severities.
+	 *
+	 * @return <code>true</code> if the index is initialized
+	 */
+	public synchronized boolean isInitialized() {
+		return fInitialized;
+	}
+
+	/**
+	 * Clears the index and fills it with the given problem markers.
+	 *
+	 * @param markers all problem markers of the workspace
+	 */
+	public synchronized void initialize(IMarker[] markers) {
+		fEntries.clear();
+		Map<IResource, Integer> ownSeverities= new HashMap<>();
+		for (int i= 0; i < markers.length; i++) {
+			int severity= getMarkerSeverity(markers[i]);
+			if (severity != NONE) {
+				IResource resource= markers[i].getResource();
+				Integer old= ownSeverities.get(resource);
+				if (old == null || old.intValue() < severity)
+					ownSeverities.put(resource, Integer.valueOf(severity));
+			}
+		}
+		for (Iterator<Map.Entry<IResource, Integer>> iter= ownSeverities.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<IResource, Integer> curr= iter.next();
+			update(curr.getKey(), curr.getValue().intValue(), null);
+		}
+		fInitialized= true;
+	}
+
+	/**
+	 * Removes all entries and marks the index as not initialized.
+	 */
+	public synchronized void reset() {
+		fEntries.clear();
+		fInitialized= false;
+	}
+
+	/**
+	 * Returns the maximum severity of the problem markers on the given resource and all its
+	 * descendants.
+	 *
+	 * @param resource the resource
+	 * @return one of the <code>IMarker.SEVERITY_*</code> constants or {@link #NONE}
+	 */
+	public synchronized int getSeverity(IResource resource) {
+		Entry entry= fEntries.get(resource);
+		return entry != null ? entry.fSeverity : NONE;
+	}
+
+	/**
+	 * Returns the maximum severity of the problem markers directly attached to the given
+	 * resource.
+	 *
+	 * @param resource the resource
+	 * @return one of the <code>IMarker.SEVERITY_*</code> constants or {@link #NONE}
+	 */
+	public synchronized int getOwnSeverity(IResource resource) {
+		Entry entry= fEntries.get(resource);
+		return entry != null ? entry.fOwnSeverity : NONE;
+	}
+
+	/**
+	 * Sets the severity of the problem markers directly attached to the given resource and
+	 * updates the rolled-up severities of its ancestors.
+	 *
+	 * @param resource the resource
+	 * @param ownSeverity the maximum severity of the markers on the resource, or {@link #NONE}
+	 * @param changed if not <code>null</code>, receives the resources whose rolled-up severity
+	 *            has changed
+	 */
+	public synchronized void update(IResource resource, int ownSeverity, Set<IResource> changed) {
+		Entry entry= fEntries.get(resource);
+		if (entry == null) {
+			if (ownSeverity == NONE)
+				return;
+			entry= new Entry();
+			fEntries.put(resource, entry);
+		}
+		entry.fOwnSeverity= ownSeverity;
+		propagate(resource, entry, changed);
+	}
+
+	/**
+	 * Forgets the severities of the given resource and all its descendants, e.g. because the
+	 * resource has been removed or closed.
+	 *
+	 * @param resource the resource
+	 * @param changed if not <code>null</code>, receives the resources whose rolled-up severity
+	 *            has changed
+	 */
+	public synchronized void remove(IResource resource, Set<IResource> changed) {
+		Entry entry= fEntries.get(resource);
+		if (entry == null)
+			return;
+		if (entry.hasChildren()) {
+			IPath path= resource.getFullPath();
+			List<IResource> descendants= new ArrayList<>();
+			for (Iterator<IResource> iter= fEntries.keySet().iterator(); iter.hasNext();) {
+				IResource curr= iter.next();
+				if (!curr.equals(resource) && path.isPrefixOf(curr.getFullPath()))
+					descendants.add(curr);
+			}
+			for (int i= 0; i < descendants.size(); i++) {
+				fEntries.remove(descendants.get(i));
+			}
+		}
+		entry.fOwnSeverity= NONE;
+		entry.fChildCounts[0]= entry.fChildCounts[1]= entry.fChildCounts[2]= 0;
+		propagate(resource, entry, changed);
+	}
+
+	private void propagate(IResource resource, Entry entry, Set<IResource> changed) {
+		while (true) {
+			int oldSeverity= entry.fSeverity;
+			int newSeverity= entry.computeSeverity();
+			if (entry.isEmpty())
+				fEntries.remove(resource);
+			if (oldSeverity == newSeverity)
+				return;
+			entry.fSeverity= newSeverity;
+			if (changed != null)
+				changed.add(resource);
+
+			IResource parent= resource.getParent();
+			if (parent == null)
+				return;
+			Entry parentEntry= fEntries.get(parent);
+			if (parentEntry == null) {
+				parentEntry= new Entry();
+				fEntries.put(parent, parentEntry);
+			}
+			if (oldSeverity != NONE)
+				parentEntry.fChildCounts[oldSeverity]--;
+			if (newSeverity != NONE)
+				parentEntry.fChildCounts[newSeverity]++;
+			resource= parent;
+			entry= parentEntry;
+		}
+	}
+
+	/**
+	 * Returns the number of resources currently held by the index.
+	 *
+	 * @return the number of indexed resources
+	 */
+	public synchronized int size() {
+		return fEntries.size();
+	}
+
+	private static int getMarkerSeverity(IMarker marker) {
+		int severity= marker.getAttribute(IMarker.SEVERITY, NONE);
+		if (severity < IMarker.SEVERITY_INFO || severity > IMarker.SEVERITY_ERROR)
+			return NONE;
+		return severity;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,6 +12,8 @@
 package org.eclipse.jdt.internal.ui.viewsupport;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 import org.eclipse.swt.events.DisposeEvent;
@@ -42,6 +44,52 @@ public class ProblemTreeViewer extends TreeViewer implements ResourceToItemsMapp
 
 	protected ResourceToItemsMapper fResourceToItemsMapper;
 
+	/**
+	 * Number of element tests after a filter change that are timed to order the filters.
+	 * @since 3.12
+	 */
+	private static final int SAMPLE_COUNT= 256;
+
+	/**
+	 * The measured cost of a filter.
+	 * @since 3.12
+	 */
+	private static final class FilterCost {
+		final ViewerFilter fFilter;
+		long fTime;
+		int fTests;
+		int fRejects;
+
+		FilterCost(ViewerFilter filter) {
+			fFilter= filter;
+		}
+
+		/*
+		 * The expected time spent in the filter per rejected element. Filters that reject many
+		 * elements quickly should be tested first.
+		 */
+		double getCostPerReject() {
+			if (fTests == 0)
+				return Double.MAX_VALUE; // only tested after the filters that reject everything
+			return (double) fTime / fTests / ((fRejects + 1.0) / (fTests + 1.0));
+		}
+	}
+
+	/**
+	 * The filters in the order in which they are tested, <code>null</code> if the filters changed.
+	 * @since 3.12
+	 */
+	private ViewerFilter[] fOrderedFilters;
+	private FilterCost[] fFilterCosts;
+	private int fSampledTests;
+	/**
+	 * <code>true</code> while a filter is tested for a sampled element. Filters that test other
+	 * elements with this viewer, e.g. the children of the element, are not charged for these tests.
+	 * @since 3.12
+	 */
+	private boolean fSampling;
+	private long fNestedTime;
+
 	/*
 	 * @see TreeViewer#TreeViewer(Composite)
 	 */
@@ -115,11 +163,13 @@ public class ProblemTreeViewer extends TreeViewer implements ResourceToItemsMapp
 		if (filter instanceof JavaViewerFilter) {
 			((JavaViewerFilter) filter).filteringStart();
 		}
+		fOrderedFilters= null;
 		super.addFilter(filter);
 	}
 
 	@Override
 	public void removeFilter(ViewerFilter filter) {
+		fOrderedFilters= null;
 		super.removeFilter(filter);
 		if (filter instanceof JavaViewerFilter) {
 			((JavaViewerFilter) filter).filteringEnd();
@@ -136,12 +186,14 @@ public class ProblemTreeViewer extends TreeViewer implements ResourceToItemsMapp
 			}
 		}
     	endFilterSessions(oldFilters);
+		fOrderedFilters= null;
 		super.setFilters(filters);
 	}
 
 	@Override
 	public void resetFilters() {
     	endFilterSessions(getFilters());
+		fOrderedFilters= null;
 		super.resetFilters();
 	}
 
@@ -256,7 +308,7 @@ public class ProblemTreeViewer extends TreeViewer implements ResourceToItemsMapp
 			return elements;
 		}
 		List<Object> list= new ArrayList<>(elements.length);
-		ViewerFilter[] filters = getFilters();
+		ViewerFilter[] filters = getOrderedFilters();
 		for (int i = 0; i < elements.length; i++) {
 			Object object = elements[i];
 			if (!isFiltered(object, parent, filters)) {
@@ -273,7 +325,7 @@ public class ProblemTreeViewer extends TreeViewer implements ResourceToItemsMapp
 		if (!hasFilters()) {
 			return true;
 		}
-		ViewerFilter[] filters = getFilters();
+		ViewerFilter[] filters = getOrderedFilters();
 		for (int i = 0; i < elements.length; i++) {
 			Object object = elements[i];
 			if (!isFiltered(object, parent, filters)) {
@@ -293,6 +345,24 @@ public class ProblemTreeViewer extends TreeViewer implements ResourceToItemsMapp
 	 * @return true if the element is filtered
 	 */
 	protected boolean isFiltered(Object object, Object parent, ViewerFilter[] filters) {
+		if (fSampling) {
+			// tested by a filter that is sampled
+			fSampling= false;
+			long start= System.nanoTime();
+			try {
+				return isFilteredUnsampled(object, parent, filters);
+			} finally {
+				fNestedTime+= System.nanoTime() - start;
+				fSampling= true;
+			}
+		}
+		if (filters == fOrderedFilters && fSampledTests < SAMPLE_COUNT) {
+			return isFilteredSampled(object, parent, filters, fFilterCosts);
+		}
+		return isFilteredUnsampled(object, parent, filters);
+	}
+
+	private boolean isFilteredUnsampled(Object object, Object parent, ViewerFilter[] filters) {
 		for (int i = 0; i < filters.length; i++) {
 			ViewerFilter filter = filters[i];
 			if (!filter.select(this, parent, object))
@@ -317,7 +387,64 @@ public class ProblemTreeViewer extends TreeViewer implements ResourceToItemsMapp
 	 * @return return <code>true</code> if the element is filtered
 	 */
 	public boolean isFiltered(Object object, Object parent) {
-		return isFiltered(object, parent, getFilters());
+		return isFiltered(object, parent, getOrderedFilters());
+	}
+
+	/**
+	 * Returns the filters in the order in which they are tested. The order of the filters doesn't
+	 * change the filtered elements, so the filters are ordered by their cost per rejected element,
+	 * measured for the first elements that are tested after the filters changed.
+	 *
+	 * @return the filters in the order in which they are tested
+	 * @since 3.12
+	 */
+	protected final ViewerFilter[] getOrderedFilters() {
+		if (fOrderedFilters == null) {
+			fOrderedFilters= getFilters();
+			fFilterCosts= new FilterCost[fOrderedFilters.length];
+			for (int i= 0; i < fOrderedFilters.length; i++) {
+				fFilterCosts[i]= new FilterCost(fOrderedFilters[i]);
+			}
+			fSampledTests= fOrderedFilters.length > 1 ? 0 : SAMPLE_COUNT;
+		}
+		return fOrderedFilters;
+	}
+
+	private boolean isFilteredSampled(Object object, Object parent, ViewerFilter[] filters, FilterCost[] costs) {
+		boolean filtered= false;
+		fSampling= true;
+		try {
+			for (int i= 0; i < filters.length; i++) {
+				long nestedTime= fNestedTime;
+				long start= System.nanoTime();
+				boolean selected= filters[i].select(this, parent, object);
+				costs[i].fTime+= System.nanoTime() - start - (fNestedTime - nestedTime);
+				costs[i].fTests++;
+				if (!selected) {
+					costs[i].fRejects++;
+					filtered= true;
+					break;
+				}
+			}
+		} finally {
+			fSampling= false;
+		}
+		if (costs == fFilterCosts && ++fSampledTests == SAMPLE_COUNT) {
+			FilterCost[] sorted= costs.clone();
+			Arrays.sort(sorted, new Comparator<FilterCost>() {
+				@Override
+				public int compare(FilterCost c1, FilterCost c2) {
+					return Double.compare(c1.getCostPerReject(), c2.getCostPerReject());
+				}
+			});
+			ViewerFilter[] ordered= new ViewerFilter[sorted.length];
+			for (int i= 0; i < sorted.length; i++) {
+				ordered[i]= sorted[i].fFilter;
+			}
+			fFilterCosts= sorted;
+			fOrderedFilters= ordered;
+		}
+		return filtered;
 	}
 }
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2008 IBM Corporation and others.
+ * Copyright (c) 2006, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,14 +11,14 @@
 
 package org.eclipse.jdt.ui;
 
-import java.util.regex.Pattern;
-
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.rewrite.ImportRewrite;
 
+import org.eclipse.jdt.internal.corext.codemanipulation.ImportRewriteSettings;
+
 /**
  * Gives access to the import rewrite configured with the settings as specified in the user interface.
  * These settings are kept in JDT UI for compatibility reasons.
@@ -33,8 +33,6 @@ import org.eclipse.jdt.core.dom.rewrite.ImportRewrite;
  */
 public class CodeStyleConfiguration {
 
-	private static final Pattern SEMICOLON_PATTERN= Pattern.compile(";"); //$NON-NLS-1$
-
 	private CodeStyleConfiguration() {
 		// do not instantiate and subclass
 	}
@@ -72,32 +70,7 @@ public class CodeStyleConfiguration {
 
 	private static ImportRewrite configureImportRewrite(ImportRewrite rewrite) {
 		IJavaProject project= rewrite.getCompilationUnit().getJavaProject();
-		String order= PreferenceConstants.getPreference(PreferenceConstants.ORGIMPORTS_IMPORTORDER, project);
-		if (order.endsWith(";")) { //$NON-NLS-1$
-			order= order.substring(0, order.length() - 1);
-		}
-		String[] split= SEMICOLON_PATTERN.split(order, -1);
-		rewrite.setImportOrder(split);
-
-		String thres= PreferenceConstants.getPreference(PreferenceConstants.ORGIMPORTS_ONDEMANDTHRESHOLD, project);
-		try {
-			int num= Integer.parseInt(thres);
-			if (num == 0)
-				num= 1;
-			rewrite.setOnDemandImportThreshold(num);
-		} catch (NumberFormatException e) {
-			// ignore
-		}
-		String thresStatic= PreferenceConstants.getPreference(PreferenceConstants.ORGIMPORTS_STATIC_ONDEMANDTHRESHOLD, project);
-		try {
-			int num= Integer.parseInt(thresStatic);
-			if (num == 0)
-				num= 1;
-			rewrite.setStaticOnDemandImportThreshold(num);
-		} catch (NumberFormatException e) {
-			// ignore
-		}
-		return rewrite;
+		return new ImportRewriteSettings(project).configure(rewrite);
 	}
 
 
@@ -61,6 +61,7 @@ import org.eclipse.jdt.internal.ui.JavaPluginImages;
 import org.eclipse.jdt.internal.ui.viewsupport.IProblemChangedListener;
 import org.eclipse.jdt.internal.ui.viewsupport.ImageDescriptorRegistry;
 import org.eclipse.jdt.internal.ui.viewsupport.ImageImageDescriptor;
+import org.eclipse.jdt.internal.ui.viewsupport.ProblemSeverityIndex;
 
 /**
  * LabelDecorator that decorates an element's image with error and warning overlays that
@@ -293,8 +294,18 @@ public class ProblemsLabelDecorator implements ILabelDecorator, ILightweightLabe
 					return ERRORTICK_BUILDPATH_ERROR;
 				}
 			}
-			severity= res.findMaxProblemSeverity(IMarker.PROBLEM, true, depth);
+			ProblemSeverityIndex index= getSeverityIndex();
+			if (index != null && (depth == IResource.DEPTH_INFINITE || res.getType() == IResource.FILE)) {
+				severity= index.getSeverity(res);
+			} else {
+				severity= res.findMaxProblemSeverity(IMarker.PROBLEM, true, depth);
+			}
 		} else {
+			ProblemSeverityIndex index= getSeverityIndex();
+			if (index != null && index.getSeverity(res) == ProblemSeverityIndex.NONE) {
+				// no need to look at the marker positions
+				return 0;
+			}
 			IMarker[] markers= res.findMarkers(IMarker.PROBLEM, true, depth);
 			if (markers != null && markers.length > 0) {
 				for (int i= 0; i < markers.length && (severity != IMarker.SEVERITY_ERROR); i++) {
@@ -326,14 +337,21 @@ public class ProblemsLabelDecorator implements ILabelDecorator, ILightweightLabe
 			return 0;
 		}
 		
+		ProblemSeverityIndex index= getSeverityIndex();
+		if (index != null && index.getSeverity(res) == ProblemSeverityIndex.NONE) {
+			// no problems in the folder and its subfolders
+			return 0;
+		}
+
 		// markers on package itself (e.g. missing @NonNullByDefault)
-		int severity= res.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_ZERO);
+		int severity= index != null ? index.getOwnSeverity(res) : res.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_ZERO);
 		if (severity == IMarker.SEVERITY_ERROR)
 			return ERRORTICK_ERROR;
 		
 		// markers on CUs
 		for (ICompilationUnit cu : pack.getCompilationUnits()) {
-			severity= Math.max(severity, cu.getResource().findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_ZERO));
+			IResource cuResource= cu.getResource();
+			severity= Math.max(severity, index != null ? index.getSeverity(cuResource) : cuResource.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_ZERO));
 			if (severity == IMarker.SEVERITY_ERROR)
 				return ERRORTICK_ERROR;
 		}
@@ -342,7 +360,7 @@ public class ProblemsLabelDecorator implements ILabelDecorator, ILightweightLabe
 		for (Object object : pack.getNonJavaResources()) {
 			if (object instanceof IResource) {
 				IResource resource= (IResource) object;
-				severity= Math.max(severity, resource.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE));
+				severity= Math.max(severity, index != null ? index.getSeverity(resource) : resource.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE));
 				if (severity == IMarker.SEVERITY_ERROR)
 					return ERRORTICK_ERROR;
 			}
@@ -358,6 +376,16 @@ public class ProblemsLabelDecorator implements ILabelDecorator, ILightweightLabe
 		return 0;
 	}
 
+	/**
+	 * Returns the index of the rolled-up problem severities if it is up to date.
+	 *
+	 * @return the severity index or <code>null</code> if the markers have to be queried directly
+	 */
+	private static ProblemSeverityIndex getSeverityIndex() {
+		ProblemSeverityIndex index= JavaPlugin.getDefault().getProblemMarkerManager().getSeverityIndex();
+		return index.isInitialized() ? index : null;
+	}
+
 	private boolean isMarkerInRange(IMarker marker, ISourceReference sourceElement) throws CoreException {
 		if (marker.isSubtypeOf(IMarker.TEXT)) {
 			int pos= marker.getAttribute(IMarker.CHAR_START, -1);
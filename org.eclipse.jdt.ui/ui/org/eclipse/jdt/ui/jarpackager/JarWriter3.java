@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,8 @@ package org.eclipse.jdt.ui.jarpackager;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -29,9 +31,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.jar.JarEntry;
-import java.util.jar.JarOutputStream;
+import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.eclipse.swt.widgets.Shell;
 
@@ -61,6 +64,7 @@ import org.eclipse.jdt.internal.corext.util.Messages;
 import org.eclipse.jdt.internal.ui.JavaPlugin;
 import org.eclipse.jdt.internal.ui.jarpackager.JarPackagerMessages;
 import org.eclipse.jdt.internal.ui.jarpackager.JarPackagerUtil;
+import org.eclipse.jdt.internal.ui.jarpackager.ZipArchiveWriter;
 import org.eclipse.jdt.internal.ui.viewsupport.BasicElementLabels;
 
 
@@ -75,9 +79,13 @@ import org.eclipse.jdt.internal.ui.viewsupport.BasicElementLabels;
  */
 public class JarWriter3 {
 
+	private static final int BUFFER_SIZE= 64 * 1024;
+
 	private Set<String> fDirectories= new HashSet<>();
 
-	private JarOutputStream fJarOutputStream;
+	private long fStartTime;
+
+	private ZipArchiveWriter fArchiveWriter;
 
 	private JarPackageData fJarPackage;
 
@@ -100,15 +108,18 @@ public class JarWriter3 {
 		if (!canCreateJar(parent))
 			throw new OperationCanceledException();
 
+		fStartTime= System.currentTimeMillis();
 		try {
+			fArchiveWriter= new ZipArchiveWriter(new BufferedOutputStream(new FileOutputStream(fJarPackage.getAbsoluteJarLocation().toFile()), BUFFER_SIZE));
 			if (fJarPackage.usesManifest() && fJarPackage.areGeneratedFilesExported()) {
 				Manifest manifest= fJarPackage.getManifestProvider().create(fJarPackage);
-				fJarOutputStream= new JarOutputStream(new BufferedOutputStream(new FileOutputStream(fJarPackage.getAbsoluteJarLocation().toFile())), manifest);
-			} else
-				fJarOutputStream= new JarOutputStream(new BufferedOutputStream(new FileOutputStream(fJarPackage.getAbsoluteJarLocation().toFile())));
+				ByteArrayOutputStream content= new ByteArrayOutputStream();
+				manifest.write(content);
+				fArchiveWriter.putEntry(new JarEntry(JarFile.MANIFEST_NAME), new ByteArrayInputStream(content.toByteArray()));
+			}
 			String comment= jarPackage.getComment();
 			if (comment != null)
-				fJarOutputStream.setComment(comment);
+				fArchiveWriter.setComment(comment);
 			if (fJarPackage.isRefactoringAware()) {
 				Assert.isTrue(fJarPackage.areDirectoryEntriesIncluded());
 				final IPath metaPath= new Path(JarPackagerUtil.getMetaEntry());
@@ -159,7 +170,7 @@ public class JarWriter3 {
 		}
 
 		for (int i= directories.size() - 1; i >= 0; --i) {
-			fJarOutputStream.putNextEntry(directories.get(i));
+			fArchiveWriter.putEntry(directories.get(i), null);
 		}
 	}
 
@@ -207,7 +218,7 @@ public class JarWriter3 {
 		}
 
 		for (int i= directories.size() - 1; i >= 0; --i) {
-			fJarOutputStream.putNextEntry(directories.get(i));
+			fArchiveWriter.putEntry(directories.get(i), null);
 		}
 	}
 
@@ -223,14 +234,16 @@ public class JarWriter3 {
 	 */
 	protected void addFile(IFile resource, IPath path) throws IOException, CoreException {
 		JarEntry newEntry= new JarEntry(path.toString().replace(File.separatorChar, '/'));
-		byte[] readBuffer= new byte[4096];
 
-		if (fJarPackage.isCompressed())
+		InputStream contentStream;
+		if (fJarPackage.isCompressed()) {
 			newEntry.setMethod(ZipEntry.DEFLATED);
 			// Entry is filled automatically.
-		else {
+			contentStream= resource.getContents(false);
+		} else {
 			newEntry.setMethod(ZipEntry.STORED);
-			JarPackagerUtil.calculateCrcAndSize(newEntry, resource.getContents(false), readBuffer);
+			// the crc and size are computed while the content is written
+			contentStream= resource.getContents(false);
 		}
 
 		long lastModified= System.currentTimeMillis();
@@ -244,14 +257,13 @@ public class JarWriter3 {
 		// Set modification time
 		newEntry.setTime(lastModified);
 
-		InputStream contentStream = resource.getContents(false);
-
 		addEntry(newEntry, contentStream);
 	}
 
 	/**
 	 * Write the given entry describing the given content to the
-	 * current archive
+	 * current archive. The crc and size of a stored entry are computed
+	 * if they are not set.
 	 *
 	 * @param   entry            the entry to write
 	 * @param   content          the content to write
@@ -261,24 +273,26 @@ public class JarWriter3 {
 	 * @since 3.4
 	 */
 	protected void addEntry(JarEntry entry, InputStream content) throws IOException {
-		byte[] readBuffer= new byte[4096];
-		try {
-			fJarOutputStream.putNextEntry(entry);
-			int count;
-			while ((count= content.read(readBuffer, 0, readBuffer.length)) != -1)
-				fJarOutputStream.write(readBuffer, 0, count);
-		} finally  {
-			if (content != null)
-				content.close();
-
-			/*
-			 * Commented out because some JREs throw an NPE if a stream
-			 * is closed twice. This works because
-			 * a) putNextEntry closes the previous entry
-			 * b) closing the stream closes the last entry
-			 */
-			// fJarOutputStream.closeEntry();
-		}
+		fArchiveWriter.putEntry(entry, content);
+	}
+
+	/**
+	 * Writes the given entry of an archive to the current archive. If
+	 * both entries are compressed, the compressed content is copied
+	 * without decompressing and compressing it again.
+	 *
+	 * @param   entry            the entry to write
+	 * @param   archive          the archive to copy the content from
+	 * @param   archiveEntry     the entry of the archive to copy
+	 *
+	 * @throws IOException       If an I/O error occurred
+	 *
+	 * @since 3.12
+	 */
+	protected void addEntry(JarEntry entry, ZipFile archive, ZipEntry archiveEntry) throws IOException {
+		if (entry.getMethod() == ZipEntry.DEFLATED && fArchiveWriter.putRawEntry(entry, new File(archive.getName()), archiveEntry))
+			return;
+		addEntry(entry, archive.getInputStream(archiveEntry));
 	}
 
 	/**
@@ -383,15 +397,25 @@ public class JarWriter3 {
 	 *             used to return information in the status object.
 	 */
 	public void close() throws CoreException {
-		if (fJarOutputStream != null)
+		if (fArchiveWriter != null)
 			try {
-				fJarOutputStream.close();
+				fArchiveWriter.close();
+				if (JavaPlugin.DEBUG_JAR_EXPORT)
+					traceStatistics();
 				registerInWorkspaceIfNeeded();
 			} catch (IOException ex) {
 				throw JarPackagerUtil.createCoreException(ex.getLocalizedMessage(), ex);
 			}
 	}
 
+	private void traceStatistics() {
+		long time= Math.max(1, System.currentTimeMillis() - fStartTime);
+		long kiloBytes= fArchiveWriter.getContentSize() / 1024;
+		JavaPlugin.trace("/debug/JarExport", "JarWriter: " + fJarPackage.getAbsoluteJarLocation() + ", " + fArchiveWriter.getEntryCount() + " entries (" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				+ fArchiveWriter.getCopiedEntryCount() + " copied), " + kiloBytes + " KB (" + fArchiveWriter.getArchiveSize() / 1024 + " KB compressed) in " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ time + " ms (" + (kiloBytes * 1000 / time) + " KB/s)"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
 	private void registerInWorkspaceIfNeeded() {
 		IPath jarPath= fJarPackage.getAbsoluteJarLocation();
 		IProject[] projects= ResourcesPlugin.getWorkspace().getRoot().getProjects();
@@ -462,26 +486,11 @@ public class JarWriter3 {
 		Assert.isNotNull(file);
 		Assert.isNotNull(path);
 		final JarEntry entry= new JarEntry(path.toString().replace(File.separatorChar, '/'));
-		byte[] buffer= new byte[4096];
 		if (data.isCompressed())
 			entry.setMethod(ZipEntry.DEFLATED);
-		else {
+		else
 			entry.setMethod(ZipEntry.STORED);
-			JarPackagerUtil.calculateCrcAndSize(entry, new BufferedInputStream(new FileInputStream(file)), buffer);
-		}
 		entry.setTime(System.currentTimeMillis());
-		final InputStream stream= new BufferedInputStream(new FileInputStream(file));
-		try {
-			fJarOutputStream.putNextEntry(entry);
-			int count;
-			while ((count= stream.read(buffer, 0, buffer.length)) != -1)
-				fJarOutputStream.write(buffer, 0, count);
-		} finally {
-			try {
-				stream.close();
-			} catch (IOException exception) {
-				// Do nothing
-			}
-		}
+		fArchiveWriter.putEntry(entry, new BufferedInputStream(new FileInputStream(file)));
 	}
 }
@@ -13,6 +13,7 @@
 package org.eclipse.ltk.core.refactoring.tests.participants;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.core.runtime.CoreException;
@@ -46,6 +47,8 @@ public class ElementRenameProcessor extends RenameProcessor {
 	public static final String MAIN_EXEC= "mainExec";
 	public static final String MAIN_EXEC_UNDO= "mainExecUndo";
 
+	public static CheckConditionsContext fContext;
+
 	Object[] fElements;
 
 	int fOptions;
@@ -65,6 +68,11 @@ public class ElementRenameProcessor extends RenameProcessor {
 					fElements= new Object[] { new ElementWorkingPre() };
 			} else
 				fElements= new Object[] { new ElementWorking() };
+		} else if ((options & ElementRenameRefactoring.THREAD_SAFE) != 0) {
+			if ((options & ElementRenameRefactoring.FATAL) != 0)
+				fElements= new Object[] { new ElementThreadSafe(true), new ElementThreadSafe(false) };
+			else
+				fElements= new Object[] { new ElementThreadSafe(false) };
 		} else
 			fElements= new Object[] { new Element() };
 	}
@@ -96,6 +104,7 @@ public class ElementRenameProcessor extends RenameProcessor {
 
 	@Override
 	public RefactoringStatus checkFinalConditions(IProgressMonitor pm, CheckConditionsContext context) throws CoreException, OperationCanceledException {
+		fContext= context;
 		return new RefactoringStatus();
 	}
 
@@ -129,6 +138,13 @@ public class ElementRenameProcessor extends RenameProcessor {
 
 	@Override
 	public RefactoringParticipant[] loadParticipants(RefactoringStatus status, SharableParticipants sharedParticipants) throws CoreException {
-		return ParticipantManager.loadRenameParticipants(new RefactoringStatus(), this, fElements[0], new RenameArguments("test", true), new String[0], new SharableParticipants());
+		if (fElements.length == 1)
+			return ParticipantManager.loadRenameParticipants(new RefactoringStatus(), this, fElements[0], new RenameArguments("test", true), new String[0], new SharableParticipants());
+
+		List<RefactoringParticipant> result= new ArrayList<>();
+		for (int i= 0; i < fElements.length; i++) {
+			result.addAll(Arrays.asList(ParticipantManager.loadRenameParticipants(new RefactoringStatus(), this, fElements[i], new RenameArguments("test", true), new String[0], new SharableParticipants())));
+		}
+		return result.toArray(new RefactoringParticipant[result.size()]);
 	}
 }
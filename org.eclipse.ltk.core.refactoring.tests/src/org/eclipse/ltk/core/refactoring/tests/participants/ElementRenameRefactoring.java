@@ -28,6 +28,12 @@ public class ElementRenameRefactoring extends RenameRefactoring {
 	// Use the participants that are never disabled
 	public static final int ALWAYS_ENABLED= 0x08;
 
+	// Use the thread-safe participant
+	public static final int THREAD_SAFE= 0x10;
+
+	// Let the first of two thread-safe participants report a fatal error
+	public static final int FATAL= 0x20;
+
 	public ElementRenameRefactoring(int options) {
 		super(new ElementRenameProcessor(options));
 	}
@@ -0,0 +1,23 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests.participants;
+
+/**
+ * The element to be renamed by thread-safe participants
+ */
+public class ElementThreadSafe {
+
+	final boolean fFatal;
+
+	public ElementThreadSafe(boolean fatal) {
+		fFatal= fatal;
+	}
+}
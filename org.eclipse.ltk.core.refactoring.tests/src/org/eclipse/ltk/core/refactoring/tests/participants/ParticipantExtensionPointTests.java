@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests.participants;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import org.eclipse.ltk.core.refactoring.RefactoringCore;
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.ltk.core.refactoring.participants.ParticipantExtensionPoint;
+import org.eclipse.ltk.core.refactoring.participants.RefactoringParticipant;
+import org.eclipse.ltk.core.refactoring.participants.RenameArguments;
+import org.eclipse.ltk.core.refactoring.participants.RenameParticipant;
+import org.eclipse.ltk.core.refactoring.participants.SharableParticipants;
+
+public class ParticipantExtensionPointTests extends TestCase {
+
+	private ParticipantExtensionPoint fExtensionPoint;
+	private ElementRenameProcessor fProcessor;
+
+	@Override
+	protected void setUp() throws Exception {
+		fExtensionPoint= new ParticipantExtensionPoint(RefactoringCore.ID_PLUGIN, "renameParticipants", RenameParticipant.class);
+		fProcessor= new ElementRenameProcessor(ElementRenameRefactoring.WORKING);
+	}
+
+	public void testEnablementEvaluatedPerElement() throws Exception {
+		// the second element of the same type uses the remembered enablement result
+		for (int i= 0; i < 2; i++) {
+			RefactoringParticipant[] participants= fExtensionPoint.getParticipants(new RefactoringStatus(), fProcessor, new ElementThreadSafe(), new RenameArguments("test", true), null, new String[0], new SharableParticipants());
+			Assert.assertEquals(1, participants.length);
+			Assert.assertTrue(participants[0] instanceof ThreadSafeParticipant);
+		}
+		RefactoringParticipant[] participants= fExtensionPoint.getParticipants(new RefactoringStatus(), fProcessor, new Object(), new RenameArguments("test", true), null, new String[0], new SharableParticipants());
+		Assert.assertEquals(0, participants.length);
+	}
+}
@@ -20,6 +20,8 @@ public class ParticipantTests {
 		suite.addTestSuite(FailingParticipantTests.class);
 		suite.addTestSuite(SharedTextChangeTests.class);
 		suite.addTestSuite(CancelingParticipantTests.class);
+		suite.addTestSuite(ThreadSafeParticipantTests.class);
+		suite.addTestSuite(ParticipantExtensionPointTests.class);
 		return suite;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests.participants;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.NullChange;
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.ltk.core.refactoring.participants.CheckConditionsContext;
+import org.eclipse.ltk.core.refactoring.participants.RenameParticipant;
+import org.eclipse.ltk.core.refactoring.participants.ResourceChangeChecker;
+
+public class ThreadSafeParticipant extends RenameParticipant {
+
+	public static final IFile CHANGED_FILE= ResourcesPlugin.getWorkspace().getRoot().getFile(new Path("/ThreadSafeParticipant/A.txt"));
+
+	public static Thread fCheckingThread;
+	public static CheckConditionsContext fContext;
+	public static final AtomicInteger fCheckCount= new AtomicInteger();
+
+	private ElementThreadSafe fElement;
+
+	public static void reset() {
+		fCheckingThread= null;
+		fContext= null;
+		fCheckCount.set(0);
+	}
+
+	@Override
+	protected boolean initialize(Object element) {
+		fElement= (ElementThreadSafe) element;
+		return true;
+	}
+
+	@Override
+	public String getName() {
+		return ThreadSafeParticipant.class.getName();
+	}
+
+	@Override
+	public RefactoringStatus checkConditions(IProgressMonitor pm, CheckConditionsContext context) throws OperationCanceledException {
+		fCheckingThread= Thread.currentThread();
+		fContext= context;
+		fCheckCount.incrementAndGet();
+		if (fElement.fFatal)
+			return RefactoringStatus.createFatalErrorStatus(getName());
+		context.getChecker(ResourceChangeChecker.class).getDeltaFactory().change(CHANGED_FILE);
+		return RefactoringStatus.createWarningStatus(getName());
+	}
+
+	@Override
+	public Change createChange(IProgressMonitor pm) throws CoreException, OperationCanceledException {
+		return new NullChange(getName());
+	}
+}
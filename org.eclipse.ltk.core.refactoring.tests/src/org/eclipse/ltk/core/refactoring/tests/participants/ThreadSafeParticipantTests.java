@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests.participants;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.core.resources.IResourceDelta;
+
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.ltk.core.refactoring.RefactoringStatusEntry;
+import org.eclipse.ltk.core.refactoring.participants.CheckConditionsContext;
+import org.eclipse.ltk.core.refactoring.participants.ResourceChangeChecker;
+
+public class ThreadSafeParticipantTests extends TestCase {
+
+	public void testConditionsCheckedConcurrently() throws Exception {
+		ThreadSafeParticipant.reset();
+		ElementRenameRefactoring refactoring= new ElementRenameRefactoring(ElementRenameRefactoring.THREAD_SAFE);
+		refactoring.checkInitialConditions(new NullProgressMonitor());
+		RefactoringStatus status= refactoring.checkFinalConditions(new NullProgressMonitor());
+
+		Assert.assertNotNull("Thread-safe participant not checked", ThreadSafeParticipant.fCheckingThread);
+		Assert.assertNotSame("Thread-safe participant checked in calling thread", Thread.currentThread(), ThreadSafeParticipant.fCheckingThread);
+
+		RefactoringStatusEntry[] entries= status.getEntries();
+		Assert.assertEquals(1, entries.length);
+		Assert.assertEquals(ThreadSafeParticipant.class.getName(), entries[0].getMessage());
+
+		refactoring.createChange(new NullProgressMonitor());
+	}
+
+	public void testCheckersMerged() throws Exception {
+		ThreadSafeParticipant.reset();
+		ElementRenameRefactoring refactoring= new ElementRenameRefactoring(ElementRenameRefactoring.THREAD_SAFE);
+		refactoring.checkInitialConditions(new NullProgressMonitor());
+		refactoring.checkFinalConditions(new NullProgressMonitor());
+
+		// the participant doesn't share the checkers of the processor
+		CheckConditionsContext context= ElementRenameProcessor.fContext;
+		Assert.assertNotNull(ThreadSafeParticipant.fContext);
+		Assert.assertNotSame(context, ThreadSafeParticipant.fContext);
+		Assert.assertNotSame(context.getChecker(ResourceChangeChecker.class), ThreadSafeParticipant.fContext.getChecker(ResourceChangeChecker.class));
+
+		// but its changes have been merged into them
+		IResourceDelta delta= context.getChecker(ResourceChangeChecker.class).getDeltaFactory().getDelta();
+		IResourceDelta fileDelta= delta.findMember(ThreadSafeParticipant.CHANGED_FILE.getFullPath());
+		Assert.assertNotNull(fileDelta);
+		Assert.assertEquals(IResourceDelta.CHANGED, fileDelta.getKind());
+		Assert.assertTrue((fileDelta.getFlags() & IResourceDelta.CONTENT) != 0);
+	}
+
+	public void testFatalErrorSkipsLaterParticipants() throws Exception {
+		ThreadSafeParticipant.reset();
+		ElementRenameRefactoring refactoring= new ElementRenameRefactoring(ElementRenameRefactoring.THREAD_SAFE | ElementRenameRefactoring.FATAL);
+		refactoring.checkInitialConditions(new NullProgressMonitor());
+		RefactoringStatus status= refactoring.checkFinalConditions(new NullProgressMonitor());
+
+		Assert.assertTrue(status.hasFatalError());
+		Assert.assertEquals(1, status.getEntries().length);
+		// both participants are checked in the same job, the second one after the fatal error
+		Assert.assertEquals(1, ThreadSafeParticipant.fCheckCount.get());
+
+		// the changes of the ignored participant are not merged either
+		IResourceDelta delta= ElementRenameProcessor.fContext.getChecker(ResourceChangeChecker.class).getDeltaFactory().getDelta();
+		Assert.assertNull(delta.findMember(ThreadSafeParticipant.CHANGED_FILE.getFullPath()));
+	}
+}
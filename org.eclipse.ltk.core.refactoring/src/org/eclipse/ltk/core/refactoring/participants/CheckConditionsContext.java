@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -129,6 +129,39 @@ public class CheckConditionsContext {
 		return result;
 	}
 
+	/*
+	 * Returns an empty context with checkers of the same types as this context, so that
+	 * participants can be checked concurrently without sharing the checkers. Returns
+	 * null if a checker can't be merged back into this context.
+	 */
+	/* package */ CheckConditionsContext createLocalContext() throws CoreException {
+		CheckConditionsContext result= new CheckConditionsContext();
+		for (Iterator<IConditionChecker> iter= fCheckers.values().iterator(); iter.hasNext();) {
+			Class<? extends IConditionChecker> clazz= iter.next().getClass();
+			if (clazz == ValidateEditChecker.class) {
+				result.add(new ValidateEditChecker(null));
+			} else if (clazz == ResourceChangeChecker.class) {
+				result.add(new ResourceChangeChecker());
+			} else {
+				return null;
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Adds what the checkers of a context created by createLocalContext() have collected
+	 * to the checkers of this context.
+	 */
+	/* package */ void merge(CheckConditionsContext localContext) throws CoreException {
+		ValidateEditChecker validateEditChecker= localContext.getChecker(ValidateEditChecker.class);
+		if (validateEditChecker != null)
+			getChecker(ValidateEditChecker.class).addFiles(validateEditChecker.getFiles());
+		ResourceChangeChecker resourceChangeChecker= localContext.getChecker(ResourceChangeChecker.class);
+		if (resourceChangeChecker != null)
+			getChecker(ResourceChangeChecker.class).addChanges(resourceChangeChecker);
+	}
+
 	private void mergeResourceOperationAndValidateEdit() throws CoreException {
 		ValidateEditChecker validateEditChecker= getChecker(ValidateEditChecker.class);
 		if (validateEditChecker == null)
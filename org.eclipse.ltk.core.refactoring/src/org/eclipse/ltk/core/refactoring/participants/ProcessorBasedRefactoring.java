@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,9 +13,11 @@
 package org.eclipse.ltk.core.refactoring.participants;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -25,8 +27,10 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.PerformanceStats;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -61,6 +65,8 @@ public class ProcessorBasedRefactoring extends Refactoring {
 	private static final String PERF_CHECK_CONDITIONS= "org.eclipse.ltk.core.refactoring/perf/participants/checkConditions"; //$NON-NLS-1$
 	private static final String PERF_CREATE_CHANGES= "org.eclipse.ltk.core.refactoring/perf/participants/createChanges"; //$NON-NLS-1$
 
+	private static final boolean DEBUG_PARTICIPANTS= "true".equalsIgnoreCase(Platform.getDebugOption("org.eclipse.ltk.core.refactoring/debug/participants")); //$NON-NLS-1$ //$NON-NLS-2$
+
 	private RefactoringProcessor fProcessor;
 
 	private List<RefactoringParticipant> fParticipants;
@@ -244,31 +250,7 @@ public class ProcessorBasedRefactoring extends Refactoring {
 		IProgressMonitor sm= new SubProgressMonitor(pm, 2);
 
 		sm.beginTask("", fParticipants.size()); //$NON-NLS-1$
-		for (Iterator<RefactoringParticipant> iter= fParticipants.iterator(); iter.hasNext() && !result.hasFatalError(); ) {
-
-			RefactoringParticipant participant= iter.next();
-
-			final PerformanceStats stats= PerformanceStats.getStats(PERF_CHECK_CONDITIONS, getName() + ", " + participant.getName()); //$NON-NLS-1$
-			stats.startRun();
-
-			try {
-				result.merge(participant.checkConditions(new SubProgressMonitor(sm, 1), context));
-			} catch (OperationCanceledException e) {
-				throw e;
-			} catch (RuntimeException e) {
-				// remove the participant so that it will be ignored during change execution.
-				RefactoringCorePlugin.log(e);
-				result.merge(RefactoringStatus.createErrorStatus(Messages.format(
-					RefactoringCoreMessages.ProcessorBasedRefactoring_check_condition_participant_failed,
-					participant.getName())));
-				iter.remove();
-			}
-
-			stats.endRun();
-
-			if (sm.isCanceled())
-				throw new OperationCanceledException();
-		}
+		checkParticipantConditions(result, context, sm);
 		sm.done();
 		if (result.hasFatalError()) {
 			pm.done();
@@ -295,17 +277,21 @@ public class ProcessorBasedRefactoring extends Refactoring {
 		List<Change> changes= new ArrayList<>();
 		List<Change> preChanges= new ArrayList<>();
 		Map<Change, RefactoringParticipant> participantMap= new HashMap<>();
-		for (Iterator<RefactoringParticipant> iter= fParticipants.iterator(); iter.hasNext();) {
+		long[] times= new long[fParticipants.size()];
+		int index= 0;
+		for (Iterator<RefactoringParticipant> iter= fParticipants.iterator(); iter.hasNext(); index++) {
 			final RefactoringParticipant participant= iter.next();
 
 			try {
 				final PerformanceStats stats= PerformanceStats.getStats(PERF_CREATE_CHANGES, getName() + ", " + participant.getName()); //$NON-NLS-1$
+				long start= System.currentTimeMillis();
 				stats.startRun();
 
 				Change preChange= participant.createPreChange(new SubProgressMonitor(pm, 1));
 				Change change= participant.createChange(new SubProgressMonitor(pm, 1));
 
 				stats.endRun();
+				times[index]= System.currentTimeMillis() - start;
 
 				if (preChange != null) {
 					if (fPreChangeParticipants == null)
@@ -336,6 +322,8 @@ public class ProcessorBasedRefactoring extends Refactoring {
 		}
 
 		fTextChangeMap= null;
+		if (DEBUG_PARTICIPANTS)
+			printParticipantCost("create changes", fParticipants, times, null); //$NON-NLS-1$
 
 		Change postChange= getProcessor().postCreateChange(
 			changes.toArray(new Change[changes.size()]),
@@ -410,6 +398,214 @@ public class ProcessorBasedRefactoring extends Refactoring {
 
 	//---- Helper methods ---------------------------------------------------------------------
 
+	/**
+	 * The results of the condition checking of the participants, indexed like the participants.
+	 */
+	private static final class ParticipantConditions {
+		private final String fRefactoringName;
+		private final RefactoringParticipant[] fParticipants;
+		private final RefactoringStatus[] fStatus;
+		private final RuntimeException[] fFailures;
+		private final long[] fTimes;
+		/** the smallest index of a participant that reported a fatal error */
+		private volatile int fFatalIndex= Integer.MAX_VALUE;
+
+		ParticipantConditions(String refactoringName, RefactoringParticipant[] participants) {
+			fRefactoringName= refactoringName;
+			fParticipants= participants;
+			fStatus= new RefactoringStatus[participants.length];
+			fFailures= new RuntimeException[participants.length];
+			fTimes= new long[participants.length];
+		}
+
+		void check(int index, CheckConditionsContext context, IProgressMonitor pm) {
+			RefactoringParticipant participant= fParticipants[index];
+			final PerformanceStats stats= PerformanceStats.getStats(PERF_CHECK_CONDITIONS, fRefactoringName + ", " + participant.getName()); //$NON-NLS-1$
+			long start= System.currentTimeMillis();
+			stats.startRun();
+			try {
+				RefactoringStatus status= participant.checkConditions(pm, context);
+				fStatus[index]= status;
+				if (status.hasFatalError())
+					fatalErrorAt(index);
+			} catch (RuntimeException e) {
+				fFailures[index]= e;
+			}
+			stats.endRun();
+			fTimes[index]= System.currentTimeMillis() - start;
+		}
+
+		private synchronized void fatalErrorAt(int index) {
+			if (index < fFatalIndex)
+				fFatalIndex= index;
+		}
+
+		/*
+		 * The results of participants after a fatal error are ignored, so they are not checked.
+		 */
+		boolean isObsolete(int index) {
+			return index > fFatalIndex;
+		}
+	}
+
+	/**
+	 * Checks the conditions of the participants created by one thread-safe participant
+	 * descriptor, one after the other, concurrently with the other participants. The
+	 * participants get their own condition checkers, which are merged into the checkers
+	 * of the refactoring's context in the calling thread.
+	 */
+	private static final class ConditionCheckJob extends Job {
+		private final ParticipantConditions fConditions;
+		private final CheckConditionsContext fContext;
+		private final IProgressMonitor fParentMonitor;
+		private final List<Integer> fIndices= new ArrayList<>();
+		private volatile int fCurrent;
+		private boolean fMerged;
+
+		ConditionCheckJob(String name, ParticipantConditions conditions, CheckConditionsContext context, IProgressMonitor parentMonitor) {
+			super(name);
+			fConditions= conditions;
+			fContext= context;
+			fParentMonitor= parentMonitor;
+			setSystem(true);
+		}
+
+		void add(int index) {
+			fIndices.add(Integer.valueOf(index));
+		}
+
+		/*
+		 * Called in the calling thread once the job is done.
+		 */
+		void mergeInto(CheckConditionsContext context) throws CoreException {
+			if (!fMerged) {
+				fMerged= true;
+				context.merge(fContext);
+			}
+		}
+
+		@Override
+		protected IStatus run(final IProgressMonitor monitor) {
+			IProgressMonitor pm= new NullProgressMonitor() {
+				@Override
+				public boolean isCanceled() {
+					return super.isCanceled() || monitor.isCanceled() || fParentMonitor.isCanceled() || fConditions.isObsolete(fCurrent);
+				}
+			};
+			for (Iterator<Integer> iter= fIndices.iterator(); iter.hasNext();) {
+				int index= iter.next().intValue();
+				fCurrent= index;
+				if (pm.isCanceled()) {
+					fConditions.fFailures[index]= new OperationCanceledException();
+				} else {
+					fConditions.check(index, fContext, pm);
+				}
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	/*
+	 * Participants of thread-safe descriptors are checked in background jobs while the others are
+	 * checked in the calling thread. The results are merged in the order of the participants. After
+	 * a fatal error, the jobs skip the participants that follow it and their results are ignored.
+	 */
+	private void checkParticipantConditions(RefactoringStatus result, CheckConditionsContext context, IProgressMonitor pm) throws CoreException {
+		RefactoringParticipant[] participants= fParticipants.toArray(new RefactoringParticipant[fParticipants.size()]);
+		ParticipantConditions conditions= new ParticipantConditions(getName(), participants);
+
+		ConditionCheckJob[] jobs= new ConditionCheckJob[participants.length];
+		Map<ParticipantDescriptor, ConditionCheckJob> descriptorJobs= new LinkedHashMap<>();
+		for (int i= 0; i < participants.length; i++) {
+			ParticipantDescriptor descriptor= participants[i].getDescriptor();
+			if (descriptor != null && descriptor.isThreadSafe()) {
+				ConditionCheckJob job= descriptorJobs.get(descriptor);
+				if (job == null) {
+					CheckConditionsContext localContext= context.createLocalContext();
+					if (localContext == null)
+						continue; // the processor added checkers that can't be used concurrently
+					job= new ConditionCheckJob(Messages.format(RefactoringCoreMessages.ProcessorBasedRefactoring_check_conditions_job, participants[i].getName()), conditions, localContext, pm);
+					descriptorJobs.put(descriptor, job);
+				}
+				job.add(i);
+				jobs[i]= job;
+			}
+		}
+		for (Iterator<ConditionCheckJob> iter= descriptorJobs.values().iterator(); iter.hasNext();) {
+			iter.next().schedule();
+		}
+
+		List<RefactoringParticipant> failed= new ArrayList<>();
+		try {
+			for (int i= 0; i < participants.length && !result.hasFatalError(); i++) {
+				RefactoringParticipant participant= participants[i];
+				if (jobs[i] != null) {
+					join(jobs[i]);
+					jobs[i].mergeInto(context);
+					pm.worked(1);
+				} else {
+					conditions.check(i, context, new SubProgressMonitor(pm, 1));
+				}
+
+				RuntimeException failure= conditions.fFailures[i];
+				if (failure instanceof OperationCanceledException) {
+					throw (OperationCanceledException) failure;
+				} else if (failure != null) {
+					// remove the participant so that it will be ignored during change execution.
+					RefactoringCorePlugin.log(failure);
+					result.merge(RefactoringStatus.createErrorStatus(Messages.format(
+						RefactoringCoreMessages.ProcessorBasedRefactoring_check_condition_participant_failed,
+						participant.getName())));
+					failed.add(participant);
+				} else {
+					result.merge(conditions.fStatus[i]);
+				}
+
+				if (pm.isCanceled())
+					throw new OperationCanceledException();
+			}
+		} finally {
+			// jobs that are still running only check participants whose results are ignored
+			for (Iterator<ConditionCheckJob> iter= descriptorJobs.values().iterator(); iter.hasNext();) {
+				iter.next().cancel();
+			}
+			for (Iterator<ConditionCheckJob> iter= descriptorJobs.values().iterator(); iter.hasNext();) {
+				try {
+					iter.next().join();
+				} catch (InterruptedException e) {
+					// the job only checks conditions, no need to wait for it
+				}
+			}
+		}
+		if (!failed.isEmpty())
+			fParticipants.removeAll(failed);
+
+		if (DEBUG_PARTICIPANTS)
+			printParticipantCost("check conditions", Arrays.asList(participants), conditions.fTimes, jobs); //$NON-NLS-1$
+	}
+
+	private static void join(Job job) {
+		try {
+			job.join();
+		} catch (InterruptedException e) {
+			throw new OperationCanceledException();
+		}
+	}
+
+	private void printParticipantCost(String operation, List<RefactoringParticipant> participants, long[] times, Job[] jobs) {
+		long total= 0;
+		StringBuffer buffer= new StringBuffer();
+		for (int i= 0; i < times.length; i++) {
+			total+= times[i];
+			buffer.append("\t").append(participants.get(i).getName()).append(": ").append(times[i]).append(" ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			if (jobs != null && jobs[i] != null)
+				buffer.append(" (concurrent)"); //$NON-NLS-1$
+			buffer.append('\n');
+		}
+		System.out.println("ProcessorBasedRefactoring: " + getName() + ", " + operation + ", participants: " + total + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		System.out.print(buffer.toString());
+	}
+
 	private CheckConditionsContext createCheckConditionsContext() throws CoreException {
 		CheckConditionsContext result= new CheckConditionsContext();
 		result.add(new ValidateEditChecker(getValidationContext()));
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,12 +15,16 @@ import java.util.List;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.resources.mapping.IResourceChangeDescriptionFactory;
 import org.eclipse.core.resources.mapping.ResourceChangeValidator;
 
@@ -109,6 +113,55 @@ public class ResourceChangeChecker implements IConditionChecker {
 		return result.toArray(new IFile[result.size()]);
 	}
 
+	/*
+	 * Records the resource operations collected by the given checker in this checker.
+	 */
+	/* package */ void addChanges(ResourceChangeChecker checker) throws CoreException {
+		final IWorkspaceRoot workspaceRoot= ResourcesPlugin.getWorkspace().getRoot();
+		checker.fDeltaFactory.getDelta().accept(new IResourceDeltaVisitor() {
+			@Override
+			public boolean visit(IResourceDelta delta) throws CoreException {
+				IResource resource= delta.getResource();
+				int flags= delta.getFlags();
+				switch (delta.getKind()) {
+					case IResourceDelta.ADDED:
+						if (isSet(flags, IResourceDelta.MOVED_FROM)) {
+							fDeltaFactory.move(getResource(workspaceRoot, resource.getType(), delta.getMovedFromPath()), resource.getFullPath());
+							return false;
+						} else if (isSet(flags, IResourceDelta.COPIED_FROM)) {
+							fDeltaFactory.copy(getResource(workspaceRoot, resource.getType(), delta.getMovedFromPath()), resource.getFullPath());
+							return false;
+						}
+						fDeltaFactory.create(resource);
+						return true;
+					case IResourceDelta.REMOVED:
+						if (!isSet(flags, IResourceDelta.MOVED_TO))
+							fDeltaFactory.delete(resource);
+						return false;
+					case IResourceDelta.CHANGED:
+						if (resource.getType() == IResource.FILE && isSet(flags, IResourceDelta.CONTENT))
+							fDeltaFactory.change((IFile) resource);
+						else if (resource.getType() == IResource.PROJECT && isSet(flags, IResourceDelta.OPEN))
+							fDeltaFactory.close((IProject) resource);
+						return true;
+					default:
+						return true;
+				}
+			}
+		});
+	}
+
+	private static IResource getResource(IWorkspaceRoot root, int type, IPath path) {
+		switch (type) {
+			case IResource.FILE:
+				return root.getFile(path);
+			case IResource.FOLDER:
+				return root.getFolder(path);
+			default:
+				return root.getProject(path.lastSegment());
+		}
+	}
+
 	private static final boolean isSet(int flags, int flag) {
 		return (flags & flag) == flag;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -89,6 +89,10 @@ public class ValidateEditChecker implements IConditionChecker {
 		fFiles.addAll(Arrays.asList(files));
 	}
 
+	/* package */ IFile[] getFiles() {
+		return fFiles.toArray(new IFile[fFiles.size()]);
+	}
+
 	@Override
 	public RefactoringStatus check(IProgressMonitor monitor) throws CoreException {
 		IResource[] resources= fFiles.toArray(new IResource[fFiles.size()]);
@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.eclipse.ltk.internal.core.refactoring;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.eclipse.core.expressions.EvaluationResult;
 import org.eclipse.core.expressions.Expression;
 import org.eclipse.core.expressions.ExpressionConverter;
@@ -31,10 +35,23 @@ public class ParticipantDescriptor {
 	private IConfigurationElement fConfigurationElement;
 	private boolean fEnabled;
 
+	private Expression fEnablement; // lazily initialized
+	/**
+	 * Evaluation results of the enablement, keyed by element type, affected natures and processor
+	 * identifier. <code>null</code> if the enablement depends on more than that.
+	 */
+	private Map<String, Boolean> fEnablementResults;
+
 	private static final String ID= "id"; //$NON-NLS-1$
 	private static final String NAME= "name";  //$NON-NLS-1$
 	private static final String CLASS= "class"; //$NON-NLS-1$
 	private static final String PROCESS_ON_CANCEL= "processOnCancel";  //$NON-NLS-1$
+	private static final String THREAD_SAFE= "threadSafe";  //$NON-NLS-1$
+
+	private static final String VARIABLE= "variable"; //$NON-NLS-1$
+	private static final String ELEMENT_VARIABLE= "element"; //$NON-NLS-1$
+	private static final String AFFECTED_NATURES_VARIABLE= "affectedNatures"; //$NON-NLS-1$
+	private static final String PROCESSOR_IDENTIFIER_VARIABLE= "processorIdentifier"; //$NON-NLS-1$
 
 	public ParticipantDescriptor(IConfigurationElement element) {
 		fConfigurationElement= element;
@@ -68,12 +85,7 @@ public class ParticipantDescriptor {
 	}
 
 	public boolean matches(IEvaluationContext context, IParticipantDescriptorFilter filter, RefactoringStatus status) throws CoreException {
-		IConfigurationElement[] elements= fConfigurationElement.getChildren(ExpressionTagNames.ENABLEMENT);
-		if (elements.length == 0)
-			return false;
-		Assert.isTrue(elements.length == 1);
-		Expression exp= ExpressionConverter.getDefault().perform(elements[0]);
-		if (!convert(exp.evaluate(context)))
+		if (!isEnabled(context))
 			return false;
 		if (filter != null && !filter.select(fConfigurationElement, status))
 			return false;
@@ -81,6 +93,87 @@ public class ParticipantDescriptor {
 		return true;
 	}
 
+	/*
+	 * Evaluates the enablement. The result is remembered if the enablement only checks the type of
+	 * the element, the affected natures and the processor identifier.
+	 */
+	private boolean isEnabled(IEvaluationContext context) throws CoreException {
+		Expression exp;
+		String key= null;
+		synchronized (this) {
+			if (fEnablement == null) {
+				IConfigurationElement[] elements= fConfigurationElement.getChildren(ExpressionTagNames.ENABLEMENT);
+				if (elements.length == 0)
+					return false;
+				Assert.isTrue(elements.length == 1);
+				fEnablement= ExpressionConverter.getDefault().perform(elements[0]);
+				if (isTypeBased(elements[0], true))
+					fEnablementResults= new HashMap<>();
+			}
+			exp= fEnablement;
+			if (fEnablementResults != null) {
+				key= getEnablementKey(context);
+				Boolean result= fEnablementResults.get(key);
+				if (result != null)
+					return result.booleanValue();
+			}
+		}
+		boolean result= convert(exp.evaluate(context));
+		if (key != null) {
+			synchronized (this) {
+				fEnablementResults.put(key, Boolean.valueOf(result));
+			}
+		}
+		return result;
+	}
+
+	private static String getEnablementKey(IEvaluationContext context) {
+		Object element= context.getVariable(ELEMENT_VARIABLE);
+		Object natures= context.getVariable(AFFECTED_NATURES_VARIABLE);
+		Object processor= context.getVariable(PROCESSOR_IDENTIFIER_VARIABLE);
+		StringBuffer buffer= new StringBuffer();
+		buffer.append(element != null ? element.getClass().getName() : null);
+		buffer.append('|');
+		if (natures instanceof List) {
+			for (Object nature : (List<?>) natures) {
+				buffer.append(nature).append(',');
+			}
+		}
+		buffer.append('|');
+		buffer.append(processor);
+		return buffer.toString();
+	}
+
+	/*
+	 * Returns whether the expression only uses instanceof checks on the element, and the
+	 * affected natures and the processor identifier.
+	 */
+	private static boolean isTypeBased(IConfigurationElement expression, boolean elementScope) {
+		String name= expression.getName();
+		if (ExpressionTagNames.WITH.equals(name)) {
+			String variable= expression.getAttribute(VARIABLE);
+			if (ELEMENT_VARIABLE.equals(variable)) {
+				elementScope= true;
+			} else if (AFFECTED_NATURES_VARIABLE.equals(variable) || PROCESSOR_IDENTIFIER_VARIABLE.equals(variable)) {
+				elementScope= false;
+			} else {
+				return false;
+			}
+		} else if (ExpressionTagNames.EQUALS.equals(name) || ExpressionTagNames.ITERATE.equals(name) || ExpressionTagNames.COUNT.equals(name)) {
+			if (elementScope)
+				return false;
+		} else if (!ExpressionTagNames.ENABLEMENT.equals(name) && !ExpressionTagNames.AND.equals(name) && !ExpressionTagNames.OR.equals(name)
+				&& !ExpressionTagNames.NOT.equals(name) && !ExpressionTagNames.INSTANCEOF.equals(name)) {
+			return false;
+		}
+		IConfigurationElement[] children= expression.getChildren();
+		for (int i= 0; i < children.length; i++) {
+			if (!isTypeBased(children[i], elementScope))
+				return false;
+		}
+		return true;
+	}
+
 	public RefactoringParticipant createParticipant() throws CoreException {
 		return (RefactoringParticipant)fConfigurationElement.createExecutableExtension(CLASS);
 	}
@@ -100,6 +193,15 @@ public class ParticipantDescriptor {
 		return Boolean.valueOf(attr).booleanValue();
 	}
 
+	/**
+	 * @return <code>true</code> if the conditions of the participant can be checked concurrently
+	 *         with other participants
+	 * @since 3.7
+	 */
+	public boolean isThreadSafe() {
+		return Boolean.valueOf(fConfigurationElement.getAttribute(THREAD_SAFE)).booleanValue();
+	}
+
 	private boolean convert(EvaluationResult eval) {
 		if (eval == EvaluationResult.FALSE)
 			return false;
@@ -132,6 +132,8 @@ public final class RefactoringCoreMessages extends NLS {
 
 	public static String ProcessorBasedRefactoring_check_condition_participant_failed;
 
+	public static String ProcessorBasedRefactoring_check_conditions_job;
+
 	public static String ProcessorBasedRefactoring_create_change;
 
 	public static String ProcessorBasedRefactoring_final_conditions;